@@ -1,5 +1,8 @@
 -- Script de Instalação - Sistema de Gestão de Projetos
 -- Execute este script como administrador do MySQL
+--
+-- ATENÇÃO: este script apaga o banco gestao_projetos. Para atualizar uma
+-- instalação existente sem perder dados, execute database/upgrade.sql
 
 -- 1. Criar banco de dados
 DROP DATABASE IF EXISTS gestao_projetos;
@@ -12,7 +15,7 @@ USE gestao_projetos;
 -- FLUSH PRIVILEGES;
 
 -- 3. Executar o script principal de criação das tabelas
-SOURCE database_script.sql;
+SOURCE java.sql;
 
 -- 4. Verificar instalação
 SELECT 'Instalação concluída com sucesso!' as status;
@@ -4,6 +4,10 @@
 CREATE DATABASE IF NOT EXISTS gestao_projetos CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci;
 USE gestao_projetos;
 
+-- As tabelas principais têm uma coluna "versao", incrementada a cada
+-- gravação: as alterações feitas pelos formulários só são aplicadas se a
+-- versão ainda for a que foi lida (controle otimista de concorrência)
+
 -- Tabela de Usuários
 CREATE TABLE usuarios (
     id INT AUTO_INCREMENT PRIMARY KEY,
@@ -14,7 +18,8 @@ CREATE TABLE usuarios (
     perfil ENUM('ADMINISTRADOR', 'GERENTE', 'COLABORADOR') NOT NULL,
     ativo BOOLEAN DEFAULT TRUE,
     data_cadastro TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    data_atualizacao TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+    data_atualizacao TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    versao INT NOT NULL DEFAULT 0
 );
 
 -- Tabela de Projetos
@@ -30,6 +35,7 @@ CREATE TABLE projetos (
     ativo BOOLEAN DEFAULT TRUE,
     data_cadastro TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     data_atualizacao TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    versao INT NOT NULL DEFAULT 0,
     FOREIGN KEY (gerente_id) REFERENCES usuarios(id)
 );
 
@@ -47,6 +53,7 @@ CREATE TABLE tarefas (
     ativo BOOLEAN DEFAULT TRUE,
     data_cadastro TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     data_atualizacao TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    versao INT NOT NULL DEFAULT 0,
     FOREIGN KEY (projeto_id) REFERENCES projetos(id),
     FOREIGN KEY (responsavel_id) REFERENCES usuarios(id)
 );
@@ -63,8 +70,118 @@ CREATE TABLE usuario_projeto (
     UNIQUE KEY uk_usuario_projeto (usuario_id, projeto_id)
 );
 
+-- Tabela de Dependências entre Tarefas (a tarefa só começa após a conclusão daquela de que depende)
+CREATE TABLE tarefa_dependencia (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    tarefa_id INT NOT NULL,
+    depende_de_id INT NOT NULL,
+    data_cadastro TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (tarefa_id) REFERENCES tarefas(id),
+    FOREIGN KEY (depende_de_id) REFERENCES tarefas(id),
+    UNIQUE KEY uk_tarefa_dependencia (tarefa_id, depende_de_id)
+);
+
+-- Histórico de transições de status das tarefas (somente inclusão).
+-- Status gravados como inteiros: 0 = criação, 1 = PENDENTE, 2 = EM_EXECUCAO,
+-- 3 = CONCLUIDA, 4 = CANCELADA; momento em segundos desde 1970 (UTC).
+-- Sem chave estrangeira: o histórico permanece quando a tarefa é arquivada
+CREATE TABLE tarefa_evento (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    tarefa_id INT NOT NULL,
+    projeto_id INT NOT NULL,
+    status_anterior TINYINT UNSIGNED NOT NULL,
+    status_novo TINYINT UNSIGNED NOT NULL,
+    momento INT UNSIGNED NOT NULL
+);
+
+-- Arquivo das tarefas inativas e das concluídas/canceladas antigas, movidas
+-- para fora de "tarefas" pelo Arquivamento (mesmas colunas, sem chaves
+-- estrangeiras; o id é mantido para a restauração)
+CREATE TABLE tarefas_arquivo (
+    id INT PRIMARY KEY,
+    titulo VARCHAR(150) NOT NULL,
+    descricao TEXT,
+    projeto_id INT NOT NULL,
+    responsavel_id INT NOT NULL,
+    status ENUM('PENDENTE', 'EM_EXECUCAO', 'CONCLUIDA', 'CANCELADA'),
+    prioridade ENUM('BAIXA', 'MEDIA', 'ALTA'),
+    data_prevista_conclusao DATE,
+    data_conclusao_real DATE NULL,
+    ativo BOOLEAN,
+    data_cadastro TIMESTAMP NULL,
+    data_atualizacao TIMESTAMP NULL,
+    versao INT NOT NULL DEFAULT 0,
+    data_arquivamento TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Dependências das tarefas arquivadas
+CREATE TABLE tarefa_dependencia_arquivo (
+    id INT PRIMARY KEY,
+    tarefa_id INT NOT NULL,
+    depende_de_id INT NOT NULL,
+    data_cadastro TIMESTAMP NULL
+);
+
+-- Operações em cascata sobre projetos (cancelamento, arquivamento e troca de
+-- gerente), processadas em lotes de tarefas em ordem de id. ultima_tarefa_id
+-- é o cursor para a retomada; executor identifica a instância do aplicativo
+-- que está processando e data_atualizacao, o último lote gravado
+CREATE TABLE projeto_operacao (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    projeto_id INT NOT NULL,
+    tipo ENUM('CANCELAMENTO', 'ARQUIVAMENTO', 'TROCA_GERENTE') NOT NULL,
+    gerente_anterior_id INT NULL,
+    gerente_novo_id INT NULL,
+    ultima_tarefa_id INT NOT NULL DEFAULT 0,
+    processadas INT NOT NULL DEFAULT 0,
+    total INT NOT NULL DEFAULT 0,
+    status ENUM('PENDENTE', 'EXECUTANDO', 'CONCLUIDA', 'FALHA') NOT NULL DEFAULT 'PENDENTE',
+    executor VARCHAR(40) NULL,
+    usuario_id INT NULL,
+    erro VARCHAR(500) NULL,
+    data_cadastro TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    data_atualizacao TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (projeto_id) REFERENCES projetos(id)
+);
+
+-- Diretório das tarefas quando elas ficam em bases separadas
+-- (tarefas.shards.urls): aloca o id de cada tarefa, único entre as bases, e
+-- guarda o projeto, que determina a base onde a tarefa está
+CREATE TABLE tarefa_shard (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    projeto_id INT NOT NULL
+);
+
+-- Séries históricas de métricas de projetos e equipes.
+-- Cada ponto é o valor ao final do período (hora, dia ou semana) e só é gravado
+-- quando muda em relação ao ponto anterior da série, com um ponto de referência
+-- periódico; a leitura repete o último valor nos períodos sem ponto.
+-- escopo: 0 = geral, 1 = projeto, 2 = usuário; resolucao: 0 = hora, 1 = dia,
+-- 2 = semana; inicio em segundos desde 1970
+CREATE TABLE metrica_ponto (
+    escopo TINYINT UNSIGNED NOT NULL,
+    entidade_id INT NOT NULL,
+    metrica TINYINT UNSIGNED NOT NULL,
+    resolucao TINYINT UNSIGNED NOT NULL,
+    inicio INT UNSIGNED NOT NULL,
+    valor INT NOT NULL,
+    PRIMARY KEY (escopo, entidade_id, metrica, resolucao, inicio)
+);
+
+-- Trilha de auditoria das gravações (sem chave estrangeira: o registro
+-- sobrevive à entidade). campos: um "campo=valor" por linha com os valores gravados
+CREATE TABLE auditoria (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    entidade VARCHAR(20) NOT NULL,
+    entidade_id INT NOT NULL,
+    operacao VARCHAR(20) NOT NULL,
+    usuario_id INT NULL,
+    momento DATETIME(3) NOT NULL,
+    campos TEXT
+);
+
 -- Inserção de dados iniciais
--- Senha padrão: "123456" (você deve implementar hash no código Java)
+-- Senha padrão: "123456" (texto puro; convertida para PBKDF2 no primeiro login)
 INSERT INTO usuarios (nome, email, login, senha, perfil) VALUES
 ('Administrador Sistema', 'admin@empresa.com', 'admin', '123456', 'ADMINISTRADOR'),
 ('João Silva', 'joao.silva@empresa.com', 'joao', '123456', 'GERENTE'),
@@ -105,6 +222,21 @@ CREATE INDEX idx_projetos_status ON projetos(status);
 CREATE INDEX idx_tarefas_projeto ON tarefas(projeto_id);
 CREATE INDEX idx_tarefas_responsavel ON tarefas(responsavel_id);
 CREATE INDEX idx_tarefas_status ON tarefas(status);
+CREATE INDEX idx_dependencia_depende_de ON tarefa_dependencia(depende_de_id);
+CREATE INDEX idx_evento_projeto_momento ON tarefa_evento(projeto_id, momento);
+CREATE INDEX idx_evento_tarefa_momento ON tarefa_evento(tarefa_id, momento);
+CREATE INDEX idx_tarefas_arquivo_projeto ON tarefas_arquivo(projeto_id);
+CREATE INDEX idx_dependencia_arquivo_tarefa ON tarefa_dependencia_arquivo(tarefa_id);
+CREATE INDEX idx_metrica_resolucao_inicio ON metrica_ponto(resolucao, inicio);
+CREATE INDEX idx_auditoria_entidade ON auditoria(entidade, entidade_id, momento);
+CREATE INDEX idx_auditoria_momento ON auditoria(entidade, momento);
+CREATE INDEX idx_operacao_projeto ON projeto_operacao(projeto_id, status);
+CREATE INDEX idx_operacao_status ON projeto_operacao(status, data_atualizacao);
+
+-- Índices para a atualização incremental das listas (watermark em data_atualizacao)
+CREATE INDEX idx_usuarios_atualizacao ON usuarios(data_atualizacao);
+CREATE INDEX idx_projetos_atualizacao ON projetos(data_atualizacao);
+CREATE INDEX idx_tarefas_atualizacao ON tarefas(data_atualizacao);
 
 -- Views úteis para relatórios
 CREATE VIEW vw_projetos_resumo AS
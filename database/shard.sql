@@ -0,0 +1,75 @@
+-- Base de tarefas separada (tarefas.shards.urls): as tarefas dos projetos
+-- atribuídos a esta base, com o histórico, as dependências e o arquivo.
+-- Projetos, usuários e o diretório tarefa_shard ficam no banco principal, por
+-- isso não há chaves estrangeiras para eles; o id das tarefas é alocado no
+-- diretório (sem AUTO_INCREMENT) para ser único entre as bases.
+-- Criada automaticamente na primeira conexão, se ainda não existir.
+
+CREATE TABLE tarefas (
+    id INT PRIMARY KEY,
+    titulo VARCHAR(150) NOT NULL,
+    descricao TEXT,
+    projeto_id INT NOT NULL,
+    responsavel_id INT NOT NULL,
+    status ENUM('PENDENTE', 'EM_EXECUCAO', 'CONCLUIDA', 'CANCELADA') DEFAULT 'PENDENTE',
+    prioridade ENUM('BAIXA', 'MEDIA', 'ALTA') DEFAULT 'MEDIA',
+    data_prevista_conclusao DATE,
+    data_conclusao_real DATE NULL,
+    ativo BOOLEAN DEFAULT TRUE,
+    data_cadastro TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    data_atualizacao TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    versao INT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE tarefa_dependencia (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    tarefa_id INT NOT NULL,
+    depende_de_id INT NOT NULL,
+    data_cadastro TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (tarefa_id) REFERENCES tarefas(id),
+    FOREIGN KEY (depende_de_id) REFERENCES tarefas(id),
+    UNIQUE KEY uk_tarefa_dependencia (tarefa_id, depende_de_id)
+);
+
+CREATE TABLE tarefa_evento (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    tarefa_id INT NOT NULL,
+    projeto_id INT NOT NULL,
+    status_anterior TINYINT UNSIGNED NOT NULL,
+    status_novo TINYINT UNSIGNED NOT NULL,
+    momento INT UNSIGNED NOT NULL
+);
+
+CREATE TABLE tarefas_arquivo (
+    id INT PRIMARY KEY,
+    titulo VARCHAR(150) NOT NULL,
+    descricao TEXT,
+    projeto_id INT NOT NULL,
+    responsavel_id INT NOT NULL,
+    status ENUM('PENDENTE', 'EM_EXECUCAO', 'CONCLUIDA', 'CANCELADA'),
+    prioridade ENUM('BAIXA', 'MEDIA', 'ALTA'),
+    data_prevista_conclusao DATE,
+    data_conclusao_real DATE NULL,
+    ativo BOOLEAN,
+    data_cadastro TIMESTAMP NULL,
+    data_atualizacao TIMESTAMP NULL,
+    versao INT NOT NULL DEFAULT 0,
+    data_arquivamento TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE tarefa_dependencia_arquivo (
+    id INT PRIMARY KEY,
+    tarefa_id INT NOT NULL,
+    depende_de_id INT NOT NULL,
+    data_cadastro TIMESTAMP NULL
+);
+
+CREATE INDEX idx_tarefas_projeto ON tarefas(projeto_id);
+CREATE INDEX idx_tarefas_responsavel ON tarefas(responsavel_id);
+CREATE INDEX idx_tarefas_status ON tarefas(status);
+CREATE INDEX idx_tarefas_atualizacao ON tarefas(data_atualizacao);
+CREATE INDEX idx_dependencia_depende_de ON tarefa_dependencia(depende_de_id);
+CREATE INDEX idx_evento_projeto_momento ON tarefa_evento(projeto_id, momento);
+CREATE INDEX idx_evento_tarefa_momento ON tarefa_evento(tarefa_id, momento);
+CREATE INDEX idx_tarefas_arquivo_projeto ON tarefas_arquivo(projeto_id);
+CREATE INDEX idx_dependencia_arquivo_tarefa ON tarefa_dependencia_arquivo(tarefa_id);
@@ -0,0 +1,157 @@
+-- Atualização de uma instalação existente - Sistema de Gestão de Projetos
+-- Leva um banco criado por versões anteriores de java.sql ao esquema atual,
+-- sem apagar dados. Pode ser executado mais de uma vez: cada coluna, tabela
+-- e índice só é criado se ainda não existir.
+--
+--   mysql -u root -p gestao_projetos < database/upgrade.sql
+--
+-- As bases de tarefas separadas (tarefas.shards.urls) são criadas já no
+-- formato atual por shard.sql e não precisam deste script.
+
+USE gestao_projetos;
+
+-- O MySQL não tem ADD COLUMN / CREATE INDEX IF NOT EXISTS: os procedimentos
+-- abaixo consultam o information_schema antes e são removidos no final
+DROP PROCEDURE IF EXISTS upgrade_adicionar_coluna;
+DROP PROCEDURE IF EXISTS upgrade_criar_indice;
+
+DELIMITER $$
+
+CREATE PROCEDURE upgrade_adicionar_coluna(IN tabela VARCHAR(64), IN coluna VARCHAR(64), IN definicao VARCHAR(255))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.COLUMNS
+                   WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = tabela AND COLUMN_NAME = coluna) THEN
+        SET @ddl = CONCAT('ALTER TABLE ', tabela, ' ADD COLUMN ', coluna, ' ', definicao);
+        PREPARE comando FROM @ddl;
+        EXECUTE comando;
+        DEALLOCATE PREPARE comando;
+    END IF;
+END$$
+
+CREATE PROCEDURE upgrade_criar_indice(IN tabela VARCHAR(64), IN indice VARCHAR(64), IN colunas VARCHAR(255))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.STATISTICS
+                   WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = tabela AND INDEX_NAME = indice) THEN
+        SET @ddl = CONCAT('CREATE INDEX ', indice, ' ON ', tabela, '(', colunas, ')');
+        PREPARE comando FROM @ddl;
+        EXECUTE comando;
+        DEALLOCATE PREPARE comando;
+    END IF;
+END$$
+
+DELIMITER ;
+
+-- Controle otimista de concorrência (as linhas existentes começam na versão 0)
+CALL upgrade_adicionar_coluna('usuarios', 'versao', 'INT NOT NULL DEFAULT 0');
+CALL upgrade_adicionar_coluna('projetos', 'versao', 'INT NOT NULL DEFAULT 0');
+CALL upgrade_adicionar_coluna('tarefas', 'versao', 'INT NOT NULL DEFAULT 0');
+
+-- Tabelas novas (mesmas definições de java.sql)
+CREATE TABLE IF NOT EXISTS tarefa_dependencia (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    tarefa_id INT NOT NULL,
+    depende_de_id INT NOT NULL,
+    data_cadastro TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (tarefa_id) REFERENCES tarefas(id),
+    FOREIGN KEY (depende_de_id) REFERENCES tarefas(id),
+    UNIQUE KEY uk_tarefa_dependencia (tarefa_id, depende_de_id)
+);
+
+CREATE TABLE IF NOT EXISTS tarefa_evento (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    tarefa_id INT NOT NULL,
+    projeto_id INT NOT NULL,
+    status_anterior TINYINT UNSIGNED NOT NULL,
+    status_novo TINYINT UNSIGNED NOT NULL,
+    momento INT UNSIGNED NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS tarefas_arquivo (
+    id INT PRIMARY KEY,
+    titulo VARCHAR(150) NOT NULL,
+    descricao TEXT,
+    projeto_id INT NOT NULL,
+    responsavel_id INT NOT NULL,
+    status ENUM('PENDENTE', 'EM_EXECUCAO', 'CONCLUIDA', 'CANCELADA'),
+    prioridade ENUM('BAIXA', 'MEDIA', 'ALTA'),
+    data_prevista_conclusao DATE,
+    data_conclusao_real DATE NULL,
+    ativo BOOLEAN,
+    data_cadastro TIMESTAMP NULL,
+    data_atualizacao TIMESTAMP NULL,
+    versao INT NOT NULL DEFAULT 0,
+    data_arquivamento TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS tarefa_dependencia_arquivo (
+    id INT PRIMARY KEY,
+    tarefa_id INT NOT NULL,
+    depende_de_id INT NOT NULL,
+    data_cadastro TIMESTAMP NULL
+);
+
+CREATE TABLE IF NOT EXISTS projeto_operacao (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    projeto_id INT NOT NULL,
+    tipo ENUM('CANCELAMENTO', 'ARQUIVAMENTO', 'TROCA_GERENTE') NOT NULL,
+    gerente_anterior_id INT NULL,
+    gerente_novo_id INT NULL,
+    ultima_tarefa_id INT NOT NULL DEFAULT 0,
+    processadas INT NOT NULL DEFAULT 0,
+    total INT NOT NULL DEFAULT 0,
+    status ENUM('PENDENTE', 'EXECUTANDO', 'CONCLUIDA', 'FALHA') NOT NULL DEFAULT 'PENDENTE',
+    executor VARCHAR(40) NULL,
+    usuario_id INT NULL,
+    erro VARCHAR(500) NULL,
+    data_cadastro TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    data_atualizacao TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (projeto_id) REFERENCES projetos(id)
+);
+
+CREATE TABLE IF NOT EXISTS tarefa_shard (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    projeto_id INT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS metrica_ponto (
+    escopo TINYINT UNSIGNED NOT NULL,
+    entidade_id INT NOT NULL,
+    metrica TINYINT UNSIGNED NOT NULL,
+    resolucao TINYINT UNSIGNED NOT NULL,
+    inicio INT UNSIGNED NOT NULL,
+    valor INT NOT NULL,
+    PRIMARY KEY (escopo, entidade_id, metrica, resolucao, inicio)
+);
+
+CREATE TABLE IF NOT EXISTS auditoria (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    entidade VARCHAR(20) NOT NULL,
+    entidade_id INT NOT NULL,
+    operacao VARCHAR(20) NOT NULL,
+    usuario_id INT NULL,
+    momento DATETIME(3) NOT NULL,
+    campos TEXT
+);
+
+-- Índices novos
+CALL upgrade_criar_indice('tarefa_dependencia', 'idx_dependencia_depende_de', 'depende_de_id');
+CALL upgrade_criar_indice('tarefa_evento', 'idx_evento_projeto_momento', 'projeto_id, momento');
+CALL upgrade_criar_indice('tarefa_evento', 'idx_evento_tarefa_momento', 'tarefa_id, momento');
+CALL upgrade_criar_indice('tarefas_arquivo', 'idx_tarefas_arquivo_projeto', 'projeto_id');
+CALL upgrade_criar_indice('tarefa_dependencia_arquivo', 'idx_dependencia_arquivo_tarefa', 'tarefa_id');
+CALL upgrade_criar_indice('metrica_ponto', 'idx_metrica_resolucao_inicio', 'resolucao, inicio');
+CALL upgrade_criar_indice('auditoria', 'idx_auditoria_entidade', 'entidade, entidade_id, momento');
+CALL upgrade_criar_indice('auditoria', 'idx_auditoria_momento', 'entidade, momento');
+CALL upgrade_criar_indice('projeto_operacao', 'idx_operacao_projeto', 'projeto_id, status');
+CALL upgrade_criar_indice('projeto_operacao', 'idx_operacao_status', 'status, data_atualizacao');
+CALL upgrade_criar_indice('usuarios', 'idx_usuarios_atualizacao', 'data_atualizacao');
+CALL upgrade_criar_indice('projetos', 'idx_projetos_atualizacao', 'data_atualizacao');
+CALL upgrade_criar_indice('tarefas', 'idx_tarefas_atualizacao', 'data_atualizacao');
+
+DROP PROCEDURE upgrade_adicionar_coluna;
+DROP PROCEDURE upgrade_criar_indice;
+
+-- Para passar a usar bases de tarefas separadas (tarefas.shards.urls), copie
+-- depois as tarefas existentes com com.gestao.projetos.util.MigracaoShards
+
+SELECT 'Atualização concluída com sucesso!' as status;
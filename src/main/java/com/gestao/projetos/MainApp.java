@@ -4,10 +4,26 @@ import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
+import javafx.scene.control.ButtonType;
 import javafx.stage.Stage;
 
+import com.gestao.projetos.util.AlertaPrazos;
+import com.gestao.projetos.util.AppBootstrap;
+import com.gestao.projetos.util.Arquivamento;
+import com.gestao.projetos.util.Auditoria;
+import com.gestao.projetos.util.ChangeFeed;
 import com.gestao.projetos.util.DatabaseConnection;
+import com.gestao.projetos.util.FxmlCache;
+import com.gestao.projetos.util.MetricasHistorico;
+import com.gestao.projetos.util.OperacoesProjeto;
+import com.gestao.projetos.util.Rastreamento;
+import com.gestao.projetos.util.RoteadorLeitura;
 import com.gestao.projetos.util.SessionManager;
+import com.gestao.projetos.util.Shards;
+import com.gestao.projetos.util.StartupTimeline;
+import com.gestao.projetos.util.Telemetria;
+
+import java.util.Optional;
 
 /**
  * Classe principal da aplicação Sistema de Gestão de Projetos e Equipes
@@ -22,16 +38,48 @@ public class MainApp extends Application {
     @Override
     public void start(Stage stage) {
         primaryStage = stage;
+        StartupTimeline.mark("fx.start");
 
         // Teste de conexão com banco de dados
         if (!DatabaseConnection.testConnection()) {
             showError("Erro de Conexão",
                     "Não foi possível conectar ao banco de dados.\n" +
-                            "Verifique se o MySQL está rodando e as configurações estão corretas.");
+                            "Verifique se " + DatabaseConnection.getDialeto().getVerificacao() + ".");
             return;
         }
 
+        // A auditoria acompanha toda a execução (inclusive a troca de senha no login)
+        Auditoria.start();
+
+        // Leituras de listagens e relatórios nas réplicas (db.replicas.urls)
+        RoteadorLeitura.start();
+
+        // Métricas para o Prometheus (telemetria.enabled)
+        Telemetria.start();
+
+        // Rastros das ações da interface até o SQL (rastreamento.enabled)
+        Rastreamento.start();
+
         showLoginScreen();
+        StartupTimeline.mark("login.exibido");
+
+        // Aquece pool, FXML e mapeamentos enquanto o usuário digita as credenciais
+        AppBootstrap.start();
+    }
+
+    @Override
+    public void stop() {
+        ChangeFeed.stop();
+        AlertaPrazos.stop();
+        MetricasHistorico.stop();
+        Arquivamento.stop();
+        OperacoesProjeto.stop();
+        Auditoria.stop();
+        RoteadorLeitura.stop();
+        Shards.encerrar();
+        Telemetria.stop();
+        Rastreamento.stop();
+        DatabaseConnection.closeConnection();
     }
 
     /**
@@ -41,9 +89,14 @@ public class MainApp extends Application {
         try {
             // Limpa a sessão atual
             SessionManager.clearSession();
+            ChangeFeed.stop();
+            AlertaPrazos.stop();
+            MetricasHistorico.stop();
+            Arquivamento.stop();
+            OperacoesProjeto.stop();
 
-            FXMLLoader loader = new FXMLLoader(MainApp.class.getResource("/fxml/Login.fxml"));
-            Scene scene = new Scene(loader.load());
+            FXMLLoader loader = FxmlCache.loader("/fxml/Login.fxml");
+            Scene scene = new Scene(FxmlCache.load(loader));
 
             primaryStage.setTitle("Sistema de Gestão de Projetos - Login");
             primaryStage.setScene(scene);
@@ -62,8 +115,9 @@ public class MainApp extends Application {
      */
     public static void showMainMenu() {
         try {
-            FXMLLoader loader = new FXMLLoader(MainApp.class.getResource("/fxml/MainMenu.fxml"));
-            Scene scene = new Scene(loader.load());
+            StartupTimeline.mark("login.autenticado");
+            FXMLLoader loader = FxmlCache.loader("/fxml/MainMenu.fxml");
+            Scene scene = new Scene(FxmlCache.load(loader));
 
             primaryStage.setTitle("Sistema de Gestão de Projetos - Menu Principal");
             primaryStage.setScene(scene);
@@ -71,12 +125,32 @@ public class MainApp extends Application {
             primaryStage.setMaximized(true);
             primaryStage.centerOnScreen();
 
+            ChangeFeed.start();
+            AlertaPrazos.start();
+            // Uma única sessão administrativa basta para manter o arquivo e as séries em dia
+            if (SessionManager.isAdministrador()) {
+                MetricasHistorico.start();
+                Arquivamento.start();
+            }
+            OperacoesProjeto.start();
+
         } catch (Exception e) {
             e.printStackTrace();
             showError("Erro", "Erro ao carregar menu principal: " + e.getMessage());
         }
     }
 
+    /**
+     * Exibe o diálogo e aguarda a resposta; dentro de um rastro, a espera
+     * pelo usuário fica em um trecho próprio
+     */
+    private static Optional<ButtonType> aguardar(Alert alert) {
+        try (Rastreamento.Trecho trecho = Rastreamento.iniciar("dialogo")) {
+            trecho.atributo("ui.dialogo", alert.getTitle());
+            return alert.showAndWait();
+        }
+    }
+
     /**
      * Exibe dialog de erro
      */
@@ -85,7 +159,7 @@ public class MainApp extends Application {
         alert.setTitle(title);
         alert.setHeaderText(null);
         alert.setContentText(message);
-        alert.showAndWait();
+        aguardar(alert);
     }
 
     /**
@@ -96,7 +170,7 @@ public class MainApp extends Application {
         alert.setTitle(title);
         alert.setHeaderText(null);
         alert.setContentText(message);
-        alert.showAndWait();
+        aguardar(alert);
     }
 
     /**
@@ -108,7 +182,7 @@ public class MainApp extends Application {
         alert.setHeaderText(null);
         alert.setContentText(message);
 
-        return alert.showAndWait().get() == javafx.scene.control.ButtonType.OK;
+        return aguardar(alert).get() == ButtonType.OK;
     }
 
     /**
@@ -0,0 +1,194 @@
+package com.gestao.projetos.controller;
+
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+
+import com.gestao.projetos.MainApp;
+import com.gestao.projetos.dao.ProjetoDAO;
+import com.gestao.projetos.dao.TarefaArquivoDAO;
+import com.gestao.projetos.model.Projeto;
+import com.gestao.projetos.model.Tarefa;
+import com.gestao.projetos.util.Arquivamento;
+import com.gestao.projetos.util.Rastreamento;
+
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Controller para a consulta e restauração das tarefas arquivadas
+ */
+public class ArquivoController {
+
+    private static final DateTimeFormatter FORMATO_MOMENTO = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final int LIMITE = 1000;
+
+    @FXML
+    private ComboBox<Projeto> cbProjeto;
+    @FXML
+    private Button btnRestaurar;
+    @FXML
+    private Button btnArquivar;
+    @FXML
+    private Label lblResumo;
+
+    @FXML
+    private TableView<Tarefa> tblArquivo;
+    @FXML
+    private TableColumn<Tarefa, String> colId;
+    @FXML
+    private TableColumn<Tarefa, String> colTitulo;
+    @FXML
+    private TableColumn<Tarefa, String> colProjeto;
+    @FXML
+    private TableColumn<Tarefa, String> colResponsavel;
+    @FXML
+    private TableColumn<Tarefa, String> colStatus;
+    @FXML
+    private TableColumn<Tarefa, String> colAtivo;
+    @FXML
+    private TableColumn<Tarefa, String> colAtualizacao;
+
+    private ProjetoDAO projetoDAO = new ProjetoDAO();
+    private TarefaArquivoDAO arquivoDAO = new TarefaArquivoDAO();
+
+    @FXML
+    private void initialize() {
+        colId.setCellValueFactory(cellData -> new SimpleStringProperty(String.valueOf(cellData.getValue().getId())));
+        colTitulo.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getTitulo()));
+        colProjeto.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getProjetoNome()));
+        colResponsavel.setCellValueFactory(cellData -> new SimpleStringProperty(
+                cellData.getValue().getResponsavelNome()));
+        colStatus.setCellValueFactory(cellData -> new SimpleStringProperty(
+                cellData.getValue().getStatus().getDescricao()));
+        colAtivo.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().isAtivo() ? "Sim" : "Não"));
+        colAtualizacao.setCellValueFactory(cellData -> new SimpleStringProperty(
+                cellData.getValue().getDataAtualizacao() != null
+                        ? cellData.getValue().getDataAtualizacao().format(FORMATO_MOMENTO) : ""));
+
+        btnRestaurar.disableProperty().bind(tblArquivo.getSelectionModel().selectedItemProperty().isNull());
+
+        try {
+            cbProjeto.setItems(FXCollections.observableArrayList(projetoDAO.findAll()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            MainApp.showError("Erro", "Erro ao carregar projetos: " + e.getMessage());
+        }
+        cbProjeto.valueProperty().addListener((obs, anterior, valor) -> loadArquivadas());
+
+        loadArquivadas();
+    }
+
+    /**
+     * Carrega as tarefas arquivadas do projeto selecionado em segundo plano
+     */
+    private void loadArquivadas() {
+        Projeto projeto = cbProjeto.getValue();
+        Integer projetoId = projeto != null ? projeto.getId() : null;
+        lblResumo.setText("Carregando...");
+
+        Task<List<Tarefa>> carga = new Task<>() {
+            @Override
+            protected List<Tarefa> call() throws Exception {
+                return arquivoDAO.findArquivadas(projetoId, LIMITE);
+            }
+        };
+
+        carga.setOnSucceeded(event -> {
+            // Ignora resultados de uma seleção anterior
+            if (cbProjeto.getValue() != projeto) {
+                return;
+            }
+            List<Tarefa> tarefas = carga.getValue();
+            tblArquivo.setItems(FXCollections.observableArrayList(tarefas));
+            lblResumo.setText(tarefas.size() + " tarefa(s) arquivada(s)"
+                    + (tarefas.size() == LIMITE ? " (exibindo as " + LIMITE + " mais recentes)" : ""));
+        });
+
+        carga.setOnFailed(event -> {
+            Throwable erro = carga.getException();
+            erro.printStackTrace();
+            lblResumo.setText("");
+            MainApp.showError("Erro", "Erro ao carregar tarefas arquivadas: " + erro.getMessage());
+        });
+
+        executar(carga, "arquivo-consulta");
+    }
+
+    @FXML
+    private void handleTodos() {
+        cbProjeto.setValue(null);
+    }
+
+    @FXML
+    private void handleRestaurar() {
+        Tarefa tarefa = tblArquivo.getSelectionModel().getSelectedItem();
+        if (tarefa == null || !MainApp.showConfirmation("Confirmar Restauração",
+                "Deseja restaurar a tarefa \"" + tarefa.getTitulo() + "\"? Ela voltará ativa para a lista de tarefas.")) {
+            return;
+        }
+
+        Task<Boolean> restauracao = new Task<>() {
+            @Override
+            protected Boolean call() throws Exception {
+                return Arquivamento.restaurar(tarefa.getId());
+            }
+        };
+
+        restauracao.setOnSucceeded(event -> {
+            if (!restauracao.getValue()) {
+                MainApp.showError("Erro", "A tarefa não está mais no arquivo.");
+            }
+            loadArquivadas();
+        });
+
+        restauracao.setOnFailed(event -> {
+            Throwable erro = restauracao.getException();
+            erro.printStackTrace();
+            MainApp.showError("Erro", "Erro ao restaurar tarefa: " + erro.getMessage());
+        });
+
+        executar(restauracao, "arquivo-restauracao");
+    }
+
+    @FXML
+    private void handleArquivar() {
+        btnArquivar.setDisable(true);
+        lblResumo.setText("Arquivando...");
+
+        Task<Integer> arquivamento = new Task<>() {
+            @Override
+            protected Integer call() throws Exception {
+                return Arquivamento.arquivar();
+            }
+        };
+
+        arquivamento.setOnSucceeded(event -> {
+            btnArquivar.setDisable(false);
+            MainApp.showInfo("Arquivamento", arquivamento.getValue() + " tarefa(s) movida(s) para o arquivo.");
+            loadArquivadas();
+        });
+
+        arquivamento.setOnFailed(event -> {
+            btnArquivar.setDisable(false);
+            Throwable erro = arquivamento.getException();
+            erro.printStackTrace();
+            lblResumo.setText("");
+            MainApp.showError("Erro", "Erro ao arquivar tarefas: " + erro.getMessage());
+        });
+
+        executar(arquivamento, "arquivo-manual");
+    }
+
+    private static void executar(Task<?> tarefa, String nome) {
+        Thread thread = new Thread(Rastreamento.propagar(nome, tarefa), nome);
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
@@ -0,0 +1,167 @@
+package com.gestao.projetos.controller;
+
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
+import javafx.fxml.FXML;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+
+import com.gestao.projetos.MainApp;
+import com.gestao.projetos.dao.AuditoriaDAO;
+import com.gestao.projetos.model.RegistroAuditoria;
+import com.gestao.projetos.util.Rastreamento;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Controller para a consulta da trilha de auditoria.
+ *
+ * Cada registro guarda apenas os valores gravados; o valor anterior de cada
+ * campo é o do registro anterior da mesma entidade, então a tela percorre o
+ * histórico em ordem cronológica e exibe só os campos que mudaram.
+ */
+public class AuditoriaController {
+
+    private static final DateTimeFormatter FORMATO_MOMENTO = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+    private static final int LIMITE = 1000;
+
+    /**
+     * Linha da tabela: o registro e a descrição das alterações
+     */
+    public record Linha(RegistroAuditoria registro, String alteracoes) {
+    }
+
+    @FXML
+    private ComboBox<RegistroAuditoria.Entidade> cbEntidade;
+    @FXML
+    private TextField txtEntidadeId;
+    @FXML
+    private Label lblResumo;
+
+    @FXML
+    private TableView<Linha> tblAuditoria;
+    @FXML
+    private TableColumn<Linha, String> colMomento;
+    @FXML
+    private TableColumn<Linha, String> colUsuario;
+    @FXML
+    private TableColumn<Linha, String> colEntidade;
+    @FXML
+    private TableColumn<Linha, String> colOperacao;
+    @FXML
+    private TableColumn<Linha, String> colAlteracoes;
+
+    private AuditoriaDAO auditoriaDAO = new AuditoriaDAO();
+
+    @FXML
+    private void initialize() {
+        colMomento.setCellValueFactory(cellData -> new SimpleStringProperty(
+                cellData.getValue().registro().getMomento().format(FORMATO_MOMENTO)));
+        colUsuario.setCellValueFactory(cellData -> {
+            RegistroAuditoria registro = cellData.getValue().registro();
+            return new SimpleStringProperty(registro.getUsuarioNome() != null ? registro.getUsuarioNome()
+                    : registro.getUsuarioId() != null ? "#" + registro.getUsuarioId() : "Sistema");
+        });
+        colEntidade.setCellValueFactory(cellData -> new SimpleStringProperty(
+                cellData.getValue().registro().getEntidade() + " #" + cellData.getValue().registro().getEntidadeId()));
+        colOperacao.setCellValueFactory(cellData -> new SimpleStringProperty(
+                cellData.getValue().registro().getOperacao().getDescricao()));
+        colAlteracoes.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().alteracoes()));
+
+        cbEntidade.setItems(FXCollections.observableArrayList(RegistroAuditoria.Entidade.values()));
+        cbEntidade.setValue(RegistroAuditoria.Entidade.TAREFA);
+        cbEntidade.valueProperty().addListener((obs, anterior, valor) -> handleBuscar());
+
+        handleBuscar();
+    }
+
+    @FXML
+    private void handleBuscar() {
+        RegistroAuditoria.Entidade entidade = cbEntidade.getValue();
+        Integer entidadeId;
+        try {
+            String texto = txtEntidadeId.getText().trim();
+            entidadeId = texto.isEmpty() ? null : Integer.valueOf(texto);
+        } catch (NumberFormatException e) {
+            MainApp.showError("Erro", "Código inválido: " + txtEntidadeId.getText());
+            return;
+        }
+
+        lblResumo.setText("Carregando...");
+
+        Task<List<Linha>> carga = new Task<>() {
+            @Override
+            protected List<Linha> call() throws Exception {
+                return montarLinhas(auditoriaDAO.findByEntidade(entidade, entidadeId, LIMITE));
+            }
+        };
+
+        carga.setOnSucceeded(event -> {
+            List<Linha> linhas = carga.getValue();
+            tblAuditoria.setItems(FXCollections.observableArrayList(linhas));
+            lblResumo.setText(linhas.size() + " registro(s)"
+                    + (linhas.size() == LIMITE ? " (exibindo os " + LIMITE + " mais recentes)" : ""));
+        });
+
+        carga.setOnFailed(event -> {
+            Throwable erro = carga.getException();
+            erro.printStackTrace();
+            lblResumo.setText("");
+            MainApp.showError("Erro", "Erro ao carregar auditoria: " + erro.getMessage());
+        });
+
+        Thread thread = new Thread(Rastreamento.propagar("auditoria-consulta", carga), "auditoria-consulta");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @FXML
+    private void handleLimpar() {
+        txtEntidadeId.clear();
+        handleBuscar();
+    }
+
+    /**
+     * Descreve cada registro comparando seus campos com o último valor
+     * conhecido da entidade; retorna do mais recente para o mais antigo
+     */
+    private static List<Linha> montarLinhas(List<RegistroAuditoria> registros) {
+        Map<Integer, Map<String, String>> estados = new HashMap<>();
+        List<Linha> linhas = new ArrayList<>(registros.size());
+
+        for (RegistroAuditoria registro : registros) {
+            Map<String, String> estado = estados.computeIfAbsent(registro.getEntidadeId(), id -> new HashMap<>());
+            StringBuilder alteracoes = new StringBuilder();
+
+            for (Map.Entry<String, String> campo : registro.getCampos().entrySet()) {
+                String anterior = estado.put(campo.getKey(), campo.getValue());
+                if (Objects.equals(anterior, campo.getValue())) {
+                    continue;
+                }
+                if (alteracoes.length() > 0) {
+                    alteracoes.append("; ");
+                }
+                alteracoes.append(campo.getKey()).append(": ");
+                if (anterior != null && registro.getOperacao() != RegistroAuditoria.Operacao.CRIACAO) {
+                    alteracoes.append(anterior).append(" → ");
+                }
+                alteracoes.append(campo.getValue());
+            }
+
+            linhas.add(new Linha(registro, alteracoes.length() > 0 ? alteracoes.toString() : "(sem alterações)"));
+        }
+
+        Collections.reverse(linhas);
+        return linhas;
+    }
+}
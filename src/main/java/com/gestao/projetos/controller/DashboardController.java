@@ -1,28 +1,46 @@
 package com.gestao.projetos.controller;
 
+import javafx.application.Platform;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.XYChart;
 import javafx.scene.control.Label;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TableColumn;
-import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.control.Tooltip;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import com.gestao.projetos.dao.MetricaDAO;
 import com.gestao.projetos.dao.ProjetoDAO;
 import com.gestao.projetos.dao.TarefaDAO;
 import com.gestao.projetos.dao.UsuarioDAO;
 import com.gestao.projetos.model.Projeto;
 import com.gestao.projetos.model.Tarefa;
+import com.gestao.projetos.model.Usuario;
+import com.gestao.projetos.util.AlertaPrazos;
+import com.gestao.projetos.util.AppBootstrap;
+import com.gestao.projetos.util.ChangeFeed;
+import com.gestao.projetos.util.DeltaSync;
+import com.gestao.projetos.util.Rastreamento;
 import com.gestao.projetos.util.SessionManager;
+import com.gestao.projetos.util.StartupTimeline;
 import com.gestao.projetos.MainApp;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller para o dashboard (tela inicial)
  */
 public class DashboardController {
 
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
     @FXML
     private Label lblTotalProjetos;
     @FXML
@@ -35,6 +53,16 @@ public class DashboardController {
     private Label lblTarefasEmExecucao;
     @FXML
     private Label lblTotalUsuarios;
+    @FXML
+    private Label lblAlertas;
+    @FXML
+    private Label lblTendenciaAbertas;
+    @FXML
+    private Label lblTendenciaAtrasadas;
+    @FXML
+    private LineChart<Number, Number> chartTendenciaAbertas;
+    @FXML
+    private LineChart<Number, Number> chartTendenciaAtrasadas;
 
     @FXML
     private TableView<Projeto> tblProjetosRecentes;
@@ -61,11 +89,32 @@ public class DashboardController {
     private ProjetoDAO projetoDAO = new ProjetoDAO();
     private TarefaDAO tarefaDAO = new TarefaDAO();
     private UsuarioDAO usuarioDAO = new UsuarioDAO();
+    private MetricaDAO metricaDAO = new MetricaDAO();
+
+    // Dados completos mantidos em memória e atualizados pelo ChangeFeed
+    private ObservableList<Projeto> projetos = FXCollections.observableArrayList();
+    private ObservableList<Tarefa> tarefas = FXCollections.observableArrayList();
+    private ObservableList<Usuario> usuarios = FXCollections.observableArrayList();
+    private DeltaSync<Projeto> syncProjetos = new DeltaSync<>(projetos, Projeto::getId,
+            Projeto::getDataAtualizacao, Projeto::getVersao, DeltaSync.porTexto(Projeto::getNome),
+            Projeto::isAtivo);
+    private DeltaSync<Tarefa> syncTarefas = new DeltaSync<>(tarefas, Tarefa::getId,
+            Tarefa::getDataAtualizacao, Tarefa::getVersao, DeltaSync.porTexto(Tarefa::getTitulo),
+            this::isTarefaVisivel);
+    private DeltaSync<Usuario> syncUsuarios = new DeltaSync<>(usuarios, Usuario::getId,
+            Usuario::getDataAtualizacao, Usuario::getVersao, DeltaSync.porTexto(Usuario::getNome),
+            Usuario::isAtivo);
 
     @FXML
     private void initialize() {
         setupTables();
         loadDashboardData();
+        loadTendencias();
+
+        ChangeFeed.subscribe(Projeto.class, tblProjetosRecentes, this::onProjetosAlterados);
+        ChangeFeed.subscribe(Tarefa.class, tblTarefasRecentes, this::onTarefasAlteradas);
+        ChangeFeed.subscribe(Usuario.class, tblTarefasRecentes, this::onUsuariosAlterados);
+        AlertaPrazos.subscribe(lblAlertas, this::onAlertasAlterados);
     }
 
     /**
@@ -73,38 +122,282 @@ public class DashboardController {
      */
     private void setupTables() {
         // Tabela de projetos
-        colProjetoNome.setCellValueFactory(new PropertyValueFactory<>("nome"));
-        colProjetoStatus.setCellValueFactory(new PropertyValueFactory<>("status"));
-        colProjetoGerente.setCellValueFactory(new PropertyValueFactory<>("gerenteNome"));
-        colProjetoProgresso.setCellValueFactory(new PropertyValueFactory<>("percentualConclusao"));
+        colProjetoNome.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
+                cellData.getValue().getNome()));
+        colProjetoStatus.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
+                cellData.getValue().getStatus().getDescricao()));
+        colProjetoGerente.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
+                cellData.getValue().getGerenteNome()));
+        colProjetoProgresso.setCellValueFactory(cellData -> new javafx.beans.property.SimpleObjectProperty<>(
+                cellData.getValue().getPercentualConclusao()));
 
         // Tabela de tarefas
-        colTarefaTitulo.setCellValueFactory(new PropertyValueFactory<>("titulo"));
-        colTarefaProjeto.setCellValueFactory(new PropertyValueFactory<>("projetoNome"));
-        colTarefaStatus.setCellValueFactory(new PropertyValueFactory<>("status"));
-        colTarefaResponsavel.setCellValueFactory(new PropertyValueFactory<>("responsavelNome"));
+        colTarefaTitulo.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
+                cellData.getValue().getTitulo()));
+        colTarefaProjeto.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
+                cellData.getValue().getProjetoNome()));
+        colTarefaStatus.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
+                cellData.getValue().getStatus().getDescricao()));
+        colTarefaResponsavel.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
+                cellData.getValue().getResponsavelNome()));
     }
 
     /**
-     * Carrega os dados do dashboard
+     * Carrega os dados do dashboard sem bloquear a thread do JavaFX: a tela é
+     * exibida vazia e os dados da carga iniciada no login são aplicados
+     * quando ela completar; sem essa carga, ou se ela falhar, consulta o
+     * banco em segundo plano
      */
     private void loadDashboardData() {
+        CompletableFuture<AppBootstrap.DadosDashboard> preCarga = AppBootstrap.takeDadosDashboard();
+        if (preCarga == null) {
+            consultarDados();
+            return;
+        }
+
+        preCarga.whenComplete((dados, erro) -> Platform.runLater(() -> {
+            if (erro != null) {
+                consultarDados();
+            } else {
+                exibirDados(dados);
+            }
+        }));
+    }
+
+    /**
+     * Consulta em segundo plano os dados do dashboard do usuário logado
+     */
+    private void consultarDados() {
+        Usuario usuario = SessionManager.getUsuarioLogado();
+
+        Task<AppBootstrap.DadosDashboard> carga = new Task<>() {
+            @Override
+            protected AppBootstrap.DadosDashboard call() throws Exception {
+                return AppBootstrap.consultarDadosDashboard(usuario);
+            }
+        };
+
+        carga.setOnSucceeded(event -> exibirDados(carga.getValue()));
+
+        carga.setOnFailed(event -> {
+            carga.getException().printStackTrace();
+            MainApp.showError("Erro", "Erro ao carregar dados do dashboard: " + carga.getException().getMessage());
+        });
+
+        Thread thread = new Thread(Rastreamento.propagar("dashboard-carga", carga), "dashboard-carga");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Exibe os dados carregados (na thread do JavaFX)
+     */
+    private void exibirDados(AppBootstrap.DadosDashboard dados) {
         try {
-            loadStatistics();
-            loadRecentProjects();
-            loadRecentTasks();
+            syncProjetos.carregar(dados.getProjetos());
+            syncTarefas.carregar(dados.getTarefas());
+            if (SessionManager.isAdministrador() && dados.getUsuarios() != null) {
+                syncUsuarios.carregar(dados.getUsuarios());
+            }
+
+            updateStatistics();
+            loadRecentProjects(dados.getProjetosResumo());
+            updateRecentTasks();
+
+            if (dados.isCopiaLocal()) {
+                reconciliar();
+            }
         } catch (Exception e) {
             e.printStackTrace();
             MainApp.showError("Erro", "Erro ao carregar dados do dashboard: " + e.getMessage());
         }
+
+        StartupTimeline.mark("dashboard.exibido");
+        StartupTimeline.printOnce();
+    }
+
+    /**
+     * Os dados exibidos vieram da cópia local gravada na execução anterior:
+     * busca em segundo plano o que mudou no banco desde então (a partir do
+     * watermark de cada lista) e os ids das tarefas ativas, para descartar as
+     * que foram arquivadas nesse intervalo; os usuários, que a cópia local
+     * não guarda, são lidos por inteiro
+     */
+    private void reconciliar() {
+        LocalDateTime desdeProjetos = syncProjetos.getDesde();
+        LocalDateTime desdeTarefas = syncTarefas.getDesde();
+        LocalDateTime desdeUsuarios = syncUsuarios.isCarregado() ? syncUsuarios.getDesde() : null;
+        boolean administrador = SessionManager.isAdministrador();
+
+        Task<Reconciliacao> carga = new Task<>() {
+            @Override
+            protected Reconciliacao call() throws Exception {
+                return new Reconciliacao(
+                        projetoDAO.findAlteradosDesde(desdeProjetos),
+                        tarefaDAO.findAlteradasDesde(desdeTarefas),
+                        tarefaDAO.findIdsAtivos(),
+                        !administrador ? List.of()
+                                : desdeUsuarios != null ? usuarioDAO.findAlteradosDesde(desdeUsuarios)
+                                : usuarioDAO.findAll(),
+                        administrador ? projetoDAO.findProjetosResumo() : null);
+            }
+        };
+
+        carga.setOnSucceeded(event -> {
+            Reconciliacao reconciliacao = carga.getValue();
+            syncProjetos.aplicar(reconciliacao.projetos());
+            syncTarefas.aplicar(reconciliacao.tarefas());
+            syncTarefas.reter(reconciliacao.idsTarefas());
+            if (administrador && desdeUsuarios == null) {
+                syncUsuarios.carregar(reconciliacao.usuarios());
+            } else if (administrador) {
+                syncUsuarios.aplicar(reconciliacao.usuarios());
+            }
+
+            updateStatistics();
+            updateRecentTasks();
+            try {
+                loadRecentProjects(reconciliacao.projetosResumo());
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        });
+
+        carga.setOnFailed(event -> {
+            carga.getException().printStackTrace();
+            MainApp.showError("Erro", "Erro ao atualizar os dados do dashboard: " + carga.getException().getMessage());
+        });
+
+        Thread thread = new Thread(Rastreamento.propagar("dashboard-reconciliacao", carga), "dashboard-reconciliacao");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Alterações encontradas na reconciliação com a cópia local
+     */
+    private record Reconciliacao(List<Projeto> projetos, List<Tarefa> tarefas, Set<Integer> idsTarefas,
+            List<Usuario> usuarios, List<Projeto> projetosResumo) {
     }
 
     /**
-     * Carrega estatísticas gerais
+     * Carrega em segundo plano as séries históricas dos gráficos de tendência
+     * (colaborador vê as suas; os demais, as gerais)
      */
-    private void loadStatistics() throws Exception {
+    private void loadTendencias() {
+        boolean proprias = SessionManager.isColaborador();
+        MetricaDAO.Escopo escopo = proprias ? MetricaDAO.Escopo.USUARIO : MetricaDAO.Escopo.GERAL;
+        int entidadeId = proprias ? SessionManager.getUsuarioLogado().getId() : 0;
+        LocalDateTime ate = LocalDateTime.now();
+        LocalDateTime de = ate.minusDays(90);
+
+        Task<List<List<MetricaDAO.Ponto>>> carga = new Task<>() {
+            @Override
+            protected List<List<MetricaDAO.Ponto>> call() throws Exception {
+                return List.of(
+                        metricaDAO.findSerie(escopo, entidadeId, MetricaDAO.Metrica.TAREFAS_ABERTAS, de, ate),
+                        metricaDAO.findSerie(escopo, entidadeId, MetricaDAO.Metrica.TAREFAS_ATRASADAS, de, ate));
+            }
+        };
+
+        carga.setOnSucceeded(event -> {
+            exibirTendencia(chartTendenciaAbertas, lblTendenciaAbertas, "Tarefas em aberto", carga.getValue().get(0));
+            exibirTendencia(chartTendenciaAtrasadas, lblTendenciaAtrasadas, "Tarefas atrasadas",
+                    carga.getValue().get(1));
+        });
+
+        // Sem histórico os gráficos apenas ficam vazios
+        carga.setOnFailed(event -> carga.getException().printStackTrace());
+
+        Thread thread = new Thread(Rastreamento.propagar("dashboard-tendencias", carga), "dashboard-tendencias");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void exibirTendencia(LineChart<Number, Number> grafico, Label rotulo, String titulo,
+            List<MetricaDAO.Ponto> pontos) {
+        XYChart.Series<Number, Number> serie = new XYChart.Series<>();
+        for (MetricaDAO.Ponto ponto : pontos) {
+            serie.getData().add(new XYChart.Data<>(ponto.inicio().toLocalDate().toEpochDay(), ponto.valor()));
+        }
+        grafico.getData().setAll(List.of(serie));
+        rotulo.setText(pontos.isEmpty() ? titulo + ": sem histórico"
+                : titulo + ": " + pontos.get(pontos.size() - 1).valor());
+    }
+
+    /**
+     * Indica se a tarefa entra nas estatísticas do usuário logado
+     */
+    private boolean isTarefaVisivel(Tarefa tarefa) {
+        if (!tarefa.isAtivo()) {
+            return false;
+        }
+        // Colaborador vê apenas suas tarefas
+        return !SessionManager.isColaborador()
+                || SessionManager.getUsuarioLogado().getId().equals(tarefa.getResponsavelId());
+    }
+
+    private void onProjetosAlterados(List<Projeto> alterados) {
+        syncProjetos.aplicar(alterados);
+        updateStatistics();
+        reloadRecentProjects();
+    }
+
+    private void onTarefasAlteradas(List<Tarefa> alteradas) {
+        syncTarefas.aplicar(alteradas);
+        updateStatistics();
+        updateRecentTasks();
+
+        // O percentual de conclusão vem da view de resumo
+        if (SessionManager.isAdministrador()) {
+            reloadRecentProjects();
+        }
+    }
+
+    private void onUsuariosAlterados(List<Usuario> alterados) {
+        if (SessionManager.isAdministrador()) {
+            syncUsuarios.aplicar(alterados);
+            updateStatistics();
+        }
+    }
+
+    /**
+     * Atualiza o indicador de alertas de prazo (colaborador vê apenas os seus)
+     */
+    private void onAlertasAlterados(List<AlertaPrazos.Alerta> alertas) {
+        boolean somenteProprios = SessionManager.isColaborador();
+        int usuarioId = SessionManager.getUsuarioLogado().getId();
+
+        int atrasadas = 0;
+        int vencendo = 0;
+        StringBuilder detalhes = new StringBuilder();
+        for (AlertaPrazos.Alerta alerta : alertas) {
+            if (somenteProprios && alerta.responsavelId() != usuarioId) {
+                continue;
+            }
+            if (alerta.tipo() == AlertaPrazos.Tipo.ATRASADA) {
+                atrasadas++;
+            } else {
+                vencendo++;
+            }
+            if (atrasadas + vencendo <= 10) {
+                detalhes.append(alerta.tipo().getDescricao()).append(": ").append(alerta.titulo())
+                        .append(" (").append(alerta.dataPrevista().format(FORMATO_DATA)).append(")\n");
+            }
+        }
+
+        boolean exibir = atrasadas + vencendo > 0;
+        lblAlertas.setVisible(exibir);
+        lblAlertas.setManaged(exibir);
+        lblAlertas.setText(atrasadas + " atrasada(s) · " + vencendo + " vencendo");
+        lblAlertas.setTooltip(exibir ? new Tooltip(detalhes.toString().trim()) : null);
+    }
+
+    /**
+     * Atualiza as estatísticas gerais a partir dos dados em memória
+     */
+    private void updateStatistics() {
         // Projetos
-        List<Projeto> projetos = projetoDAO.findAll();
         lblTotalProjetos.setText(String.valueOf(projetos.size()));
 
         long projetosAndamento = projetos.stream()
@@ -113,15 +406,6 @@ public class DashboardController {
         lblProjetosAndamento.setText(String.valueOf(projetosAndamento));
 
         // Tarefas
-        List<Tarefa> tarefas;
-        if (SessionManager.isColaborador()) {
-            // Colaborador vê apenas suas tarefas
-            tarefas = tarefaDAO.findByResponsavel(SessionManager.getUsuarioLogado().getId());
-        } else {
-            // Administrador e gerente veem todas
-            tarefas = tarefaDAO.findAll();
-        }
-
         lblTotalTarefas.setText(String.valueOf(tarefas.size()));
 
         long tarefasPendentes = tarefas.stream()
@@ -136,55 +420,56 @@ public class DashboardController {
 
         // Usuários (apenas para admin)
         if (SessionManager.isAdministrador()) {
-            List<com.gestao.projetos.model.Usuario> usuarios = usuarioDAO.findAll();
             lblTotalUsuarios.setText(String.valueOf(usuarios.size()));
         } else {
             lblTotalUsuarios.setText("-");
         }
     }
 
+    /**
+     * Recarrega projetos recentes após alterações
+     */
+    private void reloadRecentProjects() {
+        try {
+            loadRecentProjects(null);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Carrega projetos recentes
      */
-    private void loadRecentProjects() throws Exception {
-        List<Projeto> projetos;
+    private void loadRecentProjects(List<Projeto> projetosResumo) throws Exception {
+        List<Projeto> lista;
 
         if (SessionManager.isGerente() && !SessionManager.isAdministrador()) {
             // Gerente vê apenas seus projetos
-            projetos = projetoDAO.findByGerente(SessionManager.getUsuarioLogado().getId());
+            Integer gerenteId = SessionManager.getUsuarioLogado().getId();
+            lista = projetos.stream().filter(p -> gerenteId.equals(p.getGerenteId())).toList();
         } else if (SessionManager.isAdministrador()) {
             // Administrador vê todos
-            projetos = projetoDAO.findProjetosResumo();
+            lista = projetosResumo != null ? projetosResumo : projetoDAO.findProjetosResumo();
         } else {
             // Colaborador vê projetos onde tem tarefas
-            projetos = projetoDAO.findAll();
+            lista = projetos;
         }
 
         // Mostra apenas os 5 mais recentes
         ObservableList<Projeto> projetosRecentes = FXCollections.observableArrayList(
-                projetos.stream().limit(5).toList());
+                lista.stream().limit(5).toList());
 
         tblProjetosRecentes.setItems(projetosRecentes);
     }
 
     /**
-     * Carrega tarefas recentes
+     * Atualiza tarefas recentes
      */
-    private void loadRecentTasks() throws Exception {
-        List<Tarefa> tarefas;
-
-        if (SessionManager.isColaborador()) {
-            // Colaborador vê apenas suas tarefas
-            tarefas = tarefaDAO.findByResponsavel(SessionManager.getUsuarioLogado().getId());
-        } else {
-            // Administrador e gerente veem todas
-            tarefas = tarefaDAO.findAll();
-        }
-
+    private void updateRecentTasks() {
         // Mostra apenas as 5 mais recentes
         ObservableList<Tarefa> tarefasRecentes = FXCollections.observableArrayList(
                 tarefas.stream().limit(5).toList());
 
         tblTarefasRecentes.setItems(tarefasRecentes);
     }
-}
\ No newline at end of file
+}
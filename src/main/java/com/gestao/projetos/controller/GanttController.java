@@ -0,0 +1,599 @@
+package com.gestao.projetos.controller;
+
+import javafx.animation.AnimationTimer;
+import javafx.concurrent.Task;
+import javafx.fxml.FXML;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+import com.gestao.projetos.MainApp;
+import com.gestao.projetos.dao.TarefaDAO;
+import com.gestao.projetos.model.Tarefa;
+import com.gestao.projetos.util.IntervalTree;
+import com.gestao.projetos.util.Rastreamento;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Controller para o cronograma (Gantt) das tarefas.
+ *
+ * As barras são desenhadas em um Canvas, sem um Node por tarefa. Cada
+ * projeto é uma faixa; suas tarefas são distribuídas em trilhas sem
+ * sobreposição e indexadas em uma árvore de intervalos, de modo que cada
+ * quadro desenha apenas as faixas visíveis e, nelas, as barras da janela de
+ * tempo visível. Os eventos de rolagem e zoom só marcam a tela como suja; o
+ * desenho acontece no máximo uma vez por pulso de animação.
+ */
+public class GanttController {
+
+    private static final double LARGURA_ROTULOS = 200;
+    private static final double ALTURA_CABECALHO = 36;
+    private static final double ALTURA_FAIXA_TITULO = 20;
+    private static final double ALTURA_TRILHA = 20;
+    private static final double ALTURA_BARRA = 12;
+
+    private static final Color COR_GRADE = Color.rgb(225, 225, 225);
+    private static final Color COR_ATRASO = Color.rgb(211, 47, 47);
+    private static final Color[] COR_STATUS = {
+            Color.rgb(144, 164, 174), // Pendente
+            Color.rgb(30, 136, 229), // Em Execução
+            Color.rgb(67, 160, 71), // Concluída
+            Color.rgb(189, 189, 189) // Cancelada
+    };
+
+    /**
+     * Escalas de tempo disponíveis
+     */
+    public enum Zoom {
+        DIA("Dias", 28),
+        SEMANA("Semanas", 8),
+        MES("Meses", 2.5),
+        TRIMESTRE("Trimestres", 0.8);
+
+        private final String descricao;
+        private final double pixelsPorDia;
+
+        Zoom(String descricao, double pixelsPorDia) {
+            this.descricao = descricao;
+            this.pixelsPorDia = pixelsPorDia;
+        }
+
+        @Override
+        public String toString() {
+            return descricao;
+        }
+    }
+
+    @FXML
+    private Pane areaGantt;
+    @FXML
+    private ScrollBar sbVertical;
+    @FXML
+    private ComboBox<Zoom> cbZoom;
+    @FXML
+    private Label lblResumo;
+
+    private TarefaDAO tarefaDAO = new TarefaDAO();
+    private final Canvas canvas = new Canvas();
+    private final Font fonte = Font.font(11);
+
+    private Dados dados = new Dados();
+    private double diaInicial = LocalDate.now().toEpochDay() - 14;
+    private boolean sujo = true;
+    private double arrasteX;
+    private double arrasteY;
+
+    private final AnimationTimer pulso = new AnimationTimer() {
+        @Override
+        public void handle(long agora) {
+            if (sujo) {
+                sujo = false;
+                desenhar();
+            }
+        }
+    };
+
+    @FXML
+    private void initialize() {
+        canvas.setManaged(false);
+        canvas.widthProperty().bind(areaGantt.widthProperty());
+        canvas.heightProperty().bind(areaGantt.heightProperty());
+        areaGantt.getChildren().add(canvas);
+
+        canvas.widthProperty().addListener((obs, anterior, valor) -> marcarSujo());
+        canvas.heightProperty().addListener((obs, anterior, valor) -> {
+            atualizarRolagem();
+            marcarSujo();
+        });
+
+        cbZoom.getItems().setAll(Zoom.values());
+        cbZoom.setValue(Zoom.SEMANA);
+        cbZoom.valueProperty().addListener((obs, anterior, valor) -> {
+            // Mantém o centro da janela ao trocar a escala
+            if (anterior != null && valor != null) {
+                double largura = getLarguraTempo();
+                double centro = diaInicial + largura / 2 / anterior.pixelsPorDia;
+                diaInicial = centro - largura / 2 / valor.pixelsPorDia;
+            }
+            marcarSujo();
+        });
+
+        sbVertical.setMin(0);
+        sbVertical.setUnitIncrement(ALTURA_TRILHA);
+        sbVertical.valueProperty().addListener((obs, anterior, valor) -> marcarSujo());
+
+        canvas.setOnMousePressed(this::handleMousePressed);
+        canvas.setOnMouseDragged(this::handleMouseDragged);
+        canvas.setOnMouseMoved(this::handleMouseMoved);
+        canvas.setOnScroll(this::handleScroll);
+
+        // O pulso de desenho só roda enquanto a tela está exibida
+        areaGantt.sceneProperty().addListener((obs, cenaAnterior, novaCena) -> {
+            if (novaCena == null) {
+                pulso.stop();
+            } else {
+                pulso.start();
+            }
+        });
+        pulso.start();
+
+        loadTarefas();
+    }
+
+    /**
+     * Carrega as tarefas em segundo plano e monta as faixas
+     */
+    private void loadTarefas() {
+        lblResumo.setText("Carregando...");
+
+        Task<Dados> carga = new Task<>() {
+            @Override
+            protected Dados call() throws Exception {
+                return montar(tarefaDAO.findAll());
+            }
+        };
+
+        carga.setOnSucceeded(event -> {
+            dados = carga.getValue();
+            atualizarRolagem();
+            lblResumo.setText(dados.total + " tarefas em " + dados.faixas.size() + " projetos");
+            marcarSujo();
+        });
+
+        carga.setOnFailed(event -> {
+            Throwable erro = carga.getException();
+            erro.printStackTrace();
+            lblResumo.setText("");
+            MainApp.showError("Erro", "Erro ao carregar cronograma: " + erro.getMessage());
+        });
+
+        Thread thread = new Thread(Rastreamento.propagar("gantt", carga), "gantt");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @FXML
+    private void handleHoje() {
+        diaInicial = LocalDate.now().toEpochDay() - getLarguraTempo() / 2 / cbZoom.getValue().pixelsPorDia;
+        marcarSujo();
+    }
+
+    @FXML
+    private void handleRefresh() {
+        loadTarefas();
+    }
+
+    // ========== INTERAÇÃO ==========
+
+    private void handleMousePressed(MouseEvent event) {
+        arrasteX = event.getX();
+        arrasteY = event.getY();
+    }
+
+    private void handleMouseDragged(MouseEvent event) {
+        diaInicial -= (event.getX() - arrasteX) / cbZoom.getValue().pixelsPorDia;
+        rolar(arrasteY - event.getY());
+        arrasteX = event.getX();
+        arrasteY = event.getY();
+        marcarSujo();
+    }
+
+    private void handleScroll(ScrollEvent event) {
+        if (event.isControlDown()) {
+            int atual = cbZoom.getValue().ordinal();
+            int novo = event.getDeltaY() > 0 ? Math.max(0, atual - 1) : Math.min(Zoom.values().length - 1, atual + 1);
+            cbZoom.setValue(Zoom.values()[novo]);
+        } else if (event.isShiftDown() || event.getDeltaX() != 0) {
+            double delta = event.getDeltaX() != 0 ? event.getDeltaX() : event.getDeltaY();
+            diaInicial -= delta / cbZoom.getValue().pixelsPorDia;
+            marcarSujo();
+        } else {
+            rolar(-event.getDeltaY());
+        }
+        event.consume();
+    }
+
+    private void handleMouseMoved(MouseEvent event) {
+        int barra = barraEm(event.getX(), event.getY());
+        if (barra < 0) {
+            lblResumo.setText(dados.total + " tarefas em " + dados.faixas.size() + " projetos");
+            return;
+        }
+        DateTimeFormatter formato = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        lblResumo.setText(dados.titulos[barra] + " — " + dados.responsaveis[barra] + " ("
+                + LocalDate.ofEpochDay(dados.inicio[barra]).format(formato) + " a "
+                + LocalDate.ofEpochDay(dados.fim[barra]).format(formato) + ", "
+                + Tarefa.Status.values()[dados.status[barra]].getDescricao() + ")");
+    }
+
+    private void rolar(double pixels) {
+        sbVertical.setValue(Math.max(sbVertical.getMin(), Math.min(sbVertical.getMax(), sbVertical.getValue() + pixels)));
+    }
+
+    private void marcarSujo() {
+        sujo = true;
+    }
+
+    private double getLarguraTempo() {
+        return Math.max(1, canvas.getWidth() - LARGURA_ROTULOS);
+    }
+
+    private void atualizarRolagem() {
+        double visivel = Math.max(1, canvas.getHeight() - ALTURA_CABECALHO);
+        sbVertical.setMax(Math.max(0, dados.alturaTotal - visivel));
+        sbVertical.setVisibleAmount(visivel);
+        sbVertical.setBlockIncrement(visivel * 0.9);
+        if (sbVertical.getValue() > sbVertical.getMax()) {
+            sbVertical.setValue(sbVertical.getMax());
+        }
+    }
+
+    /**
+     * Barra sob o ponto (índice nos arrays de dados) ou -1
+     */
+    private int barraEm(double x, double y) {
+        if (x < LARGURA_ROTULOS || y < ALTURA_CABECALHO || dados.faixas.isEmpty()) {
+            return -1;
+        }
+        double conteudoY = y - ALTURA_CABECALHO + sbVertical.getValue();
+        int f = faixaEm(conteudoY);
+        Faixa faixa = dados.faixas.get(f);
+        int trilha = (int) Math.floor((conteudoY - faixa.topo - ALTURA_FAIXA_TITULO) / ALTURA_TRILHA);
+        if (trilha < 0 || trilha >= faixa.trilhas) {
+            return -1;
+        }
+        int dia = (int) Math.floor(diaInicial + (x - LARGURA_ROTULOS) / cbZoom.getValue().pixelsPorDia);
+        int[] encontrada = { -1 };
+        faixa.arvore.consultar(dia, dia, i -> {
+            if (dados.trilha[i] == trilha) {
+                encontrada[0] = i;
+            }
+        });
+        return encontrada[0];
+    }
+
+    /**
+     * Faixa que contém a coordenada vertical (busca binária nos topos)
+     */
+    private int faixaEm(double conteudoY) {
+        int l = 0;
+        int r = dados.faixas.size() - 1;
+        while (l < r) {
+            int meio = (l + r + 1) >>> 1;
+            if (dados.faixas.get(meio).topo <= conteudoY) {
+                l = meio;
+            } else {
+                r = meio - 1;
+            }
+        }
+        return l;
+    }
+
+    // ========== DESENHO ==========
+
+    private void desenhar() {
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        double largura = canvas.getWidth();
+        double altura = canvas.getHeight();
+        double pixelsPorDia = cbZoom.getValue().pixelsPorDia;
+        int diaDe = (int) Math.floor(diaInicial);
+        int diaAte = (int) Math.ceil(diaInicial + getLarguraTempo() / pixelsPorDia);
+        double rolagem = sbVertical.getValue();
+
+        g.setFill(Color.WHITE);
+        g.fillRect(0, 0, largura, altura);
+        g.setFont(fonte);
+
+        // Área das barras (recortada para não invadir rótulos e cabeçalho)
+        g.save();
+        g.beginPath();
+        g.rect(LARGURA_ROTULOS, ALTURA_CABECALHO, largura - LARGURA_ROTULOS, altura - ALTURA_CABECALHO);
+        g.clip();
+
+        desenharGrade(g, diaDe, diaAte, pixelsPorDia, altura);
+
+        int hoje = (int) LocalDate.now().toEpochDay();
+        if (!dados.faixas.isEmpty()) {
+            for (int f = faixaEm(rolagem); f < dados.faixas.size(); f++) {
+                Faixa faixa = dados.faixas.get(f);
+                double topo = ALTURA_CABECALHO + faixa.topo - rolagem;
+                if (topo > altura) {
+                    break;
+                }
+                g.setStroke(COR_GRADE);
+                g.strokeLine(LARGURA_ROTULOS, topo, largura, topo);
+                faixa.arvore.consultar(diaDe, diaAte, i -> desenharBarra(g, i, topo, pixelsPorDia, hoje, altura));
+            }
+        }
+
+        double xHoje = x(hoje, pixelsPorDia);
+        g.setStroke(COR_ATRASO);
+        g.strokeLine(xHoje, ALTURA_CABECALHO, xHoje, altura);
+        g.restore();
+
+        desenharRotulos(g, rolagem, altura);
+        desenharCabecalho(g, diaDe, diaAte, pixelsPorDia, largura);
+    }
+
+    private void desenharBarra(GraphicsContext g, int i, double topoFaixa, double pixelsPorDia, int hoje,
+            double altura) {
+        double y = topoFaixa + ALTURA_FAIXA_TITULO + dados.trilha[i] * ALTURA_TRILHA
+                + (ALTURA_TRILHA - ALTURA_BARRA) / 2;
+        if (y > altura || y + ALTURA_BARRA < ALTURA_CABECALHO) {
+            return;
+        }
+        double x1 = x(dados.inicio[i], pixelsPorDia);
+        double x2 = Math.max(x1 + 1, x(dados.fim[i] + 1, pixelsPorDia));
+
+        g.setFill(COR_STATUS[dados.status[i]]);
+        g.fillRect(x1, y, x2 - x1, ALTURA_BARRA);
+
+        // Trecho em atraso: concluída depois do previsto ou em aberto com previsão vencida
+        int previsto = dados.previsto[i];
+        boolean aberta = dados.status[i] == Tarefa.Status.PENDENTE.ordinal()
+                || dados.status[i] == Tarefa.Status.EM_EXECUCAO.ordinal();
+        int fimAtraso = aberta ? hoje : dados.fim[i];
+        if (previsto != Integer.MIN_VALUE && fimAtraso > previsto) {
+            double xa = x(previsto + 1, pixelsPorDia);
+            double xb = Math.max(xa + 1, x(fimAtraso + 1, pixelsPorDia));
+            g.setFill(COR_ATRASO);
+            g.fillRect(xa, y + ALTURA_BARRA - 3, xb - xa, 3);
+        }
+
+        // Título dentro da barra quando houver espaço
+        if (x2 - x1 > 40) {
+            g.setFill(Color.WHITE);
+            g.setTextAlign(TextAlignment.LEFT);
+            g.setTextBaseline(VPos.CENTER);
+            g.fillText(dados.titulos[i], Math.max(x1, LARGURA_ROTULOS) + 3, y + ALTURA_BARRA / 2, x2 - x1 - 6);
+        }
+    }
+
+    private void desenharGrade(GraphicsContext g, int diaDe, int diaAte, double pixelsPorDia, double altura) {
+        g.setStroke(COR_GRADE);
+        for (LocalDate marco = inicioDaUnidade(LocalDate.ofEpochDay(diaDe)); marco.toEpochDay() <= diaAte;
+                marco = proximaUnidade(marco)) {
+            double px = x((int) marco.toEpochDay(), pixelsPorDia);
+            g.strokeLine(px, ALTURA_CABECALHO, px, altura);
+        }
+    }
+
+    private void desenharCabecalho(GraphicsContext g, int diaDe, int diaAte, double pixelsPorDia, double largura) {
+        g.setFill(Color.rgb(245, 245, 245));
+        g.fillRect(0, 0, largura, ALTURA_CABECALHO);
+        g.setStroke(Color.rgb(200, 200, 200));
+        g.strokeLine(0, ALTURA_CABECALHO, largura, ALTURA_CABECALHO);
+
+        g.save();
+        g.beginPath();
+        g.rect(LARGURA_ROTULOS, 0, largura - LARGURA_ROTULOS, ALTURA_CABECALHO);
+        g.clip();
+        g.setFill(Color.rgb(66, 66, 66));
+        g.setTextAlign(TextAlignment.LEFT);
+        g.setTextBaseline(VPos.CENTER);
+        for (LocalDate marco = inicioDaUnidade(LocalDate.ofEpochDay(diaDe)); marco.toEpochDay() <= diaAte;
+                marco = proximaUnidade(marco)) {
+            double px = x((int) marco.toEpochDay(), pixelsPorDia);
+            g.strokeLine(px, ALTURA_CABECALHO - 8, px, ALTURA_CABECALHO);
+            g.fillText(rotuloDaUnidade(marco), px + 3, ALTURA_CABECALHO / 2);
+        }
+        g.restore();
+
+        g.setFill(Color.rgb(66, 66, 66));
+        g.fillText("Projeto", 8, ALTURA_CABECALHO / 2);
+    }
+
+    private void desenharRotulos(GraphicsContext g, double rolagem, double altura) {
+        g.setFill(Color.rgb(250, 250, 250));
+        g.fillRect(0, ALTURA_CABECALHO, LARGURA_ROTULOS, altura - ALTURA_CABECALHO);
+        g.setStroke(Color.rgb(200, 200, 200));
+        g.strokeLine(LARGURA_ROTULOS, ALTURA_CABECALHO, LARGURA_ROTULOS, altura);
+        if (dados.faixas.isEmpty()) {
+            return;
+        }
+
+        g.setTextAlign(TextAlignment.LEFT);
+        g.setTextBaseline(VPos.CENTER);
+        for (int f = faixaEm(rolagem); f < dados.faixas.size(); f++) {
+            Faixa faixa = dados.faixas.get(f);
+            double topo = ALTURA_CABECALHO + faixa.topo - rolagem;
+            if (topo > altura) {
+                break;
+            }
+            g.setStroke(COR_GRADE);
+            g.strokeLine(0, topo, LARGURA_ROTULOS, topo);
+            // O título acompanha a faixa até ela sair da tela
+            double yTitulo = Math.max(topo, ALTURA_CABECALHO) + ALTURA_FAIXA_TITULO / 2;
+            if (yTitulo < topo + faixa.altura) {
+                g.setFill(Color.rgb(33, 33, 33));
+                g.fillText(faixa.nome, 8, yTitulo, LARGURA_ROTULOS - 16);
+                g.setFill(Color.GRAY);
+                g.fillText(faixa.quantidade + " tarefas", 8, yTitulo + 14, LARGURA_ROTULOS - 16);
+            }
+        }
+    }
+
+    private double x(int dia, double pixelsPorDia) {
+        return LARGURA_ROTULOS + (dia - diaInicial) * pixelsPorDia;
+    }
+
+    private LocalDate inicioDaUnidade(LocalDate data) {
+        return switch (cbZoom.getValue()) {
+            case DIA -> data;
+            case SEMANA -> data.minusDays(data.getDayOfWeek().getValue() - 1);
+            case MES -> data.withDayOfMonth(1);
+            case TRIMESTRE -> data.withDayOfMonth(1).withMonth((data.getMonthValue() - 1) / 3 * 3 + 1);
+        };
+    }
+
+    private LocalDate proximaUnidade(LocalDate data) {
+        return switch (cbZoom.getValue()) {
+            case DIA -> data.plusDays(1);
+            case SEMANA -> data.plusWeeks(1);
+            case MES -> data.plusMonths(1);
+            case TRIMESTRE -> data.plusMonths(3);
+        };
+    }
+
+    private String rotuloDaUnidade(LocalDate data) {
+        return switch (cbZoom.getValue()) {
+            case DIA, SEMANA -> data.format(DateTimeFormatter.ofPattern("dd/MM"));
+            case MES -> data.format(DateTimeFormatter.ofPattern("MMM/yy", new Locale("pt", "BR")));
+            case TRIMESTRE -> data.get(IsoFields.QUARTER_OF_YEAR) + "º tri/" + data.getYear();
+        };
+    }
+
+    // ========== DADOS ==========
+
+    /**
+     * Agrupa as tarefas por projeto, distribui cada projeto em trilhas sem
+     * sobreposição (a tarefa vai para a primeira trilha livre) e indexa as
+     * faixas em árvores de intervalos
+     */
+    private static Dados montar(List<Tarefa> tarefas) {
+        Dados dados = new Dados();
+        int n = tarefas.size();
+        dados.total = n;
+        dados.inicio = new int[n];
+        dados.fim = new int[n];
+        dados.previsto = new int[n];
+        dados.trilha = new int[n];
+        dados.status = new byte[n];
+        dados.titulos = new String[n];
+        dados.responsaveis = new String[n];
+
+        Map<Integer, List<Integer>> porProjeto = new LinkedHashMap<>();
+        Map<Integer, String> nomes = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            Tarefa tarefa = tarefas.get(i);
+            LocalDate inicio = tarefa.getDataCadastro() != null ? tarefa.getDataCadastro().toLocalDate()
+                    : LocalDate.now();
+            LocalDate fim = tarefa.getDataConclusaoReal() != null ? tarefa.getDataConclusaoReal()
+                    : tarefa.getDataPrevistaConclusao() != null ? tarefa.getDataPrevistaConclusao() : inicio;
+
+            dados.inicio[i] = (int) inicio.toEpochDay();
+            dados.fim[i] = (int) Math.max(inicio.toEpochDay(), fim.toEpochDay());
+            dados.previsto[i] = tarefa.getDataPrevistaConclusao() != null
+                    ? (int) tarefa.getDataPrevistaConclusao().toEpochDay()
+                    : Integer.MIN_VALUE;
+            dados.status[i] = (byte) tarefa.getStatus().ordinal();
+            dados.titulos[i] = tarefa.getTitulo();
+            dados.responsaveis[i] = tarefa.getResponsavelNome();
+
+            porProjeto.computeIfAbsent(tarefa.getProjetoId(), k -> new ArrayList<>()).add(i);
+            nomes.putIfAbsent(tarefa.getProjetoId(), tarefa.getProjetoNome());
+        }
+
+        List<Integer> projetos = new ArrayList<>(porProjeto.keySet());
+        projetos.sort(Comparator.comparing(id -> nomes.get(id) != null ? nomes.get(id) : ""));
+
+        double topo = 0;
+        for (Integer projetoId : projetos) {
+            List<Integer> indices = porProjeto.get(projetoId);
+            indices.sort(Comparator.comparingInt(i -> dados.inicio[i]));
+
+            // Menor fim de trilha primeiro: [fim, trilha]
+            PriorityQueue<int[]> trilhas = new PriorityQueue<>(Comparator.comparingInt(t -> t[0]));
+            int quantidadeTrilhas = 0;
+            for (int i : indices) {
+                int[] livre = trilhas.peek();
+                if (livre != null && livre[0] < dados.inicio[i]) {
+                    trilhas.poll();
+                    dados.trilha[i] = livre[1];
+                } else {
+                    dados.trilha[i] = quantidadeTrilhas++;
+                }
+                trilhas.add(new int[] { dados.fim[i], dados.trilha[i] });
+            }
+
+            int[] inicios = new int[indices.size()];
+            int[] fins = new int[indices.size()];
+            int[] valores = new int[indices.size()];
+            for (int k = 0; k < indices.size(); k++) {
+                int i = indices.get(k);
+                inicios[k] = dados.inicio[i];
+                fins[k] = dados.fim[i];
+                valores[k] = i;
+            }
+
+            Faixa faixa = new Faixa();
+            faixa.nome = nomes.get(projetoId);
+            faixa.quantidade = indices.size();
+            faixa.trilhas = quantidadeTrilhas;
+            faixa.topo = topo;
+            faixa.altura = ALTURA_FAIXA_TITULO + Math.max(1, quantidadeTrilhas) * ALTURA_TRILHA;
+            faixa.arvore = new IntervalTree(inicios, fins, valores);
+            dados.faixas.add(faixa);
+            topo += faixa.altura;
+        }
+        dados.alturaTotal = topo;
+        return dados;
+    }
+
+    /**
+     * Tarefas em arrays paralelos (índice = barra) e faixas por projeto
+     */
+    private static class Dados {
+        int total;
+        int[] inicio = new int[0];
+        int[] fim = new int[0];
+        int[] previsto = new int[0];
+        int[] trilha = new int[0];
+        byte[] status = new byte[0];
+        String[] titulos = new String[0];
+        String[] responsaveis = new String[0];
+        List<Faixa> faixas = new ArrayList<>();
+        double alturaTotal;
+    }
+
+    /**
+     * Faixa de um projeto
+     */
+    private static class Faixa {
+        String nome;
+        int quantidade;
+        int trilhas;
+        double topo;
+        double altura;
+        IntervalTree arvore;
+    }
+}
@@ -1,5 +1,6 @@
 package com.gestao.projetos.controller;
 
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.TextField;
 import javafx.scene.control.PasswordField;
@@ -10,6 +11,8 @@ import javafx.scene.input.KeyEvent;
 import com.gestao.projetos.MainApp;
 import com.gestao.projetos.dao.UsuarioDAO;
 import com.gestao.projetos.model.Usuario;
+import com.gestao.projetos.util.AppBootstrap;
+import com.gestao.projetos.util.Rastreamento;
 import com.gestao.projetos.util.SessionManager;
 
 /**
@@ -35,6 +38,10 @@ public class LoginController {
 
     @FXML
     private void handleLogin() {
+        if (btnLogin.isDisabled()) {
+            return;
+        }
+
         String login = txtLogin.getText().trim();
         String senha = txtSenha.getText();
 
@@ -50,22 +57,49 @@ public class LoginController {
             return;
         }
 
-        try {
-            Usuario usuario = usuarioDAO.autenticar(login, senha);
+        // A verificação da senha é custosa: roda fora da thread do JavaFX
+        Task<Usuario> autenticacao = new Task<>() {
+            @Override
+            protected Usuario call() throws Exception {
+                return usuarioDAO.autenticar(login, senha);
+            }
+        };
+
+        autenticacao.setOnSucceeded(event -> {
+            setEmAndamento(false);
+            Usuario usuario = autenticacao.getValue();
 
             if (usuario != null) {
                 SessionManager.setUsuarioLogado(usuario);
+                AppBootstrap.aposLogin(usuario, senha);
                 MainApp.showMainMenu();
             } else {
                 MainApp.showError("Erro", "Login ou senha inválidos.");
                 txtSenha.clear();
                 txtLogin.requestFocus();
             }
+        });
 
-        } catch (Exception e) {
+        autenticacao.setOnFailed(event -> {
+            setEmAndamento(false);
+            Throwable e = autenticacao.getException();
             e.printStackTrace();
             MainApp.showError("Erro", "Erro ao tentar fazer login: " + e.getMessage());
-        }
+        });
+
+        setEmAndamento(true);
+        Thread thread = new Thread(Rastreamento.propagar("login", autenticacao), "login");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Bloqueia o formulário enquanto a autenticação está em andamento
+     */
+    private void setEmAndamento(boolean emAndamento) {
+        btnLogin.setDisable(emAndamento);
+        txtLogin.setDisable(emAndamento);
+        txtSenha.setDisable(emAndamento);
     }
 
     private void handleKeyPressed(KeyEvent event) {
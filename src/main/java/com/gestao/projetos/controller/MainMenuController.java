@@ -10,6 +10,7 @@ import javafx.scene.layout.BorderPane;
 import javafx.scene.Node;
 
 import com.gestao.projetos.MainApp;
+import com.gestao.projetos.util.FxmlCache;
 import com.gestao.projetos.util.SessionManager;
 import com.gestao.projetos.model.Usuario;
 
@@ -31,6 +32,10 @@ public class MainMenuController {
     @FXML
     private Menu menuRelatorios;
     @FXML
+    private MenuItem menuItemAuditoria;
+    @FXML
+    private MenuItem menuItemArquivo;
+    @FXML
     private Label lblUsuarioLogado;
 
     @FXML
@@ -63,6 +68,12 @@ public class MainMenuController {
 
         // Menu Relatórios - administradores e gerentes
         menuRelatorios.setVisible(usuario.isAdministrador() || usuario.isGerente());
+
+        // Auditoria - apenas administradores
+        menuItemAuditoria.setVisible(usuario.isAdministrador());
+
+        // Tarefas arquivadas - apenas administradores
+        menuItemArquivo.setVisible(usuario.isAdministrador());
     }
 
     // ========== MENU USUÁRIOS ==========
@@ -89,6 +100,11 @@ public class MainMenuController {
         loadContent("/fxml/ProjetoForm.fxml");
     }
 
+    @FXML
+    private void handleCronograma() {
+        loadContent("/fxml/Gantt.fxml");
+    }
+
     // ========== MENU TAREFAS ==========
 
     @FXML
@@ -104,8 +120,8 @@ public class MainMenuController {
     @FXML
     private void handleMinhasTarefas() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/TarefaList.fxml"));
-            Node content = loader.load();
+            FXMLLoader loader = FxmlCache.loader("/fxml/TarefaList.fxml");
+            Node content = FxmlCache.load(loader);
 
             // Passa parâmetro para filtrar apenas tarefas do usuário logado
             TarefaListController controller = loader.getController();
@@ -139,6 +155,16 @@ public class MainMenuController {
         loadDashboard();
     }
 
+    @FXML
+    private void handleAuditoria() {
+        loadContent("/fxml/Auditoria.fxml");
+    }
+
+    @FXML
+    private void handleArquivo() {
+        loadContent("/fxml/Arquivo.fxml");
+    }
+
     @FXML
     private void handleAlterarSenha() {
         loadContent("/fxml/AlterarSenha.fxml");
@@ -175,8 +201,8 @@ public class MainMenuController {
      */
     private void loadContent(String fxmlPath) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            Node content = loader.load();
+            FXMLLoader loader = FxmlCache.loader(fxmlPath);
+            Node content = FxmlCache.load(loader);
             rootPane.setCenter(content);
         } catch (Exception e) {
             e.printStackTrace();
@@ -0,0 +1,94 @@
+package com.gestao.projetos.controller;
+
+import javafx.geometry.Insets;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.Label;
+import javafx.scene.control.RadioButton;
+import javafx.scene.control.ToggleGroup;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.VBox;
+
+import com.gestao.projetos.MainApp;
+import com.gestao.projetos.util.Mesclagem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Diálogo de mesclagem exibido quando a gravação de um formulário encontra
+ * o registro alterado por outro usuário.
+ *
+ * Cada campo em que a edição do usuário difere do registro atual vira uma
+ * linha com as duas versões; a escolha inicial é a de quem alterou o campo
+ * (a do usuário nos conflitos, destacados em vermelho).
+ */
+class MesclagemDialog {
+
+    private MesclagemDialog() {
+    }
+
+    /**
+     * Pergunta ao usuário como mesclar e aplica as escolhas em "minha".
+     * Retorna false se o usuário cancelar.
+     */
+    static <T> boolean resolver(Mesclagem<T> mesclagem, T base, T minha, T atual) {
+        List<Mesclagem.Divergencia<T>> divergencias = mesclagem.divergencias(base, minha, atual);
+        if (divergencias.isEmpty()) {
+            // As alterações do outro usuário não tocaram os campos do formulário
+            return true;
+        }
+
+        GridPane grade = new GridPane();
+        grade.setHgap(15);
+        grade.setVgap(8);
+        grade.addRow(0, cabecalho("Campo"), cabecalho("Sua edição"), cabecalho("Versão atual"));
+
+        List<Runnable> escolhas = new ArrayList<>();
+        int linha = 1;
+        for (Mesclagem.Divergencia<T> divergencia : divergencias) {
+            Mesclagem.Campo<T> campo = divergencia.campo();
+            Label nome = new Label(campo.getNome());
+            if (divergencia.situacao() == Mesclagem.Situacao.CONFLITO) {
+                nome.setStyle("-fx-text-fill: #c62828; -fx-font-weight: bold;");
+            }
+
+            ToggleGroup grupo = new ToggleGroup();
+            RadioButton rbMinha = new RadioButton(campo.formatar(minha));
+            RadioButton rbAtual = new RadioButton(campo.formatar(atual));
+            rbMinha.setToggleGroup(grupo);
+            rbAtual.setToggleGroup(grupo);
+            grupo.selectToggle(divergencia.situacao() == Mesclagem.Situacao.DELES ? rbAtual : rbMinha);
+
+            grade.addRow(linha++, nome, rbMinha, rbAtual);
+            escolhas.add(() -> {
+                if (rbAtual.isSelected()) {
+                    campo.copiar(atual, minha);
+                }
+            });
+        }
+
+        Label aviso = new Label("Este registro foi alterado por outro usuário enquanto você editava.\n"
+                + "Escolha o valor a manter em cada campo (conflitos em vermelho).");
+
+        Dialog<ButtonType> dialogo = new Dialog<>();
+        dialogo.initOwner(MainApp.getPrimaryStage());
+        dialogo.setTitle("Alteração Concorrente");
+        dialogo.getDialogPane().setContent(new VBox(15, aviso, grade));
+        dialogo.getDialogPane().setPadding(new Insets(10));
+        dialogo.getDialogPane().getButtonTypes().setAll(ButtonType.OK, ButtonType.CANCEL);
+
+        if (dialogo.showAndWait().orElse(ButtonType.CANCEL) != ButtonType.OK) {
+            return false;
+        }
+
+        escolhas.forEach(Runnable::run);
+        return true;
+    }
+
+    private static Label cabecalho(String texto) {
+        Label label = new Label(texto);
+        label.setStyle("-fx-font-weight: bold;");
+        return label;
+    }
+}
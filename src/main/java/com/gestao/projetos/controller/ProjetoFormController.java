@@ -6,14 +6,19 @@ import javafx.stage.Stage;
 import javafx.collections.FXCollections;
 
 import com.gestao.projetos.MainApp;
+import com.gestao.projetos.dao.ConflitoVersaoException;
 import com.gestao.projetos.dao.ProjetoDAO;
 import com.gestao.projetos.dao.UsuarioDAO;
 import com.gestao.projetos.model.Projeto;
 import com.gestao.projetos.model.Usuario;
+import com.gestao.projetos.util.Mesclagem;
+import com.gestao.projetos.util.OperacoesProjeto;
+import com.gestao.projetos.util.Rastreamento;
 import com.gestao.projetos.util.SessionManager;
 import com.gestao.projetos.util.ValidationUtils;
 
 import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 /**
@@ -21,6 +26,8 @@ import java.util.List;
  */
 public class ProjetoFormController {
 
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
     @FXML
     private Label lblTitle;
     @FXML
@@ -41,6 +48,17 @@ public class ProjetoFormController {
     private ProjetoDAO projetoDAO = new ProjetoDAO();
     private UsuarioDAO usuarioDAO = new UsuarioDAO();
     private Projeto projeto; // null = novo projeto
+    private Projeto base; // Campos como estavam ao abrir a edição
+
+    // Campos do formulário, para mesclar edições concorrentes
+    private final Mesclagem<Projeto> mesclagem = new Mesclagem<>(Projeto::new)
+            .campo("Nome", Projeto::getNome, Projeto::setNome)
+            .campo("Descrição", Projeto::getDescricao, Projeto::setDescricao)
+            .campo("Data de Início", Projeto::getDataInicio, Projeto::setDataInicio, FORMATO_DATA::format)
+            .campo("Data Prevista", Projeto::getDataPrevistaTermino, Projeto::setDataPrevistaTermino,
+                    FORMATO_DATA::format)
+            .campo("Status", Projeto::getStatus, Projeto::setStatus, Projeto.Status::getDescricao)
+            .campo("Gerente", Projeto::getGerenteId, Projeto::setGerenteId, this::nomeGerente);
 
     @FXML
     private void initialize() {
@@ -83,6 +101,7 @@ public class ProjetoFormController {
      */
     public void setProjeto(Projeto projeto) {
         this.projeto = projeto;
+        this.base = mesclagem.copiar(projeto);
         lblTitle.setText("Editar Projeto");
         btnSalvar.setText("Atualizar");
 
@@ -104,15 +123,18 @@ public class ProjetoFormController {
 
     @FXML
     private void handleSalvar() {
-        if (!validarCampos()) {
-            return;
+        try (Rastreamento.Trecho trecho = Rastreamento.iniciar("validar")) {
+            if (!validarCampos()) {
+                trecho.atributo("ui.valido", false);
+                return;
+            }
         }
 
         try {
             if (projeto == null) {
                 criarNovoProjeto();
-            } else {
-                atualizarProjeto();
+            } else if (!atualizarProjeto()) {
+                return;
             }
 
             Stage stage = (Stage) btnSalvar.getScene().getWindow();
@@ -174,9 +196,10 @@ public class ProjetoFormController {
     }
 
     /**
-     * Atualiza projeto existente
+     * Atualiza projeto existente; se outro usuário o alterou nesse meio
+     * tempo, mescla as edições e tenta de novo (false se o usuário desistir)
      */
-    private void atualizarProjeto() throws Exception {
+    private boolean atualizarProjeto() throws Exception {
         projeto.setNome(txtNome.getText().trim());
         projeto.setDescricao(txtDescricao.getText().trim());
         projeto.setDataInicio(dpDataInicio.getValue());
@@ -184,7 +207,46 @@ public class ProjetoFormController {
         projeto.setStatus(cbStatus.getValue());
         projeto.setGerenteId(cbGerente.getValue().getId());
 
-        projetoDAO.update(projeto);
+        while (true) {
+            try {
+                projetoDAO.update(projeto);
+                break;
+            } catch (ConflitoVersaoException e) {
+                Projeto atual = (Projeto) e.getAtual();
+                if (atual == null) {
+                    throw e;
+                }
+                if (!MesclagemDialog.resolver(mesclagem, base, projeto, atual)) {
+                    return false;
+                }
+                projeto.setVersao(atual.getVersao());
+                base = mesclagem.copiar(atual);
+            }
+        }
         MainApp.showInfo("Sucesso", "Projeto atualizado com sucesso.");
+
+        // A base é o projeto como estava no banco antes desta gravação
+        Integer gerenteAnterior = base.getGerenteId();
+        if (!projeto.getGerenteId().equals(gerenteAnterior) && MainApp.showConfirmation("Transferir Tarefas",
+                "Deseja transferir para " + nomeGerente(projeto.getGerenteId()) + " as tarefas em aberto de "
+                        + nomeGerente(gerenteAnterior) + " neste projeto?")) {
+            try {
+                OperacoesProjeto.trocarGerente(projeto, gerenteAnterior);
+            } catch (Exception e) {
+                // O projeto já foi gravado; só a transferência não foi agendada
+                e.printStackTrace();
+                MainApp.showError("Erro", "Erro ao transferir tarefas: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private String nomeGerente(Integer gerenteId) {
+        for (Usuario gerente : cbGerente.getItems()) {
+            if (gerente.getId().equals(gerenteId)) {
+                return gerente.getNome();
+            }
+        }
+        return "#" + gerenteId;
     }
 }
\ No newline at end of file
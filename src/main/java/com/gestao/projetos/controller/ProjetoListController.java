@@ -4,18 +4,32 @@ import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import javafx.animation.PauseTransition;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
+import javafx.util.Duration;
 
 import com.gestao.projetos.MainApp;
 import com.gestao.projetos.dao.ProjetoDAO;
+import com.gestao.projetos.dao.UsuarioDAO;
+import com.gestao.projetos.model.OperacaoProjeto;
 import com.gestao.projetos.model.Projeto;
+import com.gestao.projetos.model.Usuario;
+import com.gestao.projetos.util.ChangeFeed;
+import com.gestao.projetos.util.CollationKeys;
+import com.gestao.projetos.util.DeltaSync;
+import com.gestao.projetos.util.FilterIndex;
+import com.gestao.projetos.util.FxmlCache;
+import com.gestao.projetos.util.OperacoesProjeto;
 import com.gestao.projetos.util.SessionManager;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controller para listagem de projetos
@@ -37,32 +51,73 @@ public class ProjetoListController {
     @FXML
     private TableColumn<Projeto, Void> colAcoes;
 
+    // Barra de filtros
+    @FXML
+    private TextField txtBusca;
+    @FXML
+    private ComboBox<Projeto.Status> cbFiltroStatus;
+    @FXML
+    private ComboBox<Usuario> cbFiltroGerente;
+
+    // Progresso das operações em cascata
+    @FXML
+    private javafx.scene.layout.HBox boxOperacao;
+    @FXML
+    private ProgressBar pbOperacao;
+    @FXML
+    private Label lblOperacao;
+
     private ProjetoDAO projetoDAO = new ProjetoDAO();
+    private UsuarioDAO usuarioDAO = new UsuarioDAO();
     private ObservableList<Projeto> projetos = FXCollections.observableArrayList();
+    private DeltaSync<Projeto> sync = new DeltaSync<>(projetos, Projeto::getId, Projeto::getDataAtualizacao,
+            Projeto::getVersao, DeltaSync.porTexto(Projeto::getNome), this::isVisivel);
+    private FilterIndex<Projeto> filtro = new FilterIndex<>(projetos, Projeto::getNome)
+            .atributoEnum("status", Projeto.Status.class, Projeto::getStatus)
+            .atributoId("gerente", Projeto::getGerenteId);
+    private FilteredList<Projeto> projetosFiltrados = new FilteredList<>(projetos);
+    private PauseTransition pausaBusca = new PauseTransition(Duration.millis(250));
+    private Map<Long, OperacoesProjeto.Progresso> operacoes = new LinkedHashMap<>();
 
     @FXML
     private void initialize() {
         setupTable();
+        setupFiltros();
         loadProjetos();
+
+        // Alterações feitas por outros usuários chegam pelo monitor compartilhado
+        ChangeFeed.subscribe(Projeto.class, tblProjetos, sync::aplicar);
+        OperacoesProjeto.subscribe(tblProjetos, this::exibirProgresso);
     }
 
     /**
      * Configura a tabela de projetos
      */
     private void setupTable() {
-        colNome.setCellValueFactory(new PropertyValueFactory<>("nome"));
-        colDescricao.setCellValueFactory(new PropertyValueFactory<>("descricao"));
+        colNome.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
+                cellData.getValue().getNome()));
+        colDescricao.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
+                cellData.getValue().getDescricao()));
         colStatus.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
                 cellData.getValue().getStatus().getDescricao()));
-        colGerente.setCellValueFactory(new PropertyValueFactory<>("gerenteNome"));
+        colGerente.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
+                cellData.getValue().getGerenteNome()));
         colDataInicio.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
                 cellData.getValue().getDataInicio() != null ? cellData.getValue().getDataInicio().toString() : ""));
 
+        // Ordenação em português com chaves de ordenação em cache
+        CollationKeys chaves = new CollationKeys();
+        colNome.setComparator(chaves.comparator());
+        colDescricao.setComparator(chaves.comparator());
+        colGerente.setComparator(chaves.comparator());
+
         // Coluna de ações
         colAcoes.setCellFactory(param -> new TableCell<Projeto, Void>() {
             private final Button btnEditar = new Button("Editar");
             private final Button btnCancelar = new Button("Cancelar");
-            private final javafx.scene.layout.HBox pane = new javafx.scene.layout.HBox(5, btnEditar, btnCancelar);
+            private final Button btnArquivar = new Button("Arquivar");
+            private final javafx.scene.layout.HBox pane = new javafx.scene.layout.HBox(5, btnEditar, btnCancelar,
+                    btnArquivar);
 
             {
                 btnEditar.setOnAction(event -> {
@@ -74,6 +129,11 @@ public class ProjetoListController {
                     Projeto projeto = getTableView().getItems().get(getIndex());
                     handleCancelar(projeto);
                 });
+
+                btnArquivar.setOnAction(event -> {
+                    Projeto projeto = getTableView().getItems().get(getIndex());
+                    handleArquivar(projeto);
+                });
             }
 
             @Override
@@ -90,13 +150,60 @@ public class ProjetoListController {
 
                     btnEditar.setDisable(!canEdit);
                     btnCancelar.setDisable(!canEdit || projeto.isCancelado() || projeto.isConcluido());
+                    btnArquivar.setDisable(!canEdit || !(projeto.isCancelado() || projeto.isConcluido()));
 
                     setGraphic(pane);
                 }
             }
         });
 
-        tblProjetos.setItems(projetos);
+        // A ordenação da tabela não altera a lista base (mantida pelo DeltaSync)
+        SortedList<Projeto> projetosOrdenados = new SortedList<>(projetosFiltrados);
+        projetosOrdenados.comparatorProperty().bind(tblProjetos.comparatorProperty());
+        tblProjetos.setItems(projetosOrdenados);
+    }
+
+    /**
+     * Configura a barra de filtros
+     */
+    private void setupFiltros() {
+        cbFiltroStatus.setItems(FXCollections.observableArrayList(Projeto.Status.values()));
+
+        try {
+            List<Usuario> gerentes = usuarioDAO.findByPerfil(Usuario.Perfil.GERENTE);
+            gerentes.addAll(usuarioDAO.findByPerfil(Usuario.Perfil.ADMINISTRADOR));
+            cbFiltroGerente.setItems(FXCollections.observableArrayList(gerentes));
+        } catch (Exception e) {
+            e.printStackTrace();
+            MainApp.showError("Erro", "Erro ao carregar filtros: " + e.getMessage());
+        }
+
+        cbFiltroStatus.valueProperty().addListener((obs, anterior, valor) -> aplicarFiltros());
+        cbFiltroGerente.valueProperty().addListener((obs, anterior, valor) -> aplicarFiltros());
+
+        // Busca por texto só é aplicada após uma pausa na digitação
+        pausaBusca.setOnFinished(event -> aplicarFiltros());
+        txtBusca.textProperty().addListener((obs, anterior, valor) -> pausaBusca.playFromStart());
+    }
+
+    /**
+     * Aplica os filtros selecionados
+     */
+    private void aplicarFiltros() {
+        filtro.setCriterio("status", cbFiltroStatus.getValue());
+        filtro.setCriterio("gerente", cbFiltroGerente.getValue() != null ? cbFiltroGerente.getValue().getId() : null);
+        filtro.setTexto(txtBusca.getText());
+
+        projetosFiltrados.setPredicate(filtro.predicate());
+    }
+
+    @FXML
+    private void handleLimparFiltros() {
+        pausaBusca.stop();
+        txtBusca.clear();
+        cbFiltroStatus.setValue(null);
+        cbFiltroGerente.setValue(null);
+        aplicarFiltros();
     }
 
     /**
@@ -113,14 +220,38 @@ public class ProjetoListController {
                 lista = projetoDAO.findByGerente(SessionManager.getUsuarioLogado().getId());
             }
 
-            projetos.clear();
-            projetos.addAll(lista);
+            sync.carregar(lista);
         } catch (Exception e) {
             e.printStackTrace();
             MainApp.showError("Erro", "Erro ao carregar projetos: " + e.getMessage());
         }
     }
 
+    /**
+     * Atualiza a lista apenas com os projetos alterados desde a última carga
+     */
+    private void atualizarProjetos() {
+        if (!sync.isCarregado()) {
+            loadProjetos();
+            return;
+        }
+
+        try {
+            sync.aplicar(projetoDAO.findAlteradosDesde(sync.getDesde()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            MainApp.showError("Erro", "Erro ao atualizar projetos: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Indica se o projeto deve aparecer nesta listagem
+     */
+    private boolean isVisivel(Projeto projeto) {
+        return projeto.isAtivo() && (SessionManager.isAdministrador()
+                || SessionManager.isGerenteOfProject(projeto.getGerenteId()));
+    }
+
     @FXML
     private void handleNovo() {
         openProjetoForm(null);
@@ -128,7 +259,7 @@ public class ProjetoListController {
 
     @FXML
     private void handleRefresh() {
-        loadProjetos();
+        atualizarProjetos();
     }
 
     /**
@@ -165,9 +296,9 @@ public class ProjetoListController {
                 "Tem certeza que deseja cancelar o projeto '" + projeto.getNome() + "'?\n" +
                         "Todas as tarefas pendentes serão inativadas.")) {
             try {
-                projetoDAO.cancelProject(projeto.getId());
-                loadProjetos();
-                MainApp.showInfo("Sucesso", "Projeto cancelado com sucesso.");
+                // As tarefas são inativadas em segundo plano; o progresso aparece abaixo da lista
+                OperacoesProjeto.cancelar(projeto);
+                atualizarProjetos();
             } catch (Exception e) {
                 e.printStackTrace();
                 MainApp.showError("Erro", "Erro ao cancelar projeto: " + e.getMessage());
@@ -175,13 +306,64 @@ public class ProjetoListController {
         }
     }
 
+    /**
+     * Arquiva um projeto cancelado ou concluído
+     */
+    private void handleArquivar(Projeto projeto) {
+        // Verifica permissão
+        if (!SessionManager.isAdministrador() &&
+                !SessionManager.isGerenteOfProject(projeto.getGerenteId())) {
+            MainApp.showError("Erro", "Você não tem permissão para arquivar este projeto.");
+            return;
+        }
+
+        if (MainApp.showConfirmation("Confirmação",
+                "Tem certeza que deseja arquivar o projeto '" + projeto.getNome() + "'?\n" +
+                        "O projeto sai da lista e todas as suas tarefas serão inativadas.")) {
+            try {
+                OperacoesProjeto.arquivar(projeto);
+            } catch (Exception e) {
+                e.printStackTrace();
+                MainApp.showError("Erro", "Erro ao arquivar projeto: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Exibe o progresso das operações em cascata iniciadas nesta instância
+     */
+    private void exibirProgresso(OperacoesProjeto.Progresso progresso) {
+        if (progresso.isFinalizada()) {
+            operacoes.remove(progresso.operacaoId());
+            if (progresso.status() == OperacaoProjeto.Status.FALHA) {
+                MainApp.showError("Erro", "Falha na operação \"" + progresso.tipo().getDescricao() + "\" do projeto '"
+                        + progresso.projetoNome() + "': " + progresso.erro());
+            }
+        } else {
+            operacoes.put(progresso.operacaoId(), progresso);
+        }
+
+        boolean emAndamento = !operacoes.isEmpty();
+        boxOperacao.setVisible(emAndamento);
+        boxOperacao.setManaged(emAndamento);
+        if (!emAndamento) {
+            return;
+        }
+
+        OperacoesProjeto.Progresso atual = operacoes.values().iterator().next();
+        pbOperacao.setProgress(atual.fracao());
+        lblOperacao.setText(String.format("%s do projeto '%s': %,d de %,d tarefa(s)%s",
+                atual.tipo().getDescricao(), atual.projetoNome(), atual.processadas(), atual.total(),
+                operacoes.size() > 1 ? " (mais " + (operacoes.size() - 1) + " na fila)" : ""));
+    }
+
     /**
      * Abre formulário de projeto
      */
     private void openProjetoForm(Projeto projeto) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/ProjetoForm.fxml"));
-            Scene scene = new Scene(loader.load());
+            FXMLLoader loader = FxmlCache.loader("/fxml/ProjetoForm.fxml");
+            Scene scene = new Scene(FxmlCache.load(loader));
 
             ProjetoFormController controller = loader.getController();
             if (projeto != null) {
@@ -195,7 +377,7 @@ public class ProjetoListController {
             stage.initOwner(MainApp.getPrimaryStage());
             stage.setResizable(false);
 
-            stage.setOnHidden(e -> loadProjetos());
+            stage.setOnHidden(e -> atualizarProjetos());
 
             stage.showAndWait();
 
@@ -0,0 +1,231 @@
+package com.gestao.projetos.controller;
+
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
+import javafx.fxml.FXML;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.util.StringConverter;
+
+import com.gestao.projetos.MainApp;
+import com.gestao.projetos.dao.ProjetoDAO;
+import com.gestao.projetos.model.Projeto;
+import com.gestao.projetos.util.Rastreamento;
+import com.gestao.projetos.util.RelatorioEngine;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Controller para o relatório de projetos: burndown das tarefas em aberto e
+ * tempo de ciclo (P50/P85/P95) por projeto. Os números vêm do
+ * RelatorioEngine, calculados em segundo plano.
+ */
+public class RelatoriosProjetosController {
+
+    private static final DateTimeFormatter FORMATO_DIA = DateTimeFormatter.ofPattern("dd/MM/yy");
+
+    /**
+     * Períodos exibidos no burndown
+     */
+    public enum Periodo {
+        DIAS_30("Últimos 30 dias", 30),
+        DIAS_90("Últimos 90 dias", 90),
+        DIAS_180("Últimos 180 dias", 180),
+        ANO("Último ano", 365),
+        DOIS_ANOS("Últimos 2 anos", RelatorioEngine.JANELA_DIAS);
+
+        private final String descricao;
+        private final int dias;
+
+        Periodo(String descricao, int dias) {
+            this.descricao = descricao;
+            this.dias = dias;
+        }
+
+        @Override
+        public String toString() {
+            return descricao;
+        }
+    }
+
+    @FXML
+    private ComboBox<Projeto> cbProjeto;
+    @FXML
+    private CheckBox chkArquivadas;
+    @FXML
+    private ComboBox<Periodo> cbPeriodo;
+    @FXML
+    private LineChart<Number, Number> chartBurndown;
+    @FXML
+    private NumberAxis eixoData;
+    @FXML
+    private Label lblResumo;
+
+    @FXML
+    private TableView<RelatorioEngine.CicloProjeto> tblCiclo;
+    @FXML
+    private TableColumn<RelatorioEngine.CicloProjeto, String> colProjeto;
+    @FXML
+    private TableColumn<RelatorioEngine.CicloProjeto, Long> colConcluidas;
+    @FXML
+    private TableColumn<RelatorioEngine.CicloProjeto, String> colMedia;
+    @FXML
+    private TableColumn<RelatorioEngine.CicloProjeto, String> colP50;
+    @FXML
+    private TableColumn<RelatorioEngine.CicloProjeto, String> colP85;
+    @FXML
+    private TableColumn<RelatorioEngine.CicloProjeto, String> colP95;
+
+    private ProjetoDAO projetoDAO = new ProjetoDAO();
+    private RelatorioEngine.Relatorio relatorio;
+
+    @FXML
+    private void initialize() {
+        chartBurndown.setCreateSymbols(false);
+        chartBurndown.setAnimated(false);
+        eixoData.setForceZeroInRange(false);
+        eixoData.setTickLabelFormatter(new StringConverter<>() {
+            @Override
+            public String toString(Number dia) {
+                return LocalDate.ofEpochDay(dia.longValue()).format(FORMATO_DIA);
+            }
+
+            @Override
+            public Number fromString(String texto) {
+                return LocalDate.parse(texto, FORMATO_DIA).toEpochDay();
+            }
+        });
+
+        colProjeto.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().projetoNome()));
+        colConcluidas.setCellValueFactory(cellData -> new SimpleObjectProperty<>(
+                cellData.getValue().ciclo().getTotal()));
+        colMedia.setCellValueFactory(cellData -> new SimpleStringProperty(
+                formatarDias(cellData.getValue().ciclo().getMedia())));
+        colP50.setCellValueFactory(cellData -> new SimpleStringProperty(
+                formatarDias(cellData.getValue().ciclo().getPercentil(0.50))));
+        colP85.setCellValueFactory(cellData -> new SimpleStringProperty(
+                formatarDias(cellData.getValue().ciclo().getPercentil(0.85))));
+        colP95.setCellValueFactory(cellData -> new SimpleStringProperty(
+                formatarDias(cellData.getValue().ciclo().getPercentil(0.95))));
+
+        try {
+            cbProjeto.setItems(FXCollections.observableArrayList(projetoDAO.findAll()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            MainApp.showError("Erro", "Erro ao carregar projetos: " + e.getMessage());
+        }
+        cbPeriodo.getItems().setAll(Periodo.values());
+        cbPeriodo.setValue(Periodo.DIAS_90);
+
+        cbProjeto.valueProperty().addListener((obs, anterior, valor) -> loadRelatorio());
+        chkArquivadas.selectedProperty().addListener((obs, anterior, valor) -> loadRelatorio());
+        // Trocar o período só redesenha o relatório já calculado
+        cbPeriodo.valueProperty().addListener((obs, anterior, valor) -> updateBurndown());
+
+        loadRelatorio();
+    }
+
+    /**
+     * Calcula o relatório do projeto selecionado em segundo plano
+     */
+    private void loadRelatorio() {
+        Projeto projeto = cbProjeto.getValue();
+        Integer projetoId = projeto != null ? projeto.getId() : null;
+        boolean incluirArquivadas = chkArquivadas.isSelected();
+        lblResumo.setText("Calculando...");
+
+        Task<RelatorioEngine.Relatorio> calculo = new Task<>() {
+            @Override
+            protected RelatorioEngine.Relatorio call() throws Exception {
+                return RelatorioEngine.getInstance().calcular(projetoId, incluirArquivadas);
+            }
+        };
+
+        calculo.setOnSucceeded(event -> {
+            // Ignora resultados de uma seleção anterior
+            if (cbProjeto.getValue() != projeto || chkArquivadas.isSelected() != incluirArquivadas) {
+                return;
+            }
+            relatorio = calculo.getValue();
+            tblCiclo.setItems(FXCollections.observableArrayList(relatorio.getCicloPorProjeto()));
+            updateBurndown();
+        });
+
+        calculo.setOnFailed(event -> {
+            Throwable erro = calculo.getException();
+            erro.printStackTrace();
+            lblResumo.setText("");
+            MainApp.showError("Erro", "Erro ao calcular relatório: " + erro.getMessage());
+        });
+
+        Thread thread = new Thread(Rastreamento.propagar("relatorio-projetos", calculo), "relatorio-projetos");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Monta as séries do burndown para o período selecionado
+     */
+    private void updateBurndown() {
+        if (relatorio == null) {
+            return;
+        }
+
+        int ultimo = relatorio.getQuantidadeDias() - 1;
+        int primeiro = Math.max(0, ultimo - cbPeriodo.getValue().dias);
+
+        XYChart.Series<Number, Number> restantes = new XYChart.Series<>();
+        restantes.setName("Tarefas em aberto");
+        for (int dia = primeiro; dia <= ultimo; dia++) {
+            restantes.getData().add(new XYChart.Data<>(relatorio.getData(dia).toEpochDay(),
+                    relatorio.getRestantes(dia)));
+        }
+        chartBurndown.getData().setAll(List.of(restantes));
+
+        // Linha ideal: do início do projeto (ou do período) até zero no término previsto
+        Projeto projeto = cbProjeto.getValue();
+        if (projeto != null && projeto.getDataPrevistaTermino() != null) {
+            LocalDate inicioPeriodo = relatorio.getData(primeiro);
+            LocalDate inicio = projeto.getDataInicio() != null && projeto.getDataInicio().isAfter(inicioPeriodo)
+                    ? projeto.getDataInicio()
+                    : inicioPeriodo;
+            LocalDate termino = projeto.getDataPrevistaTermino();
+
+            if (termino.isAfter(inicio) && !inicio.isAfter(relatorio.getHoje())) {
+                XYChart.Series<Number, Number> ideal = new XYChart.Series<>();
+                ideal.setName("Ideal");
+                ideal.getData().add(new XYChart.Data<>(inicio.toEpochDay(),
+                        relatorio.getRestantes(relatorio.getDia(inicio))));
+                ideal.getData().add(new XYChart.Data<>(termino.toEpochDay(), 0));
+                chartBurndown.getData().add(ideal);
+            }
+        }
+
+        lblResumo.setText(relatorio.getRestantes(ultimo) + " tarefas em aberto, "
+                + relatorio.getCiclo().getTotal() + " concluídas com tempo de ciclo medido");
+    }
+
+    @FXML
+    private void handleTodos() {
+        cbProjeto.setValue(null);
+    }
+
+    @FXML
+    private void handleRefresh() {
+        loadRelatorio();
+    }
+
+    private static String formatarDias(double dias) {
+        return Double.isNaN(dias) ? "-" : String.format("%.1f", dias);
+    }
+}
@@ -0,0 +1,163 @@
+package com.gestao.projetos.controller;
+
+import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
+import javafx.fxml.FXML;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+
+import com.gestao.projetos.MainApp;
+import com.gestao.projetos.dao.ProjetoDAO;
+import com.gestao.projetos.model.Projeto;
+import com.gestao.projetos.util.QuantileSketch;
+import com.gestao.projetos.util.Rastreamento;
+import com.gestao.projetos.util.RelatorioEngine;
+
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Controller para o relatório de tarefas: vazão semanal (tarefas concluídas
+ * por semana), velocidade média e percentis do tempo de ciclo. Os números vêm
+ * do RelatorioEngine, calculados em segundo plano.
+ */
+public class RelatoriosTarefasController {
+
+    private static final DateTimeFormatter FORMATO_SEMANA = DateTimeFormatter.ofPattern("dd/MM");
+    private static final int SEMANAS_VELOCIDADE = 4;
+
+    @FXML
+    private ComboBox<Projeto> cbProjeto;
+    @FXML
+    private CheckBox chkArquivadas;
+    @FXML
+    private ComboBox<Integer> cbSemanas;
+    @FXML
+    private BarChart<String, Number> chartVazao;
+    @FXML
+    private Label lblVelocidade;
+    @FXML
+    private Label lblConcluidas;
+    @FXML
+    private Label lblCicloMedia;
+    @FXML
+    private Label lblCicloP50;
+    @FXML
+    private Label lblCicloP85;
+    @FXML
+    private Label lblCicloP95;
+
+    private ProjetoDAO projetoDAO = new ProjetoDAO();
+    private RelatorioEngine.Relatorio relatorio;
+
+    @FXML
+    private void initialize() {
+        chartVazao.setAnimated(false);
+
+        try {
+            cbProjeto.setItems(FXCollections.observableArrayList(projetoDAO.findAll()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            MainApp.showError("Erro", "Erro ao carregar projetos: " + e.getMessage());
+        }
+        cbSemanas.getItems().setAll(12, 26, 52);
+        cbSemanas.setValue(12);
+
+        cbProjeto.valueProperty().addListener((obs, anterior, valor) -> loadRelatorio());
+        chkArquivadas.selectedProperty().addListener((obs, anterior, valor) -> loadRelatorio());
+        // Trocar a quantidade de semanas só redesenha o relatório já calculado
+        cbSemanas.valueProperty().addListener((obs, anterior, valor) -> updateVazao());
+
+        loadRelatorio();
+    }
+
+    /**
+     * Calcula o relatório do projeto selecionado em segundo plano
+     */
+    private void loadRelatorio() {
+        Projeto projeto = cbProjeto.getValue();
+        Integer projetoId = projeto != null ? projeto.getId() : null;
+        boolean incluirArquivadas = chkArquivadas.isSelected();
+        lblVelocidade.setText("Calculando...");
+
+        Task<RelatorioEngine.Relatorio> calculo = new Task<>() {
+            @Override
+            protected RelatorioEngine.Relatorio call() throws Exception {
+                return RelatorioEngine.getInstance().calcular(projetoId, incluirArquivadas);
+            }
+        };
+
+        calculo.setOnSucceeded(event -> {
+            // Ignora resultados de uma seleção anterior
+            if (cbProjeto.getValue() != projeto || chkArquivadas.isSelected() != incluirArquivadas) {
+                return;
+            }
+            relatorio = calculo.getValue();
+            updateVazao();
+            updateCiclo();
+        });
+
+        calculo.setOnFailed(event -> {
+            Throwable erro = calculo.getException();
+            erro.printStackTrace();
+            lblVelocidade.setText("");
+            MainApp.showError("Erro", "Erro ao calcular relatório: " + erro.getMessage());
+        });
+
+        Thread thread = new Thread(Rastreamento.propagar("relatorio-tarefas", calculo), "relatorio-tarefas");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Monta o gráfico de vazão das últimas semanas selecionadas
+     */
+    private void updateVazao() {
+        if (relatorio == null) {
+            return;
+        }
+
+        int ultima = relatorio.getQuantidadeSemanas() - 1;
+        int primeira = Math.max(0, ultima - cbSemanas.getValue() + 1);
+
+        XYChart.Series<String, Number> concluidas = new XYChart.Series<>();
+        concluidas.setName("Concluídas por semana");
+        for (int semana = primeira; semana <= ultima; semana++) {
+            concluidas.getData().add(new XYChart.Data<>(relatorio.getSemana(semana).format(FORMATO_SEMANA),
+                    relatorio.getConcluidasNaSemana(semana)));
+        }
+        chartVazao.getData().setAll(List.of(concluidas));
+
+        lblVelocidade.setText(String.format("Velocidade média: %.1f tarefas/semana (últimas %d semanas completas)",
+                relatorio.getVelocidade(SEMANAS_VELOCIDADE), SEMANAS_VELOCIDADE));
+    }
+
+    /**
+     * Atualiza os indicadores de tempo de ciclo
+     */
+    private void updateCiclo() {
+        QuantileSketch ciclo = relatorio.getCiclo();
+        lblConcluidas.setText(String.valueOf(ciclo.getTotal()));
+        lblCicloMedia.setText(formatarDias(ciclo.getMedia()));
+        lblCicloP50.setText(formatarDias(ciclo.getPercentil(0.50)));
+        lblCicloP85.setText(formatarDias(ciclo.getPercentil(0.85)));
+        lblCicloP95.setText(formatarDias(ciclo.getPercentil(0.95)));
+    }
+
+    @FXML
+    private void handleTodos() {
+        cbProjeto.setValue(null);
+    }
+
+    @FXML
+    private void handleRefresh() {
+        loadRelatorio();
+    }
+
+    private static String formatarDias(double dias) {
+        return Double.isNaN(dias) ? "-" : String.format("%.1f dias", dias);
+    }
+}
@@ -4,18 +4,36 @@ import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import javafx.animation.PauseTransition;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
+import javafx.concurrent.Task;
+import javafx.util.Duration;
 
 import com.gestao.projetos.MainApp;
+import com.gestao.projetos.dao.ProjetoDAO;
 import com.gestao.projetos.dao.TarefaDAO;
+import com.gestao.projetos.dao.UsuarioDAO;
+import com.gestao.projetos.model.Projeto;
 import com.gestao.projetos.model.Tarefa;
+import com.gestao.projetos.model.Usuario;
+import com.gestao.projetos.util.AtribuicaoEngine;
+import com.gestao.projetos.util.ChangeFeed;
+import com.gestao.projetos.util.CollationKeys;
+import com.gestao.projetos.util.DeltaSync;
+import com.gestao.projetos.util.FilterIndex;
+import com.gestao.projetos.util.FxmlCache;
+import com.gestao.projetos.util.Rastreamento;
 import com.gestao.projetos.util.SessionManager;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controller para listagem de tarefas
@@ -37,14 +55,47 @@ public class TarefaListController {
     @FXML
     private TableColumn<Tarefa, Void> colAcoes;
 
+    // Barra de filtros
+    @FXML
+    private TextField txtBusca;
+    @FXML
+    private ComboBox<Tarefa.Status> cbFiltroStatus;
+    @FXML
+    private ComboBox<Tarefa.Prioridade> cbFiltroPrioridade;
+    @FXML
+    private ComboBox<Projeto> cbFiltroProjeto;
+    @FXML
+    private ComboBox<Usuario> cbFiltroResponsavel;
+    @FXML
+    private Button btnDistribuir;
+
     private TarefaDAO tarefaDAO = new TarefaDAO();
+    private ProjetoDAO projetoDAO = new ProjetoDAO();
+    private UsuarioDAO usuarioDAO = new UsuarioDAO();
     private ObservableList<Tarefa> tarefas = FXCollections.observableArrayList();
+    private DeltaSync<Tarefa> sync = new DeltaSync<>(tarefas, Tarefa::getId, Tarefa::getDataAtualizacao,
+            Tarefa::getVersao, DeltaSync.porTexto(Tarefa::getTitulo), this::isVisivel);
+    private FilterIndex<Tarefa> filtro = new FilterIndex<>(tarefas, Tarefa::getTitulo)
+            .atributoEnum("status", Tarefa.Status.class, Tarefa::getStatus)
+            .atributoEnum("prioridade", Tarefa.Prioridade.class, Tarefa::getPrioridade)
+            .atributoId("projeto", Tarefa::getProjetoId)
+            .atributoId("responsavel", Tarefa::getResponsavelId);
+    private FilteredList<Tarefa> tarefasFiltradas = new FilteredList<>(tarefas);
+    private PauseTransition pausaBusca = new PauseTransition(Duration.millis(250));
     private boolean somenteMinhasTarefas = false;
 
     @FXML
     private void initialize() {
         setupTable();
+        setupFiltros();
         loadTarefas();
+
+        // Distribuição automática restrita a administradores e gerentes
+        btnDistribuir.setVisible(SessionManager.hasGerentePermission());
+        btnDistribuir.setManaged(SessionManager.hasGerentePermission());
+
+        // Alterações feitas por outros usuários chegam pelo monitor compartilhado
+        ChangeFeed.subscribe(Tarefa.class, tblTarefas, sync::aplicar);
     }
 
     /**
@@ -59,14 +110,23 @@ public class TarefaListController {
      * Configura a tabela de tarefas
      */
     private void setupTable() {
-        colTitulo.setCellValueFactory(new PropertyValueFactory<>("titulo"));
-        colProjeto.setCellValueFactory(new PropertyValueFactory<>("projetoNome"));
-        colResponsavel.setCellValueFactory(new PropertyValueFactory<>("responsavelNome"));
+        colTitulo.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
+                cellData.getValue().getTitulo()));
+        colProjeto.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
+                cellData.getValue().getProjetoNome()));
+        colResponsavel.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
+                cellData.getValue().getResponsavelNome()));
         colStatus.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
                 cellData.getValue().getStatus().getDescricao()));
         colPrioridade.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
                 cellData.getValue().getPrioridade().getDescricao()));
 
+        // Ordenação em português com chaves de ordenação em cache
+        CollationKeys chaves = new CollationKeys();
+        colTitulo.setComparator(chaves.comparator());
+        colProjeto.setComparator(chaves.comparator());
+        colResponsavel.setComparator(chaves.comparator());
+
         // Coluna de ações
         colAcoes.setCellFactory(param -> new TableCell<Tarefa, Void>() {
             private final Button btnEditar = new Button("Editar");
@@ -117,7 +177,60 @@ public class TarefaListController {
             }
         });
 
-        tblTarefas.setItems(tarefas);
+        // A ordenação da tabela não altera a lista base (mantida pelo DeltaSync)
+        SortedList<Tarefa> tarefasOrdenadas = new SortedList<>(tarefasFiltradas);
+        tarefasOrdenadas.comparatorProperty().bind(tblTarefas.comparatorProperty());
+        tblTarefas.setItems(tarefasOrdenadas);
+    }
+
+    /**
+     * Configura a barra de filtros
+     */
+    private void setupFiltros() {
+        cbFiltroStatus.setItems(FXCollections.observableArrayList(Tarefa.Status.values()));
+        cbFiltroPrioridade.setItems(FXCollections.observableArrayList(Tarefa.Prioridade.values()));
+
+        try {
+            cbFiltroProjeto.setItems(FXCollections.observableArrayList(projetoDAO.findAll()));
+            cbFiltroResponsavel.setItems(FXCollections.observableArrayList(usuarioDAO.findAll()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            MainApp.showError("Erro", "Erro ao carregar filtros: " + e.getMessage());
+        }
+
+        cbFiltroStatus.valueProperty().addListener((obs, anterior, valor) -> aplicarFiltros());
+        cbFiltroPrioridade.valueProperty().addListener((obs, anterior, valor) -> aplicarFiltros());
+        cbFiltroProjeto.valueProperty().addListener((obs, anterior, valor) -> aplicarFiltros());
+        cbFiltroResponsavel.valueProperty().addListener((obs, anterior, valor) -> aplicarFiltros());
+
+        // Busca por texto só é aplicada após uma pausa na digitação
+        pausaBusca.setOnFinished(event -> aplicarFiltros());
+        txtBusca.textProperty().addListener((obs, anterior, valor) -> pausaBusca.playFromStart());
+    }
+
+    /**
+     * Aplica os filtros selecionados
+     */
+    private void aplicarFiltros() {
+        filtro.setCriterio("status", cbFiltroStatus.getValue());
+        filtro.setCriterio("prioridade", cbFiltroPrioridade.getValue());
+        filtro.setCriterio("projeto", cbFiltroProjeto.getValue() != null ? cbFiltroProjeto.getValue().getId() : null);
+        filtro.setCriterio("responsavel",
+                cbFiltroResponsavel.getValue() != null ? cbFiltroResponsavel.getValue().getId() : null);
+        filtro.setTexto(txtBusca.getText());
+
+        tarefasFiltradas.setPredicate(filtro.predicate());
+    }
+
+    @FXML
+    private void handleLimparFiltros() {
+        pausaBusca.stop();
+        txtBusca.clear();
+        cbFiltroStatus.setValue(null);
+        cbFiltroPrioridade.setValue(null);
+        cbFiltroProjeto.setValue(null);
+        cbFiltroResponsavel.setValue(null);
+        aplicarFiltros();
     }
 
     /**
@@ -135,14 +248,43 @@ public class TarefaListController {
                 lista = tarefaDAO.findAll();
             }
 
-            tarefas.clear();
-            tarefas.addAll(lista);
+            sync.carregar(lista);
         } catch (Exception e) {
             e.printStackTrace();
             MainApp.showError("Erro", "Erro ao carregar tarefas: " + e.getMessage());
         }
     }
 
+    /**
+     * Atualiza a lista apenas com as tarefas alteradas desde a última carga
+     */
+    private void atualizarTarefas() {
+        if (!sync.isCarregado()) {
+            loadTarefas();
+            return;
+        }
+
+        try {
+            sync.aplicar(tarefaDAO.findAlteradasDesde(sync.getDesde()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            MainApp.showError("Erro", "Erro ao atualizar tarefas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Indica se a tarefa deve aparecer nesta listagem
+     */
+    private boolean isVisivel(Tarefa tarefa) {
+        if (!tarefa.isAtivo()) {
+            return false;
+        }
+        if (somenteMinhasTarefas || SessionManager.isColaborador()) {
+            return SessionManager.getUsuarioLogado().getId().equals(tarefa.getResponsavelId());
+        }
+        return true;
+    }
+
     @FXML
     private void handleNova() {
         openTarefaForm(null);
@@ -150,7 +292,71 @@ public class TarefaListController {
 
     @FXML
     private void handleRefresh() {
-        loadTarefas();
+        atualizarTarefas();
+    }
+
+    /**
+     * Redistribui as tarefas pendentes do projeto selecionado no filtro entre
+     * os membros do projeto, pela carga de trabalho em aberto
+     */
+    @FXML
+    private void handleDistribuir() {
+        Projeto projeto = cbFiltroProjeto.getValue();
+        if (projeto == null) {
+            MainApp.showError("Erro", "Selecione um projeto no filtro para distribuir as tarefas.");
+            return;
+        }
+
+        if (!SessionManager.isAdministrador() && !SessionManager.isGerenteOfProject(projeto.getGerenteId())) {
+            MainApp.showError("Erro", "Você não tem permissão para distribuir as tarefas deste projeto.");
+            return;
+        }
+
+        if (!MainApp.showConfirmation("Confirmação",
+                "Redistribuir as tarefas pendentes do projeto '" + projeto.getNome() + "'?\n" +
+                        "Os responsáveis serão escolhidos pela carga de trabalho de cada membro.")) {
+            return;
+        }
+
+        btnDistribuir.setDisable(true);
+
+        Task<Integer> distribuicao = new Task<>() {
+            @Override
+            protected Integer call() throws Exception {
+                List<Tarefa> pendentes = new ArrayList<>();
+                for (Tarefa tarefa : tarefaDAO.findByProjeto(projeto.getId())) {
+                    if (tarefa.getStatus() == Tarefa.Status.PENDENTE) {
+                        pendentes.add(tarefa);
+                    }
+                }
+
+                Map<Integer, Integer> alteracoes = new HashMap<>();
+                for (Tarefa tarefa : AtribuicaoEngine.carregar().redistribuir(pendentes)) {
+                    alteracoes.put(tarefa.getId(), tarefa.getResponsavelId());
+                }
+                if (!alteracoes.isEmpty()) {
+                    tarefaDAO.updateResponsaveis(alteracoes);
+                }
+                return alteracoes.size();
+            }
+        };
+
+        distribuicao.setOnSucceeded(event -> {
+            btnDistribuir.setDisable(false);
+            atualizarTarefas();
+            MainApp.showInfo("Sucesso", distribuicao.getValue() + " tarefa(s) mudaram de responsável.");
+        });
+
+        distribuicao.setOnFailed(event -> {
+            btnDistribuir.setDisable(false);
+            Throwable erro = distribuicao.getException();
+            erro.printStackTrace();
+            MainApp.showError("Erro", "Erro ao distribuir tarefas: " + erro.getMessage());
+        });
+
+        Thread thread = new Thread(Rastreamento.propagar("distribuicao-tarefas", distribuicao), "distribuicao-tarefas");
+        thread.setDaemon(true);
+        thread.start();
     }
 
     /**
@@ -174,7 +380,7 @@ public class TarefaListController {
             dialog.showAndWait().ifPresent(novoStatus -> {
                 try {
                     tarefaDAO.updateStatus(tarefa.getId(), novoStatus);
-                    loadTarefas();
+                    atualizarTarefas();
                     MainApp.showInfo("Sucesso", "Status da tarefa atualizado.");
                 } catch (Exception e) {
                     e.printStackTrace();
@@ -193,8 +399,8 @@ public class TarefaListController {
      */
     private void openTarefaForm(Tarefa tarefa) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/TarefaForm.fxml"));
-            Scene scene = new Scene(loader.load());
+            FXMLLoader loader = FxmlCache.loader("/fxml/TarefaForm.fxml");
+            Scene scene = new Scene(FxmlCache.load(loader));
 
             TarefaFormController controller = loader.getController();
             if (tarefa != null) {
@@ -208,7 +414,7 @@ public class TarefaListController {
             stage.initOwner(MainApp.getPrimaryStage());
             stage.setResizable(false);
 
-            stage.setOnHidden(e -> loadTarefas());
+            stage.setOnHidden(e -> atualizarTarefas());
 
             stage.showAndWait();
 
@@ -6,8 +6,10 @@ import javafx.stage.Stage;
 import javafx.collections.FXCollections;
 
 import com.gestao.projetos.MainApp;
+import com.gestao.projetos.dao.ConflitoVersaoException;
 import com.gestao.projetos.dao.UsuarioDAO;
 import com.gestao.projetos.model.Usuario;
+import com.gestao.projetos.util.Mesclagem;
 import com.gestao.projetos.util.ValidationUtils;
 
 /**
@@ -32,6 +34,14 @@ public class UsuarioFormController {
 
     private UsuarioDAO usuarioDAO = new UsuarioDAO();
     private Usuario usuario; // null = novo usuário
+    private Usuario base; // Campos como estavam ao abrir a edição
+
+    // Campos do formulário, para mesclar edições concorrentes
+    private final Mesclagem<Usuario> mesclagem = new Mesclagem<>(Usuario::new)
+            .campo("Nome", Usuario::getNome, Usuario::setNome)
+            .campo("Email", Usuario::getEmail, Usuario::setEmail)
+            .campo("Login", Usuario::getLogin, Usuario::setLogin)
+            .campo("Perfil", Usuario::getPerfil, Usuario::setPerfil, Usuario.Perfil::getDescricao);
 
     @FXML
     private void initialize() {
@@ -45,6 +55,7 @@ public class UsuarioFormController {
      */
     public void setUsuario(Usuario usuario) {
         this.usuario = usuario;
+        this.base = mesclagem.copiar(usuario);
         lblTitle.setText("Editar Usuário");
         btnSalvar.setText("Atualizar");
 
@@ -66,9 +77,9 @@ public class UsuarioFormController {
             if (usuario == null) {
                 // Novo usuário
                 criarNovoUsuario();
-            } else {
-                // Atualizar usuário existente
-                atualizarUsuario();
+            } else if (!atualizarUsuario()) {
+                // Usuário desistiu de mesclar com a alteração concorrente
+                return;
             }
 
             // Fecha janela
@@ -143,7 +154,7 @@ public class UsuarioFormController {
         novoUsuario.setNome(txtNome.getText().trim());
         novoUsuario.setEmail(txtEmail.getText().trim());
         novoUsuario.setLogin(txtLogin.getText().trim());
-        novoUsuario.setSenha(txtSenha.getText()); // Em produção, use hash
+        novoUsuario.setSenha(txtSenha.getText()); // Hash gerado pelo DAO
         novoUsuario.setPerfil(cbPerfil.getValue());
 
         usuarioDAO.save(novoUsuario);
@@ -151,22 +162,40 @@ public class UsuarioFormController {
     }
 
     /**
-     * Atualiza usuário existente
+     * Atualiza usuário existente; se outro usuário o alterou nesse meio
+     * tempo, mescla as edições e tenta de novo (false se o usuário desistir)
      */
-    private void atualizarUsuario() throws Exception {
+    private boolean atualizarUsuario() throws Exception {
         usuario.setNome(txtNome.getText().trim());
         usuario.setEmail(txtEmail.getText().trim());
         usuario.setLogin(txtLogin.getText().trim());
         usuario.setPerfil(cbPerfil.getValue());
 
-        usuarioDAO.update(usuario);
+        while (true) {
+            try {
+                usuarioDAO.update(usuario);
+                break;
+            } catch (ConflitoVersaoException e) {
+                Usuario atual = (Usuario) e.getAtual();
+                if (atual == null) {
+                    throw e;
+                }
+                if (!MesclagemDialog.resolver(mesclagem, base, usuario, atual)) {
+                    return false;
+                }
+                usuario.setVersao(atual.getVersao());
+                base = mesclagem.copiar(atual);
+            }
+        }
 
         // Atualiza senha se informada
         String novaSenha = txtSenha.getText();
         if (!novaSenha.isEmpty()) {
             usuarioDAO.updatePassword(usuario.getId(), novaSenha);
+            usuario.setVersao(usuario.getVersao() + 1);
         }
 
         MainApp.showInfo("Sucesso", "Usuário atualizado com sucesso.");
+        return true;
     }
 }
\ No newline at end of file
@@ -4,7 +4,6 @@ import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.collections.FXCollections;
@@ -13,6 +12,9 @@ import javafx.collections.ObservableList;
 import com.gestao.projetos.MainApp;
 import com.gestao.projetos.dao.UsuarioDAO;
 import com.gestao.projetos.model.Usuario;
+import com.gestao.projetos.util.ChangeFeed;
+import com.gestao.projetos.util.DeltaSync;
+import com.gestao.projetos.util.FxmlCache;
 import com.gestao.projetos.util.SessionManager;
 
 import java.util.List;
@@ -39,20 +41,27 @@ public class UsuarioListController {
 
     private UsuarioDAO usuarioDAO = new UsuarioDAO();
     private ObservableList<Usuario> usuarios = FXCollections.observableArrayList();
+    private DeltaSync<Usuario> sync = new DeltaSync<>(usuarios, Usuario::getId, Usuario::getDataAtualizacao,
+            Usuario::getVersao, DeltaSync.porTexto(Usuario::getNome), Usuario::isAtivo);
 
     @FXML
     private void initialize() {
         setupTable();
         loadUsuarios();
+        // Alterações feitas por outros usuários chegam pelo monitor compartilhado
+        ChangeFeed.subscribe(Usuario.class, tblUsuarios, sync::aplicar);
     }
 
     /**
      * Configura a tabela de usuários
      */
     private void setupTable() {
-        colNome.setCellValueFactory(new PropertyValueFactory<>("nome"));
-        colEmail.setCellValueFactory(new PropertyValueFactory<>("email"));
-        colLogin.setCellValueFactory(new PropertyValueFactory<>("login"));
+        colNome.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
+                cellData.getValue().getNome()));
+        colEmail.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
+                cellData.getValue().getEmail()));
+        colLogin.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
+                cellData.getValue().getLogin()));
         colPerfil.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
                 cellData.getValue().getPerfil().getDescricao()));
         colStatus.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
@@ -92,14 +101,30 @@ public class UsuarioListController {
     private void loadUsuarios() {
         try {
             List<Usuario> lista = usuarioDAO.findAll();
-            usuarios.clear();
-            usuarios.addAll(lista);
+            sync.carregar(lista);
         } catch (Exception e) {
             e.printStackTrace();
             MainApp.showError("Erro", "Erro ao carregar usuários: " + e.getMessage());
         }
     }
 
+    /**
+     * Atualiza a lista apenas com os usuários alterados desde a última carga
+     */
+    private void atualizarUsuarios() {
+        if (!sync.isCarregado()) {
+            loadUsuarios();
+            return;
+        }
+
+        try {
+            sync.aplicar(usuarioDAO.findAlteradosDesde(sync.getDesde()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            MainApp.showError("Erro", "Erro ao atualizar usuários: " + e.getMessage());
+        }
+    }
+
     @FXML
     private void handleNovo() {
         openUsuarioForm(null);
@@ -107,7 +132,7 @@ public class UsuarioListController {
 
     @FXML
     private void handleRefresh() {
-        loadUsuarios();
+        atualizarUsuarios();
     }
 
     /**
@@ -130,7 +155,7 @@ public class UsuarioListController {
                 "Tem certeza que deseja excluir o usuário '" + usuario.getNome() + "'?")) {
             try {
                 usuarioDAO.deactivate(usuario.getId());
-                loadUsuarios();
+                atualizarUsuarios();
                 MainApp.showInfo("Sucesso", "Usuário excluído com sucesso.");
             } catch (Exception e) {
                 e.printStackTrace();
@@ -144,8 +169,8 @@ public class UsuarioListController {
      */
     private void openUsuarioForm(Usuario usuario) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/UsuarioForm.fxml"));
-            Scene scene = new Scene(loader.load());
+            FXMLLoader loader = FxmlCache.loader("/fxml/UsuarioForm.fxml");
+            Scene scene = new Scene(FxmlCache.load(loader));
 
             UsuarioFormController controller = loader.getController();
             if (usuario != null) {
@@ -159,7 +184,7 @@ public class UsuarioListController {
             stage.initOwner(MainApp.getPrimaryStage());
             stage.setResizable(false);
 
-            stage.setOnHidden(e -> loadUsuarios()); // Atualiza lista após fechar
+            stage.setOnHidden(e -> atualizarUsuarios()); // Atualiza lista após fechar
 
             stage.showAndWait();
 
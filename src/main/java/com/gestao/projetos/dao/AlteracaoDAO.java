@@ -0,0 +1,65 @@
+package com.gestao.projetos.dao;
+
+import com.gestao.projetos.util.DatabaseConnection;
+import com.gestao.projetos.util.Shards;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * DAO para consulta das últimas alterações das tabelas (usado pelo ChangeFeed)
+ */
+public class AlteracaoDAO {
+
+    public static final String USUARIOS = "usuarios";
+    public static final String PROJETOS = "projetos";
+    public static final String TAREFAS = "tarefas";
+
+    /**
+     * Retorna a maior data_atualizacao de cada tabela em uma única consulta
+     * (resolvida pelos índices em data_atualizacao)
+     */
+    public Map<String, LocalDateTime> findUltimasAtualizacoes() throws SQLException {
+        Map<String, LocalDateTime> resultado = new HashMap<>();
+        String sql = """
+                SELECT (SELECT MAX(data_atualizacao) FROM usuarios) as usuarios,
+                       (SELECT MAX(data_atualizacao) FROM projetos) as projetos,
+                       (SELECT MAX(data_atualizacao) FROM tarefas) as tarefas
+                """;
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql);
+                ResultSet rs = stmt.executeQuery()) {
+
+            if (rs.next()) {
+                for (String tabela : new String[] { USUARIOS, PROJETOS, TAREFAS }) {
+                    Timestamp ultima = rs.getTimestamp(tabela);
+                    if (ultima != null) {
+                        resultado.put(tabela, ultima.toLocalDateTime());
+                    }
+                }
+            }
+        }
+
+        // Com as tarefas em bases separadas, vale a maior entre as bases
+        if (Shards.isAtivo()) {
+            resultado.remove(TAREFAS);
+            for (Timestamp ultima : Shards.consultar(AlteracaoDAO::ultimaTarefa)) {
+                if (ultima != null && (!resultado.containsKey(TAREFAS)
+                        || ultima.toLocalDateTime().isAfter(resultado.get(TAREFAS)))) {
+                    resultado.put(TAREFAS, ultima.toLocalDateTime());
+                }
+            }
+        }
+        return resultado;
+    }
+
+    private static Timestamp ultimaTarefa(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT MAX(data_atualizacao) FROM tarefas");
+                ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getTimestamp(1) : null;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.gestao.projetos.dao;
+
+import com.gestao.projetos.model.RegistroAuditoria;
+import com.gestao.projetos.util.DatabaseConnection;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DAO para a trilha de auditoria. As gravações chegam em lote pela
+ * Auditoria (fila assíncrona); as consultas alimentam a tela de auditoria.
+ */
+public class AuditoriaDAO {
+
+    private static final int TAMANHO_LOTE = 500;
+
+    /**
+     * Grava os registros em uma única transação
+     */
+    public void gravar(List<RegistroAuditoria> registros) throws SQLException {
+        String sql = """
+                INSERT INTO auditoria (entidade, entidade_id, operacao, usuario_id, momento, campos)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """;
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                int pendentes = 0;
+                for (RegistroAuditoria registro : registros) {
+                    stmt.setString(1, registro.getEntidade().name());
+                    stmt.setInt(2, registro.getEntidadeId());
+                    stmt.setString(3, registro.getOperacao().name());
+                    if (registro.getUsuarioId() != null) {
+                        stmt.setInt(4, registro.getUsuarioId());
+                    } else {
+                        stmt.setNull(4, Types.INTEGER);
+                    }
+                    stmt.setTimestamp(5, Timestamp.valueOf(registro.getMomento()));
+                    stmt.setString(6, registro.getCamposTexto());
+                    stmt.addBatch();
+
+                    if (++pendentes == TAMANHO_LOTE) {
+                        stmt.executeBatch();
+                        pendentes = 0;
+                    }
+                }
+                if (pendentes > 0) {
+                    stmt.executeBatch();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Busca os registros mais recentes de um tipo de entidade (de uma
+     * entidade específica, se entidadeId não for nulo), em ordem cronológica
+     */
+    public List<RegistroAuditoria> findByEntidade(RegistroAuditoria.Entidade entidade, Integer entidadeId, int limite)
+            throws SQLException {
+        List<RegistroAuditoria> registros = new ArrayList<>();
+        String sql = """
+                SELECT * FROM (
+                    SELECT a.id, a.entidade, a.entidade_id, a.operacao, a.usuario_id, a.momento, a.campos,
+                           u.nome as usuario_nome
+                    FROM auditoria a
+                    LEFT JOIN usuarios u ON a.usuario_id = u.id
+                    WHERE a.entidade = ? %s
+                    ORDER BY a.momento DESC, a.id DESC
+                    LIMIT ?
+                ) recentes
+                ORDER BY momento, id
+                """.formatted(entidadeId != null ? "AND a.entidade_id = ?" : "");
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int p = 1;
+            stmt.setString(p++, entidade.name());
+            if (entidadeId != null) {
+                stmt.setInt(p++, entidadeId);
+            }
+            stmt.setInt(p, limite);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    RegistroAuditoria registro = new RegistroAuditoria();
+                    registro.setId(rs.getLong("id"));
+                    registro.setEntidade(RegistroAuditoria.Entidade.valueOf(rs.getString("entidade")));
+                    registro.setEntidadeId(rs.getInt("entidade_id"));
+                    registro.setOperacao(RegistroAuditoria.Operacao.valueOf(rs.getString("operacao")));
+                    int usuarioId = rs.getInt("usuario_id");
+                    registro.setUsuarioId(rs.wasNull() ? null : usuarioId);
+                    registro.setUsuarioNome(rs.getString("usuario_nome"));
+                    registro.setMomento(rs.getTimestamp("momento").toLocalDateTime());
+                    registro.setCamposTexto(rs.getString("campos"));
+                    registros.add(registro);
+                }
+            }
+        }
+        return registros;
+    }
+}
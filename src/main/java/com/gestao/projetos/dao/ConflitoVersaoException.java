@@ -0,0 +1,63 @@
+package com.gestao.projetos.dao;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Gravação recusada porque o registro foi alterado (ou removido) por outro
+ * usuário depois de lido: a versão esperada não é mais a do banco.
+ *
+ * Estende SQLException para seguir o mesmo caminho de erro das demais
+ * falhas de gravação; quem sabe mesclar trata esta exceção à parte.
+ */
+public class ConflitoVersaoException extends SQLException {
+
+    private static final long serialVersionUID = 1L;
+
+    // Cópia do registro lida para exibir o conflito, não faz parte da forma serializada
+    private final transient Object atual;
+    private final List<String> campos;
+
+    private ConflitoVersaoException(String mensagem, Object atual, List<String> campos) {
+        super(mensagem);
+        this.atual = atual;
+        this.campos = List.copyOf(campos);
+    }
+
+    /**
+     * Conflito com o registro atual; campos são os que diferem entre os
+     * valores recusados e os atuais (mesmos nomes da auditoria)
+     */
+    static ConflitoVersaoException alterado(Object atual, Map<String, String> recusados,
+            Map<String, String> atuais) {
+        List<String> campos = new ArrayList<>();
+        for (Map.Entry<String, String> campo : recusados.entrySet()) {
+            if (!Objects.equals(campo.getValue(), atuais.get(campo.getKey()))) {
+                campos.add(campo.getKey());
+            }
+        }
+        return new ConflitoVersaoException("O registro foi alterado por outro usuário"
+                + (campos.isEmpty() ? "." : " (campos: " + String.join(", ", campos) + ")."), atual, campos);
+    }
+
+    static ConflitoVersaoException removido() {
+        return new ConflitoVersaoException("O registro foi removido por outro usuário.", null, List.of());
+    }
+
+    /**
+     * Registro como está agora no banco (null se não existe mais)
+     */
+    public Object getAtual() {
+        return atual;
+    }
+
+    /**
+     * Campos em que a gravação recusada difere do registro atual
+     */
+    public List<String> getCampos() {
+        return campos;
+    }
+}
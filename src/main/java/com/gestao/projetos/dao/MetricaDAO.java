@@ -0,0 +1,249 @@
+package com.gestao.projetos.dao;
+
+import com.gestao.projetos.util.DatabaseConnection;
+
+import java.sql.*;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DAO para as séries históricas de métricas (metrica_ponto).
+ *
+ * Cada ponto guarda o valor de uma métrica ao final de uma hora, dia ou
+ * semana. Os pontos são gravados apenas quando o valor muda (além de um ponto
+ * de referência periódico, ver Resolucao), e a leitura repete o último valor
+ * nos períodos sem ponto. Assim um gráfico de dois anos lê cerca de uma
+ * centena de linhas na resolução semanal.
+ */
+public class MetricaDAO {
+
+    private static final int TAMANHO_LOTE = 500;
+
+    /**
+     * A quem a métrica se refere (o código gravado é o ordinal)
+     */
+    public enum Escopo {
+        GERAL,
+        PROJETO,
+        USUARIO
+    }
+
+    /**
+     * Métricas registradas (o código gravado é o ordinal; novas entram no final)
+     */
+    public enum Metrica {
+        TAREFAS_ABERTAS("Tarefas em aberto"),
+        TAREFAS_ATRASADAS("Tarefas atrasadas"),
+        TAREFAS_CONCLUIDAS("Tarefas concluídas");
+
+        private final String descricao;
+
+        Metrica(String descricao) {
+            this.descricao = descricao;
+        }
+
+        public String getDescricao() {
+            return descricao;
+        }
+
+        @Override
+        public String toString() {
+            return descricao;
+        }
+    }
+
+    /**
+     * Resoluções das séries. Um ponto com valor repetido ainda é gravado a
+     * cada "referencia" períodos, para que a limpeza dos pontos antigos nunca
+     * remova o único valor de uma série estável.
+     */
+    public enum Resolucao {
+        HORA(ChronoUnit.HOURS, 24),
+        DIA(ChronoUnit.DAYS, 7),
+        SEMANA(ChronoUnit.WEEKS, 4);
+
+        private final ChronoUnit unidade;
+        private final int referencia;
+
+        Resolucao(ChronoUnit unidade, int referencia) {
+            this.unidade = unidade;
+            this.referencia = referencia;
+        }
+
+        /**
+         * Início (em segundos desde 1970) do período que contém o instante,
+         * no fuso local; a semana começa na segunda-feira
+         */
+        public long inicio(long segundos) {
+            ZonedDateTime momento = Instant.ofEpochSecond(segundos).atZone(ZoneId.systemDefault());
+            ZonedDateTime inicio = switch (this) {
+                case HORA -> momento.truncatedTo(ChronoUnit.HOURS);
+                case DIA -> momento.toLocalDate().atStartOfDay(momento.getZone());
+                case SEMANA -> momento.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                        .atStartOfDay(momento.getZone());
+            };
+            return inicio.toEpochSecond();
+        }
+
+        /**
+         * Início do período seguinte
+         */
+        public long proximo(long inicio) {
+            return Instant.ofEpochSecond(inicio).atZone(ZoneId.systemDefault()).plus(1, unidade).toEpochSecond();
+        }
+
+        /**
+         * Indica se o ponto de referência da série já é devido
+         */
+        public boolean isReferenciaDevida(long ultimoInicio, long inicio) {
+            return inicio - ultimoInicio >= unidade.getDuration().getSeconds() * referencia;
+        }
+
+        /**
+         * Resolução que mantém o período com no máximo algumas centenas de pontos
+         */
+        public static Resolucao para(Duration periodo) {
+            if (periodo.toDays() <= 3) {
+                return HORA;
+            }
+            return periodo.toDays() <= 180 ? DIA : SEMANA;
+        }
+    }
+
+    /**
+     * Ponto a gravar
+     */
+    public record Amostra(Escopo escopo, int entidadeId, Metrica metrica, Resolucao resolucao, long inicio,
+            int valor) {
+    }
+
+    /**
+     * Ponto lido de uma série
+     */
+    public record Ponto(LocalDateTime inicio, int valor) {
+    }
+
+    /**
+     * Grava os pontos (substituindo o valor de um período já gravado)
+     */
+    public void gravar(List<Amostra> amostras) throws SQLException {
+        String sql = """
+                INSERT INTO metrica_ponto (escopo, entidade_id, metrica, resolucao, inicio, valor)
+                VALUES (?, ?, ?, ?, ?, ?)
+                ON DUPLICATE KEY UPDATE valor = VALUES(valor)
+                """;
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                int pendentes = 0;
+                for (Amostra amostra : amostras) {
+                    stmt.setInt(1, amostra.escopo().ordinal());
+                    stmt.setInt(2, amostra.entidadeId());
+                    stmt.setInt(3, amostra.metrica().ordinal());
+                    stmt.setInt(4, amostra.resolucao().ordinal());
+                    stmt.setLong(5, amostra.inicio());
+                    stmt.setInt(6, amostra.valor());
+                    stmt.addBatch();
+
+                    if (++pendentes == TAMANHO_LOTE) {
+                        stmt.executeBatch();
+                        pendentes = 0;
+                    }
+                }
+                if (pendentes > 0) {
+                    stmt.executeBatch();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Remove os pontos da resolução anteriores ao instante (segundos desde 1970)
+     */
+    public int removerAntigos(Resolucao resolucao, long antesDe) throws SQLException {
+        String sql = "DELETE FROM metrica_ponto WHERE resolucao = ? AND inicio < ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, resolucao.ordinal());
+            stmt.setLong(2, antesDe);
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Série da métrica no período [de, ate), com um ponto por período da
+     * resolução adequada ao intervalo. Períodos anteriores ao primeiro valor
+     * conhecido ficam de fora.
+     */
+    public List<Ponto> findSerie(Escopo escopo, int entidadeId, Metrica metrica, LocalDateTime de,
+            LocalDateTime ate) throws SQLException {
+        ZoneId zona = ZoneId.systemDefault();
+        Resolucao resolucao = Resolucao.para(Duration.between(de, ate));
+        long inicio = resolucao.inicio(de.atZone(zona).toEpochSecond());
+        long fim = ate.atZone(zona).toEpochSecond();
+
+        // Último ponto anterior ao período (valor vigente no início) e os pontos do período
+        String sql = """
+                (SELECT inicio, valor FROM metrica_ponto
+                 WHERE escopo = ? AND entidade_id = ? AND metrica = ? AND resolucao = ? AND inicio < ?
+                 ORDER BY inicio DESC LIMIT 1)
+                UNION ALL
+                (SELECT inicio, valor FROM metrica_ponto
+                 WHERE escopo = ? AND entidade_id = ? AND metrica = ? AND resolucao = ? AND inicio >= ? AND inicio < ?)
+                ORDER BY inicio
+                """;
+
+        List<long[]> gravados = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (int parte = 0; parte < 2; parte++) {
+                int p = parte * 5;
+                stmt.setInt(p + 1, escopo.ordinal());
+                stmt.setInt(p + 2, entidadeId);
+                stmt.setInt(p + 3, metrica.ordinal());
+                stmt.setInt(p + 4, resolucao.ordinal());
+                stmt.setLong(p + 5, inicio);
+            }
+            stmt.setLong(11, fim);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    gravados.add(new long[] { rs.getLong(1), rs.getInt(2) });
+                }
+            }
+        }
+
+        // Preenche os períodos sem ponto com o último valor
+        List<Ponto> serie = new ArrayList<>();
+        int proximo = 0;
+        Integer valor = null;
+        for (long periodo = inicio; periodo < fim; periodo = resolucao.proximo(periodo)) {
+            while (proximo < gravados.size() && gravados.get(proximo)[0] <= periodo) {
+                valor = (int) gravados.get(proximo++)[1];
+            }
+            if (valor != null) {
+                serie.add(new Ponto(LocalDateTime.ofInstant(Instant.ofEpochSecond(periodo), zona), valor));
+            }
+        }
+        return serie;
+    }
+}
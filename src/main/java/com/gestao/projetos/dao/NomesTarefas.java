@@ -0,0 +1,74 @@
+package com.gestao.projetos.dao;
+
+import com.gestao.projetos.model.Tarefa;
+import com.gestao.projetos.util.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Nomes dos projetos e dos usuários, lidos do banco principal, para
+ * completar as tarefas lidas das bases separadas (ver Shards), onde não há
+ * junção com projetos e usuários. Uma instância por consulta: os nomes são
+ * lidos na criação e não são atualizados.
+ */
+class NomesTarefas {
+
+    private final Map<Integer, String> projetos = new HashMap<>();
+    private final Map<Integer, String> usuarios = new HashMap<>();
+
+    NomesTarefas() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnectionLeitura()) {
+            carregar(conn, "SELECT id, nome FROM projetos", projetos);
+            carregar(conn, "SELECT id, nome FROM usuarios", usuarios);
+        }
+    }
+
+    /**
+     * Preenche o nome do projeto e do responsável da tarefa
+     */
+    void preencher(Tarefa tarefa) {
+        tarefa.setProjetoNome(projetos.get(tarefa.getProjetoId()));
+        tarefa.setResponsavelNome(usuarios.get(tarefa.getResponsavelId()));
+    }
+
+    void preencher(List<Tarefa> tarefas) {
+        for (Tarefa tarefa : tarefas) {
+            preencher(tarefa);
+        }
+    }
+
+    /**
+     * Preenche os nomes de uma única tarefa, sem carregar todos
+     */
+    static void preencherUma(Tarefa tarefa) throws SQLException {
+        String sql = "SELECT (SELECT nome FROM projetos WHERE id = ?), (SELECT nome FROM usuarios WHERE id = ?)";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, tarefa.getProjetoId());
+            stmt.setInt(2, tarefa.getResponsavelId());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    tarefa.setProjetoNome(rs.getString(1));
+                    tarefa.setResponsavelNome(rs.getString(2));
+                }
+            }
+        }
+    }
+
+    private static void carregar(Connection conn, String sql, Map<Integer, String> destino) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql);
+                ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                destino.put(rs.getInt(1), rs.getString(2));
+            }
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package com.gestao.projetos.dao;
+
+import com.gestao.projetos.model.OperacaoProjeto;
+import com.gestao.projetos.util.AlertaPrazos;
+import com.gestao.projetos.util.DatabaseConnection;
+import com.gestao.projetos.util.Shards;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * DAO para as operações em cascata sobre projetos (projeto_operacao) e para
+ * o processamento de cada lote de tarefas.
+ *
+ * Cada lote é uma transação curta: seleciona (FOR UPDATE) as próximas
+ * tarefas em ordem de id a partir do cursor, atualiza-as e grava o novo
+ * cursor na operação. Os bloqueios duram só o lote, e não a operação
+ * inteira, e o progresso gravado junto com as tarefas permite retomar
+ * exatamente de onde parou.
+ *
+ * A coluna executor identifica a instância do aplicativo que está
+ * processando a operação; o progresso só é gravado por ela, de modo que uma
+ * operação assumida por outra instância (após ficar parada por muito tempo)
+ * não é processada pelas duas.
+ *
+ * Com as tarefas em bases separadas (Shards), o lote é gravado na base do
+ * projeto e o cursor, no banco principal, logo em seguida.
+ */
+public class OperacaoProjetoDAO {
+
+    private static final String SQL_SELECT = """
+            SELECT o.*, p.nome as projeto_nome
+            FROM projeto_operacao o
+            INNER JOIN projetos p ON o.projeto_id = p.id
+            """;
+
+    /**
+     * Grava uma nova operação já assumida pelo executor, com o total de
+     * tarefas a processar. Retorna false, sem gravar nada, se o projeto já
+     * tem uma operação pendente ou em execução.
+     */
+    public boolean save(OperacaoProjeto operacao, String executor) throws SQLException {
+        String sqlTotal = "SELECT COUNT(*) FROM tarefas WHERE " + filtroTarefas(operacao) + " AND projeto_id = ?";
+        // Inclusão condicional: a verificação e a gravação são um único comando
+        String sql = """
+                INSERT INTO projeto_operacao
+                    (projeto_id, tipo, gerente_anterior_id, gerente_novo_id, total, status, executor, usuario_id)
+                SELECT p.id, ?, ?, ?, ?, 'EXECUTANDO', ?, ?
+                FROM projetos p
+                WHERE p.id = ?
+                  AND NOT EXISTS (SELECT 1 FROM projeto_operacao o
+                                  WHERE o.projeto_id = p.id AND o.status IN ('PENDENTE', 'EXECUTANDO'))
+                """;
+
+        try (Connection conn = Shards.getConnection(operacao.getProjetoId());
+                PreparedStatement stmt = conn.prepareStatement(sqlTotal)) {
+            int p = parametrosFiltro(stmt, operacao, 1);
+            stmt.setInt(p, operacao.getProjetoId());
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                operacao.setTotal(rs.getInt(1));
+            }
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try {
+                // O lock na linha do projeto enfileira os agendamentos simultâneos do mesmo projeto
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "SELECT id FROM projetos WHERE id = ? FOR UPDATE")) {
+                    stmt.setInt(1, operacao.getProjetoId());
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        rs.next();
+                    }
+                }
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    stmt.setString(1, operacao.getTipo().name());
+                    setInteger(stmt, 2, operacao.getGerenteAnteriorId());
+                    setInteger(stmt, 3, operacao.getGerenteNovoId());
+                    stmt.setInt(4, operacao.getTotal());
+                    stmt.setString(5, executor);
+                    setInteger(stmt, 6, operacao.getUsuarioId());
+                    stmt.setInt(7, operacao.getProjetoId());
+
+                    if (stmt.executeUpdate() == 0) {
+                        conn.rollback();
+                        return false;
+                    }
+                    try (ResultSet rs = stmt.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            operacao.setId(rs.getLong(1));
+                        }
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        operacao.setStatus(OperacaoProjeto.Status.EXECUTANDO);
+        return true;
+    }
+
+    /**
+     * Busca as operações a retomar: as liberadas (PENDENTE) e as em execução
+     * sem progresso há mais de abandonoMinutos (instância encerrada no meio)
+     */
+    public List<OperacaoProjeto> findRetomaveis(int abandonoMinutos) throws SQLException {
+        List<OperacaoProjeto> operacoes = new ArrayList<>();
+        String sql = SQL_SELECT + """
+                WHERE o.status = 'PENDENTE'
+                   OR (o.status = 'EXECUTANDO' AND o.data_atualizacao < TIMESTAMPADD(MINUTE, -?, NOW()))
+                ORDER BY o.id
+                """;
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, abandonoMinutos);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    operacoes.add(map(rs));
+                }
+            }
+        }
+        return operacoes;
+    }
+
+    /**
+     * Assume uma operação retomável para o executor; false se outra
+     * instância a assumiu antes
+     */
+    public boolean assumir(OperacaoProjeto operacao, String executor, int abandonoMinutos) throws SQLException {
+        String sql = """
+                UPDATE projeto_operacao SET
+                    status = 'EXECUTANDO', executor = ?, data_atualizacao = CURRENT_TIMESTAMP
+                WHERE id = ?
+                  AND (status = 'PENDENTE'
+                       OR (status = 'EXECUTANDO' AND data_atualizacao < TIMESTAMPADD(MINUTE, -?, NOW())))
+                """;
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, executor);
+            stmt.setLong(2, operacao.getId());
+            stmt.setInt(3, abandonoMinutos);
+            if (stmt.executeUpdate() == 0) {
+                return false;
+            }
+        }
+        operacao.setStatus(OperacaoProjeto.Status.EXECUTANDO);
+        return true;
+    }
+
+    /**
+     * Devolve como pendentes as operações em execução pelo executor, para
+     * que outra instância (ou esta, no próximo login) as retome sem esperar
+     */
+    public void liberar(String executor) throws SQLException {
+        String sql = """
+                UPDATE projeto_operacao SET
+                    status = 'PENDENTE', executor = NULL, data_atualizacao = CURRENT_TIMESTAMP
+                WHERE executor = ? AND status = 'EXECUTANDO'
+                """;
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, executor);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Aplica a operação ao próprio projeto. Só altera o registro se ele
+     * ainda não estiver no estado final, para que a retomada possa repeti-la.
+     * Retorna false se o projeto já estava no estado final.
+     */
+    public boolean aplicarProjeto(OperacaoProjeto operacao) throws SQLException {
+        String alteracao = switch (operacao.getTipo()) {
+            case CANCELAMENTO -> "status = 'CANCELADO'";
+            case ARQUIVAMENTO -> "ativo = FALSE";
+            case TROCA_GERENTE -> "gerente_id = ?";
+        };
+        String condicao = switch (operacao.getTipo()) {
+            case CANCELAMENTO -> "status <> 'CANCELADO'";
+            case ARQUIVAMENTO -> "ativo = TRUE";
+            case TROCA_GERENTE -> "gerente_id <> ?";
+        };
+        String sql = "UPDATE projetos SET " + alteracao
+                + ", data_atualizacao = CURRENT_TIMESTAMP, versao = versao + 1 WHERE id = ? AND " + condicao;
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            if (operacao.getTipo() == OperacaoProjeto.Tipo.TROCA_GERENTE) {
+                stmt.setInt(1, operacao.getGerenteNovoId());
+                stmt.setInt(2, operacao.getProjetoId());
+                stmt.setInt(3, operacao.getGerenteNovoId());
+            } else {
+                stmt.setInt(1, operacao.getProjetoId());
+            }
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Processa o próximo lote de até "limite" tarefas em uma transação e
+     * avança o cursor da operação. Retorna a quantidade processada (0 quando
+     * não resta nenhuma) ou -1 se a operação não pertence mais ao executor,
+     * caso em que nada é gravado (com as tarefas em bases separadas, só o
+     * cursor deixa de ser gravado).
+     */
+    public int processarLote(OperacaoProjeto operacao, String executor, int limite) throws SQLException {
+        String sqlSelecao = "SELECT id FROM tarefas WHERE " + filtroTarefas(operacao)
+                + " AND projeto_id = ? AND id > ? ORDER BY id LIMIT ? FOR UPDATE";
+
+        List<Integer> ids = new ArrayList<>();
+        boolean separada = Shards.isAtivo();
+        int ultima;
+
+        try (Connection conn = Shards.getConnection(operacao.getProjetoId())) {
+            conn.setAutoCommit(false);
+
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement(sqlSelecao)) {
+                    int p = parametrosFiltro(stmt, operacao, 1);
+                    stmt.setInt(p++, operacao.getProjetoId());
+                    stmt.setInt(p++, operacao.getUltimaTarefaId());
+                    stmt.setInt(p, limite);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            ids.add(rs.getInt(1));
+                        }
+                    }
+                }
+
+                if (!ids.isEmpty()) {
+                    atualizarTarefas(conn, operacao, ids);
+                }
+
+                ultima = ids.isEmpty() ? operacao.getUltimaTarefaId() : ids.get(ids.size() - 1);
+                if (!separada && !gravarProgresso(conn, operacao, executor, ultima, ids.size())) {
+                    conn.rollback();
+                    return -1;
+                }
+
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+
+        // Com as tarefas em outra base o progresso é gravado depois, à parte. Se a operação
+        // passou para outra instância, o lote já gravado não atende mais ao filtro e é ignorado por ela
+        if (separada) {
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                if (!gravarProgresso(conn, operacao, executor, ultima, ids.size())) {
+                    return -1;
+                }
+            }
+        }
+        operacao.setUltimaTarefaId(ultima);
+        operacao.setProcessadas(operacao.getProcessadas() + ids.size());
+
+        if (operacao.getTipo() != OperacaoProjeto.Tipo.TROCA_GERENTE) {
+            for (Integer id : ids) {
+                AlertaPrazos.remover(id);
+            }
+        }
+        return ids.size();
+    }
+
+    /**
+     * Grava o cursor e a quantidade processada; false se a operação não
+     * pertence mais ao executor
+     */
+    private static boolean gravarProgresso(Connection conn, OperacaoProjeto operacao, String executor, int ultima,
+            int processadas) throws SQLException {
+        String sql = """
+                UPDATE projeto_operacao SET
+                    ultima_tarefa_id = ?, processadas = processadas + ?, data_atualizacao = CURRENT_TIMESTAMP
+                WHERE id = ? AND executor = ? AND status = 'EXECUTANDO'
+                """;
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, ultima);
+            stmt.setInt(2, processadas);
+            stmt.setLong(3, operacao.getId());
+            stmt.setString(4, executor);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Marca a operação como concluída
+     */
+    public void concluir(OperacaoProjeto operacao, String executor) throws SQLException {
+        finalizar(operacao, executor, OperacaoProjeto.Status.CONCLUIDA, null);
+    }
+
+    /**
+     * Marca a operação como falha, com a mensagem de erro (não é retomada)
+     */
+    public void falhar(OperacaoProjeto operacao, String executor, String erro) throws SQLException {
+        finalizar(operacao, executor, OperacaoProjeto.Status.FALHA, erro);
+    }
+
+    private void finalizar(OperacaoProjeto operacao, String executor, OperacaoProjeto.Status status, String erro)
+            throws SQLException {
+        String sql = """
+                UPDATE projeto_operacao SET
+                    status = ?, executor = NULL, erro = ?, data_atualizacao = CURRENT_TIMESTAMP
+                WHERE id = ? AND executor = ?
+                """;
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, status.name());
+            stmt.setString(2, erro != null && erro.length() > 500 ? erro.substring(0, 500) : erro);
+            stmt.setLong(3, operacao.getId());
+            stmt.setString(4, executor);
+            stmt.executeUpdate();
+        }
+        operacao.setStatus(status);
+        operacao.setErro(erro);
+    }
+
+    /**
+     * Atualiza as tarefas do lote conforme o tipo da operação
+     */
+    private static void atualizarTarefas(Connection conn, OperacaoProjeto operacao, List<Integer> ids)
+            throws SQLException {
+        String alteracao = operacao.getTipo() == OperacaoProjeto.Tipo.TROCA_GERENTE
+                ? "responsavel_id = ?"
+                : "ativo = FALSE";
+        String sql = "UPDATE tarefas SET " + alteracao
+                + ", data_atualizacao = CURRENT_TIMESTAMP, versao = versao + 1 WHERE id IN ("
+                + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int p = 1;
+            if (operacao.getTipo() == OperacaoProjeto.Tipo.TROCA_GERENTE) {
+                stmt.setInt(p++, operacao.getGerenteNovoId());
+            }
+            for (Integer id : ids) {
+                stmt.setInt(p++, id);
+            }
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Condição das tarefas afetadas pela operação
+     */
+    private static String filtroTarefas(OperacaoProjeto operacao) {
+        return switch (operacao.getTipo()) {
+            case CANCELAMENTO -> "ativo = TRUE AND status NOT IN ('CONCLUIDA', 'CANCELADA')";
+            case ARQUIVAMENTO -> "ativo = TRUE";
+            case TROCA_GERENTE -> "ativo = TRUE AND status IN ('PENDENTE', 'EM_EXECUCAO') AND responsavel_id = ?";
+        };
+    }
+
+    /**
+     * Preenche os parâmetros de filtroTarefas a partir de "indice"; retorna o
+     * próximo índice livre
+     */
+    private static int parametrosFiltro(PreparedStatement stmt, OperacaoProjeto operacao, int indice)
+            throws SQLException {
+        if (operacao.getTipo() == OperacaoProjeto.Tipo.TROCA_GERENTE) {
+            stmt.setInt(indice++, operacao.getGerenteAnteriorId());
+        }
+        return indice;
+    }
+
+    private static void setInteger(PreparedStatement stmt, int indice, Integer valor) throws SQLException {
+        if (valor != null) {
+            stmt.setInt(indice, valor);
+        } else {
+            stmt.setNull(indice, Types.INTEGER);
+        }
+    }
+
+    private static OperacaoProjeto map(ResultSet rs) throws SQLException {
+        OperacaoProjeto operacao = new OperacaoProjeto();
+        operacao.setId(rs.getLong("id"));
+        operacao.setProjetoId(rs.getInt("projeto_id"));
+        operacao.setProjetoNome(rs.getString("projeto_nome"));
+        operacao.setTipo(OperacaoProjeto.Tipo.valueOf(rs.getString("tipo")));
+        operacao.setGerenteAnteriorId(rs.getObject("gerente_anterior_id", Integer.class));
+        operacao.setGerenteNovoId(rs.getObject("gerente_novo_id", Integer.class));
+        operacao.setUltimaTarefaId(rs.getInt("ultima_tarefa_id"));
+        operacao.setProcessadas(rs.getInt("processadas"));
+        operacao.setTotal(rs.getInt("total"));
+        operacao.setStatus(OperacaoProjeto.Status.valueOf(rs.getString("status")));
+        operacao.setUsuarioId(rs.getObject("usuario_id", Integer.class));
+        operacao.setErro(rs.getString("erro"));
+        return operacao;
+    }
+}
@@ -1,12 +1,19 @@
 package com.gestao.projetos.dao;
 
 import com.gestao.projetos.model.Projeto;
+import com.gestao.projetos.model.RegistroAuditoria;
+import com.gestao.projetos.util.Auditoria;
 import com.gestao.projetos.util.DatabaseConnection;
+import com.gestao.projetos.util.Shards;
+import com.gestao.projetos.util.StringInterner;
 
 import java.sql.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO para operações com projetos
@@ -26,12 +33,13 @@ public class ProjetoDAO {
                 ORDER BY p.nome
                 """;
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getConnectionLeitura();
                 PreparedStatement stmt = conn.prepareStatement(sql);
                 ResultSet rs = stmt.executeQuery()) {
 
+            ProjetoMapper mapper = new ProjetoMapper(rs);
             while (rs.next()) {
-                projetos.add(resultSetToProjeto(rs));
+                projetos.add(mapper.map(rs));
             }
         }
         return projetos;
@@ -50,14 +58,43 @@ public class ProjetoDAO {
                 ORDER BY p.nome
                 """;
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getConnectionLeitura();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, gerenteId);
             ResultSet rs = stmt.executeQuery();
 
+            ProjetoMapper mapper = new ProjetoMapper(rs);
             while (rs.next()) {
-                projetos.add(resultSetToProjeto(rs));
+                projetos.add(mapper.map(rs));
+            }
+        }
+        return projetos;
+    }
+
+    /**
+     * Busca projetos alterados desde a data informada, incluindo os inativos
+     * (usada na atualização incremental das listas)
+     */
+    public List<Projeto> findAlteradosDesde(LocalDateTime desde) throws SQLException {
+        List<Projeto> projetos = new ArrayList<>();
+        String sql = """
+                SELECT p.*, u.nome as gerente_nome
+                FROM projetos p
+                INNER JOIN usuarios u ON p.gerente_id = u.id
+                WHERE p.data_atualizacao >= ?
+                ORDER BY p.data_atualizacao
+                """;
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setTimestamp(1, Timestamp.valueOf(desde));
+            ResultSet rs = stmt.executeQuery();
+
+            ProjetoMapper mapper = new ProjetoMapper(rs);
+            while (rs.next()) {
+                projetos.add(mapper.map(rs));
             }
         }
         return projetos;
@@ -81,7 +118,7 @@ public class ProjetoDAO {
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return resultSetToProjeto(rs);
+                return new ProjetoMapper(rs).map(rs);
             }
         }
         return null;
@@ -91,19 +128,24 @@ public class ProjetoDAO {
      * Busca projetos com resumo para relatórios
      */
     public List<Projeto> findProjetosResumo() throws SQLException {
+        if (Shards.isAtivo()) {
+            return findProjetosResumoShards();
+        }
+
         List<Projeto> projetos = new ArrayList<>();
         String sql = "SELECT * FROM vw_projetos_resumo ORDER BY nome";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getConnectionLeitura();
                 PreparedStatement stmt = conn.prepareStatement(sql);
                 ResultSet rs = stmt.executeQuery()) {
 
+            StringInterner nomes = new StringInterner();
             while (rs.next()) {
                 Projeto projeto = new Projeto();
                 projeto.setId(rs.getInt("id"));
                 projeto.setNome(rs.getString("nome"));
-                projeto.setStatus(Projeto.Status.valueOf(rs.getString("status")));
-                projeto.setGerenteNome(rs.getString("gerente_nome"));
+                projeto.setStatus(StringInterner.enumDe(Projeto.Status.class, rs.getString("status")));
+                projeto.setGerenteNome(nomes.intern(rs.getString("gerente_nome")));
                 projeto.setTotalTarefas(rs.getInt("total_tarefas"));
                 projeto.setTarefasConcluidas(rs.getInt("tarefas_concluidas"));
                 projeto.setPercentualConclusao(rs.getDouble("percentual_conclusao"));
@@ -113,6 +155,65 @@ public class ProjetoDAO {
         return projetos;
     }
 
+    /**
+     * Mesmo resultado da vw_projetos_resumo com as tarefas em bases
+     * separadas: os totais de cada projeto vêm da base dele, todas
+     * consultadas ao mesmo tempo
+     */
+    private List<Projeto> findProjetosResumoShards() throws SQLException {
+        String sqlTotais = """
+                SELECT projeto_id, COUNT(*), SUM(CASE WHEN status = 'CONCLUIDA' THEN 1 ELSE 0 END)
+                FROM tarefas
+                WHERE ativo = TRUE
+                GROUP BY projeto_id
+                """;
+
+        Map<Integer, int[]> totais = new HashMap<>();
+        for (Map<Integer, int[]> parte : Shards.consultar(conn -> {
+            Map<Integer, int[]> daBase = new HashMap<>();
+            try (PreparedStatement stmt = conn.prepareStatement(sqlTotais);
+                    ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    daBase.put(rs.getInt(1), new int[] { rs.getInt(2), rs.getInt(3) });
+                }
+            }
+            return daBase;
+        })) {
+            totais.putAll(parte);
+        }
+
+        List<Projeto> projetos = new ArrayList<>();
+        String sql = """
+                SELECT p.id, p.nome, p.status, u.nome as gerente_nome
+                FROM projetos p
+                LEFT JOIN usuarios u ON p.gerente_id = u.id
+                WHERE p.ativo = TRUE
+                ORDER BY p.nome
+                """;
+
+        try (Connection conn = DatabaseConnection.getConnectionLeitura();
+                PreparedStatement stmt = conn.prepareStatement(sql);
+                ResultSet rs = stmt.executeQuery()) {
+
+            StringInterner nomes = new StringInterner();
+            while (rs.next()) {
+                Projeto projeto = new Projeto();
+                projeto.setId(rs.getInt("id"));
+                projeto.setNome(rs.getString("nome"));
+                projeto.setStatus(StringInterner.enumDe(Projeto.Status.class, rs.getString("status")));
+                projeto.setGerenteNome(nomes.intern(rs.getString("gerente_nome")));
+
+                // Percentual arredondado em duas casas, como na view
+                int[] total = totais.getOrDefault(projeto.getId(), new int[2]);
+                projeto.setTotalTarefas(total[0]);
+                projeto.setTarefasConcluidas(total[1]);
+                projeto.setPercentualConclusao(total[0] == 0 ? 0 : Math.round(total[1] * 10000.0 / total[0]) / 100.0);
+                projetos.add(projeto);
+            }
+        }
+        return projetos;
+    }
+
     /**
      * Salva um novo projeto
      */
@@ -140,18 +241,23 @@ public class ProjetoDAO {
                 projeto.setId(rs.getInt(1));
             }
         }
+        Auditoria.registrar(RegistroAuditoria.Entidade.PROJETO, projeto.getId(), RegistroAuditoria.Operacao.CRIACAO,
+                camposAuditoria(projeto));
     }
 
     /**
-     * Atualiza um projeto existente
+     * Atualiza um projeto existente, desde que ainda esteja na versão lida
+     * (ConflitoVersaoException, sem gravar nada, se outro usuário o alterou)
      */
     public void update(Projeto projeto) throws SQLException {
         String sql = """
                 UPDATE projetos SET
                     nome = ?, descricao = ?, data_inicio = ?, data_prevista_termino = ?,
-                    status = ?, gerente_id = ?, data_atualizacao = CURRENT_TIMESTAMP
-                WHERE id = ?
+                    status = ?, gerente_id = ?, data_atualizacao = CURRENT_TIMESTAMP,
+                    versao = versao + 1
+                WHERE id = ? AND versao = ?
                 """;
+        boolean atualizado;
 
         try (Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -163,89 +269,35 @@ public class ProjetoDAO {
             stmt.setString(5, projeto.getStatus().name());
             stmt.setInt(6, projeto.getGerenteId());
             stmt.setInt(7, projeto.getId());
+            stmt.setInt(8, projeto.getVersao());
 
-            stmt.executeUpdate();
+            atualizado = stmt.executeUpdate() > 0;
         }
+        if (!atualizado) {
+            throw conflito(projeto);
+        }
+        projeto.setVersao(projeto.getVersao() + 1);
+        Auditoria.registrar(RegistroAuditoria.Entidade.PROJETO, projeto.getId(),
+                RegistroAuditoria.Operacao.ALTERACAO, camposAuditoria(projeto));
     }
 
     /**
-     * Cancela um projeto e suas tarefas
+     * Conflito de versão com o projeto como está agora no banco
      */
-    public void cancelProject(Integer projetoId) throws SQLException {
-        Connection conn = DatabaseConnection.getConnection();
-        conn.setAutoCommit(false);
-
-        try {
-            // Cancela o projeto
-            String sqlProjeto = """
-                    UPDATE projetos SET
-                        status = 'CANCELADO',
-                        data_atualizacao = CURRENT_TIMESTAMP
-                    WHERE id = ?
-                    """;
-            PreparedStatement stmtProjeto = conn.prepareStatement(sqlProjeto);
-            stmtProjeto.setInt(1, projetoId);
-            stmtProjeto.executeUpdate();
-
-            // Inativa todas as tarefas do projeto
-            String sqlTarefas = """
-                    UPDATE tarefas SET
-                        ativo = FALSE,
-                        data_atualizacao = CURRENT_TIMESTAMP
-                    WHERE projeto_id = ? AND status NOT IN ('CONCLUIDA', 'CANCELADA')
-                    """;
-            PreparedStatement stmtTarefas = conn.prepareStatement(sqlTarefas);
-            stmtTarefas.setInt(1, projetoId);
-            stmtTarefas.executeUpdate();
-
-            conn.commit();
-        } catch (SQLException e) {
-            conn.rollback();
-            throw e;
-        } finally {
-            conn.setAutoCommit(true);
+    private ConflitoVersaoException conflito(Projeto recusado) throws SQLException {
+        Projeto atual = findById(recusado.getId());
+        if (atual == null || !atual.isAtivo()) {
+            return ConflitoVersaoException.removido();
         }
+        return ConflitoVersaoException.alterado(atual, camposAuditoria(recusado), camposAuditoria(atual));
     }
 
     /**
-     * Converte ResultSet para objeto Projeto
+     * Campos gravados por save e update, para a auditoria
      */
-    private Projeto resultSetToProjeto(ResultSet rs) throws SQLException {
-        Projeto projeto = new Projeto();
-        projeto.setId(rs.getInt("id"));
-        projeto.setNome(rs.getString("nome"));
-        projeto.setDescricao(rs.getString("descricao"));
-
-        Date dataInicio = rs.getDate("data_inicio");
-        if (dataInicio != null) {
-            projeto.setDataInicio(dataInicio.toLocalDate());
-        }
-
-        Date dataPrevistaTermino = rs.getDate("data_prevista_termino");
-        if (dataPrevistaTermino != null) {
-            projeto.setDataPrevistaTermino(dataPrevistaTermino.toLocalDate());
-        }
-
-        Date dataTerminoReal = rs.getDate("data_termino_real");
-        if (dataTerminoReal != null) {
-            projeto.setDataTerminoReal(dataTerminoReal.toLocalDate());
-        }
-
-        projeto.setStatus(Projeto.Status.valueOf(rs.getString("status")));
-        projeto.setGerenteId(rs.getInt("gerente_id"));
-        projeto.setGerenteNome(rs.getString("gerente_nome"));
-        projeto.setAtivo(rs.getBoolean("ativo"));
-
-        Timestamp dataCadastro = rs.getTimestamp("data_cadastro");
-        if (dataCadastro != null) {
-            projeto.setDataCadastro(dataCadastro.toLocalDateTime());
-        }
-
-        Timestamp dataAtualizacao = rs.getTimestamp("data_atualizacao");
-        if (dataAtualizacao != null) {
-            projeto.setDataAtualizacao(dataAtualizacao.toLocalDateTime());
-        }
-
-        return projeto;
+    private static Map<String, String> camposAuditoria(Projeto projeto) {
+        return Auditoria.campos("nome", projeto.getNome(), "descricao", projeto.getDescricao(),
+                "data_inicio", projeto.getDataInicio(), "data_prevista_termino", projeto.getDataPrevistaTermino(),
+                "status", projeto.getStatus(), "gerente_id", projeto.getGerenteId());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,91 @@
+package com.gestao.projetos.dao;
+
+import com.gestao.projetos.model.Projeto;
+import com.gestao.projetos.util.StringInterner;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Converte linhas de consultas de projetos em objetos Projeto
+ * (posições das colunas resolvidas uma vez por ResultSet)
+ */
+class ProjetoMapper {
+
+    private final StringInterner nomes = new StringInterner();
+
+    private final int id;
+    private final int nome;
+    private final int descricao;
+    private final int dataInicio;
+    private final int dataPrevistaTermino;
+    private final int dataTerminoReal;
+    private final int status;
+    private final int gerenteId;
+    private final int gerenteNome;
+    private final int ativo;
+    private final int dataCadastro;
+    private final int dataAtualizacao;
+    private final int versao;
+
+    ProjetoMapper(ResultSet rs) throws SQLException {
+        id = rs.findColumn("id");
+        nome = rs.findColumn("nome");
+        descricao = rs.findColumn("descricao");
+        dataInicio = rs.findColumn("data_inicio");
+        dataPrevistaTermino = rs.findColumn("data_prevista_termino");
+        dataTerminoReal = rs.findColumn("data_termino_real");
+        status = rs.findColumn("status");
+        gerenteId = rs.findColumn("gerente_id");
+        gerenteNome = rs.findColumn("gerente_nome");
+        ativo = rs.findColumn("ativo");
+        dataCadastro = rs.findColumn("data_cadastro");
+        dataAtualizacao = rs.findColumn("data_atualizacao");
+        versao = rs.findColumn("versao");
+    }
+
+    /**
+     * Converte a linha atual do ResultSet
+     */
+    Projeto map(ResultSet rs) throws SQLException {
+        Projeto projeto = new Projeto();
+        projeto.setId(rs.getInt(id));
+        projeto.setNome(rs.getString(nome));
+        projeto.setDescricao(rs.getString(descricao));
+
+        Date inicio = rs.getDate(dataInicio);
+        if (inicio != null) {
+            projeto.setDataInicio(inicio.toLocalDate());
+        }
+
+        Date previsto = rs.getDate(dataPrevistaTermino);
+        if (previsto != null) {
+            projeto.setDataPrevistaTermino(previsto.toLocalDate());
+        }
+
+        Date termino = rs.getDate(dataTerminoReal);
+        if (termino != null) {
+            projeto.setDataTerminoReal(termino.toLocalDate());
+        }
+
+        projeto.setStatus(StringInterner.enumDe(Projeto.Status.class, rs.getString(status)));
+        projeto.setGerenteId(rs.getInt(gerenteId));
+        projeto.setGerenteNome(nomes.intern(rs.getString(gerenteNome)));
+        projeto.setAtivo(rs.getBoolean(ativo));
+
+        Timestamp cadastro = rs.getTimestamp(dataCadastro);
+        if (cadastro != null) {
+            projeto.setDataCadastro(cadastro.toLocalDateTime());
+        }
+
+        Timestamp atualizacao = rs.getTimestamp(dataAtualizacao);
+        if (atualizacao != null) {
+            projeto.setDataAtualizacao(atualizacao.toLocalDateTime());
+        }
+        projeto.setVersao(rs.getInt(versao));
+
+        return projeto;
+    }
+}
@@ -0,0 +1,340 @@
+package com.gestao.projetos.dao;
+
+import com.gestao.projetos.model.Tarefa;
+import com.gestao.projetos.util.DatabaseConnection;
+import com.gestao.projetos.util.Shards;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * DAO para o arquivo de tarefas (tarefas_arquivo e
+ * tarefa_dependencia_arquivo).
+ *
+ * arquivarLote move um lote de tarefas elegíveis da tabela "tarefas" para o
+ * arquivo em uma única transação; o Arquivamento chama-o repetidamente, com
+ * pausas, até não restar nada. As consultas das demais telas continuam
+ * lendo apenas "tarefas": o arquivo só é lido quando pedido (relatórios com
+ * "Incluir arquivadas" e a tela de tarefas arquivadas). Com as tarefas em
+ * bases separadas (Shards), cada base tem o seu arquivo, e o lote é
+ * completado base a base.
+ */
+public class TarefaArquivoDAO {
+
+    private static final String COLUNAS = """
+            id, titulo, descricao, projeto_id, responsavel_id, status, prioridade,
+            data_prevista_conclusao, data_conclusao_real, ativo, data_cadastro, data_atualizacao, versao""";
+
+    // Inativa há mais de carenciaHoras ou concluída/cancelada há mais de concluidasDias
+    private static final String ELEGIVEL = """
+            ((t.ativo = FALSE AND t.data_atualizacao < TIMESTAMPADD(HOUR, -?, NOW()))
+                   OR (t.status IN ('CONCLUIDA', 'CANCELADA')
+                       AND COALESCE(t.data_conclusao_real, DATE(t.data_atualizacao)) < TIMESTAMPADD(DAY, -?, CURDATE())))""";
+
+    /**
+     * Move para o arquivo até "limite" tarefas inativas há mais de
+     * carenciaHoras ou concluídas/canceladas há mais de concluidasDias.
+     * Tarefas das quais outra ainda depende ficam na tabela. Retorna a
+     * quantidade arquivada (menor que o limite quando não há mais elegíveis).
+     */
+    public int arquivarLote(int carenciaHoras, int concluidasDias, int limite) throws SQLException {
+        if (!Shards.isAtivo()) {
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                return arquivarLote(conn, carenciaHoras, concluidasDias, limite);
+            }
+        }
+
+        // Uma transação por base, até completar o limite
+        int arquivadas = 0;
+        for (int i = 0; i < Shards.getQuantidade() && arquivadas < limite; i++) {
+            try (Connection conn = Shards.getConnectionShard(i)) {
+                arquivadas += arquivarLote(conn, carenciaHoras, concluidasDias, limite - arquivadas);
+            }
+        }
+        return arquivadas;
+    }
+
+    private static int arquivarLote(Connection conn, int carenciaHoras, int concluidasDias, int limite)
+            throws SQLException {
+        // Leitura sem bloqueio: o filtro não tem índice que o cubra, e um
+        // FOR UPDATE aqui bloquearia todas as linhas percorridas
+        String sqlCandidatas = """
+                SELECT t.id FROM tarefas t
+                WHERE %s
+                  AND NOT EXISTS (SELECT 1 FROM tarefa_dependencia d WHERE d.depende_de_id = t.id)
+                ORDER BY t.id
+                LIMIT ?
+                """.formatted(ELEGIVEL);
+
+        int isolamento = conn.getTransactionIsolation();
+        // Cada comando lê o que já foi confirmado, sem locks de intervalo
+        conn.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        conn.setAutoCommit(false);
+
+        try {
+            List<Integer> ids = consultarIds(conn, sqlCandidatas, List.of(carenciaHoras, concluidasDias, limite));
+            if (!ids.isEmpty()) {
+                // Bloqueia pela chave primária só as candidatas que continuam elegíveis
+                List<Integer> parametros = new ArrayList<>(ids);
+                parametros.add(carenciaHoras);
+                parametros.add(concluidasDias);
+                ids = consultarIds(conn, "SELECT t.id FROM tarefas t WHERE t.id IN (" + marcadores(ids.size())
+                        + ") AND " + ELEGIVEL + " ORDER BY t.id FOR UPDATE", parametros);
+            }
+            if (!ids.isEmpty()) {
+                // Dependências incluídas entre a leitura e o bloqueio
+                ids.removeAll(consultarIds(conn, "SELECT DISTINCT depende_de_id FROM tarefa_dependencia "
+                        + "WHERE depende_de_id IN (" + marcadores(ids.size()) + ")", ids));
+            }
+
+            if (ids.isEmpty()) {
+                conn.commit();
+                return 0;
+            }
+
+            String marcadores = marcadores(ids.size());
+            executar(conn, "INSERT INTO tarefas_arquivo (" + COLUNAS + ", data_arquivamento) SELECT "
+                    + COLUNAS + ", NOW() FROM tarefas WHERE id IN (" + marcadores + ")", ids);
+            executar(conn, """
+                    INSERT INTO tarefa_dependencia_arquivo (id, tarefa_id, depende_de_id, data_cadastro)
+                    SELECT id, tarefa_id, depende_de_id, data_cadastro FROM tarefa_dependencia
+                    WHERE tarefa_id IN (%s)""".formatted(marcadores), ids);
+            executar(conn, "DELETE FROM tarefa_dependencia WHERE tarefa_id IN (" + marcadores + ")", ids);
+            executar(conn, "DELETE FROM tarefas WHERE id IN (" + marcadores + ")", ids);
+
+            conn.commit();
+            return ids.size();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+            conn.setTransactionIsolation(isolamento);
+        }
+    }
+
+    /**
+     * Devolve uma tarefa arquivada à tabela "tarefas" (ativa) com as
+     * dependências cujas tarefas pré-requisito ainda estão nela. Retorna
+     * false se a tarefa não estiver no arquivo.
+     */
+    public boolean restaurar(Integer tarefaId) throws SQLException {
+        String sqlTarefa = """
+                INSERT INTO tarefas (%s)
+                SELECT id, titulo, descricao, projeto_id, responsavel_id, status, prioridade,
+                       data_prevista_conclusao, data_conclusao_real, TRUE, data_cadastro, CURRENT_TIMESTAMP, versao + 1
+                FROM tarefas_arquivo WHERE id = ?
+                """.formatted(COLUNAS);
+        String sqlDependencias = """
+                INSERT INTO tarefa_dependencia (id, tarefa_id, depende_de_id, data_cadastro)
+                SELECT a.id, a.tarefa_id, a.depende_de_id, a.data_cadastro
+                FROM tarefa_dependencia_arquivo a
+                INNER JOIN tarefas t ON a.depende_de_id = t.id
+                WHERE a.tarefa_id = ?
+                """;
+        if (Shards.isAtivo() && Shards.projetoDaTarefa(tarefaId) == null) {
+            return false;
+        }
+
+        try (Connection conn = Shards.getConnectionTarefa(tarefaId)) {
+            conn.setAutoCommit(false);
+
+            try {
+                if (executar(conn, sqlTarefa, List.of(tarefaId)) == 0) {
+                    conn.rollback();
+                    return false;
+                }
+                executar(conn, sqlDependencias, List.of(tarefaId));
+                executar(conn, "DELETE FROM tarefa_dependencia_arquivo WHERE tarefa_id = ?", List.of(tarefaId));
+                executar(conn, "DELETE FROM tarefas_arquivo WHERE id = ?", List.of(tarefaId));
+
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Busca as tarefas arquivadas mais recentemente (de um projeto, se
+     * projetoId não for nulo)
+     */
+    public List<Tarefa> findArquivadas(Integer projetoId, int limite) throws SQLException {
+        String filtro = projetoId != null ? "WHERE t.projeto_id = ?" : "";
+        if (!Shards.isAtivo()) {
+            String sql = """
+                    SELECT t.*, p.nome as projeto_nome, u.nome as responsavel_nome
+                    FROM tarefas_arquivo t
+                    LEFT JOIN projetos p ON t.projeto_id = p.id
+                    LEFT JOIN usuarios u ON t.responsavel_id = u.id
+                    %s
+                    ORDER BY t.data_arquivamento DESC, t.id DESC
+                    LIMIT ?
+                    """.formatted(filtro);
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                return Arquivada.tarefas(lerArquivadas(conn, sql, projetoId, limite));
+            }
+        }
+
+        // As mais recentes de cada base, intercaladas e cortadas no limite
+        String sql = """
+                SELECT t.* FROM tarefas_arquivo t
+                %s
+                ORDER BY t.data_arquivamento DESC, t.id DESC
+                LIMIT ?
+                """.formatted(filtro);
+        List<Arquivada> arquivadas;
+        if (projetoId != null) {
+            try (Connection conn = Shards.getConnection(projetoId)) {
+                arquivadas = lerArquivadas(conn, sql, projetoId, limite);
+            }
+        } else {
+            arquivadas = Shards.mesclar(Shards.consultar(conn -> lerArquivadas(conn, sql, null, limite)),
+                    Comparator.comparing(Arquivada::arquivamento, Comparator.nullsLast(Comparator.reverseOrder()))
+                            .thenComparing(a -> a.tarefa().getId(), Comparator.reverseOrder()));
+        }
+        List<Tarefa> tarefas = Arquivada.tarefas(arquivadas.subList(0, Math.min(limite, arquivadas.size())));
+        new NomesTarefas().preencher(tarefas);
+        return tarefas;
+    }
+
+    /**
+     * Tarefa arquivada com o momento do arquivamento, para intercalar os
+     * resultados das bases
+     */
+    private record Arquivada(Tarefa tarefa, Timestamp arquivamento) {
+
+        static List<Tarefa> tarefas(List<Arquivada> arquivadas) {
+            List<Tarefa> tarefas = new ArrayList<>(arquivadas.size());
+            for (Arquivada arquivada : arquivadas) {
+                tarefas.add(arquivada.tarefa());
+            }
+            return tarefas;
+        }
+    }
+
+    private static List<Arquivada> lerArquivadas(Connection conn, String sql, Integer projetoId, int limite)
+            throws SQLException {
+        List<Arquivada> arquivadas = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int p = 1;
+            if (projetoId != null) {
+                stmt.setInt(p++, projetoId);
+            }
+            stmt.setInt(p, limite);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                TarefaMapper mapper = new TarefaMapper(rs);
+                int arquivamento = rs.findColumn("data_arquivamento");
+                while (rs.next()) {
+                    arquivadas.add(new Arquivada(mapper.map(rs), rs.getTimestamp(arquivamento)));
+                }
+            }
+        }
+        return arquivadas;
+    }
+
+    /**
+     * Percorre as tarefas arquivadas (de um projeto, se projetoId não for
+     * nulo) com as mesmas colunas de TarefaDAO.scanAnalitico, reaproveitando
+     * o mesmo objeto Tarefa a cada linha
+     */
+    public void scanAnalitico(Integer projetoId, Consumer<Tarefa> destino) throws SQLException {
+        String filtro = projetoId != null ? "WHERE t.projeto_id = ?" : "";
+        if (!Shards.isAtivo()) {
+            String sql = """
+                    SELECT t.id, t.projeto_id, p.nome as projeto_nome, t.responsavel_id, u.nome as responsavel_nome,
+                           t.status, t.prioridade, t.data_prevista_conclusao, t.data_conclusao_real,
+                           t.ativo, t.data_cadastro, t.data_atualizacao
+                    FROM tarefas_arquivo t
+                    LEFT JOIN projetos p ON t.projeto_id = p.id
+                    LEFT JOIN usuarios u ON t.responsavel_id = u.id
+                    %s
+                    """.formatted(filtro);
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                lerAnalitico(conn, sql, projetoId, null, destino);
+            }
+            return;
+        }
+
+        String sql = """
+                SELECT t.id, t.projeto_id, t.responsavel_id, t.status, t.prioridade, t.data_prevista_conclusao,
+                       t.data_conclusao_real, t.ativo, t.data_cadastro, t.data_atualizacao
+                FROM tarefas_arquivo t
+                %s
+                """.formatted(filtro);
+        NomesTarefas nomes = new NomesTarefas();
+        if (projetoId != null) {
+            try (Connection conn = Shards.getConnection(projetoId)) {
+                lerAnalitico(conn, sql, projetoId, nomes, destino);
+            }
+            return;
+        }
+        for (int i = 0; i < Shards.getQuantidade(); i++) {
+            try (Connection conn = Shards.getConnectionShard(i)) {
+                lerAnalitico(conn, sql, null, nomes, destino);
+            }
+        }
+    }
+
+    private static void lerAnalitico(Connection conn, String sql, Integer projetoId, NomesTarefas nomes,
+            Consumer<Tarefa> destino) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY)) {
+
+            DatabaseConnection.getDialeto().streaming(stmt);
+            if (projetoId != null) {
+                stmt.setInt(1, projetoId);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                TarefaMapper mapper = new TarefaMapper(rs);
+                Tarefa linha = new Tarefa();
+                while (rs.next()) {
+                    mapper.preencher(rs, linha);
+                    if (nomes != null) {
+                        nomes.preencher(linha);
+                    }
+                    destino.accept(linha);
+                }
+            }
+        }
+    }
+
+    private static List<Integer> consultarIds(Connection conn, String sql, List<Integer> parametros)
+            throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < parametros.size(); i++) {
+                stmt.setInt(i + 1, parametros.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static String marcadores(int quantidade) {
+        return String.join(", ", Collections.nCopies(quantidade, "?"));
+    }
+
+    private static int executar(Connection conn, String sql, List<Integer> ids) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < ids.size(); i++) {
+                stmt.setInt(i + 1, ids.get(i));
+            }
+            return stmt.executeUpdate();
+        }
+    }
+}
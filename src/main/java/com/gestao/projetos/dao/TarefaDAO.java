@@ -1,243 +1,712 @@
 package com.gestao.projetos.dao;
 
+import com.gestao.projetos.model.RegistroAuditoria;
 import com.gestao.projetos.model.Tarefa;
+import com.gestao.projetos.util.AlertaPrazos;
+import com.gestao.projetos.util.Auditoria;
 import com.gestao.projetos.util.DatabaseConnection;
+import com.gestao.projetos.util.Shards;
+import com.gestao.projetos.util.StringInterner;
 
 import java.sql.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 
 /**
  * DAO para operações com tarefas
  */
 public class TarefaDAO {
 
+    // Com as tarefas em bases separadas não há junção: os nomes vêm de NomesTarefas
+    private static final String SELECT_TAREFAS = """
+            SELECT t.*, p.nome as projeto_nome, u.nome as responsavel_nome
+            FROM tarefas t
+            INNER JOIN projetos p ON t.projeto_id = p.id
+            INNER JOIN usuarios u ON t.responsavel_id = u.id
+            """;
+    private static final String SELECT_TAREFAS_SHARD = "SELECT t.* FROM tarefas t\n";
+
+    // Tarefas por comando nos bloqueios e nos lotes de gravação
+    private static final int LOTE = 500;
+
     /**
      * Busca todas as tarefas ativas
      */
     public List<Tarefa> findAll() throws SQLException {
-        List<Tarefa> tarefas = new ArrayList<>();
-        String sql = """
-                SELECT t.*, p.nome as projeto_nome, u.nome as responsavel_nome
-                FROM tarefas t
-                INNER JOIN projetos p ON t.projeto_id = p.id
-                INNER JOIN usuarios u ON t.responsavel_id = u.id
-                WHERE t.ativo = TRUE
-                ORDER BY t.titulo
-                """;
+        return listar(null, true, "WHERE t.ativo = TRUE\nORDER BY t.titulo", porTitulo());
+    }
 
-        try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql);
-                ResultSet rs = stmt.executeQuery()) {
+    /**
+     * Busca tarefas por projeto
+     */
+    public List<Tarefa> findByProjeto(Integer projetoId) throws SQLException {
+        return listar(projetoId, true, "WHERE t.projeto_id = ? AND t.ativo = TRUE\nORDER BY t.titulo", porTitulo(),
+                projetoId);
+    }
+
+    /**
+     * Busca tarefas por responsável
+     */
+    public List<Tarefa> findByResponsavel(Integer responsavelId) throws SQLException {
+        return listar(null, true, "WHERE t.responsavel_id = ? AND t.ativo = TRUE\nORDER BY t.titulo", porTitulo(),
+                responsavelId);
+    }
 
+    /**
+     * Busca tarefas alteradas desde a data informada, incluindo as inativas
+     * (usada na atualização incremental das listas)
+     */
+    public List<Tarefa> findAlteradasDesde(LocalDateTime desde) throws SQLException {
+        return listar(null, false, "WHERE t.data_atualizacao >= ?\nORDER BY t.data_atualizacao",
+                Comparator.comparing(Tarefa::getDataAtualizacao, Comparator.nullsFirst(Comparator.naturalOrder())), Timestamp.valueOf(desde));
+    }
+
+    /**
+     * Ids das tarefas ativas (usado para descartar das listas as tarefas
+     * arquivadas, que saem da tabela sem passar pela atualização incremental)
+     */
+    public Set<Integer> findIdsAtivos() throws SQLException {
+        if (!Shards.isAtivo()) {
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                return idsAtivos(conn);
+            }
+        }
+
+        Set<Integer> ids = new HashSet<>();
+        for (Set<Integer> parte : Shards.consultar(TarefaDAO::idsAtivos)) {
+            ids.addAll(parte);
+        }
+        return ids;
+    }
+
+    private static Set<Integer> idsAtivos(Connection conn) throws SQLException {
+        Set<Integer> ids = new HashSet<>();
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT id FROM tarefas WHERE ativo = TRUE");
+                ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
-                tarefas.add(resultSetToTarefa(rs));
+                ids.add(rs.getInt(1));
             }
         }
-        return tarefas;
+        return ids;
     }
 
     /**
-     * Busca tarefas por projeto
+     * Executa a listagem (complemento: WHERE e ORDER BY sobre "t") no banco
+     * principal ou, com as tarefas em bases separadas, na base do projeto ou
+     * em todas ao mesmo tempo, intercalando os resultados de cada base pelo
+     * comparador equivalente ao ORDER BY
      */
-    public List<Tarefa> findByProjeto(Integer projetoId) throws SQLException {
-        List<Tarefa> tarefas = new ArrayList<>();
-        String sql = """
-                SELECT t.*, p.nome as projeto_nome, u.nome as responsavel_nome
-                FROM tarefas t
-                INNER JOIN projetos p ON t.projeto_id = p.id
-                INNER JOIN usuarios u ON t.responsavel_id = u.id
-                WHERE t.projeto_id = ? AND t.ativo = TRUE
-                ORDER BY t.titulo
-                """;
+    private List<Tarefa> listar(Integer projetoId, boolean leitura, String complemento, Comparator<Tarefa> ordem,
+            Object... parametros) throws SQLException {
+        if (!Shards.isAtivo()) {
+            try (Connection conn = leitura ? DatabaseConnection.getConnectionLeitura()
+                    : DatabaseConnection.getConnection()) {
+                return executarListagem(conn, SELECT_TAREFAS + complemento, parametros);
+            }
+        }
 
-        try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
+        String sql = SELECT_TAREFAS_SHARD + complemento;
+        List<Tarefa> tarefas;
+        if (projetoId != null) {
+            try (Connection conn = Shards.getConnection(projetoId)) {
+                tarefas = executarListagem(conn, sql, parametros);
+            }
+        } else {
+            tarefas = Shards.mesclar(Shards.consultar(conn -> executarListagem(conn, sql, parametros)), ordem);
+        }
+        new NomesTarefas().preencher(tarefas);
+        return tarefas;
+    }
 
-            stmt.setInt(1, projetoId);
-            ResultSet rs = stmt.executeQuery();
+    private static List<Tarefa> executarListagem(Connection conn, String sql, Object... parametros)
+            throws SQLException {
+        List<Tarefa> tarefas = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < parametros.length; i++) {
+                stmt.setObject(i + 1, parametros[i]);
+            }
 
-            while (rs.next()) {
-                tarefas.add(resultSetToTarefa(rs));
+            try (ResultSet rs = stmt.executeQuery()) {
+                TarefaMapper mapper = new TarefaMapper(rs);
+                while (rs.next()) {
+                    tarefas.add(mapper.map(rs));
+                }
             }
         }
         return tarefas;
     }
 
     /**
-     * Busca tarefas por responsável
+     * Ordem por título equivalente ao ORDER BY t.titulo das bases
      */
-    public List<Tarefa> findByResponsavel(Integer responsavelId) throws SQLException {
-        List<Tarefa> tarefas = new ArrayList<>();
+    private static Comparator<Tarefa> porTitulo() {
+        return Comparator.comparing(Tarefa::getTitulo, Shards.ordemTextos());
+    }
+
+    /**
+     * Percorre as tarefas (ativas e inativas) alteradas desde a data informada
+     * sem montar uma lista, lendo apenas as colunas usadas nas análises.
+     * O driver entrega as linhas em fluxo e o mesmo objeto Tarefa é
+     * reaproveitado a cada linha: o consumidor deve copiar os valores. Com as
+     * tarefas em bases separadas, as bases são lidas uma após a outra.
+     */
+    public void scanAnalitico(LocalDateTime desde, Consumer<Tarefa> destino) throws SQLException {
+        if (!Shards.isAtivo()) {
+            String sql = """
+                    SELECT t.id, t.projeto_id, p.nome as projeto_nome, t.responsavel_id, u.nome as responsavel_nome,
+                           t.status, t.prioridade, t.data_prevista_conclusao, t.data_conclusao_real,
+                           t.ativo, t.data_cadastro, t.data_atualizacao
+                    FROM tarefas t
+                    INNER JOIN projetos p ON t.projeto_id = p.id
+                    INNER JOIN usuarios u ON t.responsavel_id = u.id
+                    WHERE t.data_atualizacao >= ?
+                    """;
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                lerAnalitico(conn, sql, desde, null, destino);
+            }
+            return;
+        }
+
         String sql = """
-                SELECT t.*, p.nome as projeto_nome, u.nome as responsavel_nome
-                FROM tarefas t
-                INNER JOIN projetos p ON t.projeto_id = p.id
-                INNER JOIN usuarios u ON t.responsavel_id = u.id
-                WHERE t.responsavel_id = ? AND t.ativo = TRUE
-                ORDER BY t.titulo
+                SELECT id, projeto_id, responsavel_id, status, prioridade, data_prevista_conclusao,
+                       data_conclusao_real, ativo, data_cadastro, data_atualizacao
+                FROM tarefas
+                WHERE data_atualizacao >= ?
                 """;
+        NomesTarefas nomes = new NomesTarefas();
+        for (int i = 0; i < Shards.getQuantidade(); i++) {
+            try (Connection conn = Shards.getConnectionShard(i)) {
+                lerAnalitico(conn, sql, desde, nomes, destino);
+            }
+        }
+    }
 
-        try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
+    private static void lerAnalitico(Connection conn, String sql, LocalDateTime desde, NomesTarefas nomes,
+            Consumer<Tarefa> destino) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY)) {
+
+            DatabaseConnection.getDialeto().streaming(stmt);
+            stmt.setTimestamp(1, Timestamp.valueOf(desde));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                TarefaMapper mapper = new TarefaMapper(rs);
+                Tarefa linha = new Tarefa();
+                while (rs.next()) {
+                    mapper.preencher(rs, linha);
+                    if (nomes != null) {
+                        nomes.preencher(linha);
+                    }
+                    destino.accept(linha);
+                }
+            }
+        }
+    }
 
-            stmt.setInt(1, responsavelId);
-            ResultSet rs = stmt.executeQuery();
+    /**
+     * Percorre as tarefas em aberto (pendentes e em execução) lendo apenas o
+     * necessário para carga de trabalho e alertas de prazo: id, título,
+     * projeto, responsável, status, prioridade e conclusão prevista. Como em
+     * scanAnalitico, o mesmo objeto Tarefa é reaproveitado a cada linha.
+     */
+    public void scanAbertas(Consumer<Tarefa> destino) throws SQLException {
+        if (!Shards.isAtivo()) {
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                lerAbertas(conn, destino);
+            }
+            return;
+        }
+        for (int i = 0; i < Shards.getQuantidade(); i++) {
+            try (Connection conn = Shards.getConnectionShard(i)) {
+                lerAbertas(conn, destino);
+            }
+        }
+    }
 
-            while (rs.next()) {
-                tarefas.add(resultSetToTarefa(rs));
+    private static void lerAbertas(Connection conn, Consumer<Tarefa> destino) throws SQLException {
+        String sql = """
+                SELECT id, titulo, projeto_id, responsavel_id, status, prioridade, data_prevista_conclusao
+                FROM tarefas
+                WHERE ativo = TRUE AND status IN ('PENDENTE', 'EM_EXECUCAO')
+                """;
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY)) {
+
+            DatabaseConnection.getDialeto().streaming(stmt);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                Tarefa linha = new Tarefa();
+                linha.setAtivo(true);
+                while (rs.next()) {
+                    linha.setId(rs.getInt(1));
+                    linha.setTitulo(rs.getString(2));
+                    linha.setProjetoId(rs.getInt(3));
+                    linha.setResponsavelId(rs.getInt(4));
+                    linha.setStatus(StringInterner.enumDe(Tarefa.Status.class, rs.getString(5)));
+                    linha.setPrioridade(StringInterner.enumDe(Tarefa.Prioridade.class, rs.getString(6)));
+
+                    Date prevista = rs.getDate(7);
+                    linha.setDataPrevistaConclusao(prevista != null ? prevista.toLocalDate() : null);
+                    destino.accept(linha);
+                }
             }
         }
-        return tarefas;
     }
 
     /**
      * Busca tarefa por ID
      */
     public Tarefa findById(Integer id) throws SQLException {
-        String sql = """
-                SELECT t.*, p.nome as projeto_nome, u.nome as responsavel_nome
-                FROM tarefas t
-                INNER JOIN projetos p ON t.projeto_id = p.id
-                INNER JOIN usuarios u ON t.responsavel_id = u.id
-                WHERE t.id = ?
-                """;
+        boolean separada = Shards.isAtivo();
+        if (separada && Shards.projetoDaTarefa(id) == null) {
+            return null;
+        }
 
-        try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
+        Tarefa tarefa = null;
+        try (Connection conn = Shards.getConnectionTarefa(id);
+                PreparedStatement stmt = conn.prepareStatement(
+                        (separada ? SELECT_TAREFAS_SHARD : SELECT_TAREFAS) + "WHERE t.id = ?")) {
 
             stmt.setInt(1, id);
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return resultSetToTarefa(rs);
+                tarefa = new TarefaMapper(rs).map(rs);
             }
         }
-        return null;
+        if (tarefa != null && separada) {
+            NomesTarefas.preencherUma(tarefa);
+        }
+        return tarefa;
     }
 
     /**
-     * Salva uma nova tarefa
+     * Salva uma nova tarefa (com as tarefas em bases separadas, o id é
+     * alocado no diretório e a tarefa é gravada na base do projeto)
      */
     public void save(Tarefa tarefa) throws SQLException {
-        String sql = """
+        boolean separada = Shards.isAtivo();
+        String sql = separada ? """
+                INSERT INTO tarefas (titulo, descricao, projeto_id, responsavel_id,
+                                   status, prioridade, data_prevista_conclusao, id)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                """ : """
                 INSERT INTO tarefas (titulo, descricao, projeto_id, responsavel_id,
                                    status, prioridade, data_prevista_conclusao)
                 VALUES (?, ?, ?, ?, ?, ?, ?)
                 """;
+        if (separada) {
+            tarefa.setId(Shards.alocarId(tarefa.getProjetoId()));
+        }
 
-        try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            stmt.setString(1, tarefa.getTitulo());
-            stmt.setString(2, tarefa.getDescricao());
-            stmt.setInt(3, tarefa.getProjetoId());
-            stmt.setInt(4, tarefa.getResponsavelId());
-            stmt.setString(5, tarefa.getStatus().name());
-            stmt.setString(6, tarefa.getPrioridade().name());
-
-            if (tarefa.getDataPrevistaConclusao() != null) {
-                stmt.setDate(7, Date.valueOf(tarefa.getDataPrevistaConclusao()));
-            } else {
-                stmt.setNull(7, Types.DATE);
-            }
-
-            stmt.executeUpdate();
-
-            ResultSet rs = stmt.getGeneratedKeys();
-            if (rs.next()) {
-                tarefa.setId(rs.getInt(1));
+        // A tarefa e o evento de criação são gravados na mesma transação
+        try (Connection conn = Shards.getConnection(tarefa.getProjetoId())) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+                    PreparedStatement stmtEvento = conn.prepareStatement(TarefaEventoDAO.SQL_CRIACAO)) {
+
+                stmt.setString(1, tarefa.getTitulo());
+                stmt.setString(2, tarefa.getDescricao());
+                stmt.setInt(3, tarefa.getProjetoId());
+                stmt.setInt(4, tarefa.getResponsavelId());
+                stmt.setString(5, tarefa.getStatus().name());
+                stmt.setString(6, tarefa.getPrioridade().name());
+
+                if (tarefa.getDataPrevistaConclusao() != null) {
+                    stmt.setDate(7, Date.valueOf(tarefa.getDataPrevistaConclusao()));
+                } else {
+                    stmt.setNull(7, Types.DATE);
+                }
+                if (separada) {
+                    stmt.setInt(8, tarefa.getId());
+                }
+
+                stmt.executeUpdate();
+
+                if (!separada) {
+                    ResultSet rs = stmt.getGeneratedKeys();
+                    if (rs.next()) {
+                        tarefa.setId(rs.getInt(1));
+                    }
+                }
+
+                TarefaEventoDAO.adicionarCriacao(stmtEvento, tarefa, TarefaEventoDAO.agora());
+                stmtEvento.executeBatch();
+
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
         }
+        AlertaPrazos.registrar(tarefa);
+        Auditoria.registrar(RegistroAuditoria.Entidade.TAREFA, tarefa.getId(), RegistroAuditoria.Operacao.CRIACAO,
+                camposAuditoria(tarefa));
     }
 
     /**
-     * Atualiza uma tarefa existente
+     * Atualiza uma tarefa existente (registrando a transição, se o status
+     * mudou), desde que ainda esteja na versão lida (ConflitoVersaoException,
+     * sem gravar nada, se outro usuário a alterou). Com as tarefas em bases
+     * separadas, a troca para um projeto de outra base é recusada.
      */
     public void update(Tarefa tarefa) throws SQLException {
         String sql = """
                 UPDATE tarefas SET
                     titulo = ?, descricao = ?, projeto_id = ?, responsavel_id = ?,
                     status = ?, prioridade = ?, data_prevista_conclusao = ?,
-                    data_atualizacao = CURRENT_TIMESTAMP
-                WHERE id = ?
+                    data_atualizacao = CURRENT_TIMESTAMP, versao = versao + 1
+                WHERE id = ? AND versao = ?
                 """;
-
-        try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, tarefa.getTitulo());
-            stmt.setString(2, tarefa.getDescricao());
-            stmt.setInt(3, tarefa.getProjetoId());
-            stmt.setInt(4, tarefa.getResponsavelId());
-            stmt.setString(5, tarefa.getStatus().name());
-            stmt.setString(6, tarefa.getPrioridade().name());
-
-            if (tarefa.getDataPrevistaConclusao() != null) {
-                stmt.setDate(7, Date.valueOf(tarefa.getDataPrevistaConclusao()));
-            } else {
-                stmt.setNull(7, Types.DATE);
+        Integer projetoAnterior = null;
+        if (Shards.isAtivo()) {
+            projetoAnterior = Shards.projetoDaTarefa(tarefa.getId());
+            if (projetoAnterior == null) {
+                throw conflito(tarefa);
+            }
+            if (Shards.indice(projetoAnterior) != Shards.indice(tarefa.getProjetoId())) {
+                throw new SQLException("A tarefa não pode ser movida para um projeto de outra base de tarefas");
             }
-
-            stmt.setInt(8, tarefa.getId());
-
-            stmt.executeUpdate();
         }
+        boolean atualizada;
+
+        try (Connection conn = Shards.getConnection(tarefa.getProjetoId())) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql);
+                    PreparedStatement stmtEvento = conn.prepareStatement(TarefaEventoDAO.SQL_TRANSICAO)) {
+
+                // Bloqueia a linha antes de qualquer gravação; o evento usa o status lido aqui
+                Bloqueada atual = bloquear(conn, List.of(tarefa.getId())).get(tarefa.getId());
+                atualizada = atual != null && atual.versao() == tarefa.getVersao();
+
+                if (atualizada) {
+                    stmt.setString(1, tarefa.getTitulo());
+                    stmt.setString(2, tarefa.getDescricao());
+                    stmt.setInt(3, tarefa.getProjetoId());
+                    stmt.setInt(4, tarefa.getResponsavelId());
+                    stmt.setString(5, tarefa.getStatus().name());
+                    stmt.setString(6, tarefa.getPrioridade().name());
+
+                    if (tarefa.getDataPrevistaConclusao() != null) {
+                        stmt.setDate(7, Date.valueOf(tarefa.getDataPrevistaConclusao()));
+                    } else {
+                        stmt.setNull(7, Types.DATE);
+                    }
+
+                    stmt.setInt(8, tarefa.getId());
+                    stmt.setInt(9, tarefa.getVersao());
+                    atualizada = stmt.executeUpdate() > 0;
+                }
+
+                if (atualizada && atual.status() != tarefa.getStatus()) {
+                    TarefaEventoDAO.adicionarTransicao(stmtEvento, tarefa.getId(), atual.projetoId(), atual.status(),
+                            tarefa.getStatus(), TarefaEventoDAO.agora());
+                    stmtEvento.executeBatch();
+                }
+
+                // Sem a linha na versão esperada nada é gravado
+                if (atualizada) {
+                    conn.commit();
+                } else {
+                    conn.rollback();
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        if (!atualizada) {
+            throw conflito(tarefa);
+        }
+        if (projetoAnterior != null && !projetoAnterior.equals(tarefa.getProjetoId())) {
+            Shards.moverNoDiretorio(tarefa.getId(), tarefa.getProjetoId());
+        }
+        tarefa.setVersao(tarefa.getVersao() + 1);
+        AlertaPrazos.registrar(tarefa);
+        Auditoria.registrar(RegistroAuditoria.Entidade.TAREFA, tarefa.getId(), RegistroAuditoria.Operacao.ALTERACAO,
+                camposAuditoria(tarefa));
     }
 
     /**
      * Atualiza apenas o status de uma tarefa
      */
     public void updateStatus(Integer tarefaId, Tarefa.Status novoStatus) throws SQLException {
+        updateStatus(Map.of(tarefaId, novoStatus));
+    }
+
+    /**
+     * Atualiza o status de várias tarefas em uma única transação, gravando
+     * as transições no histórico (tarefa_evento) em lote. Com as tarefas em
+     * bases separadas, é uma transação por base.
+     */
+    public void updateStatus(Map<Integer, Tarefa.Status> novoStatusPorTarefa) throws SQLException {
+        Set<Integer> atualizadas = porBase(novoStatusPorTarefa, TarefaDAO::gravarStatus);
+
+        // Alertas e auditoria só das tarefas que existiam e foram gravadas
+        String conclusao = LocalDate.now().toString();
+        for (Map.Entry<Integer, Tarefa.Status> entrada : novoStatusPorTarefa.entrySet()) {
+            if (!atualizadas.contains(entrada.getKey())) {
+                continue;
+            }
+            AlertaPrazos.alterarStatus(entrada.getKey(), entrada.getValue());
+            Auditoria.registrar(RegistroAuditoria.Entidade.TAREFA, entrada.getKey(), RegistroAuditoria.Operacao.STATUS,
+                    Auditoria.campos("status", entrada.getValue(), "data_conclusao_real",
+                            entrada.getValue() == Tarefa.Status.CONCLUIDA ? conclusao : ""));
+        }
+    }
+
+    private static Set<Integer> gravarStatus(Connection conn, Map<Integer, Tarefa.Status> novoStatusPorTarefa)
+            throws SQLException {
         String sql = """
                 UPDATE tarefas SET
                     status = ?,
                     data_conclusao_real = ?,
-                    data_atualizacao = CURRENT_TIMESTAMP
+                    data_atualizacao = CURRENT_TIMESTAMP,
+                    versao = versao + 1
                 WHERE id = ?
                 """;
 
-        try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
+        conn.setAutoCommit(false);
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql);
+                PreparedStatement stmtEvento = conn.prepareStatement(TarefaEventoDAO.SQL_TRANSICAO)) {
+
+            // Bloqueia as linhas antes de qualquer gravação; os eventos usam os status lidos aqui
+            Map<Integer, Bloqueada> atuais = bloquear(conn, novoStatusPorTarefa.keySet());
+            long momento = TarefaEventoDAO.agora();
+            Date hoje = Date.valueOf(LocalDate.now());
+            boolean eventos = false;
+
+            for (Map.Entry<Integer, Tarefa.Status> entrada : novoStatusPorTarefa.entrySet()) {
+                Bloqueada atual = atuais.get(entrada.getKey());
+                if (atual == null) {
+                    continue;
+                }
+                Tarefa.Status novoStatus = entrada.getValue();
+
+                stmt.setString(1, novoStatus.name());
+
+                // Se status for CONCLUIDA, define data de conclusão
+                if (novoStatus == Tarefa.Status.CONCLUIDA) {
+                    stmt.setDate(2, hoje);
+                } else {
+                    stmt.setNull(2, Types.DATE);
+                }
+
+                stmt.setInt(3, entrada.getKey());
+                stmt.addBatch();
+
+                if (atual.status() != novoStatus) {
+                    TarefaEventoDAO.adicionarTransicao(stmtEvento, entrada.getKey(), atual.projetoId(),
+                            atual.status(), novoStatus, momento);
+                    eventos = true;
+                }
+            }
 
-            stmt.setString(1, novoStatus.name());
+            stmt.executeBatch();
+            if (eventos) {
+                stmtEvento.executeBatch();
+            }
 
-            // Se status for CONCLUIDA, define data de conclusão
-            if (novoStatus == Tarefa.Status.CONCLUIDA) {
-                stmt.setDate(2, Date.valueOf(LocalDate.now()));
-            } else {
-                stmt.setNull(2, Types.DATE);
+            conn.commit();
+            return atuais.keySet();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Estado de uma tarefa lido com a linha bloqueada
+     */
+    private record Bloqueada(int projetoId, Tarefa.Status status, int versao) {
+    }
+
+    /**
+     * Bloqueia as linhas das tarefas (SELECT ... WHERE id IN (...) ORDER BY
+     * id FOR UPDATE, em blocos de ids crescentes) e lê o projeto, o status e
+     * a versão atuais. O lock exclusivo vem antes de qualquer outra leitura
+     * ou gravação da transação: duas gravações da mesma tarefa esperam uma
+     * pela outra, em vez de tentarem promover locks compartilhados (deadlock
+     * no InnoDB), e a que espera lê a versão gravada pela outra. Tarefas que
+     * não existem ficam fora do resultado.
+     */
+    private static Map<Integer, Bloqueada> bloquear(Connection conn, Collection<Integer> ids) throws SQLException {
+        Map<Integer, Bloqueada> bloqueadas = new HashMap<>();
+        List<Integer> ordenados = new ArrayList<>(new TreeSet<>(ids));
+
+        for (int inicio = 0; inicio < ordenados.size(); inicio += LOTE) {
+            List<Integer> bloco = ordenados.subList(inicio, Math.min(inicio + LOTE, ordenados.size()));
+            String sql = "SELECT id, projeto_id, status, versao FROM tarefas WHERE id IN ("
+                    + marcadores(bloco.size()) + ") ORDER BY id FOR UPDATE";
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < bloco.size(); i++) {
+                    stmt.setInt(i + 1, bloco.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        bloqueadas.put(rs.getInt(1), new Bloqueada(rs.getInt(2),
+                                StringInterner.enumDe(Tarefa.Status.class, rs.getString(3)), rs.getInt(4)));
+                    }
+                }
             }
+        }
+        return bloqueadas;
+    }
 
-            stmt.setInt(3, tarefaId);
+    private static String marcadores(int quantidade) {
+        return String.join(", ", Collections.nCopies(quantidade, "?"));
+    }
 
-            stmt.executeUpdate();
+    /**
+     * Troca o responsável de várias tarefas em uma única transação
+     * (distribuição automática), enviando os comandos em lote. Com as tarefas
+     * em bases separadas, é uma transação por base.
+     */
+    public void updateResponsaveis(Map<Integer, Integer> responsavelPorTarefa) throws SQLException {
+        Set<Integer> atualizadas = porBase(responsavelPorTarefa, TarefaDAO::gravarResponsaveis);
+
+        for (Map.Entry<Integer, Integer> entrada : responsavelPorTarefa.entrySet()) {
+            if (!atualizadas.contains(entrada.getKey())) {
+                continue;
+            }
+            Auditoria.registrar(RegistroAuditoria.Entidade.TAREFA, entrada.getKey(),
+                    RegistroAuditoria.Operacao.RESPONSAVEL, Auditoria.campos("responsavel_id", entrada.getValue()));
+        }
+    }
+
+    private static Set<Integer> gravarResponsaveis(Connection conn, Map<Integer, Integer> responsavelPorTarefa)
+            throws SQLException {
+        String sql = "UPDATE tarefas SET responsavel_id = ?, data_atualizacao = CURRENT_TIMESTAMP, "
+                + "versao = versao + 1 WHERE id = ?";
+
+        conn.setAutoCommit(false);
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            Set<Integer> atualizadas = new HashSet<>();
+            List<Integer> pendentes = new ArrayList<>();
+            for (Map.Entry<Integer, Integer> entrada : responsavelPorTarefa.entrySet()) {
+                stmt.setInt(1, entrada.getValue());
+                stmt.setInt(2, entrada.getKey());
+                stmt.addBatch();
+                pendentes.add(entrada.getKey());
+
+                if (pendentes.size() == LOTE) {
+                    executarLote(stmt, pendentes, atualizadas);
+                }
+            }
+            if (!pendentes.isEmpty()) {
+                executarLote(stmt, pendentes, atualizadas);
+            }
+            conn.commit();
+            return atualizadas;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Envia o lote e acrescenta às atualizadas as tarefas cujo comando
+     * alterou alguma linha
+     */
+    private static void executarLote(PreparedStatement stmt, List<Integer> ids, Set<Integer> atualizadas)
+            throws SQLException {
+        int[] contagens = stmt.executeBatch();
+        for (int i = 0; i < contagens.length; i++) {
+            if (contagens[i] > 0 || contagens[i] == Statement.SUCCESS_NO_INFO) {
+                atualizadas.add(ids.get(i));
+            }
         }
+        ids.clear();
+    }
+
+    /**
+     * Gravação de valores por tarefa em uma conexão; retorna as tarefas
+     * efetivamente gravadas
+     */
+    private interface Gravacao<V> {
+        Set<Integer> gravar(Connection conn, Map<Integer, V> valores) throws SQLException;
+    }
+
+    /**
+     * Executa a gravação no banco principal ou, com as tarefas em bases
+     * separadas, uma vez em cada base com as tarefas que estão nela.
+     * Retorna as tarefas gravadas em todas as bases.
+     */
+    private static <V> Set<Integer> porBase(Map<Integer, V> valores, Gravacao<V> gravacao) throws SQLException {
+        if (!Shards.isAtivo()) {
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                return gravacao.gravar(conn, valores);
+            }
+        }
+
+        Set<Integer> gravadas = new HashSet<>();
+        for (Map.Entry<Integer, List<Integer>> base : Shards.agruparPorShard(valores.keySet()).entrySet()) {
+            Map<Integer, V> daBase = new HashMap<>();
+            for (Integer tarefaId : base.getValue()) {
+                daBase.put(tarefaId, valores.get(tarefaId));
+            }
+            try (Connection conn = Shards.getConnectionShard(base.getKey())) {
+                gravadas.addAll(gravacao.gravar(conn, daBase));
+            }
+        }
+        return gravadas;
     }
 
     /**
      * Desativa uma tarefa (exclusão lógica)
      */
     public void deactivate(Integer id) throws SQLException {
-        String sql = "UPDATE tarefas SET ativo = FALSE, data_atualizacao = CURRENT_TIMESTAMP WHERE id = ?";
+        String sql = "UPDATE tarefas SET ativo = FALSE, data_atualizacao = CURRENT_TIMESTAMP, versao = versao + 1 "
+                + "WHERE id = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = Shards.getConnectionTarefa(id);
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, id);
             stmt.executeUpdate();
         }
+        AlertaPrazos.remover(id);
+        Auditoria.registrar(RegistroAuditoria.Entidade.TAREFA, id, RegistroAuditoria.Operacao.DESATIVACAO,
+                Auditoria.campos("ativo", false));
     }
 
     /**
      * Busca estatísticas de tarefas por usuário
      */
     public List<Object[]> getTarefasPorUsuario() throws SQLException {
+        if (Shards.isAtivo()) {
+            return getTarefasPorUsuarioShards();
+        }
+
         List<Object[]> resultado = new ArrayList<>();
         String sql = "SELECT * FROM vw_tarefas_por_usuario ORDER BY usuario_nome";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getConnectionLeitura();
                 PreparedStatement stmt = conn.prepareStatement(sql);
                 ResultSet rs = stmt.executeQuery()) {
 
@@ -256,6 +725,58 @@ public class TarefaDAO {
         return resultado;
     }
 
+    /**
+     * Mesmo resultado da vw_tarefas_por_usuario com as tarefas em bases
+     * separadas: os totais por responsável de cada base são somados e
+     * combinados com os usuários ativos do banco principal
+     */
+    private List<Object[]> getTarefasPorUsuarioShards() throws SQLException {
+        String sqlTotais = """
+                SELECT responsavel_id,
+                       COUNT(*),
+                       SUM(CASE WHEN status = 'PENDENTE' THEN 1 ELSE 0 END),
+                       SUM(CASE WHEN status = 'EM_EXECUCAO' THEN 1 ELSE 0 END),
+                       SUM(CASE WHEN status = 'CONCLUIDA' THEN 1 ELSE 0 END)
+                FROM tarefas
+                WHERE ativo = TRUE
+                GROUP BY responsavel_id
+                """;
+
+        Map<Integer, int[]> totais = new HashMap<>();
+        for (Map<Integer, int[]> parte : Shards.consultar(conn -> {
+            Map<Integer, int[]> daBase = new HashMap<>();
+            try (PreparedStatement stmt = conn.prepareStatement(sqlTotais);
+                    ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    daBase.put(rs.getInt(1), new int[] { rs.getInt(2), rs.getInt(3), rs.getInt(4), rs.getInt(5) });
+                }
+            }
+            return daBase;
+        })) {
+            for (Map.Entry<Integer, int[]> entrada : parte.entrySet()) {
+                int[] soma = totais.computeIfAbsent(entrada.getKey(), k -> new int[4]);
+                for (int i = 0; i < soma.length; i++) {
+                    soma[i] += entrada.getValue()[i];
+                }
+            }
+        }
+
+        List<Object[]> resultado = new ArrayList<>();
+        String sql = "SELECT id, nome, perfil FROM usuarios WHERE ativo = TRUE ORDER BY nome";
+
+        try (Connection conn = DatabaseConnection.getConnectionLeitura();
+                PreparedStatement stmt = conn.prepareStatement(sql);
+                ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                int[] total = totais.getOrDefault(rs.getInt("id"), new int[4]);
+                resultado.add(new Object[] { rs.getString("nome"), rs.getString("perfil"),
+                        total[0], total[1], total[2], total[3] });
+            }
+        }
+        return resultado;
+    }
+
     /**
      * Verifica se usuário pode editar a tarefa
      */
@@ -264,6 +785,17 @@ public class TarefaDAO {
         if (isAdmin)
             return true;
 
+        if (Shards.isAtivo()) {
+            Tarefa tarefa = findById(tarefaId);
+            if (tarefa == null) {
+                return false;
+            }
+            if (userId.equals(tarefa.getResponsavelId())) {
+                return true;
+            }
+            return isGerente && userId.equals(gerenteDoProjeto(tarefa.getProjetoId()));
+        }
+
         String sql = """
                 SELECT t.responsavel_id, p.gerente_id
                 FROM tarefas t
@@ -293,43 +825,35 @@ public class TarefaDAO {
         return false;
     }
 
-    /**
-     * Converte ResultSet para objeto Tarefa
-     */
-    private Tarefa resultSetToTarefa(ResultSet rs) throws SQLException {
-        Tarefa tarefa = new Tarefa();
-        tarefa.setId(rs.getInt("id"));
-        tarefa.setTitulo(rs.getString("titulo"));
-        tarefa.setDescricao(rs.getString("descricao"));
-        tarefa.setProjetoId(rs.getInt("projeto_id"));
-        tarefa.setProjetoNome(rs.getString("projeto_nome"));
-        tarefa.setResponsavelId(rs.getInt("responsavel_id"));
-        tarefa.setResponsavelNome(rs.getString("responsavel_nome"));
-        tarefa.setStatus(Tarefa.Status.valueOf(rs.getString("status")));
-        tarefa.setPrioridade(Tarefa.Prioridade.valueOf(rs.getString("prioridade")));
-
-        Date dataPrevistaConclusao = rs.getDate("data_prevista_conclusao");
-        if (dataPrevistaConclusao != null) {
-            tarefa.setDataPrevistaConclusao(dataPrevistaConclusao.toLocalDate());
-        }
-
-        Date dataConclusaoReal = rs.getDate("data_conclusao_real");
-        if (dataConclusaoReal != null) {
-            tarefa.setDataConclusaoReal(dataConclusaoReal.toLocalDate());
-        }
-
-        tarefa.setAtivo(rs.getBoolean("ativo"));
+    private static Integer gerenteDoProjeto(int projetoId) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement("SELECT gerente_id FROM projetos WHERE id = ?")) {
 
-        Timestamp dataCadastro = rs.getTimestamp("data_cadastro");
-        if (dataCadastro != null) {
-            tarefa.setDataCadastro(dataCadastro.toLocalDateTime());
+            stmt.setInt(1, projetoId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : null;
+            }
         }
+    }
 
-        Timestamp dataAtualizacao = rs.getTimestamp("data_atualizacao");
-        if (dataAtualizacao != null) {
-            tarefa.setDataAtualizacao(dataAtualizacao.toLocalDateTime());
+    /**
+     * Conflito de versão com a tarefa como está agora no banco
+     */
+    private ConflitoVersaoException conflito(Tarefa recusada) throws SQLException {
+        Tarefa atual = findById(recusada.getId());
+        if (atual == null || !atual.isAtivo()) {
+            return ConflitoVersaoException.removido();
         }
+        return ConflitoVersaoException.alterado(atual, camposAuditoria(recusada), camposAuditoria(atual));
+    }
 
-        return tarefa;
+    /**
+     * Campos gravados por save e update, para a auditoria
+     */
+    private static Map<String, String> camposAuditoria(Tarefa tarefa) {
+        return Auditoria.campos("titulo", tarefa.getTitulo(), "descricao", tarefa.getDescricao(),
+                "projeto_id", tarefa.getProjetoId(), "responsavel_id", tarefa.getResponsavelId(),
+                "status", tarefa.getStatus(), "prioridade", tarefa.getPrioridade(),
+                "data_prevista_conclusao", tarefa.getDataPrevistaConclusao());
     }
-}
\ No newline at end of file
+}
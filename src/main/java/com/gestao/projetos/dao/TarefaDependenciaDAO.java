@@ -0,0 +1,89 @@
+package com.gestao.projetos.dao;
+
+import com.gestao.projetos.model.TarefaDependencia;
+import com.gestao.projetos.util.Shards;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DAO para operações com dependências entre tarefas (com as tarefas em bases
+ * separadas, na base da tarefa dependente; as duas tarefas precisam estar na
+ * mesma base)
+ */
+public class TarefaDependenciaDAO {
+
+    /**
+     * Busca as dependências entre tarefas ativas de um projeto
+     */
+    public List<TarefaDependencia> findByProjeto(Integer projetoId) throws SQLException {
+        List<TarefaDependencia> dependencias = new ArrayList<>();
+        String sql = """
+                SELECT d.id, d.tarefa_id, d.depende_de_id, d.data_cadastro
+                FROM tarefa_dependencia d
+                INNER JOIN tarefas t ON d.tarefa_id = t.id
+                INNER JOIN tarefas o ON d.depende_de_id = o.id
+                WHERE t.projeto_id = ? AND t.ativo = TRUE AND o.ativo = TRUE
+                """;
+
+        try (Connection conn = Shards.getConnectionLeitura(projetoId);
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, projetoId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    TarefaDependencia dependencia = new TarefaDependencia();
+                    dependencia.setId(rs.getInt(1));
+                    dependencia.setTarefaId(rs.getInt(2));
+                    dependencia.setDependeDeId(rs.getInt(3));
+
+                    Timestamp dataCadastro = rs.getTimestamp(4);
+                    if (dataCadastro != null) {
+                        dependencia.setDataCadastro(dataCadastro.toLocalDateTime());
+                    }
+                    dependencias.add(dependencia);
+                }
+            }
+        }
+        return dependencias;
+    }
+
+    /**
+     * Salva uma nova dependência (a verificação de ciclos é feita pelo
+     * CronogramaEngine antes da gravação)
+     */
+    public void save(TarefaDependencia dependencia) throws SQLException {
+        String sql = "INSERT INTO tarefa_dependencia (tarefa_id, depende_de_id) VALUES (?, ?)";
+
+        try (Connection conn = Shards.getConnectionTarefa(dependencia.getTarefaId());
+                PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            stmt.setInt(1, dependencia.getTarefaId());
+            stmt.setInt(2, dependencia.getDependeDeId());
+            stmt.executeUpdate();
+
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                if (rs.next()) {
+                    dependencia.setId(rs.getInt(1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove uma dependência
+     */
+    public void delete(Integer tarefaId, Integer dependeDeId) throws SQLException {
+        String sql = "DELETE FROM tarefa_dependencia WHERE tarefa_id = ? AND depende_de_id = ?";
+
+        try (Connection conn = Shards.getConnectionTarefa(tarefaId);
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, tarefaId);
+            stmt.setInt(2, dependeDeId);
+            stmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.gestao.projetos.dao;
+
+import com.gestao.projetos.model.Tarefa;
+import com.gestao.projetos.model.TarefaEvento;
+import com.gestao.projetos.util.DatabaseConnection;
+import com.gestao.projetos.util.Shards;
+
+import java.sql.*;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * DAO para o histórico de transições de status das tarefas (tarefa_evento).
+ *
+ * A tabela só recebe inclusões. Os status são gravados como inteiros
+ * (ordinal + 1, com 0 para a criação) e o momento em segundos desde 1970,
+ * o que mantém cada linha pequena e o índice (projeto_id, momento) compacto
+ * para as leituras por período. As gravações são feitas pelo TarefaDAO, na
+ * mesma transação e em lote com a alteração da tarefa. Com as tarefas em
+ * bases separadas (Shards), o histórico fica na base da tarefa.
+ */
+public class TarefaEventoDAO {
+
+    /**
+     * Inclusão da transição, com o status anterior lido (e bloqueado) pelo
+     * TarefaDAO antes do UPDATE: depois do bloqueio a transação não lê mais
+     * a tabela de tarefas, então não disputa o lock com outras gravações
+     */
+    static final String SQL_TRANSICAO = """
+            INSERT INTO tarefa_evento (tarefa_id, projeto_id, status_anterior, status_novo, momento)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    static final String SQL_CRIACAO = """
+            INSERT INTO tarefa_evento (tarefa_id, projeto_id, status_anterior, status_novo, momento)
+            VALUES (?, ?, 0, ?, ?)
+            """;
+
+    /**
+     * Adiciona ao lote a transição da tarefa entre os status informados
+     */
+    static void adicionarTransicao(PreparedStatement stmt, Integer tarefaId, Integer projetoId,
+            Tarefa.Status anterior, Tarefa.Status novoStatus, long momento) throws SQLException {
+        stmt.setInt(1, tarefaId);
+        stmt.setInt(2, projetoId);
+        stmt.setInt(3, codigo(anterior));
+        stmt.setInt(4, codigo(novoStatus));
+        stmt.setLong(5, momento);
+        stmt.addBatch();
+    }
+
+    /**
+     * Adiciona ao lote o evento de criação da tarefa
+     */
+    static void adicionarCriacao(PreparedStatement stmt, Tarefa tarefa, long momento) throws SQLException {
+        stmt.setInt(1, tarefa.getId());
+        stmt.setInt(2, tarefa.getProjetoId());
+        stmt.setInt(3, codigo(tarefa.getStatus()));
+        stmt.setLong(4, momento);
+        stmt.addBatch();
+    }
+
+    /**
+     * Momento atual no formato gravado
+     */
+    static long agora() {
+        return Instant.now().getEpochSecond();
+    }
+
+    // ========== CONSULTAS ==========
+
+    /**
+     * Percorre as transições de um projeto no período [de, ate), em ordem
+     * cronológica. O mesmo objeto TarefaEvento é reaproveitado a cada linha:
+     * o consumidor deve copiar os valores.
+     */
+    public void scanByProjeto(Integer projetoId, LocalDateTime de, LocalDateTime ate, Consumer<TarefaEvento> destino)
+            throws SQLException {
+        String sql = """
+                SELECT id, tarefa_id, projeto_id, status_anterior, status_novo, momento
+                FROM tarefa_evento
+                WHERE projeto_id = ? AND momento >= ? AND momento < ?
+                ORDER BY momento, id
+                """;
+
+        try (Connection conn = Shards.getConnection(projetoId);
+                PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY)) {
+
+            DatabaseConnection.getDialeto().streaming(stmt);
+            stmt.setInt(1, projetoId);
+            stmt.setLong(2, segundos(de));
+            stmt.setLong(3, segundos(ate));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                TarefaEvento evento = new TarefaEvento();
+                while (rs.next()) {
+                    preencher(rs, evento);
+                    destino.accept(evento);
+                }
+            }
+        }
+    }
+
+    /**
+     * Busca as transições de um projeto no período [de, ate)
+     */
+    public List<TarefaEvento> findByProjeto(Integer projetoId, LocalDateTime de, LocalDateTime ate)
+            throws SQLException {
+        List<TarefaEvento> eventos = new ArrayList<>();
+        scanByProjeto(projetoId, de, ate, evento -> eventos.add(new TarefaEvento(evento.getTarefaId(),
+                evento.getProjetoId(), evento.getStatusAnterior(), evento.getStatusNovo(), evento.getMomento())));
+        return eventos;
+    }
+
+    /**
+     * Busca o histórico completo de uma tarefa
+     */
+    public List<TarefaEvento> findByTarefa(Integer tarefaId) throws SQLException {
+        List<TarefaEvento> eventos = new ArrayList<>();
+        String sql = """
+                SELECT id, tarefa_id, projeto_id, status_anterior, status_novo, momento
+                FROM tarefa_evento
+                WHERE tarefa_id = ?
+                ORDER BY momento, id
+                """;
+
+        try (Connection conn = Shards.isAtivo() ? Shards.getConnectionTarefa(tarefaId)
+                : DatabaseConnection.getConnectionLeitura();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, tarefaId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    TarefaEvento evento = new TarefaEvento();
+                    preencher(rs, evento);
+                    eventos.add(evento);
+                }
+            }
+        }
+        return eventos;
+    }
+
+    // ========== CODIFICAÇÃO ==========
+
+    /**
+     * Código gravado para o status (a ordem de Tarefa.Status não deve mudar;
+     * novos status entram no final)
+     */
+    static int codigo(Tarefa.Status status) {
+        return status.ordinal() + 1;
+    }
+
+    /**
+     * Status correspondente ao código (null para 0, a criação)
+     */
+    static Tarefa.Status statusDe(int codigo) {
+        return codigo == 0 ? null : Tarefa.Status.values()[codigo - 1];
+    }
+
+    private static void preencher(ResultSet rs, TarefaEvento evento) throws SQLException {
+        evento.setId(rs.getLong(1));
+        evento.setTarefaId(rs.getInt(2));
+        evento.setProjetoId(rs.getInt(3));
+        evento.setStatusAnterior(statusDe(rs.getInt(4)));
+        evento.setStatusNovo(statusDe(rs.getInt(5)));
+        evento.setMomento(LocalDateTime.ofInstant(Instant.ofEpochSecond(rs.getLong(6)), ZoneId.systemDefault()));
+    }
+
+    private static long segundos(LocalDateTime momento) {
+        return momento.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+}
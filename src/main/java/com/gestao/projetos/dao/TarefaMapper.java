@@ -0,0 +1,118 @@
+package com.gestao.projetos.dao;
+
+import com.gestao.projetos.model.Tarefa;
+import com.gestao.projetos.util.StringInterner;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Converte linhas de consultas de tarefas em objetos Tarefa.
+ *
+ * As posições das colunas são resolvidas uma única vez, na criação do mapper
+ * (um por ResultSet); cada linha é lida por índice, sem a busca do nome da
+ * coluna que rs.getXxx("nome") faz a cada chamada. Título, descrição e versão
+ * são opcionais (a leitura analítica não os seleciona), assim como os nomes
+ * do projeto e do responsável (ausentes nas bases separadas de tarefas).
+ */
+class TarefaMapper {
+
+    private final StringInterner nomes = new StringInterner();
+
+    private final int id;
+    private final int titulo;
+    private final int descricao;
+    private final int projetoId;
+    private final int projetoNome;
+    private final int responsavelId;
+    private final int responsavelNome;
+    private final int status;
+    private final int prioridade;
+    private final int dataPrevistaConclusao;
+    private final int dataConclusaoReal;
+    private final int ativo;
+    private final int dataCadastro;
+    private final int dataAtualizacao;
+    private final int versao;
+
+    TarefaMapper(ResultSet rs) throws SQLException {
+        id = rs.findColumn("id");
+        titulo = colunaOpcional(rs, "titulo");
+        descricao = colunaOpcional(rs, "descricao");
+        projetoId = rs.findColumn("projeto_id");
+        projetoNome = colunaOpcional(rs, "projeto_nome");
+        responsavelId = rs.findColumn("responsavel_id");
+        responsavelNome = colunaOpcional(rs, "responsavel_nome");
+        status = rs.findColumn("status");
+        prioridade = rs.findColumn("prioridade");
+        dataPrevistaConclusao = rs.findColumn("data_prevista_conclusao");
+        dataConclusaoReal = rs.findColumn("data_conclusao_real");
+        ativo = rs.findColumn("ativo");
+        dataCadastro = rs.findColumn("data_cadastro");
+        dataAtualizacao = rs.findColumn("data_atualizacao");
+        versao = colunaOpcional(rs, "versao");
+    }
+
+    /**
+     * Converte a linha atual do ResultSet
+     */
+    Tarefa map(ResultSet rs) throws SQLException {
+        Tarefa tarefa = new Tarefa();
+        preencher(rs, tarefa);
+        return tarefa;
+    }
+
+    /**
+     * Copia a linha atual do ResultSet para uma tarefa existente
+     */
+    void preencher(ResultSet rs, Tarefa tarefa) throws SQLException {
+        tarefa.setId(rs.getInt(id));
+        if (titulo > 0) {
+            tarefa.setTitulo(rs.getString(titulo));
+        }
+        if (descricao > 0) {
+            tarefa.setDescricao(rs.getString(descricao));
+        }
+        tarefa.setProjetoId(rs.getInt(projetoId));
+        if (projetoNome > 0) {
+            tarefa.setProjetoNome(nomes.intern(rs.getString(projetoNome)));
+        }
+        tarefa.setResponsavelId(rs.getInt(responsavelId));
+        if (responsavelNome > 0) {
+            tarefa.setResponsavelNome(nomes.intern(rs.getString(responsavelNome)));
+        }
+        tarefa.setStatus(StringInterner.enumDe(Tarefa.Status.class, rs.getString(status)));
+        tarefa.setPrioridade(StringInterner.enumDe(Tarefa.Prioridade.class, rs.getString(prioridade)));
+
+        Date prevista = rs.getDate(dataPrevistaConclusao);
+        tarefa.setDataPrevistaConclusao(prevista != null ? prevista.toLocalDate() : null);
+
+        Date conclusao = rs.getDate(dataConclusaoReal);
+        tarefa.setDataConclusaoReal(conclusao != null ? conclusao.toLocalDate() : null);
+
+        tarefa.setAtivo(rs.getBoolean(ativo));
+
+        Timestamp cadastro = rs.getTimestamp(dataCadastro);
+        tarefa.setDataCadastro(cadastro != null ? cadastro.toLocalDateTime() : null);
+
+        Timestamp atualizacao = rs.getTimestamp(dataAtualizacao);
+        tarefa.setDataAtualizacao(atualizacao != null ? atualizacao.toLocalDateTime() : null);
+
+        if (versao > 0) {
+            tarefa.setVersao(rs.getInt(versao));
+        }
+    }
+
+    private static int colunaOpcional(ResultSet rs, String nome) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (nome.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                return i;
+            }
+        }
+        return 0;
+    }
+}
@@ -1,13 +1,18 @@
 package com.gestao.projetos.dao;
 
+import com.gestao.projetos.model.RegistroAuditoria;
 import com.gestao.projetos.model.Usuario;
+import com.gestao.projetos.util.Auditoria;
 import com.gestao.projetos.util.DatabaseConnection;
 import com.gestao.projetos.util.CryptUtils;
+import com.gestao.projetos.util.PasswordHasher;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO para operações com usuários
@@ -29,10 +34,15 @@ public class UsuarioDAO {
             if (rs.next()) {
                 String senhaHash = rs.getString("senha");
 
-                // Para desenvolvimento, compara senha simples
-                // Em produção, use: CryptUtils.verifyPassword(senha, senhaHash)
-                if (senha.equals(senhaHash)) {
-                    return resultSetToUsuario(rs);
+                // Verificação feita no executor limitado de hash de senhas
+                if (PasswordHasher.verify(senha, senhaHash)) {
+                    Usuario usuario = new UsuarioMapper(rs).map(rs);
+
+                    // Migra senhas em formato antigo ou com custo abaixo do configurado
+                    if (CryptUtils.needsRehash(senhaHash)) {
+                        migrarHashSenha(conn, usuario.getId(), senhaHash, senha);
+                    }
+                    return usuario;
                 }
             }
         }
@@ -46,12 +56,13 @@ public class UsuarioDAO {
         List<Usuario> usuarios = new ArrayList<>();
         String sql = "SELECT * FROM usuarios WHERE ativo = TRUE ORDER BY nome";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getConnectionLeitura();
                 PreparedStatement stmt = conn.prepareStatement(sql);
                 ResultSet rs = stmt.executeQuery()) {
 
+            UsuarioMapper mapper = new UsuarioMapper(rs);
             while (rs.next()) {
-                usuarios.add(resultSetToUsuario(rs));
+                usuarios.add(mapper.map(rs));
             }
         }
         return usuarios;
@@ -64,19 +75,67 @@ public class UsuarioDAO {
         List<Usuario> usuarios = new ArrayList<>();
         String sql = "SELECT * FROM usuarios WHERE perfil = ? AND ativo = TRUE ORDER BY nome";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getConnectionLeitura();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, perfil.name());
             ResultSet rs = stmt.executeQuery();
 
+            UsuarioMapper mapper = new UsuarioMapper(rs);
             while (rs.next()) {
-                usuarios.add(resultSetToUsuario(rs));
+                usuarios.add(mapper.map(rs));
             }
         }
         return usuarios;
     }
 
+    /**
+     * Busca usuários alterados desde a data informada, incluindo os inativos
+     * (usada na atualização incremental das listas)
+     */
+    public List<Usuario> findAlteradosDesde(LocalDateTime desde) throws SQLException {
+        List<Usuario> usuarios = new ArrayList<>();
+        String sql = "SELECT * FROM usuarios WHERE data_atualizacao >= ? ORDER BY data_atualizacao";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setTimestamp(1, Timestamp.valueOf(desde));
+            ResultSet rs = stmt.executeQuery();
+
+            UsuarioMapper mapper = new UsuarioMapper(rs);
+            while (rs.next()) {
+                usuarios.add(mapper.map(rs));
+            }
+        }
+        return usuarios;
+    }
+
+    /**
+     * Busca os membros ativos de cada projeto (tabela usuario_projeto),
+     * agrupados pelo id do projeto
+     */
+    public Map<Integer, List<Integer>> findMembrosPorProjeto() throws SQLException {
+        Map<Integer, List<Integer>> membros = new HashMap<>();
+        String sql = """
+                SELECT up.projeto_id, up.usuario_id
+                FROM usuario_projeto up
+                INNER JOIN usuarios u ON up.usuario_id = u.id
+                WHERE up.ativo = TRUE AND u.ativo = TRUE
+                ORDER BY up.projeto_id, up.usuario_id
+                """;
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql);
+                ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                membros.computeIfAbsent(rs.getInt(1), id -> new ArrayList<>()).add(rs.getInt(2));
+            }
+        }
+        return membros;
+    }
+
     /**
      * Busca usuário por ID
      */
@@ -90,7 +149,7 @@ public class UsuarioDAO {
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return resultSetToUsuario(rs);
+                return new UsuarioMapper(rs).map(rs);
             }
         }
         return null;
@@ -108,8 +167,7 @@ public class UsuarioDAO {
             stmt.setString(1, usuario.getNome());
             stmt.setString(2, usuario.getEmail());
             stmt.setString(3, usuario.getLogin());
-            // Em produção, use: CryptUtils.hashPassword(usuario.getSenha())
-            stmt.setString(4, usuario.getSenha());
+            stmt.setString(4, PasswordHasher.hash(usuario.getSenha()));
             stmt.setString(5, usuario.getPerfil().name());
 
             stmt.executeUpdate();
@@ -119,14 +177,18 @@ public class UsuarioDAO {
                 usuario.setId(rs.getInt(1));
             }
         }
+        Auditoria.registrar(RegistroAuditoria.Entidade.USUARIO, usuario.getId(), RegistroAuditoria.Operacao.CRIACAO,
+                camposAuditoria(usuario));
     }
 
     /**
-     * Atualiza um usuário existente
+     * Atualiza um usuário existente, desde que ainda esteja na versão lida
+     * (ConflitoVersaoException, sem gravar nada, se outro usuário o alterou)
      */
     public void update(Usuario usuario) throws SQLException {
         String sql = "UPDATE usuarios SET nome = ?, email = ?, login = ?, perfil = ?, " +
-                "data_atualizacao = CURRENT_TIMESTAMP WHERE id = ?";
+                "data_atualizacao = CURRENT_TIMESTAMP, versao = versao + 1 WHERE id = ? AND versao = ?";
+        boolean atualizado;
 
         try (Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -136,33 +198,61 @@ public class UsuarioDAO {
             stmt.setString(3, usuario.getLogin());
             stmt.setString(4, usuario.getPerfil().name());
             stmt.setInt(5, usuario.getId());
+            stmt.setInt(6, usuario.getVersao());
 
-            stmt.executeUpdate();
+            atualizado = stmt.executeUpdate() > 0;
+        }
+        if (!atualizado) {
+            throw conflito(usuario);
         }
+        usuario.setVersao(usuario.getVersao() + 1);
+        Auditoria.registrar(RegistroAuditoria.Entidade.USUARIO, usuario.getId(),
+                RegistroAuditoria.Operacao.ALTERACAO, camposAuditoria(usuario));
     }
 
     /**
      * Atualiza senha do usuário
      */
     public void updatePassword(Integer userId, String novaSenha) throws SQLException {
-        String sql = "UPDATE usuarios SET senha = ?, data_atualizacao = CURRENT_TIMESTAMP WHERE id = ?";
+        String sql = "UPDATE usuarios SET senha = ?, data_atualizacao = CURRENT_TIMESTAMP, versao = versao + 1 "
+                + "WHERE id = ?";
 
         try (Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            // Em produção, use: CryptUtils.hashPassword(novaSenha)
-            stmt.setString(1, novaSenha);
+            stmt.setString(1, PasswordHasher.hash(novaSenha));
             stmt.setInt(2, userId);
 
             stmt.executeUpdate();
         }
+        // O valor da senha nunca vai para a auditoria
+        Auditoria.registrar(RegistroAuditoria.Entidade.USUARIO, userId, RegistroAuditoria.Operacao.SENHA,
+                Auditoria.campos("senha", "(alterada)"));
+    }
+
+    /**
+     * Regrava a mesma senha no formato atual (migração feita no login): não é
+     * uma edição do usuário, então não altera a versão nem a data de
+     * atualização e não vai para a auditoria. Só grava se o hash ainda for o
+     * verificado, para não desfazer uma troca de senha simultânea.
+     */
+    private void migrarHashSenha(Connection conn, int userId, String hashAnterior, String senha) throws SQLException {
+        String sql = "UPDATE usuarios SET senha = ? WHERE id = ? AND senha = ?";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, PasswordHasher.hash(senha));
+            stmt.setInt(2, userId);
+            stmt.setString(3, hashAnterior);
+            stmt.executeUpdate();
+        }
     }
 
     /**
      * Desativa um usuário (exclusão lógica)
      */
     public void deactivate(Integer id) throws SQLException {
-        String sql = "UPDATE usuarios SET ativo = FALSE, data_atualizacao = CURRENT_TIMESTAMP WHERE id = ?";
+        String sql = "UPDATE usuarios SET ativo = FALSE, data_atualizacao = CURRENT_TIMESTAMP, versao = versao + 1 "
+                + "WHERE id = ?";
 
         try (Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -170,6 +260,8 @@ public class UsuarioDAO {
             stmt.setInt(1, id);
             stmt.executeUpdate();
         }
+        Auditoria.registrar(RegistroAuditoria.Entidade.USUARIO, id, RegistroAuditoria.Operacao.DESATIVACAO,
+                Auditoria.campos("ativo", false));
     }
 
     /**
@@ -219,28 +311,21 @@ public class UsuarioDAO {
     }
 
     /**
-     * Converte ResultSet para objeto Usuario
+     * Conflito de versão com o usuário como está agora no banco
      */
-    private Usuario resultSetToUsuario(ResultSet rs) throws SQLException {
-        Usuario usuario = new Usuario();
-        usuario.setId(rs.getInt("id"));
-        usuario.setNome(rs.getString("nome"));
-        usuario.setEmail(rs.getString("email"));
-        usuario.setLogin(rs.getString("login"));
-        usuario.setSenha(rs.getString("senha"));
-        usuario.setPerfil(Usuario.Perfil.valueOf(rs.getString("perfil")));
-        usuario.setAtivo(rs.getBoolean("ativo"));
-
-        Timestamp dataCadastro = rs.getTimestamp("data_cadastro");
-        if (dataCadastro != null) {
-            usuario.setDataCadastro(dataCadastro.toLocalDateTime());
-        }
-
-        Timestamp dataAtualizacao = rs.getTimestamp("data_atualizacao");
-        if (dataAtualizacao != null) {
-            usuario.setDataAtualizacao(dataAtualizacao.toLocalDateTime());
+    private ConflitoVersaoException conflito(Usuario recusado) throws SQLException {
+        Usuario atual = findById(recusado.getId());
+        if (atual == null || !atual.isAtivo()) {
+            return ConflitoVersaoException.removido();
         }
+        return ConflitoVersaoException.alterado(atual, camposAuditoria(recusado), camposAuditoria(atual));
+    }
 
-        return usuario;
+    /**
+     * Campos gravados por save e update, para a auditoria (sem a senha)
+     */
+    private static Map<String, String> camposAuditoria(Usuario usuario) {
+        return Auditoria.campos("nome", usuario.getNome(), "email", usuario.getEmail(),
+                "login", usuario.getLogin(), "perfil", usuario.getPerfil());
     }
 }
@@ -0,0 +1,66 @@
+package com.gestao.projetos.dao;
+
+import com.gestao.projetos.model.Usuario;
+import com.gestao.projetos.util.StringInterner;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Converte linhas de consultas de usuários em objetos Usuario
+ * (posições das colunas resolvidas uma vez por ResultSet)
+ */
+class UsuarioMapper {
+
+    private final int id;
+    private final int nome;
+    private final int email;
+    private final int login;
+    private final int senha;
+    private final int perfil;
+    private final int ativo;
+    private final int dataCadastro;
+    private final int dataAtualizacao;
+    private final int versao;
+
+    UsuarioMapper(ResultSet rs) throws SQLException {
+        id = rs.findColumn("id");
+        nome = rs.findColumn("nome");
+        email = rs.findColumn("email");
+        login = rs.findColumn("login");
+        senha = rs.findColumn("senha");
+        perfil = rs.findColumn("perfil");
+        ativo = rs.findColumn("ativo");
+        dataCadastro = rs.findColumn("data_cadastro");
+        dataAtualizacao = rs.findColumn("data_atualizacao");
+        versao = rs.findColumn("versao");
+    }
+
+    /**
+     * Converte a linha atual do ResultSet
+     */
+    Usuario map(ResultSet rs) throws SQLException {
+        Usuario usuario = new Usuario();
+        usuario.setId(rs.getInt(id));
+        usuario.setNome(rs.getString(nome));
+        usuario.setEmail(rs.getString(email));
+        usuario.setLogin(rs.getString(login));
+        usuario.setSenha(rs.getString(senha));
+        usuario.setPerfil(StringInterner.enumDe(Usuario.Perfil.class, rs.getString(perfil)));
+        usuario.setAtivo(rs.getBoolean(ativo));
+
+        Timestamp cadastro = rs.getTimestamp(dataCadastro);
+        if (cadastro != null) {
+            usuario.setDataCadastro(cadastro.toLocalDateTime());
+        }
+
+        Timestamp atualizacao = rs.getTimestamp(dataAtualizacao);
+        if (atualizacao != null) {
+            usuario.setDataAtualizacao(atualizacao.toLocalDateTime());
+        }
+        usuario.setVersao(rs.getInt(versao));
+
+        return usuario;
+    }
+}
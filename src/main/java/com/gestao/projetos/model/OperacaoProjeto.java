@@ -0,0 +1,187 @@
+package com.gestao.projetos.model;
+
+/**
+ * Classe modelo para representar uma operação em cascata sobre um projeto
+ * (cancelamento, arquivamento ou troca de gerente) executada em segundo
+ * plano, em lotes de tarefas.
+ *
+ * ultimaTarefaId é o cursor: as tarefas são processadas em ordem de id e,
+ * após cada lote, o progresso gravado permite retomar a operação de onde
+ * parou.
+ */
+public class OperacaoProjeto {
+
+    public enum Tipo {
+        CANCELAMENTO("Cancelamento"),
+        ARQUIVAMENTO("Arquivamento"),
+        TROCA_GERENTE("Troca de gerente");
+
+        private final String descricao;
+
+        Tipo(String descricao) {
+            this.descricao = descricao;
+        }
+
+        public String getDescricao() {
+            return descricao;
+        }
+
+        @Override
+        public String toString() {
+            return descricao;
+        }
+    }
+
+    public enum Status {
+        PENDENTE("Pendente"),
+        EXECUTANDO("Executando"),
+        CONCLUIDA("Concluída"),
+        FALHA("Falha");
+
+        private final String descricao;
+
+        Status(String descricao) {
+            this.descricao = descricao;
+        }
+
+        public String getDescricao() {
+            return descricao;
+        }
+
+        @Override
+        public String toString() {
+            return descricao;
+        }
+    }
+
+    private Long id;
+    private Integer projetoId;
+    private String projetoNome;
+    private Tipo tipo;
+    private Integer gerenteAnteriorId;
+    private Integer gerenteNovoId;
+    private int ultimaTarefaId;
+    private int processadas;
+    private int total;
+    private Status status;
+    private Integer usuarioId;
+    private String erro;
+
+    // Construtores
+    public OperacaoProjeto() {
+    }
+
+    public OperacaoProjeto(Integer projetoId, Tipo tipo, Integer usuarioId) {
+        this.projetoId = projetoId;
+        this.tipo = tipo;
+        this.usuarioId = usuarioId;
+        this.status = Status.PENDENTE;
+    }
+
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getProjetoId() {
+        return projetoId;
+    }
+
+    public void setProjetoId(Integer projetoId) {
+        this.projetoId = projetoId;
+    }
+
+    public String getProjetoNome() {
+        return projetoNome;
+    }
+
+    public void setProjetoNome(String projetoNome) {
+        this.projetoNome = projetoNome;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(Tipo tipo) {
+        this.tipo = tipo;
+    }
+
+    public Integer getGerenteAnteriorId() {
+        return gerenteAnteriorId;
+    }
+
+    public void setGerenteAnteriorId(Integer gerenteAnteriorId) {
+        this.gerenteAnteriorId = gerenteAnteriorId;
+    }
+
+    public Integer getGerenteNovoId() {
+        return gerenteNovoId;
+    }
+
+    public void setGerenteNovoId(Integer gerenteNovoId) {
+        this.gerenteNovoId = gerenteNovoId;
+    }
+
+    public int getUltimaTarefaId() {
+        return ultimaTarefaId;
+    }
+
+    public void setUltimaTarefaId(int ultimaTarefaId) {
+        this.ultimaTarefaId = ultimaTarefaId;
+    }
+
+    public int getProcessadas() {
+        return processadas;
+    }
+
+    public void setProcessadas(int processadas) {
+        this.processadas = processadas;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Integer getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(Integer usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public String getErro() {
+        return erro;
+    }
+
+    public void setErro(String erro) {
+        this.erro = erro;
+    }
+
+    // Métodos auxiliares
+    public boolean isFinalizada() {
+        return status == Status.CONCLUIDA || status == Status.FALHA;
+    }
+
+    @Override
+    public String toString() {
+        return tipo.getDescricao() + " de " + (projetoNome != null ? projetoNome : "#" + projetoId);
+    }
+}
@@ -42,6 +42,7 @@ public class Projeto {
     private boolean ativo;
     private LocalDateTime dataCadastro;
     private LocalDateTime dataAtualizacao;
+    private int versao; // Incrementada a cada gravação (controle de concorrência)
 
     // Campos calculados para relatórios
     private Integer totalTarefas;
@@ -163,6 +164,14 @@ public class Projeto {
         this.dataAtualizacao = dataAtualizacao;
     }
 
+    public int getVersao() {
+        return versao;
+    }
+
+    public void setVersao(int versao) {
+        this.versao = versao;
+    }
+
     public Integer getTotalTarefas() {
         return totalTarefas;
     }
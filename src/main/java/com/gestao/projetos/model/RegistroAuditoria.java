@@ -0,0 +1,207 @@
+package com.gestao.projetos.model;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Classe modelo para representar um registro da trilha de auditoria: quem
+ * gravou o quê e quando, com os valores dos campos gravados
+ */
+public class RegistroAuditoria {
+
+    public enum Entidade {
+        PROJETO("Projeto"),
+        TAREFA("Tarefa"),
+        USUARIO("Usuário");
+
+        private final String descricao;
+
+        Entidade(String descricao) {
+            this.descricao = descricao;
+        }
+
+        public String getDescricao() {
+            return descricao;
+        }
+
+        @Override
+        public String toString() {
+            return descricao;
+        }
+    }
+
+    public enum Operacao {
+        CRIACAO("Criação"),
+        ALTERACAO("Alteração"),
+        STATUS("Status"),
+        RESPONSAVEL("Responsável"),
+        DESATIVACAO("Desativação"),
+        CANCELAMENTO("Cancelamento"),
+        SENHA("Senha"),
+        RESTAURACAO("Restauração");
+
+        private final String descricao;
+
+        Operacao(String descricao) {
+            this.descricao = descricao;
+        }
+
+        public String getDescricao() {
+            return descricao;
+        }
+
+        @Override
+        public String toString() {
+            return descricao;
+        }
+    }
+
+    private Long id;
+    private Entidade entidade;
+    private Integer entidadeId;
+    private Operacao operacao;
+    private Integer usuarioId;
+    private String usuarioNome;
+    private LocalDateTime momento;
+    private Map<String, String> campos = new LinkedHashMap<>();
+
+    // Construtores
+    public RegistroAuditoria() {
+    }
+
+    public RegistroAuditoria(Entidade entidade, Integer entidadeId, Operacao operacao, Integer usuarioId,
+            LocalDateTime momento, Map<String, String> campos) {
+        this.entidade = entidade;
+        this.entidadeId = entidadeId;
+        this.operacao = operacao;
+        this.usuarioId = usuarioId;
+        this.momento = momento;
+        this.campos = campos;
+    }
+
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Entidade getEntidade() {
+        return entidade;
+    }
+
+    public void setEntidade(Entidade entidade) {
+        this.entidade = entidade;
+    }
+
+    public Integer getEntidadeId() {
+        return entidadeId;
+    }
+
+    public void setEntidadeId(Integer entidadeId) {
+        this.entidadeId = entidadeId;
+    }
+
+    public Operacao getOperacao() {
+        return operacao;
+    }
+
+    public void setOperacao(Operacao operacao) {
+        this.operacao = operacao;
+    }
+
+    public Integer getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(Integer usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public String getUsuarioNome() {
+        return usuarioNome;
+    }
+
+    public void setUsuarioNome(String usuarioNome) {
+        this.usuarioNome = usuarioNome;
+    }
+
+    public LocalDateTime getMomento() {
+        return momento;
+    }
+
+    public void setMomento(LocalDateTime momento) {
+        this.momento = momento;
+    }
+
+    public Map<String, String> getCampos() {
+        return campos;
+    }
+
+    public void setCampos(Map<String, String> campos) {
+        this.campos = campos;
+    }
+
+    /**
+     * Campos em texto, um "campo=valor" por linha (quebras de linha e barras
+     * invertidas dos valores são escapadas)
+     */
+    public String getCamposTexto() {
+        StringBuilder texto = new StringBuilder();
+        for (Map.Entry<String, String> campo : campos.entrySet()) {
+            if (texto.length() > 0) {
+                texto.append('\n');
+            }
+            texto.append(campo.getKey()).append('=');
+            String valor = campo.getValue();
+            for (int i = 0; valor != null && i < valor.length(); i++) {
+                char c = valor.charAt(i);
+                switch (c) {
+                    case '\\' -> texto.append("\\\\");
+                    case '\n' -> texto.append("\\n");
+                    case '\r' -> texto.append("\\r");
+                    case '\t' -> texto.append("\\t");
+                    default -> texto.append(c);
+                }
+            }
+        }
+        return texto.toString();
+    }
+
+    public void setCamposTexto(String texto) {
+        campos = new LinkedHashMap<>();
+        if (texto == null || texto.isEmpty()) {
+            return;
+        }
+        for (String linha : texto.split("\n")) {
+            int separador = linha.indexOf('=');
+            if (separador < 0) {
+                continue;
+            }
+            StringBuilder valor = new StringBuilder();
+            for (int i = separador + 1; i < linha.length(); i++) {
+                char c = linha.charAt(i);
+                if (c == '\\' && i + 1 < linha.length()) {
+                    char proximo = linha.charAt(++i);
+                    valor.append(switch (proximo) {
+                        case 'n' -> '\n';
+                        case 'r' -> '\r';
+                        case 't' -> '\t';
+                        default -> proximo;
+                    });
+                } else {
+                    valor.append(c);
+                }
+            }
+            campos.put(linha.substring(0, separador), valor.toString());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return entidade + " " + entidadeId + ": " + operacao + " em " + momento;
+    }
+}
@@ -65,6 +65,7 @@ public class Tarefa {
     private boolean ativo;
     private LocalDateTime dataCadastro;
     private LocalDateTime dataAtualizacao;
+    private int versao; // Incrementada a cada gravação (controle de concorrência)
     
     // Construtores
     public Tarefa() {
@@ -198,6 +199,14 @@ public class Tarefa {
         this.dataAtualizacao = dataAtualizacao;
     }
     
+    public int getVersao() {
+        return versao;
+    }
+    
+    public void setVersao(int versao) {
+        this.versao = versao;
+    }
+    
     // Métodos utilitários
     public boolean isConcluida() {
         return status == Status.CONCLUIDA;
@@ -221,4 +230,7 @@ public class Tarefa {
     }
     
     @Override
-    public int
\ No newline at end of file
+    public int hashCode() {
+        return id != null ? id.hashCode() : 0;
+    }
+}
@@ -0,0 +1,80 @@
+package com.gestao.projetos.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Classe modelo para representar a dependência entre duas tarefas
+ * (a tarefa só pode começar após a conclusão da tarefa de que depende)
+ */
+public class TarefaDependencia {
+
+    private Integer id;
+    private Integer tarefaId;
+    private Integer dependeDeId;
+    private LocalDateTime dataCadastro;
+
+    // Construtores
+    public TarefaDependencia() {
+        this.dataCadastro = LocalDateTime.now();
+    }
+
+    public TarefaDependencia(Integer tarefaId, Integer dependeDeId) {
+        this();
+        this.tarefaId = tarefaId;
+        this.dependeDeId = dependeDeId;
+    }
+
+    // Getters e Setters
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Integer getTarefaId() {
+        return tarefaId;
+    }
+
+    public void setTarefaId(Integer tarefaId) {
+        this.tarefaId = tarefaId;
+    }
+
+    public Integer getDependeDeId() {
+        return dependeDeId;
+    }
+
+    public void setDependeDeId(Integer dependeDeId) {
+        this.dependeDeId = dependeDeId;
+    }
+
+    public LocalDateTime getDataCadastro() {
+        return dataCadastro;
+    }
+
+    public void setDataCadastro(LocalDateTime dataCadastro) {
+        this.dataCadastro = dataCadastro;
+    }
+
+    @Override
+    public String toString() {
+        return "Tarefa " + tarefaId + " depende de " + dependeDeId;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null || getClass() != obj.getClass())
+            return false;
+        TarefaDependencia outra = (TarefaDependencia) obj;
+        return tarefaId != null && tarefaId.equals(outra.tarefaId)
+                && dependeDeId != null && dependeDeId.equals(outra.dependeDeId);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (tarefaId != null ? tarefaId.hashCode() : 0) + (dependeDeId != null ? dependeDeId.hashCode() : 0);
+    }
+}
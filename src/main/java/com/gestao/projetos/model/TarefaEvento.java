@@ -0,0 +1,92 @@
+package com.gestao.projetos.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Classe modelo para representar uma transição de status de uma tarefa
+ * (statusAnterior nulo indica a criação da tarefa)
+ */
+public class TarefaEvento {
+
+    private Long id;
+    private Integer tarefaId;
+    private Integer projetoId;
+    private Tarefa.Status statusAnterior;
+    private Tarefa.Status statusNovo;
+    private LocalDateTime momento;
+
+    // Construtores
+    public TarefaEvento() {
+    }
+
+    public TarefaEvento(Integer tarefaId, Integer projetoId, Tarefa.Status statusAnterior,
+            Tarefa.Status statusNovo, LocalDateTime momento) {
+        this.tarefaId = tarefaId;
+        this.projetoId = projetoId;
+        this.statusAnterior = statusAnterior;
+        this.statusNovo = statusNovo;
+        this.momento = momento;
+    }
+
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getTarefaId() {
+        return tarefaId;
+    }
+
+    public void setTarefaId(Integer tarefaId) {
+        this.tarefaId = tarefaId;
+    }
+
+    public Integer getProjetoId() {
+        return projetoId;
+    }
+
+    public void setProjetoId(Integer projetoId) {
+        this.projetoId = projetoId;
+    }
+
+    public Tarefa.Status getStatusAnterior() {
+        return statusAnterior;
+    }
+
+    public void setStatusAnterior(Tarefa.Status statusAnterior) {
+        this.statusAnterior = statusAnterior;
+    }
+
+    public Tarefa.Status getStatusNovo() {
+        return statusNovo;
+    }
+
+    public void setStatusNovo(Tarefa.Status statusNovo) {
+        this.statusNovo = statusNovo;
+    }
+
+    public LocalDateTime getMomento() {
+        return momento;
+    }
+
+    public void setMomento(LocalDateTime momento) {
+        this.momento = momento;
+    }
+
+    /**
+     * Indica se o evento registra a criação da tarefa
+     */
+    public boolean isCriacao() {
+        return statusAnterior == null;
+    }
+
+    @Override
+    public String toString() {
+        return "Tarefa " + tarefaId + ": " + (statusAnterior != null ? statusAnterior : "Criada")
+                + " -> " + statusNovo + " em " + momento;
+    }
+}
@@ -37,6 +37,7 @@ public class Usuario {
     private boolean ativo;
     private LocalDateTime dataCadastro;
     private LocalDateTime dataAtualizacao;
+    private int versao; // Incrementada a cada gravação (controle de concorrência)
 
     // Construtores
     public Usuario() {
@@ -127,6 +128,14 @@ public class Usuario {
         this.dataAtualizacao = dataAtualizacao;
     }
 
+    public int getVersao() {
+        return versao;
+    }
+
+    public void setVersao(int versao) {
+        this.versao = versao;
+    }
+
     // Métodos utilitários
     public boolean isAdministrador() {
         return perfil == Perfil.ADMINISTRADOR;
@@ -160,9 +169,4 @@ public class Usuario {
         return id != null ? id.hashCode() : 0;
     }
 
-}
-
-  hashCode() {
-        return id != null ? id.hashCode() : 0;
-    }
 }
@@ -0,0 +1,334 @@
+package com.gestao.projetos.util;
+
+import javafx.application.Platform;
+import javafx.scene.Node;
+
+import com.gestao.projetos.dao.TarefaDAO;
+import com.gestao.projetos.model.Tarefa;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Alertas de prazo das tarefas em aberto (vencendo e atrasadas).
+ *
+ * As conclusões previstas são lidas uma única vez, ao iniciar; a partir daí
+ * cada tarefa tem no máximo um temporizador em uma TimingWheel, que dispara
+ * quando ela entra em "vence em breve" (alertas.antecedencia-dias antes da
+ * data) e depois em "atrasada" (no dia seguinte à data). Tarefas salvas pelo
+ * TarefaDAO e as alterações recebidas pelo ChangeFeed apenas reagendam o
+ * próprio temporizador, sem nova varredura da tabela.
+ *
+ * Os alertas ativos são entregues às telas na thread do JavaFX; opcionalmente
+ * cada alerta disparado é gravado no arquivo alertas.arquivo.
+ */
+public class AlertaPrazos {
+
+    /**
+     * Situação de prazo de uma tarefa
+     */
+    public enum Tipo {
+        VENCE_EM_BREVE("Vence em breve"),
+        ATRASADA("Atrasada");
+
+        private final String descricao;
+
+        Tipo(String descricao) {
+            this.descricao = descricao;
+        }
+
+        public String getDescricao() {
+            return descricao;
+        }
+
+        @Override
+        public String toString() {
+            return descricao;
+        }
+    }
+
+    /**
+     * Alerta ativo de uma tarefa
+     */
+    public record Alerta(int tarefaId, String titulo, int responsavelId, LocalDate dataPrevista, Tipo tipo) {
+    }
+
+    private static final DateTimeFormatter FORMATO_LOG = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final EventBus<List<Alerta>> bus = new EventBus<>();
+    private static final AtomicBoolean publicacaoAgendada = new AtomicBoolean();
+
+    // Estado protegido pelo monitor da classe
+    private static final Map<Integer, Prazo> prazos = new HashMap<>();
+    private static final Map<Integer, Alerta> ativos = new LinkedHashMap<>();
+    private static TimingWheel roda;
+    private static ScheduledExecutorService executor;
+    private static EventBus.Assinatura assinaturaAlteracoes;
+
+    /**
+     * Inicia os alertas (chamadas repetidas são ignoradas)
+     */
+    public static synchronized void start() {
+        if (executor != null || !AppConfig.getBoolean("alertas.enabled", true)) {
+            return;
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "alertas-prazo");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.execute(AlertaPrazos::carregar);
+    }
+
+    /**
+     * Interrompe os alertas e descarta os temporizadores
+     */
+    public static synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        if (assinaturaAlteracoes != null) {
+            assinaturaAlteracoes.cancel();
+            assinaturaAlteracoes = null;
+        }
+        roda = null;
+        prazos.clear();
+        ativos.clear();
+    }
+
+    /**
+     * Assina a lista de alertas ativos enquanto a vista estiver exibida. O
+     * assinante recebe a lista atual imediatamente e, depois, a cada mudança,
+     * sempre na thread do JavaFX.
+     */
+    public static EventBus.Assinatura subscribe(Node vista, Consumer<List<Alerta>> assinante) {
+        EventBus.Assinatura assinatura = bus.subscribe(assinante);
+        assinante.accept(getAlertas());
+
+        if (vista != null) {
+            vista.sceneProperty().addListener((obs, cenaAnterior, novaCena) -> {
+                if (cenaAnterior != null && novaCena == null) {
+                    assinatura.cancel();
+                }
+            });
+        }
+        return assinatura;
+    }
+
+    /**
+     * Alertas ativos no momento
+     */
+    public static synchronized List<Alerta> getAlertas() {
+        return new ArrayList<>(ativos.values());
+    }
+
+    // ========== ATUALIZAÇÕES ==========
+
+    /**
+     * Reagenda os alertas de uma tarefa salva ou alterada (sem efeito se os
+     * alertas não foram iniciados)
+     */
+    public static synchronized void registrar(Tarefa tarefa) {
+        if (roda == null || tarefa.getId() == null) {
+            return;
+        }
+
+        boolean emAberto = tarefa.isAtivo()
+                && (tarefa.getStatus() == Tarefa.Status.PENDENTE || tarefa.getStatus() == Tarefa.Status.EM_EXECUCAO);
+        if (!emAberto || tarefa.getDataPrevistaConclusao() == null) {
+            remover(tarefa.getId());
+            return;
+        }
+
+        Prazo prazo = prazos.computeIfAbsent(tarefa.getId(), id -> new Prazo());
+        prazo.titulo = tarefa.getTitulo() != null ? tarefa.getTitulo() : prazo.titulo;
+        prazo.responsavelId = tarefa.getResponsavelId() != null ? tarefa.getResponsavelId() : 0;
+        prazo.dataPrevista = tarefa.getDataPrevistaConclusao();
+        reavaliar(tarefa.getId(), prazo);
+    }
+
+    /**
+     * Trata uma mudança apenas de status (a tarefa concluída ou cancelada
+     * deixa de ter alertas; reaberta, volta a ser acompanhada quando a
+     * alteração chegar pelo ChangeFeed)
+     */
+    public static synchronized void alterarStatus(Integer tarefaId, Tarefa.Status status) {
+        if (roda != null && (status == Tarefa.Status.CONCLUIDA || status == Tarefa.Status.CANCELADA)) {
+            remover(tarefaId);
+        }
+    }
+
+    /**
+     * Descarta os alertas de uma tarefa excluída
+     */
+    public static synchronized void remover(Integer tarefaId) {
+        if (roda == null) {
+            return;
+        }
+        roda.cancelar(tarefaId);
+        prazos.remove(tarefaId);
+        if (ativos.remove(tarefaId) != null) {
+            agendarPublicacao();
+        }
+    }
+
+    // ========== PROCESSAMENTO ==========
+
+    /**
+     * Varredura única das tarefas em aberto e início do relógio
+     */
+    private static void carregar() {
+        long tick = Math.max(1_000, AppConfig.getLong("alertas.tick-ms", 60_000));
+
+        synchronized (AlertaPrazos.class) {
+            roda = new TimingWheel(tick, System.currentTimeMillis());
+        }
+
+        try {
+            new TarefaDAO().scanAbertas(AlertaPrazos::registrar);
+        } catch (Exception e) {
+            System.err.println("Erro ao carregar prazos das tarefas: " + e.getMessage());
+        }
+
+        synchronized (AlertaPrazos.class) {
+            if (executor == null) {
+                return;
+            }
+            // Alterações feitas por outros usuários
+            assinaturaAlteracoes = ChangeFeed.subscribe(Tarefa.class, null,
+                    alteradas -> alteradas.forEach(AlertaPrazos::registrar));
+            executor.scheduleAtFixedRate(AlertaPrazos::avancar, tick, tick, TimeUnit.MILLISECONDS);
+        }
+        agendarPublicacao();
+    }
+
+    private static void avancar() {
+        List<Alerta> disparados = new ArrayList<>();
+
+        synchronized (AlertaPrazos.class) {
+            if (roda == null) {
+                return;
+            }
+            roda.avancar(System.currentTimeMillis(), tarefaId -> {
+                Prazo prazo = prazos.get(tarefaId);
+                if (prazo != null) {
+                    Alerta alerta = reavaliar(tarefaId, prazo);
+                    if (alerta != null) {
+                        disparados.add(alerta);
+                    }
+                }
+            });
+        }
+
+        if (!disparados.isEmpty()) {
+            gravar(disparados);
+        }
+    }
+
+    /**
+     * Calcula a situação atual da tarefa, atualiza o alerta ativo e agenda o
+     * próximo disparo. Retorna o novo alerta, se a situação mudou.
+     */
+    private static Alerta reavaliar(int tarefaId, Prazo prazo) {
+        ZoneId zona = ZoneId.systemDefault();
+        long agora = System.currentTimeMillis();
+        long inicioAviso = prazo.dataPrevista.minusDays(AppConfig.getInt("alertas.antecedencia-dias", 2))
+                .atStartOfDay(zona).toInstant().toEpochMilli();
+        long inicioAtraso = prazo.dataPrevista.plusDays(1).atStartOfDay(zona).toInstant().toEpochMilli();
+
+        Tipo tipo;
+        if (agora >= inicioAtraso) {
+            tipo = Tipo.ATRASADA;
+            roda.cancelar(tarefaId);
+        } else if (agora >= inicioAviso) {
+            tipo = Tipo.VENCE_EM_BREVE;
+            roda.agendar(tarefaId, inicioAtraso);
+        } else {
+            tipo = null;
+            roda.agendar(tarefaId, inicioAviso);
+        }
+
+        Alerta anterior = ativos.get(tarefaId);
+        Alerta alerta = tipo != null
+                ? new Alerta(tarefaId, prazo.titulo, prazo.responsavelId, prazo.dataPrevista, tipo)
+                : null;
+        if (alerta == null ? anterior == null : alerta.equals(anterior)) {
+            return null;
+        }
+
+        if (alerta != null) {
+            ativos.put(tarefaId, alerta);
+        } else {
+            ativos.remove(tarefaId);
+        }
+        agendarPublicacao();
+        return alerta;
+    }
+
+    /**
+     * Publica a lista de alertas uma única vez por rodada da thread do JavaFX
+     */
+    private static void agendarPublicacao() {
+        if (bus.hasSubscribers() && publicacaoAgendada.compareAndSet(false, true)) {
+            Platform.runLater(() -> {
+                publicacaoAgendada.set(false);
+                bus.publish(getAlertas());
+            });
+        }
+    }
+
+    /**
+     * Grava os alertas disparados no arquivo configurado, se houver
+     */
+    private static void gravar(List<Alerta> alertas) {
+        String arquivo = AppConfig.get("alertas.arquivo", "");
+        if (arquivo.isBlank()) {
+            return;
+        }
+
+        StringBuilder linhas = new StringBuilder();
+        String agora = LocalDateTime.now().format(FORMATO_LOG);
+        for (Alerta alerta : alertas) {
+            linhas.append(agora).append(';')
+                    .append(alerta.tipo().name()).append(';')
+                    .append(alerta.tarefaId()).append(';')
+                    .append(alerta.dataPrevista()).append(';')
+                    .append(alerta.titulo() != null ? alerta.titulo() : "").append('\n');
+        }
+
+        try {
+            Files.writeString(Path.of(arquivo), linhas, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Erro ao gravar alertas de prazo: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Dados de prazo guardados por tarefa
+     */
+    private static class Prazo {
+        String titulo;
+        int responsavelId;
+        LocalDate dataPrevista;
+    }
+}
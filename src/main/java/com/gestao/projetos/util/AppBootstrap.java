@@ -0,0 +1,299 @@
+package com.gestao.projetos.util;
+
+import com.gestao.projetos.dao.ProjetoDAO;
+import com.gestao.projetos.dao.TarefaDAO;
+import com.gestao.projetos.dao.UsuarioDAO;
+import com.gestao.projetos.model.Projeto;
+import com.gestao.projetos.model.Tarefa;
+import com.gestao.projetos.model.Usuario;
+
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Inicialização em paralelo enquanto a tela de login é exibida.
+ *
+ * Antes do login aquece o pool de conexões, pré-carrega os FXML do menu
+ * principal e do dashboard e lê apenas dados de referência que todos os
+ * perfis veem (a lista de projetos). Os dados do dashboard restritos ao
+ * perfil (tarefas, usuários e resumo dos projetos) só são consultados
+ * depois da autenticação (aposLogin), já limitados ao usuário logado, e
+ * entregues ao dashboard por um CompletableFuture: a tela é exibida logo e
+ * os dados são aplicados quando chegam, sem bloquear a thread do JavaFX.
+ *
+ * Depois do login, antes de consultar o banco, lê a cópia local do usuário
+ * gravada na execução anterior (SnapshotLocal, cifrada com a senha
+ * informada no login): havendo uma válida, a carga completa com ela e o
+ * dashboard a reconcilia em seguida. Ao fim das consultas a cópia local é
+ * regravada.
+ */
+public class AppBootstrap {
+
+    private static final List<String> FXML_PRE_CARREGADOS = List.of("/fxml/MainMenu.fxml", "/fxml/Dashboard.fxml");
+
+    private static ExecutorService executor;
+    private static CompletableFuture<Void> execucao;
+    private static volatile Sessao sessao;
+    private static volatile Referencia referencia;
+
+    /**
+     * Inicia o bootstrap em segundo plano (chamadas repetidas são ignoradas)
+     */
+    public static synchronized void start() {
+        if (execucao != null || !AppConfig.getBoolean("bootstrap.enabled", true)) {
+            return;
+        }
+
+        AtomicInteger contador = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(2, r -> {
+            Thread t = new Thread(r, "bootstrap-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            return t;
+        });
+
+        StartupTimeline.mark("bootstrap.inicio");
+
+        CompletableFuture<Void> fxml = CompletableFuture.runAsync(() -> {
+            FxmlCache.preload(FXML_PRE_CARREGADOS);
+            StartupTimeline.mark("bootstrap.fxml");
+        }, executor);
+
+        CompletableFuture<Void> dados = CompletableFuture.runAsync(() -> {
+            try {
+                int conexoes = DatabaseConnection.warmUp();
+                StartupTimeline.mark("bootstrap.pool (" + conexoes + " conexões)");
+                carregarReferencia();
+            } catch (Exception e) {
+                System.err.println("Erro no aquecimento do banco de dados: " + e.getMessage());
+            }
+        }, executor);
+
+        execucao = CompletableFuture.allOf(fxml, dados).whenComplete((r, e) -> {
+            StartupTimeline.mark("bootstrap.fim");
+            executor.shutdown();
+        });
+    }
+
+    /**
+     * Carrega em segundo plano os dados do dashboard do usuário que acabou de
+     * se autenticar (descarta os de uma sessão anterior); a senha informada
+     * no login cifra a cópia local e não é guardada. O resultado completa com
+     * a cópia local, se houver uma válida, ou com os dados do banco; falha se
+     * o bootstrap estiver desativado ou a consulta falhar.
+     */
+    public static CompletableFuture<DadosDashboard> aposLogin(Usuario usuario, String senha) {
+        CompletableFuture<DadosDashboard> dados = new CompletableFuture<>();
+        sessao = new Sessao(usuario.getId(), dados);
+        if (!AppConfig.getBoolean("bootstrap.enabled", true)) {
+            dados.completeExceptionally(new IllegalStateException("Bootstrap desativado"));
+            return dados;
+        }
+
+        Thread thread = new Thread(() -> {
+            try {
+                carregarCopiaLocal(usuario, senha, dados);
+                dados.complete(carregarDadosDashboard(usuario, senha));
+            } catch (Exception e) {
+                System.err.println("Erro ao carregar os dados do dashboard: " + e.getMessage());
+                dados.completeExceptionally(e);
+            }
+        }, "bootstrap-sessao");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        thread.start();
+        return dados;
+    }
+
+    /**
+     * Retorna (e descarta) a carga do dashboard iniciada no login do usuário
+     * logado, ou null se não houver uma. Dados do banco que chegarem fora da
+     * validade configurada fazem a carga falhar; os da cópia local
+     * (isCopiaLocal) o dashboard exibe e depois reconcilia.
+     */
+    public static synchronized CompletableFuture<DadosDashboard> takeDadosDashboard() {
+        Sessao atual = sessao;
+        sessao = null;
+
+        Usuario logado = SessionManager.getUsuarioLogado();
+        if (atual == null || logado == null || !logado.getId().equals(atual.usuarioId())) {
+            return null;
+        }
+        long validadeMs = AppConfig.getLong("bootstrap.snapshot.max-age-seconds", 60) * 1000;
+        return atual.dados().thenApply(dados -> {
+            if (!dados.copiaLocal && System.currentTimeMillis() - dados.carregadoEm > validadeMs) {
+                throw new IllegalStateException("Dados pré-carregados expirados");
+            }
+            return dados;
+        });
+    }
+
+    /**
+     * Executa as consultas do dashboard com o escopo do perfil do usuário
+     * (sem a cópia local e sem os projetos lidos antes do login)
+     */
+    public static DadosDashboard consultarDadosDashboard(Usuario usuario) throws Exception {
+        return consultar(usuario, new ProjetoDAO().findAll());
+    }
+
+    /**
+     * Lista de projetos (vista por todos os perfis), consultada antes do
+     * login para aquecer o pool e os mapeamentos
+     */
+    private static void carregarReferencia() throws Exception {
+        int passadas = Math.max(1, AppConfig.getInt("bootstrap.warmup.passes", 1));
+        ProjetoDAO projetoDAO = new ProjetoDAO();
+        List<Projeto> projetos = null;
+        for (int i = 0; i < passadas; i++) {
+            projetos = projetoDAO.findAll();
+        }
+        referencia = new Referencia(projetos, System.currentTimeMillis());
+        StartupTimeline.mark("bootstrap.referencia (" + passadas + " passada(s))");
+    }
+
+    /**
+     * Lê a cópia local gravada na execução anterior, para exibir o dashboard
+     * sem esperar pelo banco
+     */
+    private static void carregarCopiaLocal(Usuario usuario, String senha, CompletableFuture<DadosDashboard> dados) {
+        if (!AppConfig.getBoolean("bootstrap.copia-local.enabled", true)) {
+            return;
+        }
+
+        SnapshotLocal copia = SnapshotLocal.abrir(SnapshotLocal.arquivoDoUsuario(usuario.getId()),
+                usuario.getId(), senha);
+        long validadeMs = AppConfig.getLong("bootstrap.copia-local.max-age-horas", 72) * 3_600_000;
+        if (copia != null && System.currentTimeMillis() - copia.getCriadoEm() <= validadeMs) {
+            dados.complete(new DadosDashboard(usuario.getId(), copia.getProjetos(), copia.getProjetosResumo(),
+                    copia.getTarefas(), null, copia.getCriadoEm(), true));
+            StartupTimeline.mark("bootstrap.copia-local (" + copia.getTarefas().size() + " tarefas)");
+        }
+    }
+
+    /**
+     * Grava os dados recém-consultados como cópia local do usuário para a
+     * próxima execução (os usuários lidos pelo administrador não entram) e
+     * remove a cópia única sem criptografia das versões anteriores
+     */
+    private static void gravarCopiaLocal(DadosDashboard dados, String senha) {
+        if (!AppConfig.getBoolean("bootstrap.copia-local.enabled", true)) {
+            return;
+        }
+
+        try {
+            SnapshotLocal.gravar(SnapshotLocal.arquivoDoUsuario(dados.usuarioId), dados.usuarioId, senha,
+                    dados.projetos, dados.projetosResumo != null ? dados.projetosResumo : List.of(), dados.tarefas);
+            Files.deleteIfExists(SnapshotLocal.arquivoConfigurado());
+            StartupTimeline.mark("bootstrap.copia-local gravada");
+        } catch (Exception e) {
+            System.err.println("Erro ao gravar a cópia local: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Consulta os dados do dashboard (aproveitando os projetos lidos antes do
+     * login, se ainda válidos) e regrava a cópia local
+     */
+    private static DadosDashboard carregarDadosDashboard(Usuario usuario, String senha) throws Exception {
+        Referencia atual = referencia;
+        referencia = null;
+        long validadeMs = AppConfig.getLong("bootstrap.snapshot.max-age-seconds", 60) * 1000;
+        List<Projeto> projetos = atual != null && System.currentTimeMillis() - atual.carregadaEm() <= validadeMs
+                ? atual.projetos()
+                : new ProjetoDAO().findAll();
+
+        DadosDashboard dados = consultar(usuario, projetos);
+        StartupTimeline.mark("bootstrap.dados");
+        gravarCopiaLocal(dados, senha);
+        return dados;
+    }
+
+    /**
+     * Executa as consultas do dashboard com o escopo do perfil do usuário:
+     * colaborador recebe só as próprias tarefas; usuários e resumo dos
+     * projetos só são lidos para o administrador
+     */
+    private static DadosDashboard consultar(Usuario usuario, List<Projeto> projetos) throws Exception {
+        ProjetoDAO projetoDAO = new ProjetoDAO();
+        TarefaDAO tarefaDAO = new TarefaDAO();
+        UsuarioDAO usuarioDAO = new UsuarioDAO();
+        boolean administrador = usuario.isAdministrador();
+
+        return new DadosDashboard(usuario.getId(),
+                projetos,
+                administrador ? projetoDAO.findProjetosResumo() : null,
+                usuario.isColaborador()
+                        ? tarefaDAO.findByResponsavel(usuario.getId())
+                        : tarefaDAO.findAll(),
+                administrador ? usuarioDAO.findAll() : null);
+    }
+
+    /**
+     * Carga do dashboard iniciada no login
+     */
+    private record Sessao(int usuarioId, CompletableFuture<DadosDashboard> dados) {
+    }
+
+    /**
+     * Projetos lidos antes do login
+     */
+    private record Referencia(List<Projeto> projetos, long carregadaEm) {
+    }
+
+    /**
+     * Dados consultados pelo dashboard para o usuário logado (usuários e
+     * resumo dos projetos são null quando o perfil não os vê)
+     */
+    public static class DadosDashboard {
+        private final int usuarioId;
+        private final List<Projeto> projetos;
+        private final List<Projeto> projetosResumo;
+        private final List<Tarefa> tarefas;
+        private final List<Usuario> usuarios;
+        private final long carregadoEm;
+        private final boolean copiaLocal;
+
+        DadosDashboard(int usuarioId, List<Projeto> projetos, List<Projeto> projetosResumo,
+                List<Tarefa> tarefas, List<Usuario> usuarios) {
+            this(usuarioId, projetos, projetosResumo, tarefas, usuarios, System.currentTimeMillis(), false);
+        }
+
+        DadosDashboard(int usuarioId, List<Projeto> projetos, List<Projeto> projetosResumo,
+                List<Tarefa> tarefas, List<Usuario> usuarios, long carregadoEm, boolean copiaLocal) {
+            this.usuarioId = usuarioId;
+            this.projetos = projetos;
+            this.projetosResumo = projetosResumo;
+            this.tarefas = tarefas;
+            this.usuarios = usuarios;
+            this.carregadoEm = carregadoEm;
+            this.copiaLocal = copiaLocal;
+        }
+
+        public List<Projeto> getProjetos() {
+            return projetos;
+        }
+
+        public List<Projeto> getProjetosResumo() {
+            return projetosResumo;
+        }
+
+        public List<Tarefa> getTarefas() {
+            return tarefas;
+        }
+
+        public List<Usuario> getUsuarios() {
+            return usuarios;
+        }
+
+        /**
+         * Indica se os dados vieram da cópia local (podem estar desatualizados)
+         */
+        public boolean isCopiaLocal() {
+            return copiaLocal;
+        }
+    }
+}
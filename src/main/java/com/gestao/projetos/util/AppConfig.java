@@ -0,0 +1,90 @@
+package com.gestao.projetos.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Classe utilitária para leitura das configurações da aplicação
+ * (application.properties no classpath e/ou no diretório de execução)
+ */
+public class AppConfig {
+
+    private static final String ARQUIVO = "application.properties";
+
+    private static final Properties PROPRIEDADES = carregar();
+
+    /**
+     * Carrega as propriedades: primeiro do classpath, depois do diretório
+     * de execução (que sobrescreve as do classpath)
+     */
+    private static Properties carregar() {
+        Properties props = new Properties();
+
+        try (InputStream in = AppConfig.class.getResourceAsStream("/" + ARQUIVO)) {
+            if (in != null) {
+                props.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao ler " + ARQUIVO + " do classpath: " + e.getMessage());
+        }
+
+        Path local = Paths.get(ARQUIVO);
+        if (Files.isRegularFile(local)) {
+            try (Reader reader = Files.newBufferedReader(local, StandardCharsets.UTF_8)) {
+                props.load(reader);
+            } catch (IOException e) {
+                System.err.println("Erro ao ler " + local.toAbsolutePath() + ": " + e.getMessage());
+            }
+        }
+        return props;
+    }
+
+    /**
+     * Retorna uma propriedade texto (propriedades de sistema têm precedência)
+     */
+    public static String get(String chave, String padrao) {
+        String valor = System.getProperty(chave, PROPRIEDADES.getProperty(chave));
+        return valor != null ? valor.trim() : padrao;
+    }
+
+    /**
+     * Retorna uma propriedade inteira
+     */
+    public static int getInt(String chave, int padrao) {
+        String valor = get(chave, null);
+        try {
+            return valor != null && !valor.isEmpty() ? Integer.parseInt(valor) : padrao;
+        } catch (NumberFormatException e) {
+            System.err.println("Valor inválido para " + chave + ": " + valor);
+            return padrao;
+        }
+    }
+
+    /**
+     * Retorna uma propriedade long
+     */
+    public static long getLong(String chave, long padrao) {
+        String valor = get(chave, null);
+        try {
+            return valor != null && !valor.isEmpty() ? Long.parseLong(valor) : padrao;
+        } catch (NumberFormatException e) {
+            System.err.println("Valor inválido para " + chave + ": " + valor);
+            return padrao;
+        }
+    }
+
+    /**
+     * Retorna uma propriedade booleana
+     */
+    public static boolean getBoolean(String chave, boolean padrao) {
+        String valor = get(chave, null);
+        return valor != null && !valor.isEmpty() ? Boolean.parseBoolean(valor) : padrao;
+    }
+}
@@ -0,0 +1,119 @@
+package com.gestao.projetos.util;
+
+import com.gestao.projetos.dao.TarefaArquivoDAO;
+import com.gestao.projetos.model.RegistroAuditoria;
+
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Arquivamento periódico das tarefas que não fazem mais parte do trabalho
+ * ativo: inativas há mais de arquivo.carencia-horas e concluídas ou
+ * canceladas há mais de arquivo.concluidas-dias.
+ *
+ * A cada arquivo.intervalo-horas as tarefas elegíveis são movidas para
+ * tarefas_arquivo em lotes de arquivo.lote, cada um em sua própria
+ * transação, com uma pausa de arquivo.pausa-ms entre eles para não disputar
+ * o banco com os usuários. Assim a tabela "tarefas" acompanha o trabalho em
+ * andamento e não o histórico.
+ *
+ * getVersao muda a cada lote arquivado ou tarefa restaurada, para que
+ * resultados que incluem o arquivo (RelatorioEngine) sejam recalculados.
+ */
+public class Arquivamento {
+
+    private static final AtomicLong versao = new AtomicLong();
+
+    private static ScheduledExecutorService executor;
+    private static TarefaArquivoDAO arquivoDAO = new TarefaArquivoDAO();
+
+    /**
+     * Inicia o arquivamento periódico (chamadas repetidas são ignoradas)
+     */
+    public static synchronized void start() {
+        if (executor != null || !AppConfig.getBoolean("arquivo.enabled", true)) {
+            return;
+        }
+
+        long intervalo = Math.max(1, AppConfig.getLong("arquivo.intervalo-horas", 24));
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "arquivamento");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        // Primeira execução longe da abertura do menu
+        executor.scheduleWithFixedDelay(Arquivamento::executar, 5, intervalo * 60, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Interrompe o arquivamento (o lote em andamento é concluído ou desfeito
+     * pelo banco)
+     */
+    public static synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    public static long getVersao() {
+        return versao.get();
+    }
+
+    /**
+     * Arquiva todas as tarefas elegíveis agora; retorna a quantidade
+     * arquivada
+     */
+    public static int arquivar() throws SQLException {
+        int carenciaHoras = Math.max(0, AppConfig.getInt("arquivo.carencia-horas", 24));
+        int concluidasDias = Math.max(0, AppConfig.getInt("arquivo.concluidas-dias", 365));
+        int lote = Math.max(1, AppConfig.getInt("arquivo.lote", 500));
+        long pausa = Math.max(0, AppConfig.getLong("arquivo.pausa-ms", 200));
+
+        int total = 0;
+        int arquivadas;
+        do {
+            arquivadas = arquivoDAO.arquivarLote(carenciaHoras, concluidasDias, lote);
+            if (arquivadas > 0) {
+                total += arquivadas;
+                versao.incrementAndGet();
+            }
+            if (arquivadas == lote && pausa > 0) {
+                try {
+                    Thread.sleep(pausa);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        } while (arquivadas == lote);
+        return total;
+    }
+
+    /**
+     * Restaura uma tarefa arquivada; retorna false se ela não estiver no
+     * arquivo
+     */
+    public static boolean restaurar(Integer tarefaId) throws SQLException {
+        if (!arquivoDAO.restaurar(tarefaId)) {
+            return false;
+        }
+        versao.incrementAndGet();
+        Auditoria.registrar(RegistroAuditoria.Entidade.TAREFA, tarefaId, RegistroAuditoria.Operacao.RESTAURACAO,
+                Auditoria.campos("ativo", true));
+        return true;
+    }
+
+    private static void executar() {
+        try {
+            arquivar();
+        } catch (Exception e) {
+            // Uma falha não deve cancelar as próximas execuções
+            System.err.println("Erro ao arquivar tarefas: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.gestao.projetos.util;
+
+import com.gestao.projetos.dao.TarefaDAO;
+import com.gestao.projetos.dao.UsuarioDAO;
+import com.gestao.projetos.model.Tarefa;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Distribuição automática de tarefas pela carga de trabalho em aberto.
+ *
+ * A carga de um colaborador é a soma dos pesos das suas tarefas pendentes e
+ * em execução; o peso considera a prioridade e a proximidade da conclusão
+ * prevista. Cada projeto mantém um heap mínimo indexado com os seus membros
+ * (tabela usuario_projeto), ordenado pela carga, de modo que a sugestão é o
+ * topo do heap. Quando a carga de alguém muda, a posição dessa pessoa é
+ * corrigida em cada heap de projeto de que participa, em O(log m).
+ *
+ * A distribuição em lote atribui primeiro as tarefas mais pesadas, sempre ao
+ * membro menos carregado: O(n log n) para ordenar e O(log m) por tarefa.
+ *
+ * Não é thread-safe: deve ser usado por uma thread de cada vez.
+ */
+public class AtribuicaoEngine {
+
+    private final LocalDate hoje;
+
+    // Colaboradores: usuarioIds[slot], carga[slot] e as equipes de que participa
+    private final Map<Integer, Integer> slotPorUsuario = new HashMap<>();
+    private int[] usuarioIds = new int[16];
+    private double[] carga = new double[16];
+    private int[][] participacoes = new int[16][];
+    private int qtdUsuarios;
+
+    private final Map<Integer, Equipe> equipes = new HashMap<>();
+
+    // Contribuição de cada tarefa em aberto já contabilizada
+    private final Map<Integer, Contribuicao> contribuicoes = new HashMap<>();
+
+    /**
+     * Cria o motor com os membros de cada projeto (id do projeto -> ids dos
+     * usuários), ainda sem nenhuma carga
+     */
+    public AtribuicaoEngine(Map<Integer, List<Integer>> membrosPorProjeto, LocalDate hoje) {
+        this.hoje = hoje;
+
+        for (Map.Entry<Integer, List<Integer>> entrada : membrosPorProjeto.entrySet()) {
+            List<Integer> membros = entrada.getValue();
+            Equipe equipe = new Equipe(membros.size());
+            int equipeId = entrada.getKey();
+            for (Integer usuarioId : membros) {
+                int slot = slotDe(usuarioId);
+                int local = equipe.tamanho;
+                equipe.membros[local] = slot;
+                equipe.heap[local] = local;
+                equipe.posicao[local] = local;
+                equipe.tamanho++;
+                adicionarParticipacao(slot, equipeId, local);
+            }
+            for (int i = equipe.tamanho / 2 - 1; i >= 0; i--) {
+                equipe.descer(i);
+            }
+            equipes.put(equipeId, equipe);
+        }
+    }
+
+    /**
+     * Monta o motor a partir do banco: membros dos projetos e carga atual
+     * das tarefas em aberto (uma única leitura de cada tabela)
+     */
+    public static AtribuicaoEngine carregar() throws SQLException {
+        AtribuicaoEngine engine = new AtribuicaoEngine(new UsuarioDAO().findMembrosPorProjeto(), LocalDate.now());
+        new TarefaDAO().scanAbertas(engine::registrar);
+        return engine;
+    }
+
+    /**
+     * Peso de uma tarefa em aberto: prioridade (1, 2 ou 4) multiplicada por
+     * 2 se já venceu, 1,5 se vence em até uma semana e 1 nos demais casos
+     */
+    public double pesoDe(Tarefa tarefa) {
+        double peso = switch (tarefa.getPrioridade() != null ? tarefa.getPrioridade() : Tarefa.Prioridade.MEDIA) {
+            case BAIXA -> 1;
+            case MEDIA -> 2;
+            case ALTA -> 4;
+        };
+
+        LocalDate prevista = tarefa.getDataPrevistaConclusao();
+        if (prevista != null) {
+            long dias = ChronoUnit.DAYS.between(hoje, prevista);
+            if (dias < 0) {
+                peso *= 2;
+            } else if (dias <= 7) {
+                peso *= 1.5;
+            }
+        }
+        return peso;
+    }
+
+    // ========== CONSULTAS ==========
+
+    /**
+     * Sugere o membro do projeto com menor carga (null se o projeto não tem
+     * membros)
+     */
+    public Integer sugerir(Integer projetoId) {
+        Equipe equipe = equipes.get(projetoId);
+        if (equipe == null || equipe.tamanho == 0) {
+            return null;
+        }
+        return usuarioIds[equipe.membros[equipe.heap[0]]];
+    }
+
+    /**
+     * Carga atual do usuário (0 se não tem tarefas em aberto)
+     */
+    public double getCarga(Integer usuarioId) {
+        Integer slot = slotPorUsuario.get(usuarioId);
+        return slot != null ? carga[slot] : 0;
+    }
+
+    // ========== ALTERAÇÕES ==========
+
+    /**
+     * Contabiliza uma tarefa salva ou alterada: a contribuição anterior (se
+     * houver) é retirada e, se a tarefa continua ativa e em aberto, a nova é
+     * somada à carga do responsável. Tarefas sem id não são guardadas, então
+     * devem ser registradas de novo somente depois de receberem o id.
+     */
+    public void registrar(Tarefa tarefa) {
+        if (tarefa.getId() != null) {
+            Contribuicao anterior = contribuicoes.remove(tarefa.getId());
+            if (anterior != null) {
+                somarCarga(anterior.slot, -anterior.peso);
+            }
+        }
+
+        if (!tarefa.isAtivo() || tarefa.getResponsavelId() == null || tarefa.getStatus() == null
+                || tarefa.getStatus() == Tarefa.Status.CONCLUIDA || tarefa.getStatus() == Tarefa.Status.CANCELADA) {
+            return;
+        }
+
+        int slot = slotDe(tarefa.getResponsavelId());
+        double peso = pesoDe(tarefa);
+        somarCarga(slot, peso);
+        if (tarefa.getId() != null) {
+            contribuicoes.put(tarefa.getId(), new Contribuicao(slot, peso));
+        }
+    }
+
+    /**
+     * Atribui a tarefa ao membro do projeto com menor carga e contabiliza a
+     * carga; retorna o id escolhido (null se o projeto não tem membros, caso
+     * em que a tarefa não é alterada)
+     */
+    public Integer atribuir(Tarefa tarefa) {
+        Integer usuarioId = sugerir(tarefa.getProjetoId());
+        if (usuarioId != null) {
+            tarefa.setResponsavelId(usuarioId);
+            registrar(tarefa);
+        }
+        return usuarioId;
+    }
+
+    /**
+     * Distribui um lote de tarefas, da mais pesada para a mais leve, sempre
+     * para o membro menos carregado do projeto de cada uma. Retorna as
+     * tarefas atribuídas (as de projetos sem membros ficam de fora).
+     */
+    public List<Tarefa> atribuirLote(List<Tarefa> tarefas) {
+        Tarefa[] ordenadas = tarefas.toArray(new Tarefa[0]);
+        double[] pesos = new double[ordenadas.length];
+        Integer[] indices = new Integer[ordenadas.length];
+        for (int i = 0; i < ordenadas.length; i++) {
+            pesos[i] = pesoDe(ordenadas[i]);
+            indices[i] = i;
+        }
+        Arrays.sort(indices, Comparator.comparingDouble((Integer i) -> -pesos[i]));
+
+        List<Tarefa> atribuidas = new ArrayList<>(ordenadas.length);
+        for (int i : indices) {
+            if (atribuir(ordenadas[i]) != null) {
+                atribuidas.add(ordenadas[i]);
+            }
+        }
+        return atribuidas;
+    }
+
+    /**
+     * Redistribui tarefas já atribuídas: retira a carga de todas e as
+     * distribui de novo em lote. Retorna apenas as que mudaram de
+     * responsável.
+     */
+    public List<Tarefa> redistribuir(List<Tarefa> tarefas) {
+        Map<Tarefa, Integer> anteriores = new IdentityHashMap<>();
+        for (Tarefa tarefa : tarefas) {
+            anteriores.put(tarefa, tarefa.getResponsavelId());
+            Contribuicao contribuicao = tarefa.getId() != null ? contribuicoes.remove(tarefa.getId()) : null;
+            if (contribuicao != null) {
+                somarCarga(contribuicao.slot, -contribuicao.peso);
+            }
+        }
+
+        List<Tarefa> alteradas = new ArrayList<>();
+        for (Tarefa tarefa : atribuirLote(tarefas)) {
+            if (!tarefa.getResponsavelId().equals(anteriores.get(tarefa))) {
+                alteradas.add(tarefa);
+            }
+        }
+        return alteradas;
+    }
+
+    // ========== HEAPS ==========
+
+    private int slotDe(Integer usuarioId) {
+        Integer slot = slotPorUsuario.get(usuarioId);
+        if (slot != null) {
+            return slot;
+        }
+        if (qtdUsuarios == usuarioIds.length) {
+            int capacidade = qtdUsuarios * 2;
+            usuarioIds = Arrays.copyOf(usuarioIds, capacidade);
+            carga = Arrays.copyOf(carga, capacidade);
+            participacoes = Arrays.copyOf(participacoes, capacidade);
+        }
+        usuarioIds[qtdUsuarios] = usuarioId;
+        participacoes[qtdUsuarios] = new int[0];
+        slotPorUsuario.put(usuarioId, qtdUsuarios);
+        return qtdUsuarios++;
+    }
+
+    private void adicionarParticipacao(int slot, int equipeId, int local) {
+        int[] atual = participacoes[slot];
+        int[] novo = Arrays.copyOf(atual, atual.length + 2);
+        novo[atual.length] = equipeId;
+        novo[atual.length + 1] = local;
+        participacoes[slot] = novo;
+    }
+
+    /**
+     * Altera a carga do colaborador e reposiciona-o nos heaps das suas equipes
+     */
+    private void somarCarga(int slot, double delta) {
+        carga[slot] += delta;
+        if (Math.abs(carga[slot]) < 1e-9) {
+            // Evita resíduos de ponto flutuante após somas e subtrações
+            carga[slot] = 0;
+        }
+
+        int[] equipesDoUsuario = participacoes[slot];
+        for (int i = 0; i < equipesDoUsuario.length; i += 2) {
+            Equipe equipe = equipes.get(equipesDoUsuario[i]);
+            int local = equipesDoUsuario[i + 1];
+            if (delta > 0) {
+                equipe.descer(equipe.posicao[local]);
+            } else {
+                equipe.subir(equipe.posicao[local]);
+            }
+        }
+    }
+
+    private record Contribuicao(int slot, double peso) {
+    }
+
+    /**
+     * Heap mínimo dos membros de um projeto. Os membros têm índices locais
+     * 0..tamanho-1; heap[i] é o índice local na posição i e posicao[local]
+     * é a posição no heap.
+     */
+    private class Equipe {
+        final int[] membros;
+        final int[] heap;
+        final int[] posicao;
+        int tamanho;
+
+        Equipe(int capacidade) {
+            membros = new int[capacidade];
+            heap = new int[capacidade];
+            posicao = new int[capacidade];
+        }
+
+        /**
+         * Ordena pela carga e, no empate, pelo id do usuário
+         */
+        boolean menor(int localA, int localB) {
+            int a = membros[localA];
+            int b = membros[localB];
+            int comparacao = Double.compare(carga[a], carga[b]);
+            return comparacao != 0 ? comparacao < 0 : usuarioIds[a] < usuarioIds[b];
+        }
+
+        void subir(int i) {
+            int local = heap[i];
+            while (i > 0) {
+                int pai = (i - 1) >>> 1;
+                if (!menor(local, heap[pai])) {
+                    break;
+                }
+                mover(heap[pai], i);
+                i = pai;
+            }
+            mover(local, i);
+        }
+
+        void descer(int i) {
+            int local = heap[i];
+            while (true) {
+                int filho = 2 * i + 1;
+                if (filho >= tamanho) {
+                    break;
+                }
+                if (filho + 1 < tamanho && menor(heap[filho + 1], heap[filho])) {
+                    filho++;
+                }
+                if (!menor(heap[filho], local)) {
+                    break;
+                }
+                mover(heap[filho], i);
+                i = filho;
+            }
+            mover(local, i);
+        }
+
+        private void mover(int local, int i) {
+            heap[i] = local;
+            posicao[local] = i;
+        }
+    }
+}
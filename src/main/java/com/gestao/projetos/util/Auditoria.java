@@ -0,0 +1,276 @@
+package com.gestao.projetos.util;
+
+import javafx.application.Platform;
+
+import com.gestao.projetos.dao.AuditoriaDAO;
+import com.gestao.projetos.model.RegistroAuditoria;
+import com.gestao.projetos.model.Usuario;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Trilha de auditoria das gravações dos DAOs.
+ *
+ * registrar apenas monta o registro (usuário da sessão, momento e campos
+ * gravados) e o coloca em uma RingBuffer; uma thread própria grava a fila em
+ * lote no banco a cada auditoria.flush-ms ou quando um lote completo se
+ * acumula. Assim a gravação auditada não espera um INSERT extra.
+ *
+ * Com a fila cheia, uma thread de segundo plano espera até
+ * auditoria.espera-max-ms e, se ainda não houver espaço, grava o próprio
+ * registro; a thread do JavaFX não espera: o registro vai direto para o
+ * arquivo de pendentes. Um lote que o banco recusa também vai para o arquivo
+ * auditoria.arquivo-pendentes e é reenviado no próximo lote bem-sucedido ou
+ * na próxima inicialização. stop (também chamado ao encerrar a JVM
+ * normalmente) grava tudo o que ainda estiver na fila; se o processo for
+ * interrompido de forma abrupta, os registros ainda na fila (no máximo os
+ * dos últimos auditoria.flush-ms) são perdidos.
+ */
+public class Auditoria {
+
+    private static final boolean HABILITADA = AppConfig.getBoolean("auditoria.enabled", true);
+    private static final int TAMANHO_LOTE = Math.max(1, AppConfig.getInt("auditoria.lote", 500));
+
+    private static final RingBuffer<RegistroAuditoria> fila = new RingBuffer<>(
+            Math.max(TAMANHO_LOTE * 2, AppConfig.getInt("auditoria.capacidade", 8192)));
+    private static final AuditoriaDAO auditoriaDAO = new AuditoriaDAO();
+    private static final Object arquivoLock = new Object();
+
+    private static volatile Thread escritor;
+    private static volatile boolean ativa;
+    private static volatile boolean haPendentesEmArquivo = true;
+    private static Thread ganchoEncerramento;
+
+    /**
+     * Inicia a thread de gravação (chamadas repetidas são ignoradas)
+     */
+    public static synchronized void start() {
+        if (escritor != null || !HABILITADA) {
+            return;
+        }
+
+        ativa = true;
+        escritor = new Thread(Auditoria::executar, "auditoria");
+        escritor.setDaemon(true);
+        escritor.start();
+
+        if (ganchoEncerramento == null) {
+            ganchoEncerramento = new Thread(Auditoria::stop, "auditoria-encerramento");
+            Runtime.getRuntime().addShutdownHook(ganchoEncerramento);
+        }
+    }
+
+    /**
+     * Interrompe a thread de gravação depois de gravar o que está na fila
+     */
+    public static synchronized void stop() {
+        Thread thread = escritor;
+        if (thread == null) {
+            return;
+        }
+
+        ativa = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        escritor = null;
+
+        // O que a thread não conseguiu gravar a tempo é gravado aqui
+        descarregar();
+    }
+
+    /**
+     * Monta os campos de um registro a partir de pares nome, valor
+     */
+    public static Map<String, String> campos(Object... nomesEValores) {
+        Map<String, String> campos = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < nomesEValores.length; i += 2) {
+            Object valor = nomesEValores[i + 1];
+            campos.put(String.valueOf(nomesEValores[i]), valor != null ? valor.toString() : "");
+        }
+        return campos;
+    }
+
+    /**
+     * Registra uma gravação feita pelo usuário da sessão
+     */
+    public static void registrar(RegistroAuditoria.Entidade entidade, Integer entidadeId,
+            RegistroAuditoria.Operacao operacao, Map<String, String> campos) {
+        Usuario usuario = SessionManager.getUsuarioLogado();
+        registrar(entidade, entidadeId, operacao, usuario != null ? usuario.getId() : null, campos);
+    }
+
+    /**
+     * Registra uma gravação feita em nome de um usuário (operações em segundo
+     * plano, que podem terminar depois da sessão que as iniciou)
+     */
+    public static void registrar(RegistroAuditoria.Entidade entidade, Integer entidadeId,
+            RegistroAuditoria.Operacao operacao, Integer usuarioId, Map<String, String> campos) {
+        if (!HABILITADA || entidadeId == null) {
+            return;
+        }
+
+        RegistroAuditoria registro = new RegistroAuditoria(entidade, entidadeId, operacao,
+                usuarioId, LocalDateTime.now(), campos);
+
+        if (fila.offer(registro)) {
+            if (fila.size() >= TAMANHO_LOTE) {
+                acordarEscritor();
+            }
+            return;
+        }
+
+        acordarEscritor();
+
+        // Fila cheia: a tela não fica parada esperando o banco
+        if (Platform.isFxApplicationThread()) {
+            guardarEmArquivo(List.of(registro));
+            return;
+        }
+
+        // Em segundo plano, espera a thread de gravação abrir espaço
+        long limite = System.nanoTime()
+                + TimeUnit.MILLISECONDS.toNanos(AppConfig.getLong("auditoria.espera-max-ms", 1000));
+        while (System.nanoTime() < limite) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(200));
+            if (fila.offer(registro)) {
+                return;
+            }
+        }
+
+        // O banco não está acompanhando (ou a gravação não foi iniciada): grava nesta thread
+        gravar(List.of(registro));
+    }
+
+    // ========== GRAVAÇÃO ==========
+
+    private static void executar() {
+        long intervalo = TimeUnit.MILLISECONDS.toNanos(Math.max(10, AppConfig.getLong("auditoria.flush-ms", 200)));
+        reenviarPendentes();
+
+        while (ativa) {
+            if (fila.size() < TAMANHO_LOTE) {
+                LockSupport.parkNanos(intervalo);
+            }
+            descarregar();
+        }
+    }
+
+    /**
+     * Grava a fila em lotes até esvaziá-la
+     */
+    private static void descarregar() {
+        List<RegistroAuditoria> lote = new ArrayList<>(TAMANHO_LOTE);
+        while (fila.drenar(lote::add, TAMANHO_LOTE) > 0) {
+            gravar(lote);
+            lote.clear();
+        }
+    }
+
+    private static void gravar(List<RegistroAuditoria> lote) {
+        try {
+            auditoriaDAO.gravar(lote);
+        } catch (SQLException e) {
+            System.err.println("Erro ao gravar auditoria (mantida em arquivo): " + e.getMessage());
+            guardarEmArquivo(lote);
+            return;
+        }
+
+        if (haPendentesEmArquivo) {
+            reenviarPendentes();
+        }
+    }
+
+    private static void acordarEscritor() {
+        Thread thread = escritor;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    // ========== ARQUIVO DE PENDENTES ==========
+
+    private static Path getArquivoPendentes() {
+        return Path.of(AppConfig.get("auditoria.arquivo-pendentes", "auditoria-pendente.log"));
+    }
+
+    /**
+     * Acrescenta o lote ao arquivo de pendentes, uma linha por registro
+     */
+    private static void guardarEmArquivo(List<RegistroAuditoria> lote) {
+        StringBuilder linhas = new StringBuilder();
+        for (RegistroAuditoria registro : lote) {
+            linhas.append(registro.getEntidade().name()).append('\t')
+                    .append(registro.getEntidadeId()).append('\t')
+                    .append(registro.getOperacao().name()).append('\t')
+                    .append(registro.getUsuarioId() != null ? registro.getUsuarioId() : "").append('\t')
+                    .append(registro.getMomento()).append('\t')
+                    // Os valores já vêm com tabulações e quebras escapadas
+                    .append(registro.getCamposTexto().replace('\n', '\t')).append('\n');
+        }
+
+        synchronized (arquivoLock) {
+            try {
+                Files.writeString(getArquivoPendentes(), linhas, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+                haPendentesEmArquivo = true;
+            } catch (IOException e) {
+                System.err.println("Erro ao guardar auditoria pendente: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Grava no banco os registros do arquivo de pendentes e o remove
+     */
+    private static void reenviarPendentes() {
+        synchronized (arquivoLock) {
+            Path arquivo = getArquivoPendentes();
+            if (!Files.exists(arquivo)) {
+                haPendentesEmArquivo = false;
+                return;
+            }
+
+            try {
+                List<RegistroAuditoria> registros = new ArrayList<>();
+                for (String linha : Files.readAllLines(arquivo, StandardCharsets.UTF_8)) {
+                    String[] partes = linha.split("\t", -1);
+                    if (partes.length < 5) {
+                        continue;
+                    }
+                    RegistroAuditoria registro = new RegistroAuditoria();
+                    registro.setEntidade(RegistroAuditoria.Entidade.valueOf(partes[0]));
+                    registro.setEntidadeId(Integer.valueOf(partes[1]));
+                    registro.setOperacao(RegistroAuditoria.Operacao.valueOf(partes[2]));
+                    registro.setUsuarioId(partes[3].isEmpty() ? null : Integer.valueOf(partes[3]));
+                    registro.setMomento(LocalDateTime.parse(partes[4]));
+                    registro.setCamposTexto(String.join("\n", Arrays.asList(partes).subList(5, partes.length)));
+                    registros.add(registro);
+                }
+
+                auditoriaDAO.gravar(registros);
+                Files.delete(arquivo);
+                haPendentesEmArquivo = false;
+            } catch (IOException | SQLException | RuntimeException e) {
+                // Continua no arquivo para a próxima tentativa
+                System.err.println("Erro ao reenviar auditoria pendente: " + e.getMessage());
+            }
+        }
+    }
+}
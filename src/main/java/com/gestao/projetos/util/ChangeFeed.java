@@ -0,0 +1,249 @@
+package com.gestao.projetos.util;
+
+import javafx.application.Platform;
+import javafx.scene.Node;
+
+import com.gestao.projetos.dao.AlteracaoDAO;
+import com.gestao.projetos.dao.ProjetoDAO;
+import com.gestao.projetos.dao.TarefaDAO;
+import com.gestao.projetos.dao.UsuarioDAO;
+import com.gestao.projetos.model.Projeto;
+import com.gestao.projetos.model.Tarefa;
+import com.gestao.projetos.model.Usuario;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Monitor único (por processo) de alterações em tarefas, projetos e usuários.
+ *
+ * A cada ciclo uma consulta barata obtém a última data_atualizacao de cada
+ * tabela; somente as tabelas que mudaram (ou mudaram há menos de
+ * sync.sobreposicao-seg) são consultadas, e as linhas
+ * alteradas são publicadas (na thread do JavaFX) para todas as telas
+ * assinantes. Sem alterações, o intervalo cresce até changefeed.max-interval-ms;
+ * ao detectar alterações volta para changefeed.interval-ms.
+ */
+public class ChangeFeed {
+
+    private static final Map<Class<?>, Fonte<?>> fontes = new LinkedHashMap<>();
+
+    static {
+        registrar(new Fonte<>(Usuario.class, AlteracaoDAO.USUARIOS, new UsuarioDAO()::findAlteradosDesde,
+                Usuario::getId, Usuario::getDataAtualizacao, Usuario::getVersao));
+        registrar(new Fonte<>(Projeto.class, AlteracaoDAO.PROJETOS, new ProjetoDAO()::findAlteradosDesde,
+                Projeto::getId, Projeto::getDataAtualizacao, Projeto::getVersao));
+        registrar(new Fonte<>(Tarefa.class, AlteracaoDAO.TAREFAS, new TarefaDAO()::findAlteradasDesde,
+                Tarefa::getId, Tarefa::getDataAtualizacao, Tarefa::getVersao));
+    }
+
+    private static final AlteracaoDAO alteracaoDAO = new AlteracaoDAO();
+
+    private static ScheduledExecutorService executor;
+    private static long intervaloAtual;
+
+    /**
+     * Inicia o monitoramento (chamadas repetidas são ignoradas)
+     */
+    public static synchronized void start() {
+        if (executor != null || !AppConfig.getBoolean("changefeed.enabled", true)) {
+            return;
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "change-feed");
+            t.setDaemon(true);
+            return t;
+        });
+        intervaloAtual = getIntervaloBase();
+        executor.execute(ChangeFeed::verificar);
+    }
+
+    /**
+     * Interrompe o monitoramento e descarta os watermarks
+     */
+    public static synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        fontes.values().forEach(Fonte::reiniciar);
+    }
+
+    /**
+     * Assina as alterações de um tipo enquanto a vista estiver exibida.
+     * O assinante é chamado na thread do JavaFX e a assinatura é cancelada
+     * quando a vista sai da cena.
+     */
+    public static <T> EventBus.Assinatura subscribe(Class<T> tipo, Node vista, Consumer<List<T>> assinante) {
+        EventBus.Assinatura assinatura = getFonte(tipo).bus.subscribe(assinante);
+
+        if (vista != null) {
+            vista.sceneProperty().addListener((obs, cenaAnterior, novaCena) -> {
+                if (cenaAnterior != null && novaCena == null) {
+                    assinatura.cancel();
+                }
+            });
+        }
+        return assinatura;
+    }
+
+    private static void verificar() {
+        boolean houveAlteracao = false;
+
+        try {
+            Map<String, LocalDateTime> ultimas = alteracaoDAO.findUltimasAtualizacoes();
+            for (Fonte<?> fonte : fontes.values()) {
+                houveAlteracao |= fonte.verificar(ultimas.get(fonte.tabela));
+            }
+        } catch (Exception e) {
+            System.err.println("Erro ao verificar alterações: " + e.getMessage());
+        }
+
+        synchronized (ChangeFeed.class) {
+            if (executor == null) {
+                return;
+            }
+            intervaloAtual = houveAlteracao ? getIntervaloBase()
+                    : Math.min(intervaloAtual * 3 / 2, AppConfig.getLong("changefeed.max-interval-ms", 60_000));
+            executor.schedule(ChangeFeed::verificar, intervaloAtual, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static long getIntervaloBase() {
+        return Math.max(250, AppConfig.getLong("changefeed.interval-ms", 5_000));
+    }
+
+    private static <T> void registrar(Fonte<T> fonte) {
+        fontes.put(fonte.tipo, fonte);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Fonte<T> getFonte(Class<T> tipo) {
+        Fonte<T> fonte = (Fonte<T>) fontes.get(tipo);
+        if (fonte == null) {
+            throw new IllegalArgumentException("Tipo sem monitoramento de alterações: " + tipo.getName());
+        }
+        return fonte;
+    }
+
+    /**
+     * Consulta de linhas alteradas desde uma data
+     */
+    private interface ConsultaDelta<T> {
+        List<T> buscar(LocalDateTime desde) throws SQLException;
+    }
+
+    /**
+     * Estado do monitoramento de uma tabela
+     */
+    private static class Fonte<T> {
+        final Class<T> tipo;
+        final String tabela;
+        final ConsultaDelta<T> consulta;
+        final Function<T, Integer> idDe;
+        final Function<T, LocalDateTime> atualizacaoDe;
+        final Function<T, Integer> versaoDe;
+        final EventBus<List<T>> bus = new EventBus<>();
+
+        LocalDateTime watermark;
+        // Versão já publicada de cada id dentro da janela de sobreposição
+        Map<Integer, Publicado> publicados = new HashMap<>();
+        // Até quando (System.nanoTime) a janela continua sendo consultada sem mudança no máximo
+        long janelaAte;
+
+        Fonte(Class<T> tipo, String tabela, ConsultaDelta<T> consulta,
+                Function<T, Integer> idDe, Function<T, LocalDateTime> atualizacaoDe, Function<T, Integer> versaoDe) {
+            this.tipo = tipo;
+            this.tabela = tabela;
+            this.consulta = consulta;
+            this.idDe = idDe;
+            this.atualizacaoDe = atualizacaoDe;
+            this.versaoDe = versaoDe;
+        }
+
+        synchronized void reiniciar() {
+            watermark = null;
+            publicados = new HashMap<>();
+            janelaAte = 0;
+        }
+
+        /**
+         * Busca e publica as linhas alteradas, se a tabela mudou.
+         *
+         * A consulta parte do watermark menos a janela de sobreposição, e
+         * continua sendo feita durante essa janela depois de cada mudança: uma
+         * transação que gravou data_atualizacao antes do watermark mas fez
+         * commit depois não altera o máximo da tabela. As linhas já publicadas
+         * com a mesma versão não são publicadas de novo (data_atualizacao tem
+         * precisão de segundos; toda gravação incrementa a versão).
+         */
+        synchronized boolean verificar(LocalDateTime ultima) throws SQLException {
+            if (ultima == null) {
+                return false;
+            }
+            if (watermark == null || !bus.hasSubscribers()) {
+                // Sem assinantes (ou primeira verificação) apenas avança o ponto de partida
+                watermark = ultima;
+                publicados = new HashMap<>();
+                abrirJanela();
+                return false;
+            }
+            if (ultima.isAfter(watermark)) {
+                abrirJanela();
+            } else if (System.nanoTime() - janelaAte > 0) {
+                return false;
+            }
+
+            LocalDateTime desde = DeltaSync.recuar(watermark);
+            publicados.values().removeIf(publicado -> publicado.atualizacao().isBefore(desde));
+
+            List<T> novos = new ArrayList<>();
+            LocalDateTime maior = watermark;
+
+            for (T item : consulta.buscar(desde)) {
+                LocalDateTime atualizacao = atualizacaoDe.apply(item);
+                if (atualizacao == null) {
+                    continue;
+                }
+                Integer id = idDe.apply(item);
+                int versao = versaoDe.apply(item);
+                Publicado anterior = publicados.get(id);
+                if (anterior != null && versao <= anterior.versao()) {
+                    continue;
+                }
+                publicados.put(id, new Publicado(atualizacao, versao));
+                novos.add(item);
+
+                if (atualizacao.isAfter(maior)) {
+                    maior = atualizacao;
+                }
+            }
+
+            watermark = maior;
+
+            if (novos.isEmpty()) {
+                return false;
+            }
+            Platform.runLater(() -> bus.publish(novos));
+            return true;
+        }
+
+        private void abrirJanela() {
+            janelaAte = System.nanoTime() + TimeUnit.SECONDS.toNanos(DeltaSync.getSobreposicaoSegundos());
+        }
+
+        private record Publicado(LocalDateTime atualizacao, int versao) {
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.gestao.projetos.util;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Comparador de textos em português com cache das chaves de ordenação.
+ *
+ * Gerar a CollationKey de um texto é caro; ordenando por chaves em cache cada
+ * comparação passa a ser uma comparação de bytes. Usado nas colunas das
+ * tabelas (thread do JavaFX).
+ */
+public class CollationKeys {
+
+    private static final int LIMITE_CACHE = 500_000;
+    private static final Telemetria.Cache telemetria = Telemetria.cache("ordenacao");
+
+    private final Collator collator;
+    private final Map<String, CollationKey> chaves = new HashMap<>();
+
+    public CollationKeys() {
+        this(Collator.SECONDARY);
+    }
+
+    /**
+     * Comparador com a força informada (Collator.PRIMARY ignora também os
+     * acentos)
+     */
+    public CollationKeys(int forca) {
+        collator = Collator.getInstance(new Locale("pt", "BR"));
+        collator.setStrength(forca);
+    }
+
+    /**
+     * Comparador de textos (nulos primeiro)
+     */
+    public Comparator<String> comparator() {
+        return (a, b) -> {
+            if (a == null || b == null) {
+                return a == null ? (b == null ? 0 : -1) : 1;
+            }
+            return chave(a).compareTo(chave(b));
+        };
+    }
+
+    private CollationKey chave(String texto) {
+        CollationKey chave = chaves.get(texto);
+        if (chave == null) {
+            telemetria.falta();
+            if (chaves.size() >= LIMITE_CACHE) {
+                chaves.clear();
+            }
+            chave = collator.getCollationKey(texto);
+            chaves.put(texto, chave);
+        } else {
+            telemetria.acerto();
+        }
+        return chave;
+    }
+}
@@ -0,0 +1,266 @@
+package com.gestao.projetos.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool simples de conexões JDBC.
+ *
+ * As conexões entregues são proxies: chamar close() devolve a conexão física
+ * ao pool em vez de fechá-la, de modo que os DAOs continuam usando
+ * try-with-resources normalmente.
+ *
+ * Opcionalmente avisa (aoEscrever) quando é devolvida uma conexão em que foi
+ * preparado algum comando que não é consulta, usado pelo RoteadorLeitura
+ * para manter as leituras seguintes no primário.
+ *
+ * Com a Telemetria ligada, o tempo entre o empréstimo e a devolução é
+ * registrado para o método do DAO que pediu a conexão; dentro de um rastro
+ * (Rastreamento), a conexão e cada comando executado nela viram trechos.
+ */
+public class ConnectionPool {
+
+    /** Conexões ociosas há mais tempo que isso são validadas antes do uso */
+    private static final long VALIDAR_APOS_MS = 30_000;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final long timeoutMillis;
+    private final Runnable aoEscrever;
+
+    private final ConcurrentLinkedDeque<Entrada> ociosas = new ConcurrentLinkedDeque<>();
+    private final Semaphore permissoes;
+    private final AtomicInteger totalCriadas = new AtomicInteger();
+    private final AtomicInteger emUso = new AtomicInteger();
+    private final LongAdder esperasEsgotadas = new LongAdder();
+    private volatile boolean encerrado = false;
+
+    public ConnectionPool(String url, String user, String password, int maxSize, long timeoutMillis) {
+        this(url, user, password, maxSize, timeoutMillis, null);
+    }
+
+    public ConnectionPool(String url, String user, String password, int maxSize, long timeoutMillis,
+            Runnable aoEscrever) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.timeoutMillis = timeoutMillis;
+        this.aoEscrever = aoEscrever;
+        this.permissoes = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Obtém uma conexão do pool (abre uma nova se não houver ociosa)
+     */
+    public Connection getConnection() throws SQLException {
+        if (encerrado) {
+            throw new SQLException("Pool de conexões encerrado");
+        }
+
+        try {
+            if (!permissoes.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                esperasEsgotadas.increment();
+                throw new SQLException("Tempo esgotado aguardando conexão do pool (" + maxSize + " em uso)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrompido aguardando conexão do pool", e);
+        }
+
+        try {
+            Connection fisica = obterFisica();
+            emUso.incrementAndGet();
+            return criarProxy(fisica);
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Abre e valida conexões até haver a quantidade informada ociosa no pool
+     *
+     * @return quantidade de conexões ociosas após o aquecimento
+     */
+    public int warmUp(int quantidade) throws SQLException {
+        int alvo = Math.min(quantidade, maxSize);
+        while (ociosas.size() < alvo && !encerrado) {
+            Connection conn = abrir();
+            if (conn.isValid(2)) {
+                ociosas.offerFirst(new Entrada(conn));
+            } else {
+                fecharSilenciosamente(conn);
+                throw new SQLException("Conexão recém-aberta não passou na validação");
+            }
+        }
+        return ociosas.size();
+    }
+
+    /**
+     * Fecha todas as conexões ociosas e impede novos empréstimos
+     */
+    public void shutdown() {
+        encerrado = true;
+        Entrada entrada;
+        while ((entrada = ociosas.pollFirst()) != null) {
+            fecharSilenciosamente(entrada.conexao);
+        }
+    }
+
+    public int getIdleCount() {
+        return ociosas.size();
+    }
+
+    public int getActiveCount() {
+        return emUso.get();
+    }
+
+    public int getTotalCreated() {
+        return totalCriadas.get();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Pedidos recusados por tempo esgotado com todas as conexões em uso
+     */
+    public long getTimeoutCount() {
+        return esperasEsgotadas.sum();
+    }
+
+    private Connection obterFisica() throws SQLException {
+        Entrada entrada;
+        while ((entrada = ociosas.pollFirst()) != null) {
+            boolean antiga = System.currentTimeMillis() - entrada.devolvidaEm > VALIDAR_APOS_MS;
+            if (entrada.conexao.isClosed() || (antiga && !entrada.conexao.isValid(2))) {
+                fecharSilenciosamente(entrada.conexao);
+                continue;
+            }
+            return entrada.conexao;
+        }
+        return abrir();
+    }
+
+    private Connection abrir() throws SQLException {
+        Connection conn = DriverManager.getConnection(url, user, password);
+        totalCriadas.incrementAndGet();
+        return conn;
+    }
+
+    private void devolver(Connection fisica) {
+        emUso.decrementAndGet();
+        try {
+            if (encerrado || fisica.isClosed()) {
+                fecharSilenciosamente(fisica);
+                return;
+            }
+            // Garante que a próxima utilização receba a conexão no estado padrão
+            if (!fisica.getAutoCommit()) {
+                fisica.rollback();
+                fisica.setAutoCommit(true);
+            }
+            ociosas.offerFirst(new Entrada(fisica));
+        } catch (SQLException e) {
+            fecharSilenciosamente(fisica);
+        } finally {
+            permissoes.release();
+        }
+    }
+
+    private Connection criarProxy(Connection fisica) {
+        AtomicBoolean fechada = new AtomicBoolean(false);
+        AtomicBoolean escreveu = new AtomicBoolean(false);
+        Telemetria.Chamada chamada = Telemetria.iniciarChamadaDao();
+        Rastreamento.Trecho trecho = Rastreamento.iniciarConexao();
+
+        InvocationHandler handler = (proxy, method, args) -> {
+            String nome = method.getName();
+            switch (nome) {
+                case "close":
+                    if (fechada.compareAndSet(false, true)) {
+                        devolver(fisica);
+                        if (chamada != null) {
+                            chamada.encerrar();
+                        }
+                        trecho.close();
+                        if (escreveu.get()) {
+                            aoEscrever.run();
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return fechada.get() || fisica.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + fisica + "]";
+                default:
+                    if (fechada.get()) {
+                        throw new SQLException("Conexão já devolvida ao pool");
+                    }
+                    if (aoEscrever != null && nome.equals("prepareStatement") && !isConsulta((String) args[0])) {
+                        escreveu.set(true);
+                    }
+                    Object resultado = invocar(fisica, method, args);
+                    if (trecho != Rastreamento.Trecho.NENHUM && resultado instanceof Statement comando) {
+                        return Rastreamento.comando(comando, method.getReturnType(),
+                                args != null && args.length > 0 && args[0] instanceof String sql ? sql : null);
+                    }
+                    return resultado;
+            }
+        };
+
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, handler);
+    }
+
+    private static boolean isConsulta(String sql) {
+        String inicio = sql.stripLeading();
+        return inicio.regionMatches(true, 0, "SELECT", 0, 6) || inicio.regionMatches(true, 0, "WITH", 0, 4)
+                || inicio.regionMatches(true, 0, "SHOW", 0, 4);
+    }
+
+    private static Object invocar(Connection alvo, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void fecharSilenciosamente(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            System.err.println("Erro ao fechar conexão: " + e.getMessage());
+        }
+    }
+
+    private static class Entrada {
+        final Connection conexao;
+        final long devolvidaEm = System.currentTimeMillis();
+
+        Entrada(Connection conexao) {
+            this.conexao = conexao;
+        }
+    }
+}
@@ -0,0 +1,627 @@
+package com.gestao.projetos.util;
+
+import com.gestao.projetos.dao.ProjetoDAO;
+import com.gestao.projetos.dao.TarefaDAO;
+import com.gestao.projetos.dao.TarefaDependenciaDAO;
+import com.gestao.projetos.model.Projeto;
+import com.gestao.projetos.model.Tarefa;
+import com.gestao.projetos.model.TarefaDependencia;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Cronograma de um projeto pelo método do caminho crítico.
+ *
+ * As tarefas viram nós numerados 0..n-1 e as dependências ficam em listas de
+ * adjacência de int (sucessores e predecessores). É mantida uma ordem
+ * topológica; início/fim mais cedo são calculados na ordem direta e
+ * início/fim mais tarde na ordem inversa, em dias a partir do início do
+ * projeto. Folga zero indica tarefa crítica.
+ *
+ * As alterações são incrementais: mudar a duração de uma tarefa ou incluir
+ * uma dependência repropaga apenas os nós alcançados (processados pela
+ * posição topológica), e a inclusão de dependências reordena somente o trecho
+ * afetado da ordem topológica (algoritmo de Pearce-Kelly), detectando ciclos
+ * nesse mesmo percurso. O recálculo completo da ordem inversa só acontece
+ * quando o término do projeto muda.
+ *
+ * Não é thread-safe: deve ser usado por uma thread de cada vez.
+ */
+public class CronogramaEngine {
+
+    private final LocalDate inicio;
+    private final Map<Integer, Integer> indicePorId = new HashMap<>();
+
+    private int n;
+    private int[] ids = new int[16];
+    private int[] duracao = new int[16];
+    private boolean[] removida = new boolean[16];
+    private int[][] sucessores = new int[16][];
+    private int[] qtdSucessores = new int[16];
+    private int[][] predecessores = new int[16][];
+    private int[] qtdPredecessores = new int[16];
+
+    // ordem[posicao] = nó; posicao[nó] = posição na ordem topológica
+    private int[] ordem = new int[16];
+    private int[] posicao = new int[16];
+
+    private int[] inicioCedo = new int[16];
+    private int[] fimCedo = new int[16];
+    private int[] inicioTarde = new int[16];
+    private int[] fimTarde = new int[16];
+    private int termino;
+
+    // Marcas reaproveitadas pelas buscas (evita alocar a cada alteração)
+    private boolean[] marcado = new boolean[16];
+
+    public CronogramaEngine(LocalDate inicio, List<Tarefa> tarefas, List<TarefaDependencia> dependencias) {
+        this.inicio = inicio != null ? inicio : LocalDate.now();
+
+        for (Tarefa tarefa : tarefas) {
+            novoNo(tarefa.getId(), duracaoDe(tarefa));
+        }
+        for (TarefaDependencia dependencia : dependencias) {
+            Integer tarefa = indicePorId.get(dependencia.getTarefaId());
+            Integer anterior = indicePorId.get(dependencia.getDependeDeId());
+            if (tarefa != null && anterior != null && !existeAresta(anterior, tarefa)) {
+                ligar(anterior, tarefa);
+            }
+        }
+
+        ordenarTopologicamente();
+        recalcularCedo();
+        recalcularTarde();
+    }
+
+    /**
+     * Monta o cronograma de um projeto a partir do banco
+     */
+    public static CronogramaEngine carregar(Integer projetoId) throws SQLException {
+        Projeto projeto = new ProjetoDAO().findById(projetoId);
+        if (projeto == null) {
+            throw new IllegalArgumentException("Projeto não encontrado: " + projetoId);
+        }
+        List<Tarefa> tarefas = new TarefaDAO().findByProjeto(projetoId);
+        List<TarefaDependencia> dependencias = new TarefaDependenciaDAO().findByProjeto(projetoId);
+        return new CronogramaEngine(projeto.getDataInicio(), tarefas, dependencias);
+    }
+
+    /**
+     * Duração usada para a tarefa: dias entre o cadastro e a conclusão
+     * prevista (no mínimo um dia)
+     */
+    public static int duracaoDe(Tarefa tarefa) {
+        if (tarefa.getDataPrevistaConclusao() == null || tarefa.getDataCadastro() == null) {
+            return 1;
+        }
+        long dias = ChronoUnit.DAYS.between(tarefa.getDataCadastro().toLocalDate(), tarefa.getDataPrevistaConclusao());
+        return (int) Math.max(1, Math.min(dias, Integer.MAX_VALUE / 4));
+    }
+
+    // ========== ALTERAÇÕES ==========
+
+    /**
+     * Inclui ou atualiza uma tarefa (duração recalculada a partir das datas)
+     */
+    public void atualizarTarefa(Tarefa tarefa) {
+        Integer no = indicePorId.get(tarefa.getId());
+        if (!tarefa.isAtivo()) {
+            if (no != null) {
+                removerTarefa(tarefa.getId());
+            }
+            return;
+        }
+        if (no == null) {
+            // Tarefa sem dependências entra no fim da ordem topológica
+            no = novoNo(tarefa.getId(), duracaoDe(tarefa));
+            ordem[n - 1] = no;
+            posicao[no] = n - 1;
+            inicioCedo[no] = 0;
+            fimCedo[no] = duracao[no];
+            ajustarTermino(no);
+            return;
+        }
+        setDuracao(tarefa.getId(), duracaoDe(tarefa));
+    }
+
+    /**
+     * Altera a duração de uma tarefa e repropaga apenas o necessário
+     */
+    public void setDuracao(Integer tarefaId, int dias) {
+        int no = indice(tarefaId);
+        if (duracao[no] == dias) {
+            return;
+        }
+        duracao[no] = Math.max(0, dias);
+        propagarCedo(no);
+        ajustarTermino(no);
+    }
+
+    /**
+     * Inclui a dependência "tarefa depende de anterior"
+     *
+     * @throws IllegalArgumentException se a dependência criar um ciclo
+     */
+    public void adicionarDependencia(Integer tarefaId, Integer dependeDeId) {
+        int tarefa = indice(tarefaId);
+        int anterior = indice(dependeDeId);
+        if (tarefa == anterior) {
+            throw new IllegalArgumentException("Uma tarefa não pode depender de si mesma");
+        }
+        if (existeAresta(anterior, tarefa)) {
+            return;
+        }
+
+        if (posicao[anterior] > posicao[tarefa]) {
+            reordenar(anterior, tarefa);
+        }
+        ligar(anterior, tarefa);
+
+        propagarCedo(tarefa);
+        ajustarTermino(anterior);
+    }
+
+    /**
+     * Remove a dependência "tarefa depende de anterior"
+     */
+    public void removerDependencia(Integer tarefaId, Integer dependeDeId) {
+        int tarefa = indice(tarefaId);
+        int anterior = indice(dependeDeId);
+        if (!desligar(anterior, tarefa)) {
+            return;
+        }
+        // A ordem topológica continua válida sem a aresta
+        propagarCedo(tarefa);
+        ajustarTermino(anterior);
+    }
+
+    /**
+     * Remove a tarefa e suas dependências do cronograma
+     */
+    public void removerTarefa(Integer tarefaId) {
+        int no = indice(tarefaId);
+        List<Integer> anteriores = new ArrayList<>();
+        List<Integer> seguintes = new ArrayList<>();
+
+        while (qtdPredecessores[no] > 0) {
+            int p = predecessores[no][0];
+            desligar(p, no);
+            anteriores.add(p);
+        }
+        while (qtdSucessores[no] > 0) {
+            int s = sucessores[no][0];
+            desligar(no, s);
+            seguintes.add(s);
+        }
+
+        removida[no] = true;
+        duracao[no] = 0;
+        indicePorId.remove(tarefaId);
+
+        for (int s : seguintes) {
+            propagarCedo(s);
+        }
+        propagarCedo(no);
+        int terminoAnterior = termino;
+        termino = calcularTermino();
+        if (termino != terminoAnterior) {
+            recalcularTarde();
+        } else {
+            anteriores.forEach(this::propagarTarde);
+            propagarTarde(no);
+        }
+    }
+
+    // ========== CONSULTAS ==========
+
+    /**
+     * Datas calculadas para a tarefa
+     */
+    public Agenda getAgenda(Integer tarefaId) {
+        int no = indice(tarefaId);
+        return new Agenda(tarefaId, inicio.plusDays(inicioCedo[no]), inicio.plusDays(fimCedo[no]),
+                inicio.plusDays(inicioTarde[no]), inicio.plusDays(fimTarde[no]), inicioTarde[no] - inicioCedo[no]);
+    }
+
+    /**
+     * Término previsto do projeto (maior fim mais cedo)
+     */
+    public LocalDate getTerminoPrevisto() {
+        return inicio.plusDays(termino);
+    }
+
+    /**
+     * Tarefas com folga zero, em ordem topológica
+     */
+    public List<Integer> getCaminhoCritico() {
+        List<Integer> criticas = new ArrayList<>();
+        for (int p = 0; p < n; p++) {
+            int no = ordem[p];
+            if (!removida[no] && inicioTarde[no] == inicioCedo[no]) {
+                criticas.add(ids[no]);
+            }
+        }
+        return criticas;
+    }
+
+    /**
+     * Ids das tarefas em ordem topológica (dependências antes)
+     */
+    public List<Integer> getOrdemTopologica() {
+        List<Integer> resultado = new ArrayList<>(n);
+        for (int p = 0; p < n; p++) {
+            if (!removida[ordem[p]]) {
+                resultado.add(ids[ordem[p]]);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Ids das tarefas de que a tarefa depende diretamente
+     */
+    public List<Integer> getDependencias(Integer tarefaId) {
+        int no = indice(tarefaId);
+        List<Integer> resultado = new ArrayList<>(qtdPredecessores[no]);
+        for (int i = 0; i < qtdPredecessores[no]; i++) {
+            resultado.add(ids[predecessores[no][i]]);
+        }
+        return resultado;
+    }
+
+    public int getQuantidadeTarefas() {
+        return indicePorId.size();
+    }
+
+    // ========== CÁLCULO ==========
+
+    private void recalcularCedo() {
+        for (int p = 0; p < n; p++) {
+            calcularCedo(ordem[p]);
+        }
+        termino = calcularTermino();
+    }
+
+    private void recalcularTarde() {
+        for (int p = n - 1; p >= 0; p--) {
+            calcularTarde(ordem[p]);
+        }
+    }
+
+    private boolean calcularCedo(int no) {
+        int es = 0;
+        int[] pred = predecessores[no];
+        for (int i = 0; i < qtdPredecessores[no]; i++) {
+            es = Math.max(es, fimCedo[pred[i]]);
+        }
+        boolean mudou = es != inicioCedo[no] || es + duracao[no] != fimCedo[no];
+        inicioCedo[no] = es;
+        fimCedo[no] = es + duracao[no];
+        return mudou;
+    }
+
+    private boolean calcularTarde(int no) {
+        int lf = termino;
+        int[] suc = sucessores[no];
+        for (int i = 0; i < qtdSucessores[no]; i++) {
+            lf = Math.min(lf, inicioTarde[suc[i]]);
+        }
+        boolean mudou = lf != fimTarde[no] || lf - duracao[no] != inicioTarde[no];
+        fimTarde[no] = lf;
+        inicioTarde[no] = lf - duracao[no];
+        return mudou;
+    }
+
+    private int calcularTermino() {
+        int maior = 0;
+        for (int i = 0; i < n; i++) {
+            maior = Math.max(maior, fimCedo[i]);
+        }
+        return maior;
+    }
+
+    /**
+     * Recalcula o término; se mudou, refaz a ordem inversa inteira, senão
+     * repropaga a ordem inversa a partir do nó alterado
+     */
+    private void ajustarTermino(int no) {
+        int novo = calcularTermino();
+        if (novo != termino) {
+            termino = novo;
+            recalcularTarde();
+        } else {
+            propagarTarde(no);
+        }
+    }
+
+    /**
+     * Repropaga início/fim mais cedo a partir do nó, em ordem topológica,
+     * parando nos ramos cujo fim não mudou
+     */
+    private void propagarCedo(int origem) {
+        PriorityQueue<Integer> fila = new PriorityQueue<>();
+        List<Integer> visitados = new ArrayList<>();
+        fila.add(posicao[origem]);
+        marcado[origem] = true;
+        visitados.add(origem);
+
+        while (!fila.isEmpty()) {
+            int no = ordem[fila.poll()];
+            if (calcularCedo(no) || no == origem) {
+                for (int i = 0; i < qtdSucessores[no]; i++) {
+                    int s = sucessores[no][i];
+                    if (!marcado[s]) {
+                        marcado[s] = true;
+                        visitados.add(s);
+                        fila.add(posicao[s]);
+                    }
+                }
+            }
+        }
+        visitados.forEach(v -> marcado[v] = false);
+    }
+
+    /**
+     * Repropaga início/fim mais tarde a partir do nó, em ordem topológica
+     * inversa, parando nos ramos cujo início não mudou
+     */
+    private void propagarTarde(int origem) {
+        PriorityQueue<Integer> fila = new PriorityQueue<>(Collections.reverseOrder());
+        List<Integer> visitados = new ArrayList<>();
+        fila.add(posicao[origem]);
+        marcado[origem] = true;
+        visitados.add(origem);
+
+        while (!fila.isEmpty()) {
+            int no = ordem[fila.poll()];
+            if (calcularTarde(no) || no == origem) {
+                for (int i = 0; i < qtdPredecessores[no]; i++) {
+                    int p = predecessores[no][i];
+                    if (!marcado[p]) {
+                        marcado[p] = true;
+                        visitados.add(p);
+                        fila.add(posicao[p]);
+                    }
+                }
+            }
+        }
+        visitados.forEach(v -> marcado[v] = false);
+    }
+
+    // ========== ORDEM TOPOLÓGICA ==========
+
+    /**
+     * Ordenação inicial (Kahn)
+     */
+    private void ordenarTopologicamente() {
+        int[] grau = Arrays.copyOf(qtdPredecessores, n);
+        int inicioFila = 0;
+        int fimFila = 0;
+        for (int i = 0; i < n; i++) {
+            if (grau[i] == 0) {
+                ordem[fimFila++] = i;
+            }
+        }
+        while (inicioFila < fimFila) {
+            int no = ordem[inicioFila++];
+            posicao[no] = inicioFila - 1;
+            for (int i = 0; i < qtdSucessores[no]; i++) {
+                int s = sucessores[no][i];
+                if (--grau[s] == 0) {
+                    ordem[fimFila++] = s;
+                }
+            }
+        }
+        if (fimFila < n) {
+            throw new IllegalArgumentException("As dependências do projeto contêm um ciclo");
+        }
+    }
+
+    /**
+     * Pearce-Kelly: a aresta anterior → tarefa viola a ordem atual; reordena
+     * somente os nós com posição entre as duas, ou falha se houver caminho
+     * tarefa → anterior (ciclo)
+     */
+    private void reordenar(int anterior, int tarefa) {
+        int limiteInferior = posicao[tarefa];
+        int limiteSuperior = posicao[anterior];
+
+        List<Integer> adiante = new ArrayList<>();
+        boolean ciclo = buscar(tarefa, limiteSuperior, true, anterior, adiante);
+        if (ciclo) {
+            adiante.forEach(v -> marcado[v] = false);
+            throw new IllegalArgumentException("A dependência criaria um ciclo entre as tarefas "
+                    + ids[tarefa] + " e " + ids[anterior]);
+        }
+        List<Integer> atras = new ArrayList<>();
+        buscar(anterior, limiteInferior, false, -1, atras);
+        adiante.forEach(v -> marcado[v] = false);
+        atras.forEach(v -> marcado[v] = false);
+
+        adiante.sort((a, b) -> Integer.compare(posicao[a], posicao[b]));
+        atras.sort((a, b) -> Integer.compare(posicao[a], posicao[b]));
+
+        int[] posicoes = new int[adiante.size() + atras.size()];
+        int k = 0;
+        for (int v : atras) {
+            posicoes[k++] = posicao[v];
+        }
+        for (int v : adiante) {
+            posicoes[k++] = posicao[v];
+        }
+        Arrays.sort(posicoes);
+
+        k = 0;
+        for (int v : atras) {
+            posicao[v] = posicoes[k];
+            ordem[posicoes[k++]] = v;
+        }
+        for (int v : adiante) {
+            posicao[v] = posicoes[k];
+            ordem[posicoes[k++]] = v;
+        }
+    }
+
+    /**
+     * Busca em profundidade limitada pela posição topológica; retorna true se
+     * alcançar o alvo
+     */
+    private boolean buscar(int origem, int limite, boolean adiante, int alvo, List<Integer> visitados) {
+        List<Integer> pilha = new ArrayList<>();
+        pilha.add(origem);
+        marcado[origem] = true;
+        visitados.add(origem);
+
+        while (!pilha.isEmpty()) {
+            int no = pilha.remove(pilha.size() - 1);
+            int[] vizinhos = adiante ? sucessores[no] : predecessores[no];
+            int quantidade = adiante ? qtdSucessores[no] : qtdPredecessores[no];
+            for (int i = 0; i < quantidade; i++) {
+                int v = vizinhos[i];
+                if (v == alvo) {
+                    return true;
+                }
+                boolean dentro = adiante ? posicao[v] < limite : posicao[v] > limite;
+                if (dentro && !marcado[v]) {
+                    marcado[v] = true;
+                    visitados.add(v);
+                    pilha.add(v);
+                }
+            }
+        }
+        return false;
+    }
+
+    // ========== ESTRUTURA ==========
+
+    private int indice(Integer tarefaId) {
+        Integer no = indicePorId.get(tarefaId);
+        if (no == null) {
+            throw new IllegalArgumentException("Tarefa fora do cronograma: " + tarefaId);
+        }
+        return no;
+    }
+
+    private int novoNo(int id, int dias) {
+        if (n == ids.length) {
+            int capacidade = n * 2;
+            ids = Arrays.copyOf(ids, capacidade);
+            duracao = Arrays.copyOf(duracao, capacidade);
+            removida = Arrays.copyOf(removida, capacidade);
+            sucessores = Arrays.copyOf(sucessores, capacidade);
+            qtdSucessores = Arrays.copyOf(qtdSucessores, capacidade);
+            predecessores = Arrays.copyOf(predecessores, capacidade);
+            qtdPredecessores = Arrays.copyOf(qtdPredecessores, capacidade);
+            ordem = Arrays.copyOf(ordem, capacidade);
+            posicao = Arrays.copyOf(posicao, capacidade);
+            inicioCedo = Arrays.copyOf(inicioCedo, capacidade);
+            fimCedo = Arrays.copyOf(fimCedo, capacidade);
+            inicioTarde = Arrays.copyOf(inicioTarde, capacidade);
+            fimTarde = Arrays.copyOf(fimTarde, capacidade);
+            marcado = Arrays.copyOf(marcado, capacidade);
+        }
+        int no = n++;
+        ids[no] = id;
+        duracao[no] = dias;
+        sucessores[no] = new int[2];
+        predecessores[no] = new int[2];
+        indicePorId.put(id, no);
+        return no;
+    }
+
+    private boolean existeAresta(int de, int para) {
+        for (int i = 0; i < qtdSucessores[de]; i++) {
+            if (sucessores[de][i] == para) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void ligar(int de, int para) {
+        if (qtdSucessores[de] == sucessores[de].length) {
+            sucessores[de] = Arrays.copyOf(sucessores[de], qtdSucessores[de] * 2);
+        }
+        sucessores[de][qtdSucessores[de]++] = para;
+
+        if (qtdPredecessores[para] == predecessores[para].length) {
+            predecessores[para] = Arrays.copyOf(predecessores[para], qtdPredecessores[para] * 2);
+        }
+        predecessores[para][qtdPredecessores[para]++] = de;
+    }
+
+    private boolean desligar(int de, int para) {
+        return remover(sucessores[de], qtdSucessores, de, para) & remover(predecessores[para], qtdPredecessores, para, de);
+    }
+
+    private static boolean remover(int[] lista, int[] quantidades, int dono, int valor) {
+        int quantidade = quantidades[dono];
+        for (int i = 0; i < quantidade; i++) {
+            if (lista[i] == valor) {
+                lista[i] = lista[quantidade - 1];
+                quantidades[dono] = quantidade - 1;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Datas calculadas de uma tarefa
+     */
+    public static class Agenda {
+        private final Integer tarefaId;
+        private final LocalDate inicioMaisCedo;
+        private final LocalDate fimMaisCedo;
+        private final LocalDate inicioMaisTarde;
+        private final LocalDate fimMaisTarde;
+        private final int folga;
+
+        Agenda(Integer tarefaId, LocalDate inicioMaisCedo, LocalDate fimMaisCedo,
+                LocalDate inicioMaisTarde, LocalDate fimMaisTarde, int folga) {
+            this.tarefaId = tarefaId;
+            this.inicioMaisCedo = inicioMaisCedo;
+            this.fimMaisCedo = fimMaisCedo;
+            this.inicioMaisTarde = inicioMaisTarde;
+            this.fimMaisTarde = fimMaisTarde;
+            this.folga = folga;
+        }
+
+        public Integer getTarefaId() {
+            return tarefaId;
+        }
+
+        public LocalDate getInicioMaisCedo() {
+            return inicioMaisCedo;
+        }
+
+        public LocalDate getFimMaisCedo() {
+            return fimMaisCedo;
+        }
+
+        public LocalDate getInicioMaisTarde() {
+            return inicioMaisTarde;
+        }
+
+        public LocalDate getFimMaisTarde() {
+            return fimMaisTarde;
+        }
+
+        public int getFolga() {
+            return folga;
+        }
+
+        public boolean isCritica() {
+            return folga == 0;
+        }
+    }
+}
@@ -1,29 +1,151 @@
 package com.gestao.projetos.util;
 
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.spec.InvalidKeySpecException;
 import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 
 /**
- * Classe utilitária para operações de criptografia
+ * Classe utilitária para operações de criptografia.
+ *
+ * Senhas são armazenadas no formato autodescritivo
+ * {@code pbkdf2-sha256$<iterações>$<salt base64>$<hash base64>}, o que permite
+ * aumentar o custo (security.password.pbkdf2.iterations) sem invalidar os
+ * hashes existentes. Senhas em texto puro e hashes SHA-256 antigos ainda são
+ * aceitos para que possam ser migrados no próximo login.
  */
 public class CryptUtils {
 
+    private static final String PREFIXO = "pbkdf2-sha256";
+    private static final String ALGORITMO = "PBKDF2WithHmacSHA256";
+    private static final int TAMANHO_SALT = 16;
+    private static final int TAMANHO_HASH_BITS = 256;
+    private static final int ITERACOES_PADRAO = 310_000;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
     /**
-     * Gera hash SHA-256 da senha
+     * Número de iterações configurado para novos hashes
+     */
+    public static int getIterations() {
+        return Math.max(1, AppConfig.getInt("security.password.pbkdf2.iterations", ITERACOES_PADRAO));
+    }
+
+    /**
+     * Gera hash PBKDF2 da senha com salt aleatório e o custo configurado
      */
     public static String hashPassword(String password) {
+        return hashPassword(password, getIterations());
+    }
+
+    /**
+     * Gera hash PBKDF2 da senha com salt aleatório e o custo informado
+     */
+    public static String hashPassword(String password, int iterations) {
+        byte[] salt = new byte[TAMANHO_SALT];
+        RANDOM.nextBytes(salt);
+        byte[] hash = pbkdf2(password, salt, iterations);
+
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIXO + "$" + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    /**
+     * Verifica se a senha informada confere com o hash
+     * (aceita também os formatos antigos: SHA-256 hexadecimal e texto puro)
+     */
+    public static boolean verifyPassword(String password, String hash) {
+        if (password == null || hash == null) {
+            return false;
+        }
+
+        if (hash.startsWith(PREFIXO + "$")) {
+            String[] partes = hash.split("\\$");
+            if (partes.length != 4) {
+                return false;
+            }
+            try {
+                int iterations = Integer.parseInt(partes[1]);
+                byte[] salt = Base64.getDecoder().decode(partes[2]);
+                byte[] esperado = Base64.getDecoder().decode(partes[3]);
+                return MessageDigest.isEqual(esperado, pbkdf2(password, salt, iterations));
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+
+        // Formatos legados: um digest SHA-256 só é comparado como digest, senão
+        // quem leu a coluna de senhas poderia entrar informando o próprio hash
+        if (isSha256Hex(hash)) {
+            return MessageDigest.isEqual(hash.toLowerCase().getBytes(StandardCharsets.UTF_8),
+                    sha256Hex(password).getBytes(StandardCharsets.UTF_8));
+        }
+        return MessageDigest.isEqual(hash.getBytes(StandardCharsets.UTF_8), password.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean isSha256Hex(String hash) {
+        if (hash.length() != 64) {
+            return false;
+        }
+        for (int i = 0; i < hash.length(); i++) {
+            if (Character.digit(hash.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Indica se o hash armazenado deve ser refeito (formato legado ou custo
+     * inferior ao configurado)
+     */
+    public static boolean needsRehash(String hash) {
+        if (hash == null || !hash.startsWith(PREFIXO + "$")) {
+            return true;
+        }
+        String[] partes = hash.split("\\$");
+        try {
+            return partes.length != 4 || Integer.parseInt(partes[1]) < getIterations();
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Deriva da senha uma chave de 256 bits (PBKDF2) para cifrar os arquivos
+     * locais do usuário
+     */
+    public static byte[] deriveKey(String password, byte[] salt, int iterations) {
+        return pbkdf2(password, salt, iterations);
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, TAMANHO_HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITMO).generateSecret(spec).getEncoded();
+        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+            throw new RuntimeException("Erro ao gerar hash da senha", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    /**
+     * Hash SHA-256 hexadecimal usado pelas versões anteriores
+     */
+    private static String sha256Hex(String password) {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
             byte[] hash = digest.digest(password.getBytes(StandardCharsets.UTF_8));
 
-            StringBuilder hexString = new StringBuilder();
+            StringBuilder hexString = new StringBuilder(hash.length * 2);
             for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
+                hexString.append(Character.forDigit((b >> 4) & 0xf, 16));
+                hexString.append(Character.forDigit(b & 0xf, 16));
             }
 
             return hexString.toString();
@@ -32,11 +154,4 @@ public class CryptUtils {
             throw new RuntimeException("Erro ao gerar hash da senha", e);
         }
     }
-
-    /**
-     * Verifica se a senha informada confere com o hash
-     */
-    public static boolean verifyPassword(String password, String hash) {
-        return hashPassword(password).equals(hash);
-    }
 }
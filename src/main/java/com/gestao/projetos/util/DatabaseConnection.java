@@ -1,33 +1,83 @@
 package com.gestao.projetos.util;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 /**
- * Classe utilitária para gerenciar conexões com o banco de dados MySQL
+ * Classe utilitária para gerenciar conexões com o banco de dados: um
+ * servidor MySQL ou, com db.modo=embutido, um H2 no próprio processo
+ * gravado em arquivo local (ver Dialeto)
  */
 public class DatabaseConnection {
 
-    private static final String URL = "jdbc:mysql://localhost:3306/gestao_projetos?useSSL=false&serverTimezone=UTC&useUnicode=true&characterEncoding=UTF-8";
-    private static final String USER = "root";
-    private static final String PASSWORD = ""; // Configure sua senha do MySQL aqui
+    private static final Dialeto DIALETO = Dialeto.configurado();
 
-    private static Connection connection = null;
+    // Script do banco, o mesmo usado para criar o banco no MySQL
+    private static final String ESQUEMA = "/database/java.sql";
+
+    private static ConnectionPool pool = null;
 
     /**
-     * Obtem uma conexão com o banco de dados
+     * Obtem uma conexão com o banco de dados.
+     * A conexão vem do pool; close() a devolve para reutilização.
      */
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
+        return getPool().getConnection();
+    }
+
+    /**
+     * Obtem uma conexão para consultas somente leitura que toleram um pequeno
+     * atraso (listagens e relatórios): de uma réplica, quando houver alguma
+     * em dia (ver RoteadorLeitura), ou do primário
+     */
+    public static Connection getConnectionLeitura() throws SQLException {
+        return RoteadorLeitura.getConnection();
+    }
+
+    /**
+     * Banco de dados em uso
+     */
+    public static Dialeto getDialeto() {
+        return DIALETO;
+    }
+
+    /**
+     * Retorna o pool de conexões, criando-o na primeira chamada
+     */
+    public static synchronized ConnectionPool getPool() throws SQLException {
+        if (pool == null) {
             try {
-                Class.forName("com.mysql.cj.jdbc.Driver");
-                connection = DriverManager.getConnection(URL, USER, PASSWORD);
+                Class.forName(DIALETO.getDriver());
             } catch (ClassNotFoundException e) {
-                throw new SQLException("Driver MySQL não encontrado", e);
+                throw new SQLException("Driver " + DIALETO.getDriver() + " não encontrado", e);
             }
+            ConnectionPool novo = new ConnectionPool(DIALETO.url(), DIALETO.usuario(), DIALETO.senha(),
+                    AppConfig.getInt("db.pool.max-size", 8),
+                    AppConfig.getLong("db.pool.timeout-ms", 10_000), RoteadorLeitura::registrarEscrita);
+            if (DIALETO == Dialeto.EMBUTIDO) {
+                try {
+                    criarEsquema(novo);
+                } catch (SQLException e) {
+                    novo.shutdown();
+                    throw e;
+                }
+            }
+            pool = novo;
+            Telemetria.registrarPool("principal", novo);
         }
-        return connection;
+        return pool;
+    }
+
+    /**
+     * Abre e valida antecipadamente as conexões mínimas do pool
+     */
+    public static int warmUp() throws SQLException {
+        return getPool().warmUp(AppConfig.getInt("db.pool.min-idle", 2));
     }
 
     /**
@@ -35,7 +85,7 @@ public class DatabaseConnection {
      */
     public static boolean testConnection() {
         try (Connection conn = getConnection()) {
-            return conn != null && !conn.isClosed();
+            return conn != null && conn.isValid(5);
         } catch (SQLException e) {
             System.err.println("Erro ao testar conexão: " + e.getMessage());
             return false;
@@ -43,15 +93,69 @@ public class DatabaseConnection {
     }
 
     /**
-     * Fecha a conexão com o banco de dados
+     * Cria as tabelas, índices, views e dados iniciais em um banco embutido
+     * novo, executando o mesmo script do MySQL (sem CREATE DATABASE e USE)
      */
-    public static void closeConnection() {
-        if (connection != null) {
+    private static void criarEsquema(ConnectionPool novo) throws SQLException {
+        try (Connection conn = novo.getConnection()) {
+            try (ResultSet rs = conn.getMetaData().getTables(null, null, "usuarios", null)) {
+                if (rs.next()) {
+                    return;
+                }
+            }
+
+            // O H2 confirma cada comando de DDL: se algum falhar, o arquivo fica incompleto
             try {
-                connection.close();
+                executarScript(conn, ESQUEMA);
             } catch (SQLException e) {
-                System.err.println("Erro ao fechar conexão: " + e.getMessage());
+                throw new SQLException("Erro ao criar o banco embutido (apague o arquivo "
+                        + AppConfig.get("db.embutido.arquivo", "./dados/gestao_projetos") + ".mv.db e tente de novo): "
+                        + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Executa um script SQL do classpath, comando a comando, ignorando
+     * comentários de linha inteira, CREATE DATABASE e USE
+     */
+    static void executarScript(Connection conn, String recurso) throws SQLException {
+        String script;
+        try (InputStream entrada = DatabaseConnection.class.getResourceAsStream(recurso)) {
+            if (entrada == null) {
+                throw new SQLException("Script do banco não encontrado: " + recurso);
+            }
+            script = new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SQLException("Erro ao ler o script do banco", e);
+        }
+
+        StringBuilder semComentarios = new StringBuilder();
+        for (String linha : script.split("\n")) {
+            if (!linha.trim().startsWith("--")) {
+                semComentarios.append(linha).append('\n');
             }
         }
+
+        try (Statement stmt = conn.createStatement()) {
+            for (String comando : semComentarios.toString().split(";\\s*\n")) {
+                comando = comando.trim();
+                if (comando.isEmpty() || comando.startsWith("CREATE DATABASE") || comando.startsWith("USE ")) {
+                    continue;
+                }
+                stmt.execute(comando);
+            }
+        }
+    }
+
+    /**
+     * Fecha as conexões com o banco de dados
+     */
+    public static synchronized void closeConnection() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+            Telemetria.removerPool("principal");
+        }
     }
-}
\ No newline at end of file
+}
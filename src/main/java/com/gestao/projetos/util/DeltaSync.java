@@ -0,0 +1,223 @@
+package com.gestao.projetos.util;
+
+import javafx.collections.ObservableList;
+
+import java.text.Collator;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Sincronização incremental de uma lista exibida em tela.
+ *
+ * Guarda a maior data_atualizacao já vista (watermark) e aplica na lista as
+ * linhas alteradas desde então como atualizações no lugar, inserções e
+ * remoções. A consulta parte de um intervalo antes do watermark
+ * (sync.sobreposicao-seg): uma transação que gravou data_atualizacao antes
+ * de outra mas fez commit depois dela não fica para trás. As linhas relidas
+ * sem alteração (mesma versão e data_atualizacao da cópia exibida) são
+ * ignoradas; as demais são aplicadas pelo id, mantendo seleção e posição de
+ * rolagem da tabela. A lista é
+ * mantida ordenada pelo comparador informado, de forma que localizar cada
+ * linha custa O(log n).
+ */
+public class DeltaSync<T> {
+
+    private final ObservableList<T> destino;
+    private final Function<T, Integer> idDe;
+    private final Function<T, LocalDateTime> atualizacaoDe;
+    private final Function<T, Integer> versaoDe;
+    private final Comparator<T> ordem;
+    private final Predicate<T> visivel;
+
+    private final Map<Integer, T> porId = new HashMap<>();
+    private LocalDateTime watermark;
+
+    public DeltaSync(ObservableList<T> destino, Function<T, Integer> idDe,
+            Function<T, LocalDateTime> atualizacaoDe, Function<T, Integer> versaoDe, Comparator<T> ordem,
+            Predicate<T> visivel) {
+        this.destino = destino;
+        this.idDe = idDe;
+        this.atualizacaoDe = atualizacaoDe;
+        this.versaoDe = versaoDe;
+        this.ordem = ordem.thenComparing(idDe, Comparator.nullsFirst(Comparator.naturalOrder()));
+        this.visivel = visivel;
+    }
+
+    /**
+     * Comparador por texto usando as regras do português (ignora acentos e caixa)
+     */
+    public static <T> Comparator<T> porTexto(Function<T, String> texto) {
+        Collator collator = Collator.getInstance(new Locale("pt", "BR"));
+        collator.setStrength(Collator.PRIMARY);
+        return Comparator.comparing(texto, Comparator.nullsFirst(collator::compare));
+    }
+
+    /**
+     * Indica se já houve uma carga completa (e portanto há watermark)
+     */
+    public boolean isCarregado() {
+        return watermark != null;
+    }
+
+    public LocalDateTime getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * Início da próxima consulta incremental: o watermark menos a janela de
+     * sobreposição
+     */
+    public LocalDateTime getDesde() {
+        return recuar(watermark);
+    }
+
+    /**
+     * Recua a data informada pela janela de sobreposição (sync.sobreposicao-seg)
+     */
+    public static LocalDateTime recuar(LocalDateTime watermark) {
+        return watermark.minusSeconds(getSobreposicaoSegundos());
+    }
+
+    public static long getSobreposicaoSegundos() {
+        return Math.max(0, AppConfig.getLong("sync.sobreposicao-seg", 30));
+    }
+
+    /**
+     * Substitui todo o conteúdo da lista (carga completa)
+     */
+    public void carregar(List<T> lista) {
+        List<T> visiveis = new ArrayList<>(lista.size());
+        porId.clear();
+        watermark = null;
+
+        for (T item : lista) {
+            avancarWatermark(item);
+            if (visivel.test(item)) {
+                visiveis.add(item);
+                porId.put(idDe.apply(item), item);
+            }
+        }
+
+        visiveis.sort(ordem);
+        destino.setAll(visiveis);
+
+        // Tabela vazia: evita nova carga completa a cada atualização
+        if (watermark == null) {
+            watermark = LocalDateTime.of(1970, 1, 1, 0, 0);
+        }
+    }
+
+    /**
+     * Aplica as linhas alteradas desde o último watermark
+     *
+     * @return quantidade de linhas que modificaram a lista
+     */
+    public int aplicar(List<T> alterados) {
+        int modificados = 0;
+
+        for (T novo : alterados) {
+            avancarWatermark(novo);
+            Integer id = idDe.apply(novo);
+            T atual = porId.get(id);
+            boolean mostrar = visivel.test(novo);
+
+            if (atual == null) {
+                if (mostrar) {
+                    destino.add(posicaoInsercao(novo), novo);
+                    porId.put(id, novo);
+                    modificados++;
+                }
+                continue;
+            }
+            if (inalterado(atual, novo)) {
+                // Relida pela janela de sobreposição: nada a atualizar na tela
+                continue;
+            }
+
+            int posicao = localizar(atual);
+            if (posicao < 0) {
+                porId.remove(id);
+                if (mostrar) {
+                    destino.add(posicaoInsercao(novo), novo);
+                    porId.put(id, novo);
+                }
+            } else if (!mostrar) {
+                destino.remove(posicao);
+                porId.remove(id);
+            } else if (ordem.compare(atual, novo) == 0) {
+                // Mesma posição na ordenação: substitui no lugar
+                destino.set(posicao, novo);
+                porId.put(id, novo);
+            } else {
+                destino.remove(posicao);
+                destino.add(posicaoInsercao(novo), novo);
+                porId.put(id, novo);
+            }
+            modificados++;
+        }
+        return modificados;
+    }
+
+    /**
+     * Remove da lista os itens cujo id não está entre os informados (linhas
+     * que deixaram de existir no banco e por isso não aparecem nas alterações)
+     *
+     * @return quantidade de itens removidos
+     */
+    public int reter(Set<Integer> ids) {
+        List<T> removidos = new ArrayList<>();
+        for (Map.Entry<Integer, T> item : porId.entrySet()) {
+            if (!ids.contains(item.getKey())) {
+                removidos.add(item.getValue());
+            }
+        }
+
+        for (T item : removidos) {
+            int posicao = localizar(item);
+            if (posicao >= 0) {
+                destino.remove(posicao);
+            }
+            porId.remove(idDe.apply(item));
+        }
+        return removidos.size();
+    }
+
+    /**
+     * Toda gravação incrementa a versão e regrava data_atualizacao
+     */
+    private boolean inalterado(T atual, T novo) {
+        return Objects.equals(versaoDe.apply(atual), versaoDe.apply(novo))
+                && Objects.equals(atualizacaoDe.apply(atual), atualizacaoDe.apply(novo));
+    }
+
+    private void avancarWatermark(T item) {
+        LocalDateTime atualizacao = atualizacaoDe.apply(item);
+        if (atualizacao != null && (watermark == null || atualizacao.isAfter(watermark))) {
+            watermark = atualizacao;
+        }
+    }
+
+    private int localizar(T item) {
+        int posicao = Collections.binarySearch(destino, item, ordem);
+        if (posicao < 0 || destino.get(posicao) != item) {
+            // A tabela pode ter sido reordenada pelo usuário
+            posicao = destino.indexOf(item);
+        }
+        return posicao;
+    }
+
+    private int posicaoInsercao(T item) {
+        int posicao = Collections.binarySearch(destino, item, ordem);
+        return posicao < 0 ? -(posicao + 1) : posicao;
+    }
+}
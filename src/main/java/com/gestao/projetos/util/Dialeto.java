@@ -0,0 +1,87 @@
+package com.gestao.projetos.util;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Banco de dados em uso (db.modo) e o que muda de um para o outro.
+ *
+ * As consultas dos DAOs são escritas em SQL aceito pelos dois (o H2 roda em
+ * modo de compatibilidade com o MySQL: ENUM, LIMIT, ON DUPLICATE KEY UPDATE,
+ * TIMESTAMPADD etc.); aqui ficam apenas as diferenças que não se resolvem no
+ * texto do SQL.
+ */
+public enum Dialeto {
+
+    /**
+     * Servidor MySQL (db.url, db.username, db.password)
+     */
+    MYSQL("com.mysql.cj.jdbc.Driver", "o MySQL está rodando e as configurações estão corretas"),
+
+    /**
+     * H2 embutido no próprio processo, gravado em um arquivo local
+     * (db.embutido.arquivo), para uso sem servidor
+     */
+    EMBUTIDO("org.h2.Driver", "o arquivo do banco embutido não está aberto por outra instância");
+
+    private final String driver;
+    private final String verificacao;
+
+    Dialeto(String driver, String verificacao) {
+        this.driver = driver;
+        this.verificacao = verificacao;
+    }
+
+    /**
+     * Dialeto configurado em db.modo ("mysql", o padrão, ou "embutido")
+     */
+    public static Dialeto configurado() {
+        return "embutido".equalsIgnoreCase(AppConfig.get("db.modo", "mysql").trim()) ? EMBUTIDO : MYSQL;
+    }
+
+    public String getDriver() {
+        return this == MYSQL ? AppConfig.get("db.driver", driver) : driver;
+    }
+
+    /**
+     * O que verificar quando a conexão falha, para a mensagem de erro
+     */
+    public String getVerificacao() {
+        return verificacao;
+    }
+
+    /**
+     * URL de conexão. No modo embutido o arquivo é criado na primeira
+     * conexão, e o cache de páginas (db.embutido.cache-kb) deve comportar as
+     * tabelas de tarefas: as listagens completas leem a tabela inteira.
+     */
+    public String url() {
+        if (this == MYSQL) {
+            return AppConfig.get("db.url",
+                    "jdbc:mysql://localhost:3306/gestao_projetos?useSSL=false&serverTimezone=UTC&useUnicode=true&characterEncoding=UTF-8&rewriteBatchedStatements=true");
+        }
+        return "jdbc:h2:file:" + AppConfig.get("db.embutido.arquivo", "./dados/gestao_projetos")
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CACHE_SIZE=" + AppConfig.getInt("db.embutido.cache-kb", 65536);
+    }
+
+    public String usuario() {
+        return this == MYSQL ? AppConfig.get("db.username", "root") : "sa";
+    }
+
+    public String senha() {
+        return this == MYSQL ? AppConfig.get("db.password", "") : "";
+    }
+
+    /**
+     * Configura a consulta para ler o resultado linha a linha, sem carregá-lo
+     * inteiro na memória
+     */
+    public void streaming(Statement stmt) throws SQLException {
+        if (this == MYSQL) {
+            // Integer.MIN_VALUE faz o driver do MySQL ler o resultado linha a linha
+            stmt.setFetchSize(Integer.MIN_VALUE);
+        } else {
+            stmt.setFetchSize(1000);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.gestao.projetos.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Barramento de eventos sem bloqueio.
+ *
+ * Os assinantes ficam em uma lista imutável trocado por compare-and-set, de
+ * modo que publicar um evento apenas lê a referência atual, sem locks.
+ */
+public class EventBus<E> {
+
+    /**
+     * Assinatura ativa; cancel() remove o assinante do barramento
+     */
+    public interface Assinatura {
+        void cancel();
+    }
+
+    private final AtomicReference<List<Consumer<E>>> assinantes = new AtomicReference<>(List.of());
+
+    /**
+     * Registra um assinante
+     */
+    public Assinatura subscribe(Consumer<E> assinante) {
+        List<Consumer<E>> atual;
+        List<Consumer<E>> novo;
+        do {
+            atual = assinantes.get();
+            List<Consumer<E>> copia = new ArrayList<>(atual.size() + 1);
+            copia.addAll(atual);
+            copia.add(assinante);
+            novo = List.copyOf(copia);
+        } while (!assinantes.compareAndSet(atual, novo));
+
+        return () -> remover(assinante);
+    }
+
+    /**
+     * Entrega o evento a todos os assinantes, na thread chamadora
+     */
+    public void publish(E evento) {
+        for (Consumer<E> assinante : assinantes.get()) {
+            try {
+                assinante.accept(evento);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Indica se há algum assinante registrado
+     */
+    public boolean hasSubscribers() {
+        return !assinantes.get().isEmpty();
+    }
+
+    private void remover(Consumer<E> assinante) {
+        List<Consumer<E>> atual;
+        List<Consumer<E>> novo;
+        do {
+            atual = assinantes.get();
+            int indice = -1;
+            for (int i = 0; i < atual.size(); i++) {
+                if (atual.get(i) == assinante) {
+                    indice = i;
+                    break;
+                }
+            }
+            if (indice < 0) {
+                return;
+            }
+            List<Consumer<E>> copia = new ArrayList<>(atual);
+            copia.remove(indice);
+            novo = List.copyOf(copia);
+        } while (!assinantes.compareAndSet(atual, novo));
+    }
+}
@@ -0,0 +1,288 @@
+package com.gestao.projetos.util;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Índices por atributo para filtragem em memória das listas.
+ *
+ * Cada linha recebe uma posição fixa (slot) e cada valor de atributo guarda
+ * o conjunto de slots que o possuem: enums em um BitSet por ordinal e ids em
+ * um mapa id → BitSet. Um filtro com vários critérios vira a interseção dos
+ * BitSets, calculada uma vez; o predicado entregue ao FilteredList apenas
+ * consulta o bit da linha. Os índices acompanham as alterações da lista de
+ * origem (inclusive as aplicadas pelo DeltaSync).
+ */
+public class FilterIndex<T> {
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+
+    private final Function<T, String> textoDe;
+    private final Map<String, Indice<T>> indices = new LinkedHashMap<>();
+
+    private final Map<T, Integer> slots = new IdentityHashMap<>();
+    private final Deque<Integer> slotsLivres = new ArrayDeque<>();
+    private final BitSet ocupados = new BitSet();
+    private String[] textos = new String[64];
+    private int proximoSlot = 0;
+
+    private final Map<String, Object> criterios = new HashMap<>();
+    private String textoFiltro = "";
+    private BitSet resultado;
+
+    public FilterIndex(ObservableList<T> origem, Function<T, String> textoDe) {
+        this.textoDe = textoDe;
+        origem.forEach(this::adicionar);
+        origem.addListener((ListChangeListener<T>) this::onAlteracao);
+    }
+
+    /**
+     * Registra um atributo enum (um BitSet por ordinal)
+     */
+    public <E extends Enum<E>> FilterIndex<T> atributoEnum(String nome, Class<E> tipo, Function<T, E> valor) {
+        indices.put(nome, new IndiceEnum<>(tipo.getEnumConstants().length, valor));
+        return this;
+    }
+
+    /**
+     * Registra um atributo identificador (mapa id → BitSet)
+     */
+    public FilterIndex<T> atributoId(String nome, Function<T, Integer> valor) {
+        indices.put(nome, new IndiceId<>(valor));
+        return this;
+    }
+
+    /**
+     * Define o valor exigido para o atributo (null remove o critério)
+     */
+    public void setCriterio(String atributo, Object valor) {
+        if (!indices.containsKey(atributo)) {
+            throw new IllegalArgumentException("Atributo não indexado: " + atributo);
+        }
+        if (valor == null) {
+            criterios.remove(atributo);
+        } else {
+            criterios.put(atributo, valor);
+        }
+    }
+
+    /**
+     * Define o texto a ser procurado (sem diferenciar acentos e maiúsculas)
+     */
+    public void setTexto(String texto) {
+        textoFiltro = texto == null ? "" : normalizar(texto.trim());
+    }
+
+    /**
+     * Calcula o resultado dos critérios atuais e retorna o predicado
+     * correspondente para o FilteredList
+     */
+    public Predicate<T> predicate() {
+        if (criterios.isEmpty() && textoFiltro.isEmpty()) {
+            resultado = null;
+            return item -> true;
+        }
+
+        BitSet linhas = (BitSet) ocupados.clone();
+        for (Map.Entry<String, Object> criterio : criterios.entrySet()) {
+            linhas.and(indices.get(criterio.getKey()).linhas(criterio.getValue()));
+        }
+
+        if (!textoFiltro.isEmpty()) {
+            for (int slot = linhas.nextSetBit(0); slot >= 0; slot = linhas.nextSetBit(slot + 1)) {
+                if (textos[slot] == null || !textos[slot].contains(textoFiltro)) {
+                    linhas.clear(slot);
+                }
+            }
+        }
+
+        resultado = linhas;
+        BitSet calculado = linhas;
+        return item -> {
+            Integer slot = slots.get(item);
+            // Linhas incluídas depois do cálculo são avaliadas diretamente
+            return slot != null && calculado == resultado ? calculado.get(slot) : atende(item);
+        };
+    }
+
+    /**
+     * Avalia os critérios atuais diretamente sobre a linha
+     */
+    private boolean atende(T item) {
+        for (Map.Entry<String, Object> criterio : criterios.entrySet()) {
+            if (!Objects.equals(indices.get(criterio.getKey()).valor(item), criterio.getValue())) {
+                return false;
+            }
+        }
+        if (textoFiltro.isEmpty()) {
+            return true;
+        }
+        String texto = textoDe.apply(item);
+        return texto != null && normalizar(texto).contains(textoFiltro);
+    }
+
+    private void onAlteracao(ListChangeListener.Change<? extends T> change) {
+        while (change.next()) {
+            if (change.wasPermutated()) {
+                continue;
+            }
+            for (T removido : change.getRemoved()) {
+                remover(removido);
+            }
+            for (T adicionado : change.getAddedSubList()) {
+                adicionar(adicionado);
+            }
+        }
+    }
+
+    private void adicionar(T item) {
+        if (slots.containsKey(item)) {
+            return;
+        }
+        int slot = slotsLivres.isEmpty() ? proximoSlot++ : slotsLivres.pop();
+        slots.put(item, slot);
+        ocupados.set(slot);
+
+        if (slot >= textos.length) {
+            textos = Arrays.copyOf(textos, Math.max(slot + 1, textos.length * 2));
+        }
+        String texto = textoDe.apply(item);
+        textos[slot] = texto != null ? normalizar(texto) : null;
+
+        for (Indice<T> indice : indices.values()) {
+            indice.adicionar(slot, item);
+        }
+        if (resultado != null) {
+            resultado.set(slot, atende(item));
+        }
+    }
+
+    private void remover(T item) {
+        Integer slot = slots.remove(item);
+        if (slot == null) {
+            return;
+        }
+        ocupados.clear(slot);
+        textos[slot] = null;
+        for (Indice<T> indice : indices.values()) {
+            indice.remover(slot, item);
+        }
+        if (resultado != null) {
+            resultado.clear(slot);
+        }
+        slotsLivres.push(slot);
+    }
+
+    private static String normalizar(String texto) {
+        String semAcentos = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return semAcentos.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Índice de um atributo
+     */
+    private interface Indice<T> {
+        Object valor(T item);
+
+        BitSet linhas(Object valor);
+
+        void adicionar(int slot, T item);
+
+        void remover(int slot, T item);
+    }
+
+    private static class IndiceEnum<T, E extends Enum<E>> implements Indice<T> {
+        private final BitSet[] porOrdinal;
+        private final Function<T, E> valor;
+
+        IndiceEnum(int quantidade, Function<T, E> valor) {
+            this.porOrdinal = new BitSet[quantidade];
+            this.valor = valor;
+            for (int i = 0; i < quantidade; i++) {
+                porOrdinal[i] = new BitSet();
+            }
+        }
+
+        @Override
+        public Object valor(T item) {
+            return valor.apply(item);
+        }
+
+        @Override
+        public BitSet linhas(Object chave) {
+            return porOrdinal[((Enum<?>) chave).ordinal()];
+        }
+
+        @Override
+        public void adicionar(int slot, T item) {
+            E chave = valor.apply(item);
+            if (chave != null) {
+                porOrdinal[chave.ordinal()].set(slot);
+            }
+        }
+
+        @Override
+        public void remover(int slot, T item) {
+            E chave = valor.apply(item);
+            if (chave != null) {
+                porOrdinal[chave.ordinal()].clear(slot);
+            }
+        }
+    }
+
+    private static class IndiceId<T> implements Indice<T> {
+        private static final BitSet VAZIO = new BitSet();
+
+        private final Map<Integer, BitSet> porId = new HashMap<>();
+        private final Function<T, Integer> valor;
+
+        IndiceId(Function<T, Integer> valor) {
+            this.valor = valor;
+        }
+
+        @Override
+        public Object valor(T item) {
+            return valor.apply(item);
+        }
+
+        @Override
+        public BitSet linhas(Object chave) {
+            return porId.getOrDefault(chave, VAZIO);
+        }
+
+        @Override
+        public void adicionar(int slot, T item) {
+            Integer chave = valor.apply(item);
+            if (chave != null) {
+                porId.computeIfAbsent(chave, k -> new BitSet()).set(slot);
+            }
+        }
+
+        @Override
+        public void remover(int slot, T item) {
+            Integer chave = valor.apply(item);
+            BitSet linhas = chave != null ? porId.get(chave) : null;
+            if (linhas != null) {
+                linhas.clear(slot);
+                if (linhas.isEmpty()) {
+                    porId.remove(chave);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.gestao.projetos.util;
+
+import javafx.fxml.FXMLLoader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cache do conteúdo dos arquivos FXML.
+ *
+ * O pré-carregamento lê o arquivo e carrega (sem inicializar) as classes de
+ * controles referenciadas, tirando esse custo da thread do JavaFX no momento
+ * em que a tela é exibida.
+ */
+public class FxmlCache {
+
+    private static final Pattern IMPORT_PATTERN = Pattern.compile("<\\?import\\s+([\\w.]+?)(\\.\\*)?\\s*\\?>");
+    private static final Pattern ELEMENT_PATTERN = Pattern.compile("<([A-Z]\\w*)");
+
+    private static final Map<String, byte[]> conteudo = new ConcurrentHashMap<>();
+    private static final Telemetria.Cache telemetria = Telemetria.cache("fxml");
+
+    /**
+     * Pré-carrega os arquivos FXML informados (pode ser chamado fora da thread do JavaFX)
+     */
+    public static void preload(List<String> caminhos) {
+        for (String caminho : caminhos) {
+            try {
+                byte[] bytes = lerRecurso(caminho);
+                if (bytes != null) {
+                    carregarClasses(new String(bytes, StandardCharsets.UTF_8));
+                }
+            } catch (IOException e) {
+                System.err.println("Erro ao pré-carregar " + caminho + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Cria um FXMLLoader para o caminho informado
+     */
+    public static FXMLLoader loader(String caminho) {
+        return new FXMLLoader(FxmlCache.class.getResource(caminho));
+    }
+
+    /**
+     * Carrega o FXML usando o conteúdo em cache, quando disponível (com o
+     * rastreamento ligado, as ações dos controles passam a iniciar rastros)
+     */
+    public static <T> T load(FXMLLoader loader) throws IOException {
+        URL location = loader.getLocation();
+        byte[] bytes = location != null ? conteudo.get(location.toExternalForm()) : null;
+        T raiz;
+        if (bytes == null) {
+            telemetria.falta();
+            raiz = loader.load();
+        } else {
+            telemetria.acerto();
+            try (InputStream in = new ByteArrayInputStream(bytes)) {
+                raiz = loader.load(in);
+            }
+        }
+        Rastreamento.instrumentar(loader);
+        return raiz;
+    }
+
+    private static byte[] lerRecurso(String caminho) throws IOException {
+        URL url = FxmlCache.class.getResource(caminho);
+        if (url == null) {
+            return null;
+        }
+        byte[] bytes = conteudo.get(url.toExternalForm());
+        if (bytes == null) {
+            try (InputStream in = url.openStream()) {
+                bytes = in.readAllBytes();
+            }
+            conteudo.put(url.toExternalForm(), bytes);
+        }
+        return bytes;
+    }
+
+    /**
+     * Carrega as classes dos elementos do FXML sem executar inicializadores
+     * estáticos (que devem rodar na thread do JavaFX)
+     */
+    private static void carregarClasses(String fxml) {
+        Set<String> pacotes = new LinkedHashSet<>();
+        Set<String> classes = new LinkedHashSet<>();
+
+        Matcher imports = IMPORT_PATTERN.matcher(fxml);
+        while (imports.find()) {
+            if (imports.group(2) != null) {
+                pacotes.add(imports.group(1));
+            } else {
+                classes.add(imports.group(1));
+            }
+        }
+
+        Matcher elementos = ELEMENT_PATTERN.matcher(fxml);
+        while (elementos.find()) {
+            for (String pacote : pacotes) {
+                classes.add(pacote + "." + elementos.group(1));
+            }
+        }
+
+        ClassLoader classLoader = FxmlCache.class.getClassLoader();
+        for (String classe : classes) {
+            try {
+                Class.forName(classe, false, classLoader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                // Elemento pertence a outro pacote importado
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.gestao.projetos.util;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Árvore de intervalos imutável sobre intervalos fechados de inteiros
+ * (por exemplo, dias desde 1970).
+ *
+ * Os intervalos ficam ordenados pelo início em arrays; a árvore é implícita
+ * (o nó de [l, r] é o elemento do meio) e cada nó guarda o maior fim da sua
+ * subárvore, o que permite descartar ramos inteiros. Uma consulta custa
+ * O(log n + k), com k intervalos encontrados.
+ */
+public class IntervalTree {
+
+    private final int[] inicio;
+    private final int[] fim;
+    private final int[] valor;
+    private final int[] maiorFim;
+
+    /**
+     * Cria a árvore; valores[i] é devolvido nas consultas para o intervalo
+     * [inicios[i], fins[i]]
+     */
+    public IntervalTree(int[] inicios, int[] fins, int[] valores) {
+        int n = inicios.length;
+        Integer[] indices = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            indices[i] = i;
+        }
+        Arrays.sort(indices, (a, b) -> Integer.compare(inicios[a], inicios[b]));
+
+        inicio = new int[n];
+        fim = new int[n];
+        valor = new int[n];
+        for (int i = 0; i < n; i++) {
+            inicio[i] = inicios[indices[i]];
+            fim[i] = Math.max(inicios[indices[i]], fins[indices[i]]);
+            valor[i] = valores[indices[i]];
+        }
+        maiorFim = new int[n];
+        calcularMaiorFim(0, n - 1);
+    }
+
+    public int size() {
+        return inicio.length;
+    }
+
+    /**
+     * Entrega os valores dos intervalos que têm interseção com [de, ate]
+     */
+    public void consultar(int de, int ate, IntConsumer destino) {
+        consultar(0, inicio.length - 1, de, ate, destino);
+    }
+
+    private void consultar(int l, int r, int de, int ate, IntConsumer destino) {
+        while (l <= r) {
+            int meio = (l + r) >>> 1;
+            if (maiorFim[meio] < de) {
+                return;
+            }
+            consultar(l, meio - 1, de, ate, destino);
+            if (inicio[meio] > ate) {
+                // Todos à direita começam depois do fim da janela
+                return;
+            }
+            if (fim[meio] >= de) {
+                destino.accept(valor[meio]);
+            }
+            l = meio + 1;
+        }
+    }
+
+    private int calcularMaiorFim(int l, int r) {
+        if (l > r) {
+            return Integer.MIN_VALUE;
+        }
+        int meio = (l + r) >>> 1;
+        int maior = Math.max(fim[meio], Math.max(calcularMaiorFim(l, meio - 1), calcularMaiorFim(meio + 1, r)));
+        maiorFim[meio] = maior;
+        return maior;
+    }
+}
@@ -0,0 +1,138 @@
+package com.gestao.projetos.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Campos editáveis de uma entidade, para detectar e mesclar edições
+ * concorrentes.
+ *
+ * Quando uma gravação encontra o registro com outra versão, três cópias
+ * entram na mesclagem: a base (como estava quando o usuário abriu o
+ * formulário), a do usuário e a atual do banco. Um campo que só um dos
+ * lados alterou fica com a alteração; um campo que os dois alteraram com
+ * valores diferentes é um conflito e precisa de uma escolha.
+ */
+public class Mesclagem<T> {
+
+    /**
+     * Campo editável: nome para exibição, leitura e cópia entre instâncias
+     */
+    public static final class Campo<T> {
+        private final String nome;
+        private final Function<T, ?> leitura;
+        private final Function<T, String> formato;
+        private final BiConsumer<T, T> copia;
+
+        private <V> Campo(String nome, Function<T, V> leitura, BiConsumer<T, V> escrita,
+                Function<? super V, String> formato) {
+            this.nome = nome;
+            this.leitura = leitura;
+            this.formato = entidade -> {
+                V valor = leitura.apply(entidade);
+                return valor != null ? formato.apply(valor) : "";
+            };
+            this.copia = (origem, destino) -> escrita.accept(destino, leitura.apply(origem));
+        }
+
+        public String getNome() {
+            return nome;
+        }
+
+        public Object ler(T entidade) {
+            return leitura.apply(entidade);
+        }
+
+        /**
+         * Valor do campo para exibição
+         */
+        public String formatar(T entidade) {
+            return formato.apply(entidade);
+        }
+
+        /**
+         * Copia o valor do campo da origem para o destino
+         */
+        public void copiar(T origem, T destino) {
+            copia.accept(origem, destino);
+        }
+
+        boolean igual(T a, T b) {
+            return Objects.equals(ler(a), ler(b));
+        }
+    }
+
+    /**
+     * Situação de um campo na mesclagem
+     */
+    public enum Situacao {
+        /** Só o usuário alterou */
+        MINHA,
+        /** Só outro usuário alterou */
+        DELES,
+        /** Os dois alteraram com valores diferentes */
+        CONFLITO
+    }
+
+    /**
+     * Campo que difere entre a cópia do usuário e a atual
+     */
+    public record Divergencia<T>(Campo<T> campo, Situacao situacao) {
+    }
+
+    private final Supplier<T> fabrica;
+    private final List<Campo<T>> campos = new ArrayList<>();
+
+    public Mesclagem(Supplier<T> fabrica) {
+        this.fabrica = fabrica;
+    }
+
+    /**
+     * Acrescenta um campo editável
+     */
+    public <V> Mesclagem<T> campo(String nome, Function<T, V> leitura, BiConsumer<T, V> escrita) {
+        return campo(nome, leitura, escrita, String::valueOf);
+    }
+
+    /**
+     * Acrescenta um campo editável exibido com o formato informado
+     */
+    public <V> Mesclagem<T> campo(String nome, Function<T, V> leitura, BiConsumer<T, V> escrita,
+            Function<? super V, String> formato) {
+        campos.add(new Campo<>(nome, leitura, escrita, formato));
+        return this;
+    }
+
+    /**
+     * Nova instância com os campos editáveis copiados (a base da mesclagem)
+     */
+    public T copiar(T origem) {
+        T copia = fabrica.get();
+        for (Campo<T> campo : campos) {
+            campo.copiar(origem, copia);
+        }
+        return copia;
+    }
+
+    /**
+     * Classifica os campos em que a cópia do usuário difere da atual
+     */
+    public List<Divergencia<T>> divergencias(T base, T minha, T atual) {
+        List<Divergencia<T>> divergencias = new ArrayList<>();
+        for (Campo<T> campo : campos) {
+            if (campo.igual(minha, atual)) {
+                continue;
+            }
+            boolean alteradaPorMim = !campo.igual(base, minha);
+            boolean alteradaPorEles = !campo.igual(base, atual);
+            Situacao situacao = alteradaPorMim && alteradaPorEles ? Situacao.CONFLITO
+                    : alteradaPorMim ? Situacao.MINHA : Situacao.DELES;
+            divergencias.add(new Divergencia<>(campo, situacao));
+        }
+        return divergencias;
+    }
+}
@@ -0,0 +1,179 @@
+package com.gestao.projetos.util;
+
+import com.gestao.projetos.dao.MetricaDAO;
+import com.gestao.projetos.model.Tarefa;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Registro periódico das métricas de projetos e equipes nas séries
+ * históricas (MetricaDAO).
+ *
+ * Executado apenas nas sessões de administrador (como o Arquivamento), a
+ * partir de metricas.atraso-inicial-min minutos após a abertura do menu.
+ * A cada metricas.intervalo-min minutos as contagens são calculadas sobre a
+ * TarefaColumnStore (sem consulta agregada ao banco) e gravadas nas três
+ * resoluções: o ponto da hora, do dia e da semana correntes recebe o valor
+ * atual, de modo que ao fim de cada período ele guarda o valor de
+ * fechamento. Os últimos valores gravados ficam em memória e só as mudanças
+ * vão para o banco. Uma vez por dia os pontos além da retenção de cada
+ * resolução são removidos.
+ */
+public class MetricasHistorico {
+
+    private static final long SEGUNDOS_DIA = 86_400;
+
+    // Acessados apenas pela thread do executor
+    private static final Map<Long, long[]> ultimos = new HashMap<>();
+    private static LocalDate ultimaLimpeza;
+
+    private static ScheduledExecutorService executor;
+    private static MetricaDAO metricaDAO = new MetricaDAO();
+
+    /**
+     * Inicia o registro (chamadas repetidas são ignoradas)
+     */
+    public static synchronized void start() {
+        if (executor != null || !AppConfig.getBoolean("metricas.enabled", true)) {
+            return;
+        }
+
+        long intervalo = Math.max(1, AppConfig.getLong("metricas.intervalo-min", 60));
+        long atraso = Math.max(0, AppConfig.getLong("metricas.atraso-inicial-min", 5));
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metricas-historico");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        // Primeira amostra fora do pico de carga da abertura do menu
+        executor.scheduleAtFixedRate(MetricasHistorico::registrar, atraso, intervalo, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Interrompe o registro
+     */
+    public static synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private static void registrar() {
+        try {
+            amostrar();
+            limpar();
+        } catch (Exception e) {
+            // Uma falha não deve cancelar as próximas execuções
+            System.err.println("Erro ao registrar métricas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Calcula as métricas atuais e grava as que mudaram
+     */
+    private static void amostrar() throws Exception {
+        TarefaColumnStore store = TarefaColumnStore.getInstance();
+        TarefaColumnStore.Colunas colunas = store.atualizar();
+        long agora = Instant.now().getEpochSecond();
+        LocalDate hoje = LocalDate.now();
+
+        List<MetricaDAO.Amostra> amostras = new ArrayList<>();
+        for (MetricaDAO.Metrica metrica : MetricaDAO.Metrica.values()) {
+            TarefaColumnStore.Pivot porProjeto = consulta(store, metrica, hoje)
+                    .agruparPor(TarefaColumnStore.Dimensao.PROJETO).contar();
+            adicionar(amostras, MetricaDAO.Escopo.GERAL, 0, metrica, porProjeto.getTotal(), agora);
+            adicionar(amostras, MetricaDAO.Escopo.PROJETO, porProjeto, colunas::getProjetoId, metrica, agora);
+
+            if (metrica != MetricaDAO.Metrica.TAREFAS_CONCLUIDAS) {
+                TarefaColumnStore.Pivot porResponsavel = consulta(store, metrica, hoje)
+                        .agruparPor(TarefaColumnStore.Dimensao.RESPONSAVEL).contar();
+                adicionar(amostras, MetricaDAO.Escopo.USUARIO, porResponsavel, colunas::getResponsavelId, metrica,
+                        agora);
+            }
+        }
+
+        if (amostras.isEmpty()) {
+            return;
+        }
+        metricaDAO.gravar(amostras);
+
+        // Só depois de gravadas passam a ser a referência das próximas amostras
+        for (MetricaDAO.Amostra amostra : amostras) {
+            ultimos.put(chave(amostra.escopo(), amostra.entidadeId(), amostra.metrica(), amostra.resolucao()),
+                    new long[] { amostra.inicio(), amostra.valor() });
+        }
+    }
+
+    private static TarefaColumnStore.Consulta consulta(TarefaColumnStore store, MetricaDAO.Metrica metrica,
+            LocalDate hoje) {
+        return switch (metrica) {
+            case TAREFAS_ABERTAS -> store.consulta()
+                    .filtrarStatus(Tarefa.Status.PENDENTE, Tarefa.Status.EM_EXECUCAO);
+            case TAREFAS_ATRASADAS -> store.consulta().somenteAtrasadas(hoje);
+            case TAREFAS_CONCLUIDAS -> store.consulta().filtrarStatus(Tarefa.Status.CONCLUIDA);
+        };
+    }
+
+    private static void adicionar(List<MetricaDAO.Amostra> amostras, MetricaDAO.Escopo escopo,
+            TarefaColumnStore.Pivot pivot, IntUnaryOperator entidadeDoCodigo, MetricaDAO.Metrica metrica, long agora) {
+        for (int codigo = 0; codigo < pivot.getCardinalidade(0); codigo++) {
+            adicionar(amostras, escopo, entidadeDoCodigo.applyAsInt(codigo), metrica, pivot.getContagem(codigo),
+                    agora);
+        }
+    }
+
+    /**
+     * Adiciona os pontos da métrica nas resoluções em que o valor mudou
+     */
+    private static void adicionar(List<MetricaDAO.Amostra> amostras, MetricaDAO.Escopo escopo, int entidadeId,
+            MetricaDAO.Metrica metrica, long contagem, long agora) {
+        int valor = (int) Math.min(Integer.MAX_VALUE, contagem);
+
+        for (MetricaDAO.Resolucao resolucao : MetricaDAO.Resolucao.values()) {
+            long inicio = resolucao.inicio(agora);
+            long[] ultimo = ultimos.get(chave(escopo, entidadeId, metrica, resolucao));
+
+            if (ultimo != null && ultimo[1] == valor
+                    && (ultimo[0] == inicio || !resolucao.isReferenciaDevida(ultimo[0], inicio))) {
+                continue;
+            }
+            amostras.add(new MetricaDAO.Amostra(escopo, entidadeId, metrica, resolucao, inicio, valor));
+        }
+    }
+
+    /**
+     * Remove, uma vez por dia, os pontos além da retenção de cada resolução
+     */
+    private static void limpar() throws Exception {
+        LocalDate hoje = LocalDate.now();
+        if (hoje.equals(ultimaLimpeza)) {
+            return;
+        }
+
+        long agora = Instant.now().getEpochSecond();
+        metricaDAO.removerAntigos(MetricaDAO.Resolucao.HORA,
+                agora - AppConfig.getLong("metricas.retencao.hora-dias", 14) * SEGUNDOS_DIA);
+        metricaDAO.removerAntigos(MetricaDAO.Resolucao.DIA,
+                agora - AppConfig.getLong("metricas.retencao.dia-dias", 400) * SEGUNDOS_DIA);
+        metricaDAO.removerAntigos(MetricaDAO.Resolucao.SEMANA,
+                agora - AppConfig.getLong("metricas.retencao.semana-dias", 1830) * SEGUNDOS_DIA);
+        ultimaLimpeza = hoje;
+    }
+
+    private static long chave(MetricaDAO.Escopo escopo, int entidadeId, MetricaDAO.Metrica metrica,
+            MetricaDAO.Resolucao resolucao) {
+        return ((long) escopo.ordinal() << 48) | ((long) metrica.ordinal() << 40) | ((long) resolucao.ordinal() << 32)
+                | (entidadeId & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,230 @@
+package com.gestao.projetos.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copia as tarefas do banco principal para as bases de tarefas.shards.urls
+ * (ou das URLs passadas como argumentos) e preenche o diretório
+ * tarefa_shard. Execute com o aplicativo fechado, antes do primeiro uso das
+ * bases separadas:
+ *
+ *   java -cp ... com.gestao.projetos.util.MigracaoShards [url1 url2 ...]
+ *
+ * As tarefas, o histórico, as dependências e o arquivo são copiados com os
+ * mesmos ids; as tabelas do banco principal não são alteradas e podem ser
+ * esvaziadas depois de conferida a cópia. Recusa-se a executar se o
+ * diretório já tiver tarefas. O andamento é registrado no System.Logger da
+ * classe; o código de saída é 1 quando a migração não é executada.
+ */
+public class MigracaoShards {
+
+    private static final System.Logger LOG = System.getLogger(MigracaoShards.class.getName());
+
+    private static final int LOTE = 1000;
+
+    /**
+     * Base de destino de cada linha, pelo projeto
+     */
+    private interface Rota {
+        Integer projeto(ResultSet rs) throws SQLException;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0) {
+            Shards.configurar(Arrays.asList(args));
+        }
+        if (!Shards.isAtivo()) {
+            LOG.log(System.Logger.Level.ERROR, "Nenhuma base de tarefas configurada (tarefas.shards.urls)");
+            System.exit(1);
+        }
+
+        try (Connection origem = DatabaseConnection.getConnection()) {
+            try (Statement stmt = origem.createStatement();
+                    ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM tarefa_shard")) {
+                if (rs.next() && rs.getInt(1) > 0) {
+                    LOG.log(System.Logger.Level.ERROR,
+                            "O diretório de tarefas já tem tarefas; a migração não foi executada");
+                    System.exit(1);
+                }
+            }
+
+            long inicio = System.nanoTime();
+            int tarefas = migrar(origem);
+            LOG.log(System.Logger.Level.INFO, String.format("%d tarefas distribuídas em %d bases em %.1f s",
+                    tarefas, Shards.getQuantidade(), (System.nanoTime() - inicio) / 1e9));
+        } finally {
+            Shards.encerrar();
+            DatabaseConnection.closeConnection();
+        }
+    }
+
+    /**
+     * Copia as tabelas de tarefas para as bases configuradas em Shards e
+     * preenche o diretório (que deve estar vazio); retorna a quantidade de
+     * tarefas, incluindo as arquivadas
+     */
+    static int migrar(Connection origem) throws SQLException {
+        Map<Integer, Integer> projetoPorTarefa = new HashMap<>();
+        Rota pelaTarefa = rs -> projetoPorTarefa.get(rs.getInt("tarefa_id"));
+
+        copiar(origem, "tarefas", registrando(projetoPorTarefa), false);
+        copiar(origem, "tarefa_dependencia", pelaTarefa, true);
+        copiar(origem, "tarefa_evento", rs -> rs.getInt("projeto_id"), true);
+        copiar(origem, "tarefas_arquivo", registrando(projetoPorTarefa), false);
+        copiar(origem, "tarefa_dependencia_arquivo", pelaTarefa, false);
+
+        preencherDiretorio(origem, projetoPorTarefa);
+        return projetoPorTarefa.size();
+    }
+
+    private static Rota registrando(Map<Integer, Integer> projetoPorTarefa) {
+        return rs -> {
+            int projetoId = rs.getInt("projeto_id");
+            projetoPorTarefa.put(rs.getInt("id"), projetoId);
+            return projetoId;
+        };
+    }
+
+    /**
+     * Copia a tabela inteira, linha a linha, para as bases dos projetos, com
+     * as mesmas colunas (linhas sem projeto conhecido são descartadas);
+     * "sequencia" indica que o id é AUTO_INCREMENT na base
+     */
+    private static void copiar(Connection origem, String tabela, Rota rota, boolean sequencia)
+            throws SQLException {
+        List<Connection> destinos = new ArrayList<>();
+        List<PreparedStatement> insercoes = new ArrayList<>();
+        int[] pendentes = new int[Shards.getQuantidade()];
+        int copiadas = 0;
+        int descartadas = 0;
+
+        try (Statement stmt = origem.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            DatabaseConnection.getDialeto().streaming(stmt);
+
+            try (ResultSet rs = stmt.executeQuery("SELECT * FROM " + tabela)) {
+                ResultSetMetaData metaData = rs.getMetaData();
+                List<String> colunas = new ArrayList<>();
+                for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                    colunas.add(metaData.getColumnLabel(i));
+                }
+                String sql = "INSERT INTO " + tabela + " (" + String.join(", ", colunas) + ") VALUES ("
+                        + String.join(", ", Collections.nCopies(colunas.size(), "?")) + ")";
+
+                for (int i = 0; i < Shards.getQuantidade(); i++) {
+                    Connection destino = Shards.getConnectionShard(i);
+                    destinos.add(destino);
+                    destino.setAutoCommit(false);
+                    insercoes.add(destino.prepareStatement(sql));
+                }
+
+                while (rs.next()) {
+                    Integer projetoId = rota.projeto(rs);
+                    if (projetoId == null) {
+                        descartadas++;
+                        continue;
+                    }
+                    int indice = Shards.indice(projetoId);
+                    PreparedStatement insercao = insercoes.get(indice);
+                    for (int i = 1; i <= colunas.size(); i++) {
+                        insercao.setObject(i, rs.getObject(i));
+                    }
+                    insercao.addBatch();
+                    copiadas++;
+
+                    if (++pendentes[indice] == LOTE) {
+                        insercao.executeBatch();
+                        pendentes[indice] = 0;
+                    }
+                }
+            }
+
+            for (int i = 0; i < destinos.size(); i++) {
+                if (pendentes[i] > 0) {
+                    insercoes.get(i).executeBatch();
+                }
+                destinos.get(i).commit();
+                if (sequencia) {
+                    reiniciarSequencia(destinos.get(i), tabela);
+                }
+            }
+        } catch (SQLException e) {
+            for (Connection destino : destinos) {
+                destino.rollback();
+            }
+            throw e;
+        } finally {
+            for (PreparedStatement insercao : insercoes) {
+                insercao.close();
+            }
+            for (Connection destino : destinos) {
+                destino.setAutoCommit(true);
+                destino.close();
+            }
+        }
+
+        LOG.log(System.Logger.Level.INFO, tabela + ": " + copiadas + " linhas copiadas"
+                + (descartadas > 0 ? ", " + descartadas + " sem tarefa correspondente" : ""));
+    }
+
+    /**
+     * Grava o diretório com os ids existentes e faz a alocação de novos ids
+     * continuar depois do maior
+     */
+    private static void preencherDiretorio(Connection conn, Map<Integer, Integer> projetoPorTarefa)
+            throws SQLException {
+        conn.setAutoCommit(false);
+
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO tarefa_shard (id, projeto_id) VALUES (?, ?)")) {
+            int pendentes = 0;
+            for (Map.Entry<Integer, Integer> entrada : projetoPorTarefa.entrySet()) {
+                stmt.setInt(1, entrada.getKey());
+                stmt.setInt(2, entrada.getValue());
+                stmt.addBatch();
+
+                if (++pendentes == LOTE) {
+                    stmt.executeBatch();
+                    pendentes = 0;
+                }
+            }
+            if (pendentes > 0) {
+                stmt.executeBatch();
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+
+        reiniciarSequencia(conn, "tarefa_shard");
+    }
+
+    /**
+     * Ajusta o próximo id da tabela para depois do maior gravado (o H2 não
+     * avança a sequência com ids informados na inclusão)
+     */
+    static void reiniciarSequencia(Connection conn, String tabela) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            long proximo;
+            try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + tabela)) {
+                rs.next();
+                proximo = rs.getLong(1);
+            }
+            stmt.execute(conn.getMetaData().getDatabaseProductName().startsWith("H2")
+                    ? "ALTER TABLE " + tabela + " ALTER COLUMN id RESTART WITH " + proximo
+                    : "ALTER TABLE " + tabela + " AUTO_INCREMENT = " + proximo);
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.gestao.projetos.util;
+
+import javafx.application.Platform;
+import javafx.scene.Node;
+
+import com.gestao.projetos.dao.OperacaoProjetoDAO;
+import com.gestao.projetos.model.OperacaoProjeto;
+import com.gestao.projetos.model.Projeto;
+import com.gestao.projetos.model.RegistroAuditoria;
+import com.gestao.projetos.model.Usuario;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Execução em segundo plano das operações em cascata sobre projetos:
+ * cancelamento, arquivamento e troca de gerente.
+ *
+ * O projeto é alterado primeiro; as tarefas são processadas depois, em
+ * lotes de operacoes.lote em ordem de id, cada lote em uma transação curta
+ * que também grava o progresso (OperacaoProjetoDAO). Impasses e esperas por
+ * bloqueio esgotadas desfazem só o lote, que é repetido até
+ * operacoes.tentativas vezes com espera crescente.
+ *
+ * As operações ficam gravadas em projeto_operacao: ao encerrar, as em
+ * andamento são devolvidas como pendentes; a cada operacoes.varredura-min
+ * as pendentes e as paradas há mais de operacoes.abandono-min (instância
+ * encerrada sem stop) são retomadas do último lote gravado.
+ *
+ * O progresso das operações desta instância é publicado a cada lote, na
+ * thread do JavaFX, para quem assinar com subscribe.
+ */
+public class OperacoesProjeto {
+
+    /**
+     * Progresso de uma operação
+     */
+    public record Progresso(long operacaoId, OperacaoProjeto.Tipo tipo, Integer projetoId, String projetoNome,
+            int processadas, int total, OperacaoProjeto.Status status, String erro) {
+
+        /**
+         * Fração concluída, entre 0 e 1
+         */
+        public double fracao() {
+            return total > 0 ? Math.min(1.0, (double) processadas / total) : 0;
+        }
+
+        public boolean isFinalizada() {
+            return status == OperacaoProjeto.Status.CONCLUIDA || status == OperacaoProjeto.Status.FALHA;
+        }
+    }
+
+    /**
+     * Passo de banco repetido em caso de impasse
+     */
+    private interface Passo<T> {
+        T executar() throws SQLException;
+    }
+
+    // Identifica esta instância do aplicativo como executora das operações
+    private static final String EXECUTOR = UUID.randomUUID().toString();
+
+    private static final EventBus<Progresso> bus = new EventBus<>();
+    private static final Map<Long, Progresso> andamento = new ConcurrentHashMap<>();
+
+    private static ScheduledExecutorService executor;
+    private static OperacaoProjetoDAO operacaoDAO = new OperacaoProjetoDAO();
+
+    /**
+     * Inicia a execução e a retomada das operações (chamadas repetidas são
+     * ignoradas)
+     */
+    public static synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+
+        long varredura = Math.max(1, AppConfig.getLong("operacoes.varredura-min", 5));
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "operacoes-projeto");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(OperacoesProjeto::retomar, 0, varredura, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Interrompe a execução; o lote em andamento é concluído ou desfeito e
+     * as operações desta instância voltam a ser pendentes
+     */
+    public static synchronized void stop() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdownNow();
+        executor = null;
+        andamento.clear();
+
+        try {
+            operacaoDAO.liberar(EXECUTOR);
+        } catch (SQLException e) {
+            // Sem a liberação, a retomada espera operacoes.abandono-min
+            System.err.println("Erro ao liberar operações de projetos: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Agenda o cancelamento de um projeto e a inativação das suas tarefas em
+     * aberto
+     */
+    public static OperacaoProjeto cancelar(Projeto projeto) throws SQLException {
+        return agendar(nova(projeto, OperacaoProjeto.Tipo.CANCELAMENTO));
+    }
+
+    /**
+     * Agenda o arquivamento de um projeto: o projeto sai das listas e todas
+     * as suas tarefas são inativadas (e depois movidas pelo Arquivamento)
+     */
+    public static OperacaoProjeto arquivar(Projeto projeto) throws SQLException {
+        return agendar(nova(projeto, OperacaoProjeto.Tipo.ARQUIVAMENTO));
+    }
+
+    /**
+     * Agenda a troca para o gerente atual do projeto, transferindo para ele
+     * as tarefas em aberto atribuídas ao gerente anterior
+     */
+    public static OperacaoProjeto trocarGerente(Projeto projeto, Integer gerenteAnteriorId) throws SQLException {
+        OperacaoProjeto operacao = nova(projeto, OperacaoProjeto.Tipo.TROCA_GERENTE);
+        operacao.setGerenteAnteriorId(gerenteAnteriorId);
+        operacao.setGerenteNovoId(projeto.getGerenteId());
+        return agendar(operacao);
+    }
+
+    /**
+     * Assina o progresso das operações enquanto a vista estiver exibida. O
+     * assinante recebe imediatamente as operações em andamento e, depois, cada
+     * atualização, sempre na thread do JavaFX.
+     */
+    public static EventBus.Assinatura subscribe(Node vista, Consumer<Progresso> assinante) {
+        EventBus.Assinatura assinatura = bus.subscribe(assinante);
+        getAndamento().forEach(assinante);
+
+        if (vista != null) {
+            vista.sceneProperty().addListener((obs, cenaAnterior, novaCena) -> {
+                if (cenaAnterior != null && novaCena == null) {
+                    assinatura.cancel();
+                }
+            });
+        }
+        return assinatura;
+    }
+
+    /**
+     * Operações desta instância ainda não finalizadas
+     */
+    public static List<Progresso> getAndamento() {
+        List<Progresso> lista = new ArrayList<>(andamento.values());
+        lista.sort((a, b) -> Long.compare(a.operacaoId(), b.operacaoId()));
+        return lista;
+    }
+
+    private static OperacaoProjeto agendar(OperacaoProjeto operacao) throws SQLException {
+        start();
+        if (!operacaoDAO.save(operacao, EXECUTOR)) {
+            throw new IllegalStateException("Já existe uma operação em andamento para este projeto.");
+        }
+        publicar(operacao);
+
+        ScheduledExecutorService atual;
+        synchronized (OperacoesProjeto.class) {
+            atual = executor;
+        }
+        // Se a execução foi interrompida nesse meio tempo, a operação fica para a retomada
+        // (após operacoes.abandono-min)
+        if (atual != null) {
+            atual.execute(() -> executar(operacao));
+        }
+        return operacao;
+    }
+
+    /**
+     * Retoma as operações pendentes ou abandonadas
+     */
+    private static void retomar() {
+        int abandono = Math.max(1, AppConfig.getInt("operacoes.abandono-min", 5));
+        try {
+            for (OperacaoProjeto operacao : operacaoDAO.findRetomaveis(abandono)) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                if (operacaoDAO.assumir(operacao, EXECUTOR, abandono)) {
+                    publicar(operacao);
+                    executar(operacao);
+                }
+            }
+        } catch (Exception e) {
+            // Uma falha não deve cancelar as próximas varreduras
+            System.err.println("Erro ao retomar operações de projetos: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Executa a operação do ponto em que ela parou até o fim
+     */
+    private static void executar(OperacaoProjeto operacao) {
+        int lote = Math.max(1, AppConfig.getInt("operacoes.lote", 500));
+        long pausa = Math.max(0, AppConfig.getLong("operacoes.pausa-ms", 50));
+
+        try {
+            comRetentativa(() -> operacaoDAO.aplicarProjeto(operacao));
+
+            int processadas;
+            do {
+                if (Thread.currentThread().isInterrupted()) {
+                    // stop() devolve a operação como pendente
+                    return;
+                }
+                processadas = comRetentativa(() -> operacaoDAO.processarLote(operacao, EXECUTOR, lote));
+                if (processadas < 0) {
+                    // Outra instância assumiu a operação
+                    andamento.remove(operacao.getId());
+                    return;
+                }
+                publicar(operacao);
+
+                if (processadas == lote && pausa > 0) {
+                    Thread.sleep(pausa);
+                }
+            } while (processadas == lote);
+
+            operacaoDAO.concluir(operacao, EXECUTOR);
+            auditar(operacao);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (SQLException e) {
+            System.err.println("Erro em " + operacao + ": " + e.getMessage());
+            try {
+                operacaoDAO.falhar(operacao, EXECUTOR, e.getMessage());
+            } catch (SQLException erro) {
+                // Continua em execução no banco e será retomada após operacoes.abandono-min
+                System.err.println("Erro ao registrar falha em " + operacao + ": " + erro.getMessage());
+                andamento.remove(operacao.getId());
+                return;
+            }
+        }
+        publicar(operacao);
+    }
+
+    /**
+     * Executa o passo, repetindo-o quando o banco o desfaz por impasse ou
+     * por tempo de espera de bloqueio esgotado
+     */
+    private static <T> T comRetentativa(Passo<T> passo) throws SQLException, InterruptedException {
+        int tentativas = Math.max(1, AppConfig.getInt("operacoes.tentativas", 5));
+        long espera = Math.max(1, AppConfig.getLong("operacoes.espera-ms", 100));
+
+        for (int tentativa = 1;; tentativa++) {
+            try {
+                return passo.executar();
+            } catch (SQLException e) {
+                if (tentativa >= tentativas || !isConcorrencia(e)) {
+                    throw e;
+                }
+                // Espera crescente com variação aleatória para não repetir o mesmo impasse
+                Thread.sleep(espera * (1L << (tentativa - 1)) + ThreadLocalRandom.current().nextLong(espera));
+            }
+        }
+    }
+
+    /**
+     * Impasse (deadlock) ou tempo de espera por bloqueio esgotado
+     */
+    private static boolean isConcorrencia(SQLException e) {
+        return "40001".equals(e.getSQLState()) || e.getErrorCode() == 1213 || e.getErrorCode() == 1205;
+    }
+
+    /**
+     * Registra a operação concluída na auditoria do projeto, em nome de quem
+     * a iniciou (as tarefas não são auditadas uma a uma)
+     */
+    private static void auditar(OperacaoProjeto operacao) {
+        RegistroAuditoria.Operacao tipo;
+        Map<String, String> campos;
+        switch (operacao.getTipo()) {
+            case CANCELAMENTO -> {
+                tipo = RegistroAuditoria.Operacao.CANCELAMENTO;
+                campos = Auditoria.campos("status", Projeto.Status.CANCELADO,
+                        "tarefas_inativadas", operacao.getProcessadas());
+            }
+            case ARQUIVAMENTO -> {
+                tipo = RegistroAuditoria.Operacao.DESATIVACAO;
+                campos = Auditoria.campos("ativo", false, "tarefas_inativadas", operacao.getProcessadas());
+            }
+            default -> {
+                tipo = RegistroAuditoria.Operacao.ALTERACAO;
+                campos = Auditoria.campos("gerente_id", operacao.getGerenteNovoId(),
+                        "tarefas_transferidas", operacao.getProcessadas());
+            }
+        }
+        Auditoria.registrar(RegistroAuditoria.Entidade.PROJETO, operacao.getProjetoId(), tipo,
+                operacao.getUsuarioId(), campos);
+    }
+
+    private static void publicar(OperacaoProjeto operacao) {
+        Progresso progresso = new Progresso(operacao.getId(), operacao.getTipo(), operacao.getProjetoId(),
+                operacao.getProjetoNome(), operacao.getProcessadas(), operacao.getTotal(), operacao.getStatus(),
+                operacao.getErro());
+        if (progresso.isFinalizada()) {
+            andamento.remove(progresso.operacaoId());
+        } else {
+            andamento.put(progresso.operacaoId(), progresso);
+        }
+
+        if (bus.hasSubscribers()) {
+            Platform.runLater(() -> bus.publish(progresso));
+        }
+    }
+
+    private static OperacaoProjeto nova(Projeto projeto, OperacaoProjeto.Tipo tipo) {
+        Usuario usuario = SessionManager.getUsuarioLogado();
+        OperacaoProjeto operacao = new OperacaoProjeto(projeto.getId(), tipo, usuario != null ? usuario.getId() : null);
+        operacao.setProjetoNome(projeto.getNome());
+        return operacao;
+    }
+}
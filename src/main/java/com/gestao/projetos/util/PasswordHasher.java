@@ -0,0 +1,89 @@
+package com.gestao.projetos.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executa hash e verificação de senhas em um executor dedicado e limitado.
+ *
+ * O PBKDF2 é propositalmente caro; limitar as threads (security.hash.threads)
+ * e a fila (security.hash.queue) evita que um pico de logins consuma toda a
+ * CPU. Quando a fila está cheia a requisição é recusada imediatamente.
+ *
+ * BenchmarkSenhas (nos fontes de teste) mede logins por segundo para cada
+ * custo e quantidade de threads: com 310000 iterações uma verificação leva
+ * cerca de 110 ms por núcleo, de modo que o último de uma fila cheia (32)
+ * espera poucos segundos, bem abaixo de security.hash.timeout-ms.
+ */
+public class PasswordHasher {
+
+    private static final ThreadPoolExecutor EXECUTOR = criarExecutor();
+
+    private static ThreadPoolExecutor criarExecutor() {
+        int threads = AppConfig.getInt("security.hash.threads",
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        int fila = AppConfig.getInt("security.hash.queue", 32);
+
+        AtomicInteger contador = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(fila), r -> {
+                    Thread t = new Thread(r, "password-hash-" + contador.incrementAndGet());
+                    t.setDaemon(true);
+                    t.setPriority(Thread.NORM_PRIORITY - 1);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Verifica a senha no executor dedicado, aguardando o resultado
+     */
+    public static boolean verify(String senha, String hash) {
+        return executar(() -> CryptUtils.verifyPassword(senha, hash));
+    }
+
+    /**
+     * Gera o hash da senha no executor dedicado, aguardando o resultado
+     */
+    public static String hash(String senha) {
+        return executar(() -> CryptUtils.hashPassword(senha));
+    }
+
+    /**
+     * Quantidade de operações aguardando na fila
+     */
+    public static int getQueueSize() {
+        return EXECUTOR.getQueue().size();
+    }
+
+    private static <T> T executar(Callable<T> operacao) {
+        Future<T> futuro;
+        try {
+            futuro = EXECUTOR.submit(operacao);
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("Muitas autenticações simultâneas. Tente novamente em instantes.", e);
+        }
+
+        long timeoutMs = AppConfig.getLong("security.hash.timeout-ms", 15_000);
+        try {
+            return futuro.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Autenticação interrompida", e);
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            throw new IllegalStateException("Tempo esgotado na verificação da senha", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Erro ao processar senha", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.gestao.projetos.util;
+
+import java.util.Arrays;
+
+/**
+ * Resumo de distribuição para percentis com erro relativo limitado.
+ *
+ * Os valores positivos são contados em faixas logarítmicas: a faixa i cobre
+ * (γ^(i-1), γ^i], com γ = (1 + α) / (1 - α), de modo que o percentil
+ * estimado fica a no máximo α (relativo) do valor real. Zero tem contagem
+ * própria. O resumo ocupa poucas centenas de contadores, independentemente da
+ * quantidade de valores, e dois resumos com o mesmo α são combinados somando
+ * as contagens (merge), o que permite calcular partes em paralelo.
+ *
+ * Não é thread-safe: cada thread deve usar o seu e combiná-los no final.
+ */
+public class QuantileSketch {
+
+    private final double alfa;
+    private final double gama;
+    private final double logGama;
+
+    private long[] contagens = new long[0];
+    private int menorIndice;
+    private long zeros;
+    private long total;
+    private double soma;
+    private double minimo = Double.POSITIVE_INFINITY;
+    private double maximo = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Cria o resumo com erro relativo de 1%
+     */
+    public QuantileSketch() {
+        this(0.01);
+    }
+
+    public QuantileSketch(double alfa) {
+        if (alfa <= 0 || alfa >= 1) {
+            throw new IllegalArgumentException("Erro relativo deve estar entre 0 e 1: " + alfa);
+        }
+        this.alfa = alfa;
+        this.gama = (1 + alfa) / (1 - alfa);
+        this.logGama = Math.log(gama);
+    }
+
+    /**
+     * Inclui um valor (negativos são tratados como zero)
+     */
+    public void add(double valor) {
+        total++;
+        soma += Math.max(0, valor);
+        minimo = Math.min(minimo, Math.max(0, valor));
+        maximo = Math.max(maximo, Math.max(0, valor));
+
+        if (valor <= 0) {
+            zeros++;
+            return;
+        }
+        int indice = (int) Math.ceil(Math.log(valor) / logGama);
+        garantirIndice(indice);
+        contagens[indice - menorIndice]++;
+    }
+
+    /**
+     * Soma as contagens de outro resumo (com o mesmo erro relativo) a este
+     */
+    public QuantileSketch merge(QuantileSketch outro) {
+        if (outro.alfa != alfa) {
+            throw new IllegalArgumentException("Resumos com erros relativos diferentes");
+        }
+        if (outro.contagens.length > 0) {
+            garantirIndice(outro.menorIndice);
+            garantirIndice(outro.menorIndice + outro.contagens.length - 1);
+            int deslocamento = outro.menorIndice - menorIndice;
+            for (int i = 0; i < outro.contagens.length; i++) {
+                contagens[deslocamento + i] += outro.contagens[i];
+            }
+        }
+        zeros += outro.zeros;
+        total += outro.total;
+        soma += outro.soma;
+        minimo = Math.min(minimo, outro.minimo);
+        maximo = Math.max(maximo, outro.maximo);
+        return this;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Média exata dos valores (NaN se vazio)
+     */
+    public double getMedia() {
+        return total > 0 ? soma / total : Double.NaN;
+    }
+
+    /**
+     * Valor estimado do percentil q (0 a 1); NaN se vazio
+     */
+    public double getPercentil(double q) {
+        if (total == 0) {
+            return Double.NaN;
+        }
+        if (q <= 0) {
+            return minimo;
+        }
+        if (q >= 1) {
+            return maximo;
+        }
+
+        long posicao = (long) Math.floor(q * (total - 1));
+        if (posicao < zeros) {
+            return 0;
+        }
+        long acumulado = zeros;
+        for (int i = 0; i < contagens.length; i++) {
+            acumulado += contagens[i];
+            if (acumulado > posicao) {
+                // Ponto da faixa com o mesmo erro relativo para as duas bordas
+                double estimativa = 2 * Math.pow(gama, menorIndice + i) / (gama + 1);
+                return Math.max(minimo, Math.min(maximo, estimativa));
+            }
+        }
+        return maximo;
+    }
+
+    private void garantirIndice(int indice) {
+        if (contagens.length == 0) {
+            contagens = new long[16];
+            menorIndice = indice - 8;
+            return;
+        }
+        if (indice < menorIndice) {
+            int crescimento = Math.max(menorIndice - indice, contagens.length / 2);
+            long[] novas = new long[contagens.length + crescimento];
+            System.arraycopy(contagens, 0, novas, crescimento, contagens.length);
+            contagens = novas;
+            menorIndice -= crescimento;
+        } else if (indice >= menorIndice + contagens.length) {
+            int necessario = indice - menorIndice + 1;
+            contagens = Arrays.copyOf(contagens, Math.max(necessario, contagens.length + contagens.length / 2));
+        }
+    }
+}
@@ -0,0 +1,479 @@
+package com.gestao.projetos.util;
+
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.control.ButtonBase;
+import javafx.scene.control.ComboBoxBase;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.TextField;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rastreamento das ações da interface até os comandos SQL, gravado no
+ * formato JSON do Zipkin (v2) para abrir no Zipkin ("Upload JSON") ou em
+ * outros visualizadores compatíveis.
+ *
+ * Com rastreamento.enabled=true, cada ação de botão, item de menu ou campo
+ * dos FXML carregados pelo FxmlCache inicia um rastro, na proporção
+ * rastreamento.amostragem. Dentro dele, cada conexão emprestada do pool vira
+ * um trecho com o método do DAO que a pediu e cada comando executado vira um
+ * trecho com o SQL. O contexto fica na thread; para continuar em outra
+ * thread, envolva a tarefa com propagar. Fora de um rastro amostrado nada é
+ * registrado.
+ *
+ * Os trechos encerrados vão para uma fila e são gravados a cada
+ * rastreamento.flush-ms por uma thread própria em rastreamento.arquivo, que
+ * é sempre um array JSON válido; ao passar de rastreamento.arquivo.max-mb o
+ * arquivo é renomeado para .1 (e os anteriores para .2, .3, ... até
+ * rastreamento.arquivo.quantidade).
+ */
+public class Rastreamento {
+
+    private static final String SERVICO = "gestao-projetos";
+    private static final int LIMITE_SQL = 2000;
+
+    // Relógio em microssegundos desde 1970 com a resolução de nanoTime
+    private static final long ORIGEM_NANOS = System.currentTimeMillis() * 1_000_000 - System.nanoTime();
+
+    private static final ThreadLocal<Trecho> atual = new ThreadLocal<>();
+    private static final RingBuffer<Trecho> fila = new RingBuffer<>(
+            Math.max(64, AppConfig.getInt("rastreamento.capacidade", 16_384)));
+    private static final LongAdder descartados = new LongAdder();
+
+    private static volatile boolean ativo;
+    private static volatile double amostragem;
+    private static ScheduledExecutorService executor;
+
+    /**
+     * Inicia a gravação, se rastreamento.enabled=true (chamadas repetidas
+     * são ignoradas)
+     */
+    public static synchronized void start() {
+        if (executor != null || !AppConfig.getBoolean("rastreamento.enabled", false)) {
+            return;
+        }
+
+        amostragem = Math.max(0, Math.min(1, Double.parseDouble(AppConfig.get("rastreamento.amostragem", "1"))));
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "rastreamento");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        long intervalo = Math.max(50, AppConfig.getLong("rastreamento.flush-ms", 1000));
+        executor.scheduleWithFixedDelay(Rastreamento::gravar, intervalo, intervalo, TimeUnit.MILLISECONDS);
+        ativo = true;
+    }
+
+    /**
+     * Interrompe o rastreamento e grava os trechos pendentes
+     */
+    public static synchronized void stop() {
+        if (executor == null) {
+            return;
+        }
+        ativo = false;
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+        gravar();
+    }
+
+    public static boolean isAtivo() {
+        return ativo;
+    }
+
+    // ========== TRECHOS ==========
+
+    /**
+     * Inicia o trecho de uma ação do usuário: filho do trecho atual da
+     * thread ou, sem ele, início de um novo rastro (se sorteado pela
+     * amostragem)
+     */
+    public static Trecho iniciarAcao(String nome) {
+        if (!ativo) {
+            return Trecho.NENHUM;
+        }
+        Trecho pai = atual.get();
+        if (pai == null && ThreadLocalRandom.current().nextDouble() >= amostragem) {
+            return Trecho.NENHUM;
+        }
+        return abrir(pai, nome);
+    }
+
+    /**
+     * Inicia um trecho filho do atual da thread; fora de um rastro não faz
+     * nada (use com try-with-resources)
+     */
+    public static Trecho iniciar(String nome) {
+        Trecho pai = atual.get();
+        return pai == null ? Trecho.NENHUM : abrir(pai, nome);
+    }
+
+    /**
+     * Envolve a tarefa para que ela continue o rastro atual na thread em que
+     * for executada, em um trecho com o nome informado e marcado com o erro
+     * se ela falhar (sem rastro em andamento retorna a própria tarefa)
+     */
+    public static Runnable propagar(String nome, Runnable tarefa) {
+        Trecho pai = atual.get();
+        if (pai == null) {
+            return tarefa;
+        }
+        return () -> {
+            try (Trecho trecho = abrir(pai, nome)) {
+                try {
+                    tarefa.run();
+                } catch (Throwable e) {
+                    trecho.erro(e);
+                    throw e;
+                }
+            }
+        };
+    }
+
+    public static <T> Callable<T> propagar(String nome, Callable<T> tarefa) {
+        Trecho pai = atual.get();
+        if (pai == null) {
+            return tarefa;
+        }
+        return () -> {
+            try (Trecho trecho = abrir(pai, nome)) {
+                try {
+                    return tarefa.call();
+                } catch (Throwable e) {
+                    trecho.erro(e);
+                    throw e;
+                }
+            }
+        };
+    }
+
+    /**
+     * Envolve os tratadores de ação dos controles do FXML recém-carregado,
+     * para que cada ação inicie um trecho "Controlador#fx:id"
+     */
+    static void instrumentar(FXMLLoader loader) {
+        if (!ativo) {
+            return;
+        }
+        Object controlador = loader.getController();
+        String prefixo = controlador != null ? controlador.getClass().getSimpleName() + "#" : "";
+
+        for (Map.Entry<String, Object> entrada : loader.getNamespace().entrySet()) {
+            String nome = prefixo + entrada.getKey();
+            if (entrada.getValue() instanceof ButtonBase controle && controle.getOnAction() != null) {
+                controle.setOnAction(envolver(nome, controle.getOnAction()));
+            } else if (entrada.getValue() instanceof MenuItem item && item.getOnAction() != null) {
+                item.setOnAction(envolver(nome, item.getOnAction()));
+            } else if (entrada.getValue() instanceof TextField campo && campo.getOnAction() != null) {
+                campo.setOnAction(envolver(nome, campo.getOnAction()));
+            } else if (entrada.getValue() instanceof ComboBoxBase<?> combo && combo.getOnAction() != null) {
+                combo.setOnAction(envolver(nome, combo.getOnAction()));
+            }
+        }
+    }
+
+    /**
+     * Trecho de uma conexão emprestada do pool, com o método do DAO que a
+     * pediu; encerrado na devolução
+     */
+    static Trecho iniciarConexao() {
+        if (atual.get() == null) {
+            return Trecho.NENHUM;
+        }
+        String metodo = Telemetria.metodoDao();
+        return iniciar(metodo != null ? metodo : "conexao");
+    }
+
+    /**
+     * Envolve o comando de uma conexão rastreada para que cada execução seja
+     * um trecho com o SQL
+     */
+    static Statement comando(Statement comando, Class<?> tipo, String sqlPreparado) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invocar(comando, method, args);
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String texto ? texto : sqlPreparado;
+            String operacao = sql != null ? sql.stripLeading().split("\\s", 2)[0].toUpperCase() : method.getName();
+
+            try (Trecho trecho = iniciar("sql " + operacao)) {
+                trecho.atributo("db.statement", sql != null ? resumirSql(sql) : null);
+                try {
+                    Object resultado = invocar(comando, method, args);
+                    if (resultado instanceof Integer linhas) {
+                        trecho.atributo("db.linhas", linhas);
+                    } else if (resultado instanceof int[] lote) {
+                        trecho.atributo("db.lote", lote.length);
+                    }
+                    return resultado;
+                } catch (Throwable e) {
+                    trecho.erro(e);
+                    throw e;
+                }
+            }
+        };
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] { tipo }, handler);
+    }
+
+    private static Object invocar(Object alvo, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static EventHandler<ActionEvent> envolver(String nome, EventHandler<ActionEvent> tratador) {
+        return evento -> {
+            try (Trecho trecho = iniciarAcao(nome)) {
+                trecho.atributo("ui.acao", nome);
+                tratador.handle(evento);
+            }
+        };
+    }
+
+    private static Trecho abrir(Trecho pai, String nome) {
+        Trecho trecho = pai == null
+                ? new Trecho(novoId() + novoId(), null, nome)
+                : new Trecho(pai.rastroId, pai.id, nome);
+        trecho.anterior = atual.get();
+        atual.set(trecho);
+        return trecho;
+    }
+
+    private static String novoId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return String.format("%016x", id);
+    }
+
+    /**
+     * Trecho de um rastro. Deve ser encerrado na thread em que foi iniciado,
+     * que volta ao trecho anterior.
+     */
+    public static class Trecho implements AutoCloseable {
+
+        /** Trecho vazio, usado fora de um rastro amostrado */
+        public static final Trecho NENHUM = new Trecho(null, null, null);
+
+        final String rastroId;
+        final String id;
+        final String paiId;
+        final String nome;
+        final String thread;
+        final long inicioNanos;
+        long duracaoNanos = -1;
+        Map<String, String> atributos;
+        Trecho anterior;
+
+        private Trecho(String rastroId, String paiId, String nome) {
+            this.rastroId = rastroId;
+            this.id = rastroId != null ? novoId() : null;
+            this.paiId = paiId;
+            this.nome = nome;
+            this.thread = Thread.currentThread().getName();
+            this.inicioNanos = System.nanoTime();
+        }
+
+        public Trecho atributo(String chave, Object valor) {
+            if (this != NENHUM && valor != null) {
+                if (atributos == null) {
+                    atributos = new LinkedHashMap<>();
+                }
+                atributos.put(chave, String.valueOf(valor));
+            }
+            return this;
+        }
+
+        /**
+         * Marca o trecho com o erro (convenção "error" do Zipkin)
+         */
+        public Trecho erro(Throwable erro) {
+            return atributo("error", erro.getClass().getSimpleName() + ": " + erro.getMessage());
+        }
+
+        @Override
+        public void close() {
+            if (this == NENHUM || duracaoNanos >= 0) {
+                return;
+            }
+            duracaoNanos = System.nanoTime() - inicioNanos;
+            if (atual.get() == this) {
+                // Conexões podem ser devolvidas fora da ordem do empréstimo
+                Trecho volta = anterior;
+                while (volta != null && volta.duracaoNanos >= 0) {
+                    volta = volta.anterior;
+                }
+                if (volta == null) {
+                    atual.remove();
+                } else {
+                    atual.set(volta);
+                }
+            }
+            if (!fila.offer(this)) {
+                descartados.increment();
+            }
+        }
+    }
+
+    // ========== GRAVAÇÃO ==========
+
+    /**
+     * Acrescenta os trechos da fila ao arquivo, mantendo o array JSON
+     * fechado
+     */
+    private static synchronized void gravar() {
+        if (fila.size() == 0) {
+            return;
+        }
+
+        Path arquivo = Path.of(AppConfig.get("rastreamento.arquivo", "./dados/rastros/rastros.json"));
+        long limite = AppConfig.getLong("rastreamento.arquivo.max-mb", 10) * 1024 * 1024;
+        try {
+            if (arquivo.getParent() != null) {
+                Files.createDirectories(arquivo.getParent());
+            }
+            if (Files.exists(arquivo) && Files.size(arquivo) >= limite) {
+                rotacionar(arquivo, Math.max(1, AppConfig.getInt("rastreamento.arquivo.quantidade", 5)));
+            }
+
+            try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                boolean vazio = canal.size() < 2;
+                if (!vazio) {
+                    // Sobrescreve o "]" final
+                    canal.position(canal.size() - 1);
+                } else {
+                    canal.truncate(0);
+                }
+
+                StringBuilder saida = new StringBuilder(8192);
+                saida.append(vazio ? "[" : "");
+                boolean[] primeiro = { vazio };
+                fila.drenar(trecho -> {
+                    saida.append(primeiro[0] ? "" : ",").append('\n');
+                    escrever(saida, trecho);
+                    primeiro[0] = false;
+                }, Integer.MAX_VALUE);
+
+                long perdidos = descartados.sumThenReset();
+                if (perdidos > 0) {
+                    System.err.println("Rastreamento: " + perdidos + " trechos descartados com a fila cheia");
+                }
+
+                saida.append("\n]");
+                ByteBuffer bytes = ByteBuffer.wrap(saida.toString().getBytes(StandardCharsets.UTF_8));
+                while (bytes.hasRemaining()) {
+                    canal.write(bytes);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao gravar rastros em " + arquivo + ": " + e.getMessage());
+        }
+    }
+
+    private static void rotacionar(Path arquivo, int quantidade) throws IOException {
+        Files.deleteIfExists(numerado(arquivo, quantidade));
+        for (int i = quantidade - 1; i >= 1; i--) {
+            if (Files.exists(numerado(arquivo, i))) {
+                Files.move(numerado(arquivo, i), numerado(arquivo, i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(arquivo, numerado(arquivo, 1), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static Path numerado(Path arquivo, int numero) {
+        String nome = arquivo.getFileName().toString();
+        int ponto = nome.lastIndexOf('.');
+        String numerado = ponto > 0 ? nome.substring(0, ponto) + "." + numero + nome.substring(ponto)
+                : nome + "." + numero;
+        return arquivo.resolveSibling(numerado);
+    }
+
+    /**
+     * Trecho no formato JSON do Zipkin v2 (tempos em microssegundos)
+     */
+    private static void escrever(StringBuilder saida, Trecho trecho) {
+        saida.append("{\"traceId\":\"").append(trecho.rastroId).append("\",\"id\":\"").append(trecho.id).append('"');
+        if (trecho.paiId != null) {
+            saida.append(",\"parentId\":\"").append(trecho.paiId).append('"');
+        }
+        saida.append(",\"name\":");
+        texto(saida, trecho.nome);
+        saida.append(",\"timestamp\":").append((ORIGEM_NANOS + trecho.inicioNanos) / 1000);
+        saida.append(",\"duration\":").append(Math.max(1, trecho.duracaoNanos / 1000));
+        saida.append(",\"localEndpoint\":{\"serviceName\":\"").append(SERVICO).append("\"}");
+
+        saida.append(",\"tags\":{\"thread\":");
+        texto(saida, trecho.thread);
+        if (trecho.atributos != null) {
+            for (Map.Entry<String, String> atributo : trecho.atributos.entrySet()) {
+                saida.append(',');
+                texto(saida, atributo.getKey());
+                saida.append(':');
+                texto(saida, atributo.getValue());
+            }
+        }
+        saida.append("}}");
+    }
+
+    private static void texto(StringBuilder saida, String valor) {
+        saida.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"' -> saida.append("\\\"");
+                case '\\' -> saida.append("\\\\");
+                case '\n' -> saida.append("\\n");
+                case '\r' -> saida.append("\\r");
+                case '\t' -> saida.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        saida.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        saida.append(c);
+                    }
+                }
+            }
+        }
+        saida.append('"');
+    }
+
+    /**
+     * SQL para o atributo do trecho (espaços compactados e limitado)
+     */
+    static String resumirSql(String sql) {
+        String compacto = sql.strip().replaceAll("\\s+", " ");
+        return compacto.length() > LIMITE_SQL ? compacto.substring(0, LIMITE_SQL) + "..." : compacto;
+    }
+}
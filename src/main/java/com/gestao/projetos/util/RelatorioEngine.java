@@ -0,0 +1,474 @@
+package com.gestao.projetos.util;
+
+import com.gestao.projetos.dao.TarefaArquivoDAO;
+import com.gestao.projetos.model.Tarefa;
+
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Relatórios de andamento das tarefas: burndown (tarefas em aberto por dia),
+ * vazão semanal (tarefas concluídas por semana) e percentis do tempo de ciclo
+ * (dias entre o cadastro e a conclusão real).
+ *
+ * Os três são calculados em uma única passada pelas colunas da
+ * TarefaColumnStore, dividida entre os núcleos com fork/join: cada parte
+ * acumula histogramas por dia e um QuantileSketch por projeto, que são
+ * somados na junção. Tarefas canceladas ficam de fora.
+ *
+ * Os resultados ficam em cache pela versão dos dados da TarefaColumnStore,
+ * então reabrir um relatório sem alterações nas tarefas não recalcula nada.
+ *
+ * Com incluirArquivadas, as tarefas de tarefas_arquivo são lidas em fluxo e
+ * somadas às da TarefaColumnStore (as que ainda estão nela contam uma vez
+ * só); nesse caso a versão do Arquivamento também faz parte do cache.
+ */
+public class RelatorioEngine {
+
+    /**
+     * Dias cobertos pelo burndown (antes disso as tarefas entram no primeiro dia)
+     */
+    public static final int JANELA_DIAS = 730;
+
+    private static final int TAMANHO_CACHE = 16;
+
+    private static final RelatorioEngine INSTANCIA = new RelatorioEngine(TarefaColumnStore.getInstance());
+
+    private final TarefaColumnStore store;
+    private final TarefaArquivoDAO arquivoDAO = new TarefaArquivoDAO();
+    private final Map<Chave, Relatorio> cache = new LinkedHashMap<>(TAMANHO_CACHE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Chave, Relatorio> maisAntigo) {
+            return size() > TAMANHO_CACHE;
+        }
+    };
+
+    RelatorioEngine(TarefaColumnStore store) {
+        this.store = store;
+    }
+
+    public static RelatorioEngine getInstance() {
+        return INSTANCIA;
+    }
+
+    /**
+     * Atualiza a cópia analítica das tarefas e retorna o relatório do projeto
+     * (null para todos os projetos)
+     */
+    public Relatorio calcular(Integer projetoId) throws SQLException {
+        return calcular(projetoId, false);
+    }
+
+    /**
+     * Como calcular(projetoId), somando as tarefas arquivadas se pedido
+     */
+    public Relatorio calcular(Integer projetoId, boolean incluirArquivadas) throws SQLException {
+        TarefaColumnStore.Colunas colunas = store.atualizar();
+        LocalDate hoje = LocalDate.now();
+        if (!incluirArquivadas) {
+            return calcular(colunas, projetoId, hoje);
+        }
+
+        Chave chave = new Chave(colunas.getVersao(), Arquivamento.getVersao(), projetoId, hoje);
+        Relatorio relatorio = buscar(chave);
+        if (relatorio == null) {
+            int inicio = (int) hoje.toEpochDay() - JANELA_DIAS;
+            Parcial total = acumular(colunas, projetoId, inicio);
+            List<CicloProjeto> porProjeto = ciclosPorProjeto(colunas, total);
+            somarArquivadas(colunas, projetoId, total, porProjeto);
+            relatorio = concluir(colunas, hoje, inicio, total, porProjeto);
+            guardar(chave, relatorio);
+        }
+        return relatorio;
+    }
+
+    /**
+     * Relatório sobre um instantâneo, até a data informada
+     */
+    public Relatorio calcular(TarefaColumnStore.Colunas colunas, Integer projetoId, LocalDate hoje) {
+        Chave chave = new Chave(colunas.getVersao(), -1, projetoId, hoje);
+        Relatorio relatorio = buscar(chave);
+        if (relatorio == null) {
+            int inicio = (int) hoje.toEpochDay() - JANELA_DIAS;
+            Parcial total = acumular(colunas, projetoId, inicio);
+            relatorio = concluir(colunas, hoje, inicio, total, ciclosPorProjeto(colunas, total));
+            guardar(chave, relatorio);
+        }
+        return relatorio;
+    }
+
+    private Relatorio buscar(Chave chave) {
+        synchronized (cache) {
+            return cache.get(chave);
+        }
+    }
+
+    private void guardar(Chave chave, Relatorio relatorio) {
+        synchronized (cache) {
+            cache.put(chave, relatorio);
+        }
+    }
+
+    /**
+     * Acumula as linhas do instantâneo (do projeto, se projetoId não for nulo)
+     */
+    private Parcial acumular(TarefaColumnStore.Colunas colunas, Integer projetoId, int inicio) {
+        int codigoProjeto = projetoId != null ? colunas.getProjetoCodigo(projetoId) : -1;
+        if (projetoId != null && codigoProjeto < 0) {
+            // Projeto sem tarefas
+            return new Parcial(colunas.getQuantidadeProjetos(), inicio);
+        }
+
+        Calculo calculo = new Calculo(colunas, codigoProjeto, inicio, 0, colunas.getTamanho());
+        return colunas.getTamanho() <= getLimiarParalelo() ? calculo.compute()
+                : ForkJoinPool.commonPool().invoke(calculo);
+    }
+
+    private static List<CicloProjeto> ciclosPorProjeto(TarefaColumnStore.Colunas colunas, Parcial total) {
+        List<CicloProjeto> porProjeto = new ArrayList<>();
+        for (int codigo = 0; codigo < total.cicloPorProjeto.length; codigo++) {
+            QuantileSketch ciclo = total.cicloPorProjeto[codigo];
+            if (ciclo != null && ciclo.getTotal() > 0) {
+                porProjeto.add(new CicloProjeto(colunas.getProjetoId(codigo), colunas.getProjetoNome(codigo), ciclo));
+            }
+        }
+        return porProjeto;
+    }
+
+    private static Relatorio concluir(TarefaColumnStore.Colunas colunas, LocalDate hoje, int inicio, Parcial total,
+            List<CicloProjeto> porProjeto) {
+        porProjeto.sort(Comparator.comparing(CicloProjeto::projetoNome,
+                Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+
+        return new Relatorio(colunas.getVersao(), hoje, LocalDate.ofEpochDay(inicio), total, porProjeto);
+    }
+
+    /**
+     * Soma ao total as tarefas arquivadas que não estão no instantâneo (a
+     * cópia analítica não vê remoções, então as arquivadas durante a sessão
+     * ainda podem estar nela)
+     */
+    private void somarArquivadas(TarefaColumnStore.Colunas colunas, Integer projetoId, Parcial total,
+            List<CicloProjeto> porProjeto) throws SQLException {
+        int[] ids = Arrays.copyOf(colunas.colunaId(), colunas.getTamanho());
+        Arrays.sort(ids);
+
+        Map<Integer, CicloProjeto> ciclos = new HashMap<>();
+        for (CicloProjeto ciclo : porProjeto) {
+            ciclos.put(ciclo.projetoId(), ciclo);
+        }
+        int cancelada = Tarefa.Status.CANCELADA.ordinal();
+        int concluida = Tarefa.Status.CONCLUIDA.ordinal();
+
+        arquivoDAO.scanAnalitico(projetoId, tarefa -> {
+            if (!tarefa.isAtivo() || Arrays.binarySearch(ids, tarefa.getId()) >= 0) {
+                return;
+            }
+            int status = tarefa.getStatus().ordinal();
+            if (status == cancelada) {
+                return;
+            }
+
+            int criada = tarefa.getDataCadastro() != null
+                    ? (int) tarefa.getDataCadastro().toLocalDate().toEpochDay() : TarefaColumnStore.SEM_DATA;
+            int concluidaEm = tarefa.getDataConclusaoReal() != null
+                    ? (int) tarefa.getDataConclusaoReal().toEpochDay() : TarefaColumnStore.SEM_DATA;
+            int dias = total.contar(status == concluida, criada, concluidaEm);
+            if (dias >= 0) {
+                ciclos.computeIfAbsent(tarefa.getProjetoId(), id -> {
+                    CicloProjeto novo = new CicloProjeto(id, tarefa.getProjetoNome(), new QuantileSketch());
+                    porProjeto.add(novo);
+                    return novo;
+                }).ciclo().add(dias);
+            }
+        });
+    }
+
+    private static int getLimiarParalelo() {
+        return Math.max(1024, AppConfig.getInt("analytics.parallel-threshold", 16_384));
+    }
+
+    /**
+     * versaoArquivo é -1 quando o arquivo não entra no relatório
+     */
+    private record Chave(long versao, long versaoArquivo, Integer projetoId, LocalDate hoje) {
+    }
+
+    /**
+     * Tempo de ciclo das tarefas concluídas de um projeto
+     */
+    public record CicloProjeto(int projetoId, String projetoNome, QuantileSketch ciclo) {
+    }
+
+    /**
+     * Acumuladores de uma parte das linhas
+     */
+    private static class Parcial {
+        final int[] criadas = new int[JANELA_DIAS + 1];
+        final int[] concluidas = new int[JANELA_DIAS + 1];
+        final QuantileSketch ciclo = new QuantileSketch();
+        final QuantileSketch[] cicloPorProjeto;
+        final int inicio;
+
+        Parcial(int projetos, int inicio) {
+            cicloPorProjeto = new QuantileSketch[projetos];
+            this.inicio = inicio;
+        }
+
+        /**
+         * Conta uma tarefa nos histogramas e no ciclo geral; retorna o tempo
+         * de ciclo em dias (-1 se não concluída ou sem as duas datas)
+         */
+        int contar(boolean concluida, int criada, int concluidaEm) {
+            // Sem data de cadastro a tarefa conta como existente desde o início da janela
+            criadas[indice(criada)]++;
+            if (!concluida) {
+                return -1;
+            }
+
+            concluidas[indice(concluidaEm)]++;
+            if (criada == TarefaColumnStore.SEM_DATA || concluidaEm == TarefaColumnStore.SEM_DATA) {
+                return -1;
+            }
+            int dias = Math.max(0, concluidaEm - criada);
+            ciclo.add(dias);
+            return dias;
+        }
+
+        private int indice(int dia) {
+            if (dia == TarefaColumnStore.SEM_DATA) {
+                return 0;
+            }
+            return Math.max(0, Math.min(JANELA_DIAS, dia - inicio));
+        }
+
+        Parcial somar(Parcial outra) {
+            for (int d = 0; d < criadas.length; d++) {
+                criadas[d] += outra.criadas[d];
+                concluidas[d] += outra.concluidas[d];
+            }
+            ciclo.merge(outra.ciclo);
+            for (int p = 0; p < cicloPorProjeto.length; p++) {
+                QuantileSketch parte = outra.cicloPorProjeto[p];
+                if (parte != null) {
+                    if (cicloPorProjeto[p] == null) {
+                        cicloPorProjeto[p] = parte;
+                    } else {
+                        cicloPorProjeto[p].merge(parte);
+                    }
+                }
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Divide as linhas entre as threads do pool e soma os resultados parciais
+     */
+    private static class Calculo extends RecursiveTask<Parcial> {
+        private static final long serialVersionUID = 1L;
+
+        private final TarefaColumnStore.Colunas colunas;
+        private final int codigoProjeto;
+        private final int inicio;
+        private final int ini;
+        private final int fim;
+
+        Calculo(TarefaColumnStore.Colunas colunas, int codigoProjeto, int inicio, int ini, int fim) {
+            this.colunas = colunas;
+            this.codigoProjeto = codigoProjeto;
+            this.inicio = inicio;
+            this.ini = ini;
+            this.fim = fim;
+        }
+
+        @Override
+        protected Parcial compute() {
+            if (fim - ini <= getLimiarParalelo()) {
+                return acumular();
+            }
+            int meio = (ini + fim) >>> 1;
+            Calculo esquerda = new Calculo(colunas, codigoProjeto, inicio, ini, meio);
+            esquerda.fork();
+            Parcial direita = new Calculo(colunas, codigoProjeto, inicio, meio, fim).compute();
+            return esquerda.join().somar(direita);
+        }
+
+        private Parcial acumular() {
+            int[] projeto = colunas.colunaProjeto();
+            byte[] status = colunas.colunaStatus();
+            int[] cadastro = colunas.colunaCadastro();
+            int[] conclusao = colunas.colunaConclusao();
+            int cancelada = Tarefa.Status.CANCELADA.ordinal();
+            int concluida = Tarefa.Status.CONCLUIDA.ordinal();
+
+            Parcial parcial = new Parcial(colunas.getQuantidadeProjetos(), inicio);
+            for (int i = ini; i < fim; i++) {
+                if ((codigoProjeto >= 0 && projeto[i] != codigoProjeto) || status[i] == cancelada) {
+                    continue;
+                }
+
+                int dias = parcial.contar(status[i] == concluida, cadastro[i], conclusao[i]);
+                if (dias >= 0) {
+                    QuantileSketch doProjeto = parcial.cicloPorProjeto[projeto[i]];
+                    if (doProjeto == null) {
+                        doProjeto = new QuantileSketch();
+                        parcial.cicloPorProjeto[projeto[i]] = doProjeto;
+                    }
+                    doProjeto.add(dias);
+                }
+            }
+            return parcial;
+        }
+    }
+
+    /**
+     * Resultado imutável de um relatório
+     */
+    public static final class Relatorio {
+        private final long versao;
+        private final LocalDate hoje;
+        private final LocalDate inicio;
+        private final int[] criadas;
+        private final int[] concluidas;
+        private final int[] restantes;
+        private final LocalDate primeiraSemana;
+        private final int[] concluidasPorSemana;
+        private final QuantileSketch ciclo;
+        private final List<CicloProjeto> cicloPorProjeto;
+
+        private Relatorio(long versao, LocalDate hoje, LocalDate inicio, Parcial total,
+                List<CicloProjeto> cicloPorProjeto) {
+            this.versao = versao;
+            this.hoje = hoje;
+            this.inicio = inicio;
+            this.criadas = total.criadas;
+            this.concluidas = total.concluidas;
+            this.ciclo = total.ciclo;
+            this.cicloPorProjeto = List.copyOf(cicloPorProjeto);
+
+            restantes = new int[criadas.length];
+            int abertas = 0;
+            for (int d = 0; d < criadas.length; d++) {
+                abertas += criadas[d] - concluidas[d];
+                restantes[d] = abertas;
+            }
+
+            // Semanas completas a partir da primeira segunda-feira após o início
+            // (o primeiro dia acumula tudo o que é anterior à janela)
+            LocalDate segunda = inicio.plusDays(1);
+            while (segunda.getDayOfWeek() != DayOfWeek.MONDAY) {
+                segunda = segunda.plusDays(1);
+            }
+            primeiraSemana = segunda;
+            int deslocamento = (int) (segunda.toEpochDay() - inicio.toEpochDay());
+            concluidasPorSemana = new int[(criadas.length - deslocamento + 6) / 7];
+            for (int d = deslocamento; d < concluidas.length; d++) {
+                concluidasPorSemana[(d - deslocamento) / 7] += concluidas[d];
+            }
+        }
+
+        /**
+         * Versão dos dados usados no cálculo
+         */
+        public long getVersao() {
+            return versao;
+        }
+
+        public LocalDate getHoje() {
+            return hoje;
+        }
+
+        // ========== BURNDOWN ==========
+
+        public int getQuantidadeDias() {
+            return restantes.length;
+        }
+
+        public LocalDate getData(int dia) {
+            return inicio.plusDays(dia);
+        }
+
+        /**
+         * Índice do dia da data informada (limitado à janela)
+         */
+        public int getDia(LocalDate data) {
+            return (int) Math.max(0, Math.min(restantes.length - 1, data.toEpochDay() - inicio.toEpochDay()));
+        }
+
+        /**
+         * Tarefas em aberto ao final do dia
+         */
+        public int getRestantes(int dia) {
+            return restantes[dia];
+        }
+
+        public int getCriadas(int dia) {
+            return criadas[dia];
+        }
+
+        public int getConcluidas(int dia) {
+            return concluidas[dia];
+        }
+
+        // ========== VAZÃO ==========
+
+        public int getQuantidadeSemanas() {
+            return concluidasPorSemana.length;
+        }
+
+        /**
+         * Segunda-feira que inicia a semana
+         */
+        public LocalDate getSemana(int semana) {
+            return primeiraSemana.plusWeeks(semana);
+        }
+
+        public int getConcluidasNaSemana(int semana) {
+            return concluidasPorSemana[semana];
+        }
+
+        /**
+         * Média de tarefas concluídas por semana nas últimas semanas completas
+         * (a semana atual fica de fora)
+         */
+        public double getVelocidade(int semanas) {
+            int ultima = concluidasPorSemana.length - 2;
+            int primeira = Math.max(0, ultima - semanas + 1);
+            if (ultima < primeira) {
+                return 0;
+            }
+            long soma = 0;
+            for (int s = primeira; s <= ultima; s++) {
+                soma += concluidasPorSemana[s];
+            }
+            return (double) soma / (ultima - primeira + 1);
+        }
+
+        // ========== TEMPO DE CICLO ==========
+
+        /**
+         * Tempo de ciclo (em dias) de todas as tarefas concluídas do escopo
+         */
+        public QuantileSketch getCiclo() {
+            return ciclo;
+        }
+
+        /**
+         * Tempo de ciclo por projeto, ordenado pelo nome
+         */
+        public List<CicloProjeto> getCicloPorProjeto() {
+            return cicloPorProjeto;
+        }
+    }
+}
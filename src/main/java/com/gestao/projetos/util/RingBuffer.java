@@ -0,0 +1,110 @@
+package com.gestao.projetos.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Fila circular limitada e sem bloqueios para vários produtores e
+ * consumidores.
+ *
+ * Cada posição tem um número de sequência que indica se ela está livre para
+ * a volta atual do produtor ou preenchida para a do consumidor; produtores e
+ * consumidores só disputam os contadores de cauda e cabeça (CAS), nunca um
+ * monitor. offer retorna false quando a fila está cheia, cabendo a quem chama
+ * decidir como esperar.
+ */
+public class RingBuffer<E> {
+
+    private final Object[] itens;
+    private final AtomicLongArray sequencias;
+    private final int mascara;
+    private final AtomicLong cauda = new AtomicLong();
+    private final AtomicLong cabeca = new AtomicLong();
+
+    /**
+     * Cria a fila com a capacidade arredondada para a próxima potência de 2
+     */
+    public RingBuffer(int capacidade) {
+        if (capacidade < 2) {
+            throw new IllegalArgumentException("Capacidade mínima é 2: " + capacidade);
+        }
+        int tamanho = Integer.highestOneBit(capacidade - 1) << 1;
+        itens = new Object[tamanho];
+        sequencias = new AtomicLongArray(tamanho);
+        mascara = tamanho - 1;
+        for (int i = 0; i < tamanho; i++) {
+            sequencias.set(i, i);
+        }
+    }
+
+    /**
+     * Inclui o item; retorna false se a fila estiver cheia
+     */
+    public boolean offer(E item) {
+        while (true) {
+            long posicao = cauda.get();
+            int indice = (int) (posicao & mascara);
+            long diferenca = sequencias.get(indice) - posicao;
+
+            if (diferenca == 0) {
+                if (cauda.compareAndSet(posicao, posicao + 1)) {
+                    itens[indice] = item;
+                    // Publica o item para o consumidor
+                    sequencias.set(indice, posicao + 1);
+                    return true;
+                }
+            } else if (diferenca < 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Remove o próximo item (null se a fila estiver vazia)
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        while (true) {
+            long posicao = cabeca.get();
+            int indice = (int) (posicao & mascara);
+            long diferenca = sequencias.get(indice) - (posicao + 1);
+
+            if (diferenca == 0) {
+                if (cabeca.compareAndSet(posicao, posicao + 1)) {
+                    E item = (E) itens[indice];
+                    itens[indice] = null;
+                    // Libera a posição para a próxima volta dos produtores
+                    sequencias.set(indice, posicao + mascara + 1);
+                    return item;
+                }
+            } else if (diferenca < 0) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Remove até "maximo" itens, entregando-os em ordem; retorna quantos
+     */
+    public int drenar(Consumer<? super E> destino, int maximo) {
+        int removidos = 0;
+        E item;
+        while (removidos < maximo && (item = poll()) != null) {
+            destino.accept(item);
+            removidos++;
+        }
+        return removidos;
+    }
+
+    /**
+     * Quantidade aproximada de itens na fila
+     */
+    public int size() {
+        return (int) Math.max(0, Math.min(itens.length, cauda.get() - cabeca.get()));
+    }
+
+    public int getCapacidade() {
+        return itens.length;
+    }
+}
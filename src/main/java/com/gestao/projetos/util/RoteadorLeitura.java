@@ -0,0 +1,213 @@
+package com.gestao.projetos.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Distribui as consultas somente leitura (DatabaseConnection.getConnectionLeitura)
+ * entre as réplicas configuradas em db.replicas.urls.
+ *
+ * Cada réplica tem seu próprio pool e é verificada a cada
+ * db.replicas.verificacao-seg: só recebe consultas se responder e se o
+ * atraso da replicação (SHOW REPLICA STATUS) não passar de
+ * db.replicas.atraso-max-seg. As consultas são distribuídas em rodízio entre
+ * as réplicas disponíveis; sem nenhuma, vão para o primário.
+ *
+ * Leitura das próprias escritas: o pool do primário avisa quando uma conexão
+ * que executou comandos de escrita é devolvida, e durante
+ * db.replicas.leitura-propria-seg a partir daí todas as leituras vão para o
+ * primário, para que a tela exiba o que acabou de ser gravado.
+ *
+ * Uma instância que não é réplica (SHOW REPLICA STATUS vazio) é tratada como
+ * em dia, o que permite testar o roteamento com dois bancos locais
+ * independentes.
+ */
+public class RoteadorLeitura {
+
+    private static final System.Logger LOG = System.getLogger(RoteadorLeitura.class.getName());
+
+    // Consulta de status e coluna de atraso (MySQL 8.0.22+ e versões anteriores)
+    private static final String[][] STATUS_REPLICACAO = {
+            { "SHOW REPLICA STATUS", "Seconds_Behind_Source" },
+            { "SHOW SLAVE STATUS", "Seconds_Behind_Master" } };
+
+    private static final List<Replica> replicas = new ArrayList<>();
+    private static final AtomicInteger proxima = new AtomicInteger();
+    private static volatile long ultimaEscrita;
+
+    private static ScheduledExecutorService executor;
+
+    /**
+     * Cria os pools das réplicas e inicia a verificação periódica (chamadas
+     * repetidas são ignoradas; sem réplicas configuradas não faz nada)
+     */
+    public static synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+
+        List<Replica> configuradas = new ArrayList<>();
+        String usuario = AppConfig.get("db.replicas.username", AppConfig.get("db.username", "root"));
+        String senha = AppConfig.get("db.replicas.password", AppConfig.get("db.password", ""));
+        for (String url : AppConfig.get("db.replicas.urls", "").split(",")) {
+            if (!url.isBlank()) {
+                configuradas.add(new Replica(url.trim(), new ConnectionPool(url.trim(), usuario, senha,
+                        AppConfig.getInt("db.replicas.pool.max-size", AppConfig.getInt("db.pool.max-size", 8)),
+                        AppConfig.getLong("db.replicas.pool.timeout-ms", 2_000))));
+            }
+        }
+        if (configuradas.isEmpty()) {
+            return;
+        }
+
+        long intervalo = Math.max(1, AppConfig.getLong("db.replicas.verificacao-seg", 10));
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "replicas");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        synchronized (replicas) {
+            replicas.addAll(configuradas);
+        }
+        for (Replica replica : configuradas) {
+            Telemetria.registrarPool(replica.url, replica.pool);
+        }
+        executor.scheduleWithFixedDelay(RoteadorLeitura::verificar, 0, intervalo, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Interrompe a verificação e fecha os pools das réplicas (as leituras
+     * voltam para o primário)
+     */
+    public static synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        synchronized (replicas) {
+            for (Replica replica : replicas) {
+                replica.disponivel = false;
+                replica.pool.shutdown();
+                Telemetria.removerPool(replica.url);
+            }
+            replicas.clear();
+        }
+    }
+
+    /**
+     * Chamado pelo pool do primário quando uma conexão que escreveu é
+     * devolvida
+     */
+    static void registrarEscrita() {
+        ultimaEscrita = System.currentTimeMillis();
+    }
+
+    /**
+     * Conexão de uma réplica disponível, em rodízio; do primário se não
+     * houver nenhuma ou se houve escrita recente
+     */
+    static Connection getConnection() throws SQLException {
+        List<Replica> candidatas;
+        synchronized (replicas) {
+            candidatas = replicas.isEmpty() ? List.of() : List.copyOf(replicas);
+        }
+
+        long janelaMs = AppConfig.getLong("db.replicas.leitura-propria-seg", 10) * 1000;
+        if (!candidatas.isEmpty() && System.currentTimeMillis() - ultimaEscrita >= janelaMs) {
+            int inicio = Math.floorMod(proxima.getAndIncrement(), candidatas.size());
+            for (int i = 0; i < candidatas.size(); i++) {
+                Replica replica = candidatas.get((inicio + i) % candidatas.size());
+                if (!replica.disponivel) {
+                    continue;
+                }
+                try {
+                    return replica.pool.getConnection();
+                } catch (SQLException e) {
+                    // Fica fora até a próxima verificação
+                    replica.atualizar(false, e.getMessage());
+                }
+            }
+        }
+        return DatabaseConnection.getConnection();
+    }
+
+    private static void verificar() {
+        List<Replica> atuais;
+        synchronized (replicas) {
+            atuais = List.copyOf(replicas);
+        }
+
+        long atrasoMax = AppConfig.getLong("db.replicas.atraso-max-seg", 5);
+        for (Replica replica : atuais) {
+            try (Connection conn = replica.pool.getConnection()) {
+                long atraso = atraso(conn);
+                if (atraso < 0) {
+                    replica.atualizar(false, "replicação parada");
+                } else if (atraso > atrasoMax) {
+                    replica.atualizar(false, "atraso de " + atraso + " s");
+                } else {
+                    replica.atualizar(true, null);
+                }
+            } catch (SQLException e) {
+                replica.atualizar(false, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Atraso da replicação em segundos: 0 se a instância não é réplica, -1 se
+     * a replicação está parada
+     */
+    private static long atraso(Connection conn) throws SQLException {
+        SQLException erro = null;
+        for (String[] consulta : STATUS_REPLICACAO) {
+            try (PreparedStatement stmt = conn.prepareStatement(consulta[0]);
+                    ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return 0;
+                }
+                long atraso = rs.getLong(consulta[1]);
+                return rs.wasNull() ? -1 : atraso;
+            } catch (SQLException e) {
+                erro = e;
+            }
+        }
+        throw erro;
+    }
+
+    private static class Replica {
+        final String url;
+        final ConnectionPool pool;
+        volatile boolean disponivel;
+        private boolean verificada;
+
+        Replica(String url, ConnectionPool pool) {
+            this.url = url;
+            this.pool = pool;
+        }
+
+        /**
+         * Atualiza a situação, registrando apenas as mudanças
+         */
+        synchronized void atualizar(boolean disponivel, String motivo) {
+            if (!verificada || this.disponivel != disponivel) {
+                if (disponivel) {
+                    LOG.log(System.Logger.Level.INFO, "Réplica disponível para leitura: " + url);
+                } else {
+                    LOG.log(System.Logger.Level.WARNING, "Réplica fora do rodízio (" + motivo + "): " + url);
+                }
+            }
+            this.disponivel = disponivel;
+            verificada = true;
+        }
+    }
+}
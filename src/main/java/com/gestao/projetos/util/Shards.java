@@ -0,0 +1,392 @@
+package com.gestao.projetos.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Divisão das tarefas (e do histórico, das dependências e do arquivo delas)
+ * em várias bases, uma por URL de tarefas.shards.urls; sem URLs as tarefas
+ * ficam no banco principal, como sempre.
+ *
+ * Cada projeto fica inteiro em uma base, escolhida pelo id do projeto
+ * (projeto_id mod quantidade de bases): as consultas de um projeto vão
+ * direto para ela, e as demais (todas as tarefas, as de um responsável, os
+ * totais por usuário) são executadas em todas as bases ao mesmo tempo e os
+ * resultados, já ordenados em cada base, são intercalados na ordem final.
+ *
+ * Projetos, usuários e o diretório tarefa_shard continuam no banco principal.
+ * O diretório aloca o id das tarefas, para que seja único entre as bases, e
+ * guarda o projeto de cada uma, para localizar uma tarefa a partir do id.
+ *
+ * A quantidade de bases não pode mudar depois que houver tarefas nelas: a
+ * redistribuição não é feita. Para passar as tarefas já existentes no banco
+ * principal para as bases, ver MigracaoShards.
+ */
+public class Shards {
+
+    // Script das tabelas de cada base, criadas na primeira conexão
+    private static final String ESQUEMA = "/database/shard.sql";
+
+    /**
+     * Consulta executada em uma base
+     */
+    public interface Consulta<T> {
+        T executar(Connection conn) throws SQLException;
+    }
+
+    private static final Map<Integer, Integer> projetoPorTarefa = new ConcurrentHashMap<>();
+    private static final Telemetria.Cache telemetria = Telemetria.cache("diretorio_tarefas");
+
+    private static List<ConnectionPool> pools;
+    private static volatile boolean ordemBinaria;
+    private static ExecutorService executor;
+
+    /**
+     * Indica se as tarefas estão divididas em bases separadas
+     */
+    public static boolean isAtivo() {
+        return !getPools().isEmpty();
+    }
+
+    /**
+     * Quantidade de bases (0 sem divisão)
+     */
+    public static int getQuantidade() {
+        return getPools().size();
+    }
+
+    /**
+     * Base onde ficam as tarefas do projeto
+     */
+    public static int indice(int projetoId) {
+        return Math.floorMod(projetoId, getQuantidade());
+    }
+
+    /**
+     * Conexão com a base das tarefas do projeto (o banco principal, sem
+     * divisão)
+     */
+    public static Connection getConnection(int projetoId) throws SQLException {
+        return isAtivo() ? getConnectionShard(indice(projetoId)) : DatabaseConnection.getConnection();
+    }
+
+    /**
+     * Conexão para leitura das tarefas do projeto: a base dele ou, sem
+     * divisão, a do DatabaseConnection.getConnectionLeitura
+     */
+    public static Connection getConnectionLeitura(int projetoId) throws SQLException {
+        return isAtivo() ? getConnectionShard(indice(projetoId)) : DatabaseConnection.getConnectionLeitura();
+    }
+
+    /**
+     * Conexão com a base onde está a tarefa, localizada pelo diretório (o
+     * banco principal, sem divisão)
+     */
+    public static Connection getConnectionTarefa(int tarefaId) throws SQLException {
+        if (!isAtivo()) {
+            return DatabaseConnection.getConnection();
+        }
+        Integer projetoId = projetoDaTarefa(tarefaId);
+        if (projetoId == null) {
+            throw new SQLException("Tarefa " + tarefaId + " não encontrada no diretório de tarefas");
+        }
+        return getConnectionShard(indice(projetoId));
+    }
+
+    /**
+     * Conexão com uma base pelo índice
+     */
+    public static Connection getConnectionShard(int indice) throws SQLException {
+        return getPools().get(indice).getConnection();
+    }
+
+    /**
+     * Projeto da tarefa, pelo diretório (null se a tarefa não existe)
+     */
+    public static Integer projetoDaTarefa(int tarefaId) throws SQLException {
+        Integer projetoId = projetoPorTarefa.get(tarefaId);
+        if (projetoId != null) {
+            telemetria.acerto();
+            return projetoId;
+        }
+        agruparPorShard(List.of(tarefaId));
+        return projetoPorTarefa.get(tarefaId);
+    }
+
+    /**
+     * Separa os ids de tarefas pela base onde estão (ids que não constam no
+     * diretório são descartados)
+     */
+    public static Map<Integer, List<Integer>> agruparPorShard(Collection<Integer> tarefaIds) throws SQLException {
+        List<Integer> pendentes = new ArrayList<>();
+        for (Integer id : tarefaIds) {
+            if (projetoPorTarefa.containsKey(id)) {
+                telemetria.acerto();
+            } else {
+                telemetria.falta();
+                pendentes.add(id);
+            }
+        }
+
+        // O projeto de uma tarefa muda pouco: o diretório é consultado só uma vez por id
+        if (!pendentes.isEmpty()) {
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                for (int inicio = 0; inicio < pendentes.size(); inicio += 500) {
+                    List<Integer> lote = pendentes.subList(inicio, Math.min(pendentes.size(), inicio + 500));
+                    String sql = "SELECT id, projeto_id FROM tarefa_shard WHERE id IN ("
+                            + String.join(",", Collections.nCopies(lote.size(), "?")) + ")";
+                    try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                        for (int i = 0; i < lote.size(); i++) {
+                            stmt.setInt(i + 1, lote.get(i));
+                        }
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            while (rs.next()) {
+                                projetoPorTarefa.put(rs.getInt(1), rs.getInt(2));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        Map<Integer, List<Integer>> porShard = new HashMap<>();
+        for (Integer id : tarefaIds) {
+            Integer projetoId = projetoPorTarefa.get(id);
+            if (projetoId != null) {
+                porShard.computeIfAbsent(indice(projetoId), k -> new ArrayList<>()).add(id);
+            }
+        }
+        return porShard;
+    }
+
+    /**
+     * Aloca o id de uma nova tarefa do projeto no diretório
+     */
+    public static int alocarId(int projetoId) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement("INSERT INTO tarefa_shard (projeto_id) VALUES (?)",
+                        Statement.RETURN_GENERATED_KEYS)) {
+
+            stmt.setInt(1, projetoId);
+            stmt.executeUpdate();
+
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                if (!rs.next()) {
+                    throw new SQLException("O diretório de tarefas não gerou o id");
+                }
+                int id = rs.getInt(1);
+                projetoPorTarefa.put(id, projetoId);
+                return id;
+            }
+        }
+    }
+
+    /**
+     * Registra no diretório a troca de projeto de uma tarefa (apenas entre
+     * projetos da mesma base)
+     */
+    public static void moverNoDiretorio(int tarefaId, int projetoId) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement("UPDATE tarefa_shard SET projeto_id = ? WHERE id = ?")) {
+
+            stmt.setInt(1, projetoId);
+            stmt.setInt(2, tarefaId);
+            stmt.executeUpdate();
+        }
+        projetoPorTarefa.put(tarefaId, projetoId);
+    }
+
+    /**
+     * Executa a consulta em todas as bases ao mesmo tempo e devolve os
+     * resultados na ordem das bases
+     */
+    public static <T> List<T> consultar(Consulta<T> consulta) throws SQLException {
+        List<ConnectionPool> atuais = getPools();
+        if (atuais.size() == 1) {
+            try (Connection conn = atuais.get(0).getConnection()) {
+                return List.of(consulta.executar(conn));
+            }
+        }
+
+        List<Future<T>> futuros = new ArrayList<>(atuais.size());
+        for (int i = 0; i < atuais.size(); i++) {
+            ConnectionPool pool = atuais.get(i);
+            futuros.add(getExecutor().submit(Rastreamento.propagar("tarefas-" + i, () -> {
+                try (Connection conn = pool.getConnection()) {
+                    return consulta.executar(conn);
+                }
+            })));
+        }
+
+        List<T> resultados = new ArrayList<>(atuais.size());
+        SQLException erro = null;
+        for (Future<T> futuro : futuros) {
+            try {
+                resultados.add(futuro.get());
+            } catch (ExecutionException e) {
+                if (erro == null) {
+                    erro = e.getCause() instanceof SQLException sql ? sql
+                            : new SQLException("Erro ao consultar as bases de tarefas", e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Consulta às bases de tarefas interrompida", e);
+            }
+        }
+        if (erro != null) {
+            throw erro;
+        }
+        return resultados;
+    }
+
+    /**
+     * Intercala listas já ordenadas pelo comparador em uma única lista
+     * ordenada (elementos iguais mantêm a ordem das bases)
+     */
+    public static <T> List<T> mesclar(List<List<T>> partes, Comparator<? super T> ordem) {
+        if (partes.size() == 1) {
+            return partes.get(0);
+        }
+
+        int total = 0;
+        for (List<T> parte : partes) {
+            total += parte.size();
+        }
+        List<T> resultado = new ArrayList<>(total);
+
+        // Cabeça de cada lista: posição na lista e índice da lista
+        PriorityQueue<int[]> cabecas = new PriorityQueue<>((a, b) -> {
+            int comparacao = ordem.compare(partes.get(a[1]).get(a[0]), partes.get(b[1]).get(b[0]));
+            return comparacao != 0 ? comparacao : Integer.compare(a[1], b[1]);
+        });
+        for (int i = 0; i < partes.size(); i++) {
+            if (!partes.get(i).isEmpty()) {
+                cabecas.add(new int[] { 0, i });
+            }
+        }
+        while (!cabecas.isEmpty()) {
+            int[] cabeca = cabecas.poll();
+            List<T> parte = partes.get(cabeca[1]);
+            resultado.add(parte.get(cabeca[0]));
+            if (++cabeca[0] < parte.size()) {
+                cabecas.add(cabeca);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Comparador de textos na mesma ordem do ORDER BY das bases, para
+     * intercalar os resultados: a ordem binária do H2 (sem collation
+     * definida) ou a ordem do português, sem distinção de maiúsculas e
+     * acentos, das collations do MySQL
+     */
+    public static Comparator<String> ordemTextos() {
+        if (ordemBinaria) {
+            return Comparator.nullsFirst(Comparator.naturalOrder());
+        }
+        return new CollationKeys(Collator.PRIMARY).comparator();
+    }
+
+    /**
+     * Usa as bases informadas no lugar de tarefas.shards.urls (ferramentas de
+     * migração e medição); lista vazia desativa a divisão
+     */
+    public static synchronized void configurar(List<String> urls) {
+        encerrar();
+        pools = criarPools(urls);
+    }
+
+    /**
+     * Fecha os pools das bases e descarta o diretório em memória (a próxima
+     * chamada lê a configuração de novo)
+     */
+    public static synchronized void encerrar() {
+        if (pools != null) {
+            for (int i = 0; i < pools.size(); i++) {
+                pools.get(i).shutdown();
+                Telemetria.removerPool("tarefas-" + i);
+            }
+            pools = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        projetoPorTarefa.clear();
+    }
+
+    private static synchronized List<ConnectionPool> getPools() {
+        if (pools == null) {
+            List<String> urls = new ArrayList<>();
+            for (String url : AppConfig.get("tarefas.shards.urls", "").split(",")) {
+                if (!url.isBlank()) {
+                    urls.add(url.trim());
+                }
+            }
+            pools = criarPools(urls);
+        }
+        return pools;
+    }
+
+    private static List<ConnectionPool> criarPools(List<String> urls) {
+        String usuario = AppConfig.get("tarefas.shards.username", DatabaseConnection.getDialeto().usuario());
+        String senha = AppConfig.get("tarefas.shards.password", DatabaseConnection.getDialeto().senha());
+
+        List<ConnectionPool> novos = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            novos.add(new ConnectionPool(url, usuario, senha,
+                    AppConfig.getInt("tarefas.shards.pool.max-size", AppConfig.getInt("db.pool.max-size", 8)),
+                    AppConfig.getLong("db.pool.timeout-ms", 5_000)));
+        }
+        for (int i = 0; i < novos.size(); i++) {
+            Telemetria.registrarPool("tarefas-" + i, novos.get(i));
+            try (Connection conn = novos.get(i).getConnection()) {
+                ordemBinaria = conn.getMetaData().getDatabaseProductName().startsWith("H2");
+                criarEsquema(conn);
+            } catch (SQLException e) {
+                // Sem a base as consultas falham com a mensagem do driver; a criação é tentada de novo no reinício
+                System.err.println("Erro ao preparar a base de tarefas " + urls.get(i) + ": " + e.getMessage());
+            }
+        }
+        return List.copyOf(novos);
+    }
+
+    private static void criarEsquema(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeQuery("SELECT 1 FROM tarefas WHERE 1 = 0").close();
+            return;
+        } catch (SQLException e) {
+            // Tabela ainda não existe
+        }
+        DatabaseConnection.executarScript(conn, ESQUEMA);
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(getQuantidade(), r -> {
+                Thread t = new Thread(r, "shards");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return executor;
+    }
+}
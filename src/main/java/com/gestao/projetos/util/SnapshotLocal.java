@@ -0,0 +1,579 @@
+package com.gestao.projetos.util;
+
+import com.gestao.projetos.model.Projeto;
+import com.gestao.projetos.model.Tarefa;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Cópia local, em arquivo binário cifrado, dos dados do dashboard do usuário
+ * logado (projetos, resumo dos projetos e tarefas que o perfil vê), para que
+ * o cliente exiba a última situação conhecida logo ao abrir, antes de
+ * consultar o banco. Cada usuário tem o próprio arquivo; dados de usuários
+ * (nomes, e-mails, logins) não são gravados.
+ *
+ * Formato (big-endian):
+ *
+ *   envelope (40 bytes, em claro): "GPS1", versão do formato, iterações do
+ *   PBKDF2, salt e IV; seguido da imagem cifrada com AES/GCM, usando uma
+ *   chave derivada da senha do usuário e o envelope como dado autenticado
+ *
+ *   imagem:
+ *   cabeçalho (96 bytes): data de gravação, origem (hash da URL do banco),
+ *   CRC32 do corpo, tamanho total, usuário e, para cada seção, posição e
+ *   quantidade de registros; depois a posição e o tamanho da tabela de
+ *   textos
+ *   seções: registros de tamanho fixo por entidade (datas em dias ou
+ *   nanossegundos desde 1970, enums como ordinais, textos como posições na
+ *   tabela de textos)
+ *   tabela de textos: cada texto distinto uma única vez, em UTF-8 precedido
+ *   do tamanho
+ *
+ * A imagem é decifrada em memória e as listas retornadas decodificam cada
+ * registro apenas quando ele é acessado. O arquivo é criado legível apenas
+ * pelo dono onde o sistema de arquivos permite. Um arquivo de outra versão
+ * do formato, de outro banco ou usuário, cifrado com outra senha (a senha
+ * foi trocada) ou adulterado é ignorado.
+ */
+public class SnapshotLocal {
+
+    private static final int MAGICO = 0x47505331; // "GPS1"
+    private static final short VERSAO_FORMATO = 2;
+
+    private static final String CIFRA = "AES/GCM/NoPadding";
+    private static final int TAMANHO_SALT = 16;
+    private static final int TAMANHO_IV = 12;
+    private static final int TAMANHO_TAG_BITS = 128;
+
+    private static final int ENVELOPE = 40;
+    private static final int POS_ITERACOES = 8;
+    private static final int POS_SALT = 12;
+    private static final int POS_IV = POS_SALT + TAMANHO_SALT;
+
+    private static final int CABECALHO = 96;
+    private static final int POS_CRIADO_EM = 8;
+    private static final int POS_ORIGEM = 16;
+    private static final int POS_CRC = 20;
+    private static final int POS_TAMANHO = 24;
+    private static final int POS_USUARIO = 28;
+    private static final int POS_SECOES = 32;
+    private static final int POS_TEXTOS = 64;
+
+    private static final int SECAO_PROJETOS = 0;
+    private static final int SECAO_RESUMO = 1;
+    private static final int SECAO_TAREFAS = 2;
+
+    private static final int NULO = Integer.MIN_VALUE;
+    private static final long NULO_LONGO = Long.MIN_VALUE;
+
+    // Projeto: id, nome, descrição, início, previsão, término, status, ativo,
+    // gerente, nome do gerente, cadastro, atualização, versão, total de
+    // tarefas, concluídas, percentual
+    private static final int REG_PROJETO = 72;
+
+    // Tarefa: id, título, descrição, projeto, nome do projeto, responsável,
+    // nome do responsável, status, prioridade, ativo, previsão, conclusão,
+    // cadastro, atualização, versão
+    private static final int REG_TAREFA = 64;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final ByteBuffer dados;
+    private final long criadoEm;
+    private final int inicioTextos;
+    private final Map<Integer, String> textos = new HashMap<>();
+
+    private SnapshotLocal(ByteBuffer dados) {
+        this.dados = dados;
+        this.criadoEm = dados.getLong(POS_CRIADO_EM);
+        this.inicioTextos = dados.getInt(POS_TEXTOS);
+    }
+
+    /**
+     * Arquivo configurado em bootstrap.copia-local.arquivo (usado pelas
+     * versões anteriores, que gravavam uma única cópia sem criptografia)
+     */
+    public static Path arquivoConfigurado() {
+        return Path.of(AppConfig.get("bootstrap.copia-local.arquivo", "./dados/copia-local.bin"));
+    }
+
+    /**
+     * Arquivo da cópia do usuário: o configurado com o id do usuário antes da
+     * extensão (copia-local-7.bin)
+     */
+    public static Path arquivoDoUsuario(int usuarioId) {
+        Path configurado = arquivoConfigurado();
+        String nome = configurado.getFileName().toString();
+        int ponto = nome.lastIndexOf('.');
+        String doUsuario = ponto > 0
+                ? nome.substring(0, ponto) + "-" + usuarioId + nome.substring(ponto)
+                : nome + "-" + usuarioId;
+        return configurado.resolveSibling(doUsuario);
+    }
+
+    /**
+     * Abre a cópia do usuário gravada no arquivo, ou retorna null se ela não
+     * existir, for de outro banco ou usuário, não puder ser decifrada com a
+     * senha ou estiver incompleta ou corrompida
+     */
+    public static SnapshotLocal abrir(Path arquivo, int usuarioId, String senha) {
+        if (!Files.isRegularFile(arquivo)) {
+            return null;
+        }
+
+        try {
+            byte[] conteudo = Files.readAllBytes(arquivo);
+            if (conteudo.length < ENVELOPE + TAMANHO_TAG_BITS / 8 + CABECALHO) {
+                return descartar(arquivo, "tamanho inválido");
+            }
+            ByteBuffer envelope = ByteBuffer.wrap(conteudo, 0, ENVELOPE);
+            if (envelope.getInt(0) != MAGICO || envelope.getShort(4) != VERSAO_FORMATO) {
+                return descartar(arquivo, "formato desconhecido");
+            }
+
+            byte[] salt = Arrays.copyOfRange(conteudo, POS_SALT, POS_SALT + TAMANHO_SALT);
+            byte[] iv = Arrays.copyOfRange(conteudo, POS_IV, POS_IV + TAMANHO_IV);
+            Cipher cifra = cifra(Cipher.DECRYPT_MODE, senha, salt, envelope.getInt(POS_ITERACOES), iv);
+            cifra.updateAAD(conteudo, 0, ENVELOPE);
+            ByteBuffer imagem;
+            try {
+                imagem = ByteBuffer.wrap(cifra.doFinal(conteudo, ENVELOPE, conteudo.length - ENVELOPE));
+            } catch (AEADBadTagException e) {
+                return descartar(arquivo, "não decifrada com a senha atual");
+            }
+
+            int tamanho = imagem.capacity();
+            if (imagem.getInt(POS_ORIGEM) != origem()) {
+                return descartar(arquivo, "gravado a partir de outro banco de dados");
+            }
+            if (imagem.getInt(POS_USUARIO) != usuarioId) {
+                return descartar(arquivo, "gravado para outro usuário");
+            }
+            if (imagem.getInt(POS_TAMANHO) != tamanho || !secoesValidas(imagem, tamanho)) {
+                return descartar(arquivo, "arquivo incompleto");
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(imagem.slice(CABECALHO, tamanho - CABECALHO));
+            if ((int) crc.getValue() != imagem.getInt(POS_CRC)) {
+                return descartar(arquivo, "CRC inválido");
+            }
+            return new SnapshotLocal(imagem.asReadOnlyBuffer());
+        } catch (IOException | GeneralSecurityException e) {
+            return descartar(arquivo, e.getMessage());
+        }
+    }
+
+    /**
+     * Cifra a cópia do usuário e a grava em um arquivo temporário, que é
+     * movido para o lugar do anterior, de modo que um leitor nunca veja um
+     * arquivo pela metade
+     */
+    public static void gravar(Path arquivo, int usuarioId, String senha, List<Projeto> projetos,
+            List<Projeto> projetosResumo, List<Tarefa> tarefas) throws IOException {
+        Textos textos = new Textos();
+        ByteBuffer secaoProjetos = ByteBuffer.allocate(projetos.size() * REG_PROJETO);
+        for (Projeto p : projetos) {
+            escreverProjeto(secaoProjetos, p, textos);
+        }
+        ByteBuffer secaoResumo = ByteBuffer.allocate(projetosResumo.size() * REG_PROJETO);
+        for (Projeto p : projetosResumo) {
+            escreverProjeto(secaoResumo, p, textos);
+        }
+        ByteBuffer secaoTarefas = ByteBuffer.allocate(tarefas.size() * REG_TAREFA);
+        for (Tarefa t : tarefas) {
+            escreverTarefa(secaoTarefas, t, textos);
+        }
+
+        ByteBuffer[] secoes = { secaoProjetos, secaoResumo, secaoTarefas };
+        int[] quantidades = { projetos.size(), projetosResumo.size(), tarefas.size() };
+        long total = CABECALHO + (long) textos.tamanho;
+        for (ByteBuffer secao : secoes) {
+            total += secao.capacity();
+        }
+        if (total > Integer.MAX_VALUE - ENVELOPE - TAMANHO_TAG_BITS / 8) {
+            throw new IOException("Cópia local excede o tamanho máximo (" + total + " bytes)");
+        }
+
+        ByteBuffer imagem = ByteBuffer.allocate((int) total);
+        imagem.position(CABECALHO);
+        for (int i = 0; i < secoes.length; i++) {
+            imagem.putInt(POS_SECOES + i * 8, imagem.position());
+            imagem.putInt(POS_SECOES + i * 8 + 4, quantidades[i]);
+            imagem.put(secoes[i].flip());
+        }
+        imagem.putInt(POS_TEXTOS, imagem.position());
+        imagem.putInt(POS_TEXTOS + 4, textos.tamanho);
+        imagem.put(textos.buffer.flip());
+
+        CRC32 crc = new CRC32();
+        crc.update(imagem.slice(CABECALHO, (int) total - CABECALHO));
+        imagem.putLong(POS_CRIADO_EM, System.currentTimeMillis());
+        imagem.putInt(POS_ORIGEM, origem());
+        imagem.putInt(POS_CRC, (int) crc.getValue());
+        imagem.putInt(POS_TAMANHO, (int) total);
+        imagem.putInt(POS_USUARIO, usuarioId);
+
+        byte[] salt = new byte[TAMANHO_SALT];
+        byte[] iv = new byte[TAMANHO_IV];
+        RANDOM.nextBytes(salt);
+        RANDOM.nextBytes(iv);
+        int iteracoes = CryptUtils.getIterations();
+        ByteBuffer envelope = ByteBuffer.allocate(ENVELOPE);
+        envelope.putInt(0, MAGICO);
+        envelope.putShort(4, VERSAO_FORMATO);
+        envelope.putInt(POS_ITERACOES, iteracoes);
+        envelope.put(POS_SALT, salt);
+        envelope.put(POS_IV, iv);
+
+        ByteBuffer saida = ByteBuffer.allocate(ENVELOPE + (int) total + TAMANHO_TAG_BITS / 8);
+        saida.put(envelope.array());
+        try {
+            Cipher cifra = cifra(Cipher.ENCRYPT_MODE, senha, salt, iteracoes, iv);
+            cifra.updateAAD(envelope.array());
+            cifra.doFinal(imagem.clear(), saida);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Erro ao cifrar a cópia local", e);
+        }
+        saida.flip();
+
+        Path pasta = arquivo.toAbsolutePath().getParent();
+        if (pasta != null) {
+            Files.createDirectories(pasta);
+        }
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        Files.deleteIfExists(temporario);
+        try (FileChannel canal = criarSomenteDono(temporario)) {
+            while (saida.hasRemaining()) {
+                canal.write(saida);
+            }
+            canal.force(false);
+        }
+        try {
+            Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Cria o arquivo com leitura e escrita apenas para o dono, quando o
+     * sistema de arquivos tem permissões POSIX
+     */
+    private static FileChannel criarSomenteDono(Path arquivo) throws IOException {
+        Set<StandardOpenOption> opcoes = EnumSet.of(StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        if (arquivo.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            return FileChannel.open(arquivo, opcoes, PosixFilePermissions.asFileAttribute(
+                    EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE)));
+        }
+        return FileChannel.open(arquivo, opcoes);
+    }
+
+    private static Cipher cifra(int modo, String senha, byte[] salt, int iteracoes, byte[] iv)
+            throws GeneralSecurityException {
+        if (iteracoes <= 0) {
+            throw new GeneralSecurityException("Número de iterações inválido: " + iteracoes);
+        }
+        byte[] chave = CryptUtils.deriveKey(senha, salt, iteracoes);
+        try {
+            Cipher cifra = Cipher.getInstance(CIFRA);
+            cifra.init(modo, new SecretKeySpec(chave, "AES"), new GCMParameterSpec(TAMANHO_TAG_BITS, iv));
+            return cifra;
+        } finally {
+            Arrays.fill(chave, (byte) 0);
+        }
+    }
+
+    /**
+     * Momento da gravação, em milissegundos desde 1970
+     */
+    public long getCriadoEm() {
+        return criadoEm;
+    }
+
+    public List<Projeto> getProjetos() {
+        return new Registros<>(SECAO_PROJETOS, REG_PROJETO) {
+            @Override
+            Projeto ler(int pos) {
+                return lerProjeto(pos);
+            }
+        };
+    }
+
+    public List<Projeto> getProjetosResumo() {
+        return new Registros<>(SECAO_RESUMO, REG_PROJETO) {
+            @Override
+            Projeto ler(int pos) {
+                return lerProjeto(pos);
+            }
+        };
+    }
+
+    public List<Tarefa> getTarefas() {
+        return new Registros<>(SECAO_TAREFAS, REG_TAREFA) {
+            @Override
+            Tarefa ler(int pos) {
+                return lerTarefa(pos);
+            }
+        };
+    }
+
+    /**
+     * Lista somente leitura sobre uma seção: cada get decodifica um registro
+     */
+    private abstract class Registros<T> extends AbstractList<T> implements RandomAccess {
+        private final int inicio;
+        private final int quantidade;
+        private final int tamanhoRegistro;
+
+        Registros(int secao, int tamanhoRegistro) {
+            this.inicio = dados.getInt(POS_SECOES + secao * 8);
+            this.quantidade = dados.getInt(POS_SECOES + secao * 8 + 4);
+            this.tamanhoRegistro = tamanhoRegistro;
+        }
+
+        abstract T ler(int pos);
+
+        @Override
+        public T get(int indice) {
+            if (indice < 0 || indice >= quantidade) {
+                throw new IndexOutOfBoundsException(indice);
+            }
+            return ler(inicio + indice * tamanhoRegistro);
+        }
+
+        @Override
+        public int size() {
+            return quantidade;
+        }
+    }
+
+    // Registros
+
+    private static void escreverProjeto(ByteBuffer b, Projeto p, Textos textos) {
+        b.putInt(inteiro(p.getId()));
+        b.putInt(textos.posicao(p.getNome()));
+        b.putInt(textos.posicao(p.getDescricao()));
+        b.putInt(data(p.getDataInicio()));
+        b.putInt(data(p.getDataPrevistaTermino()));
+        b.putInt(data(p.getDataTerminoReal()));
+        b.put(ordinal(p.getStatus()));
+        b.put((byte) (p.isAtivo() ? 1 : 0));
+        b.putShort((short) 0);
+        b.putInt(inteiro(p.getGerenteId()));
+        b.putInt(textos.posicao(p.getGerenteNome()));
+        b.putLong(momento(p.getDataCadastro()));
+        b.putLong(momento(p.getDataAtualizacao()));
+        b.putInt(p.getVersao());
+        b.putInt(inteiro(p.getTotalTarefas()));
+        b.putInt(inteiro(p.getTarefasConcluidas()));
+        b.putDouble(p.getPercentualConclusao() != null ? p.getPercentualConclusao() : Double.NaN);
+    }
+
+    private Projeto lerProjeto(int pos) {
+        Projeto p = new Projeto();
+        p.setId(inteiro(dados.getInt(pos)));
+        p.setNome(texto(dados.getInt(pos + 4)));
+        p.setDescricao(texto(dados.getInt(pos + 8)));
+        p.setDataInicio(data(dados.getInt(pos + 12)));
+        p.setDataPrevistaTermino(data(dados.getInt(pos + 16)));
+        p.setDataTerminoReal(data(dados.getInt(pos + 20)));
+        p.setStatus(constante(Projeto.Status.values(), dados.get(pos + 24)));
+        p.setAtivo(dados.get(pos + 25) != 0);
+        p.setGerenteId(inteiro(dados.getInt(pos + 28)));
+        p.setGerenteNome(texto(dados.getInt(pos + 32)));
+        p.setDataCadastro(momento(dados.getLong(pos + 36)));
+        p.setDataAtualizacao(momento(dados.getLong(pos + 44)));
+        p.setVersao(dados.getInt(pos + 52));
+        p.setTotalTarefas(inteiro(dados.getInt(pos + 56)));
+        p.setTarefasConcluidas(inteiro(dados.getInt(pos + 60)));
+        double percentual = dados.getDouble(pos + 64);
+        p.setPercentualConclusao(Double.isNaN(percentual) ? null : percentual);
+        return p;
+    }
+
+    private static void escreverTarefa(ByteBuffer b, Tarefa t, Textos textos) {
+        b.putInt(inteiro(t.getId()));
+        b.putInt(textos.posicao(t.getTitulo()));
+        b.putInt(textos.posicao(t.getDescricao()));
+        b.putInt(inteiro(t.getProjetoId()));
+        b.putInt(textos.posicao(t.getProjetoNome()));
+        b.putInt(inteiro(t.getResponsavelId()));
+        b.putInt(textos.posicao(t.getResponsavelNome()));
+        b.put(ordinal(t.getStatus()));
+        b.put(ordinal(t.getPrioridade()));
+        b.put((byte) (t.isAtivo() ? 1 : 0));
+        b.put((byte) 0);
+        b.putInt(data(t.getDataPrevistaConclusao()));
+        b.putInt(data(t.getDataConclusaoReal()));
+        b.putLong(momento(t.getDataCadastro()));
+        b.putLong(momento(t.getDataAtualizacao()));
+        b.putInt(t.getVersao());
+        b.putInt(0);
+    }
+
+    private Tarefa lerTarefa(int pos) {
+        Tarefa t = new Tarefa();
+        t.setId(inteiro(dados.getInt(pos)));
+        t.setTitulo(texto(dados.getInt(pos + 4)));
+        t.setDescricao(texto(dados.getInt(pos + 8)));
+        t.setProjetoId(inteiro(dados.getInt(pos + 12)));
+        t.setProjetoNome(texto(dados.getInt(pos + 16)));
+        t.setResponsavelId(inteiro(dados.getInt(pos + 20)));
+        t.setResponsavelNome(texto(dados.getInt(pos + 24)));
+        t.setStatus(constante(Tarefa.Status.values(), dados.get(pos + 28)));
+        t.setPrioridade(constante(Tarefa.Prioridade.values(), dados.get(pos + 29)));
+        t.setAtivo(dados.get(pos + 30) != 0);
+        t.setDataPrevistaConclusao(data(dados.getInt(pos + 32)));
+        t.setDataConclusaoReal(data(dados.getInt(pos + 36)));
+        t.setDataCadastro(momento(dados.getLong(pos + 40)));
+        t.setDataAtualizacao(momento(dados.getLong(pos + 48)));
+        t.setVersao(dados.getInt(pos + 56));
+        return t;
+    }
+
+    // Codificação dos valores
+
+    /**
+     * Texto na posição da tabela de textos; cada posição é decodificada uma
+     * única vez e as leituras seguintes retornam a mesma instância
+     */
+    private synchronized String texto(int posicao) {
+        if (posicao == NULO) {
+            return null;
+        }
+        return textos.computeIfAbsent(posicao, p -> {
+            int inicio = inicioTextos + p;
+            byte[] bytes = new byte[dados.getInt(inicio)];
+            dados.get(inicio + 4, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        });
+    }
+
+    private static int inteiro(Integer valor) {
+        return valor != null ? valor : NULO;
+    }
+
+    private static Integer inteiro(int valor) {
+        return valor != NULO ? valor : null;
+    }
+
+    private static int data(LocalDate data) {
+        return data != null ? (int) data.toEpochDay() : NULO;
+    }
+
+    private static LocalDate data(int dias) {
+        return dias != NULO ? LocalDate.ofEpochDay(dias) : null;
+    }
+
+    private static long momento(LocalDateTime momento) {
+        if (momento == null) {
+            return NULO_LONGO;
+        }
+        return momento.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + momento.getNano();
+    }
+
+    private static LocalDateTime momento(long nanos) {
+        if (nanos == NULO_LONGO) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    private static byte ordinal(Enum<?> valor) {
+        return valor != null ? (byte) valor.ordinal() : -1;
+    }
+
+    private static <E extends Enum<E>> E constante(E[] valores, byte ordinal) {
+        return ordinal >= 0 && ordinal < valores.length ? valores[ordinal] : null;
+    }
+
+    /**
+     * Identifica o banco de origem, para não exibir dados de outro banco
+     * depois de uma troca de db.modo ou db.url
+     */
+    private static int origem() {
+        Dialeto dialeto = Dialeto.configurado();
+        return (dialeto.name() + '|' + dialeto.url() + '|' + dialeto.usuario()).hashCode();
+    }
+
+    private static boolean secoesValidas(ByteBuffer imagem, int tamanho) {
+        int[] registros = { REG_PROJETO, REG_PROJETO, REG_TAREFA };
+        for (int i = 0; i < registros.length; i++) {
+            long inicio = imagem.getInt(POS_SECOES + i * 8);
+            long quantidade = imagem.getInt(POS_SECOES + i * 8 + 4);
+            if (inicio < CABECALHO || quantidade < 0 || inicio + quantidade * registros[i] > tamanho) {
+                return false;
+            }
+        }
+        long inicioTextos = imagem.getInt(POS_TEXTOS);
+        long tamanhoTextos = imagem.getInt(POS_TEXTOS + 4);
+        return inicioTextos >= CABECALHO && tamanhoTextos >= 0 && inicioTextos + tamanhoTextos <= tamanho;
+    }
+
+    private static SnapshotLocal descartar(Path arquivo, String motivo) {
+        System.err.println("Cópia local ignorada (" + arquivo + "): " + motivo);
+        return null;
+    }
+
+    /**
+     * Tabela de textos em construção: textos repetidos (nomes de projetos e
+     * responsáveis) são gravados uma única vez
+     */
+    private static class Textos {
+        private final Map<String, Integer> posicoes = new HashMap<>();
+        private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        private int tamanho;
+
+        int posicao(String valor) {
+            if (valor == null) {
+                return NULO;
+            }
+            Integer existente = posicoes.get(valor);
+            if (existente != null) {
+                return existente;
+            }
+
+            byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+            if (buffer.remaining() < bytes.length + 4) {
+                ByteBuffer maior = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, tamanho + bytes.length + 4));
+                maior.put(buffer.flip());
+                buffer = maior;
+            }
+            int posicao = tamanho;
+            buffer.putInt(bytes.length).put(bytes);
+            tamanho += bytes.length + 4;
+            posicoes.put(valor, posicao);
+            return posicao;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.gestao.projetos.util;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registra os marcos da inicialização da aplicação (tempo desde o início da JVM)
+ * para diagnóstico do tempo até o dashboard.
+ */
+public class StartupTimeline {
+
+    private static final long INICIO_JVM_MS = ProcessHandle.current().info().startInstant()
+            .map(Instant::toEpochMilli)
+            .orElse(System.currentTimeMillis());
+
+    private static final System.Logger LOG = System.getLogger(StartupTimeline.class.getName());
+
+    private static final List<String> marcos = new ArrayList<>();
+    private static boolean impresso = false;
+
+    /**
+     * Registra um marco com o nome da thread que o atingiu
+     */
+    public static synchronized void mark(String nome) {
+        long decorrido = System.currentTimeMillis() - INICIO_JVM_MS;
+        marcos.add(String.format("%7d ms  %-32s [%s]", decorrido, nome, Thread.currentThread().getName()));
+    }
+
+    /**
+     * Retorna uma cópia dos marcos registrados até agora
+     */
+    public static synchronized List<String> getMarcos() {
+        return new ArrayList<>(marcos);
+    }
+
+    /**
+     * Registra a linha do tempo no log uma única vez (se habilitado em
+     * bootstrap.timeline.log)
+     */
+    public static synchronized void printOnce() {
+        if (impresso || !AppConfig.getBoolean("bootstrap.timeline.log", false)) {
+            return;
+        }
+        impresso = true;
+        LOG.log(System.Logger.Level.INFO, "Linha do tempo de inicialização:\n" + String.join("\n", marcos));
+    }
+}
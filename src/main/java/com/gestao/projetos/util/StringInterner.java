@@ -0,0 +1,68 @@
+package com.gestao.projetos.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dicionário de textos repetidos para o mapeamento de ResultSets.
+ *
+ * Em uma consulta de tarefas, projeto_nome e responsavel_nome se repetem em
+ * quase todas as linhas; passando os valores por intern() todas as linhas
+ * passam a referenciar a mesma instância e as cópias lidas do driver são
+ * descartadas logo em seguida. Uma instância por consulta (não é thread-safe);
+ * acima do limite os novos valores deixam de ser guardados.
+ */
+public class StringInterner {
+
+    private static final ClassValue<Enum<?>[]> CONSTANTES = new ClassValue<>() {
+        @Override
+        protected Enum<?>[] computeValue(Class<?> tipo) {
+            return (Enum<?>[]) tipo.getEnumConstants();
+        }
+    };
+
+    private final Map<String, String> valores = new HashMap<>();
+    private final int limite;
+
+    public StringInterner() {
+        this(AppConfig.getInt("dao.interner.max-size", 4096));
+    }
+
+    public StringInterner(int limite) {
+        this.limite = limite;
+    }
+
+    /**
+     * Retorna a instância canônica do texto
+     */
+    public String intern(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        String canonico = valores.get(valor);
+        if (canonico != null) {
+            return canonico;
+        }
+        if (valores.size() < limite) {
+            valores.put(valor, valor);
+        }
+        return valor;
+    }
+
+    /**
+     * Equivalente a Enum.valueOf para os nomes gravados no banco, comparando
+     * com as constantes em cache (poucas, então sem calcular hash do texto)
+     */
+    @SuppressWarnings("unchecked")
+    public static <E extends Enum<E>> E enumDe(Class<E> tipo, String nome) {
+        if (nome == null) {
+            return null;
+        }
+        for (Enum<?> constante : CONSTANTES.get(tipo)) {
+            if (constante.name().equals(nome)) {
+                return (E) constante;
+            }
+        }
+        throw new IllegalArgumentException("Valor inválido para " + tipo.getSimpleName() + ": " + nome);
+    }
+}
@@ -0,0 +1,819 @@
+package com.gestao.projetos.util;
+
+import com.gestao.projetos.dao.TarefaDAO;
+import com.gestao.projetos.model.Tarefa;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Cópia analítica das tarefas em memória, organizada por colunas.
+ *
+ * Cada atributo fica em um array primitivo (ids e chaves em int[], status e
+ * prioridade como ordinais em byte[], datas em dias desde 1970 em int[]) e os
+ * nomes de projetos e responsáveis são codificados em dicionários, de modo que
+ * projeto e responsável viram códigos densos 0..n-1. As agregações (Consulta)
+ * são laços simples sobre esses arrays, divididos entre os núcleos com
+ * fork/join quando o volume justifica.
+ *
+ * A primeira atualização lê a tabela inteira em fluxo; as seguintes leem apenas
+ * as linhas alteradas desde a última (data_atualizacao, recuada pela janela
+ * sync.sobreposicao-seg). Cada atualização que
+ * muda algum valor publica um novo instantâneo imutável (Colunas), com um
+ * número de versão maior, então consultas em andamento não são afetadas e
+ * resultados calculados podem ser reaproveitados enquanto a versão não mudar.
+ */
+public class TarefaColumnStore {
+
+    /**
+     * Valor das colunas de data quando a data não foi informada
+     */
+    public static final int SEM_DATA = Integer.MIN_VALUE;
+
+    private static final int LIMITE_CELULAS = 1 << 20;
+
+    private static final TarefaColumnStore INSTANCIA = new TarefaColumnStore(new TarefaDAO());
+
+    private final TarefaDAO tarefaDAO;
+    private volatile Colunas colunas = new TarefaColumnStore.Colunas();
+
+    // Colunas de trabalho (alteradas somente dentro de atualizar)
+    private int tamanho;
+    private int[] id = new int[0];
+    private int[] projeto = new int[0];
+    private int[] responsavel = new int[0];
+    private byte[] status = new byte[0];
+    private byte[] prioridade = new byte[0];
+    private int[] prevista = new int[0];
+    private int[] conclusao = new int[0];
+    private int[] cadastro = new int[0];
+    private int[] mesPrevisto = new int[0];
+    private int[] mesConclusao = new int[0];
+
+    private final Map<Integer, Integer> linhaPorId = new HashMap<>();
+    private final Dicionario projetos = new Dicionario();
+    private final Dicionario responsaveis = new Dicionario();
+    private LocalDateTime watermark;
+    private long versao;
+
+    TarefaColumnStore(TarefaDAO tarefaDAO) {
+        this.tarefaDAO = tarefaDAO;
+    }
+
+    public static TarefaColumnStore getInstance() {
+        return INSTANCIA;
+    }
+
+    /**
+     * Último instantâneo publicado (vazio antes da primeira atualização)
+     */
+    public Colunas getColunas() {
+        return colunas;
+    }
+
+    /**
+     * Indica se a carga inicial já foi feita
+     */
+    public synchronized boolean isCarregado() {
+        return watermark != null;
+    }
+
+    /**
+     * Lê as tarefas alteradas desde a última atualização (todas, na primeira)
+     * e, se algo mudou, publica um novo instantâneo
+     */
+    public synchronized Colunas atualizar() throws SQLException {
+        LocalDateTime inicio = LocalDateTime.of(1970, 1, 1, 0, 0);
+        // Relê a janela de sobreposição: linhas com commit atrasado não ficam para trás
+        LocalDateTime desde = watermark != null ? DeltaSync.recuar(watermark) : inicio;
+        LocalDateTime[] maior = { watermark != null ? watermark : inicio };
+        boolean[] alterado = { watermark == null };
+        long nomesAntes = projetos.versao + responsaveis.versao;
+
+        tarefaDAO.scanAnalitico(desde, tarefa -> {
+            alterado[0] |= aplicar(tarefa);
+            LocalDateTime atualizacao = tarefa.getDataAtualizacao();
+            if (atualizacao != null && atualizacao.isAfter(maior[0])) {
+                maior[0] = atualizacao;
+            }
+        });
+
+        // Linhas relidas sem mudança de valores não contam como alteração
+        watermark = maior[0];
+        if (alterado[0] || projetos.versao + responsaveis.versao != nomesAntes) {
+            versao++;
+            colunas = publicar();
+        }
+        return colunas;
+    }
+
+    /**
+     * Inicia uma consulta sobre o último instantâneo
+     */
+    public Consulta consulta() {
+        return new Consulta(colunas);
+    }
+
+    /**
+     * Aplica a linha lida; retorna false se ela já estava com os mesmos valores
+     */
+    private boolean aplicar(Tarefa tarefa) {
+        Integer linha = linhaPorId.get(tarefa.getId());
+
+        // Tarefas inativas não entram nas análises
+        if (!tarefa.isAtivo()) {
+            if (linha != null) {
+                remover(linha);
+                return true;
+            }
+            return false;
+        }
+
+        int codigoProjeto = projetos.codigo(tarefa.getProjetoId(), tarefa.getProjetoNome());
+        int codigoResponsavel = responsaveis.codigo(tarefa.getResponsavelId(), tarefa.getResponsavelNome());
+        byte codigoStatus = (byte) tarefa.getStatus().ordinal();
+        byte codigoPrioridade = (byte) tarefa.getPrioridade().ordinal();
+        int diaPrevisto = dia(tarefa.getDataPrevistaConclusao());
+        int diaConclusao = dia(tarefa.getDataConclusaoReal());
+        int diaCadastro = tarefa.getDataCadastro() != null ? dia(tarefa.getDataCadastro().toLocalDate()) : SEM_DATA;
+
+        if (linha == null) {
+            garantirCapacidade(tamanho + 1);
+            linha = tamanho++;
+            linhaPorId.put(tarefa.getId(), linha);
+        } else if (projeto[linha] == codigoProjeto && responsavel[linha] == codigoResponsavel
+                && status[linha] == codigoStatus && prioridade[linha] == codigoPrioridade
+                && prevista[linha] == diaPrevisto && conclusao[linha] == diaConclusao
+                && cadastro[linha] == diaCadastro) {
+            return false;
+        }
+
+        id[linha] = tarefa.getId();
+        projeto[linha] = codigoProjeto;
+        responsavel[linha] = codigoResponsavel;
+        status[linha] = codigoStatus;
+        prioridade[linha] = codigoPrioridade;
+        prevista[linha] = diaPrevisto;
+        conclusao[linha] = diaConclusao;
+        cadastro[linha] = diaCadastro;
+        mesPrevisto[linha] = mes(tarefa.getDataPrevistaConclusao());
+        mesConclusao[linha] = mes(tarefa.getDataConclusaoReal());
+        return true;
+    }
+
+    /**
+     * Remove a linha movendo a última para o seu lugar
+     */
+    private void remover(int linha) {
+        int ultima = --tamanho;
+        linhaPorId.remove(id[linha]);
+
+        if (linha != ultima) {
+            id[linha] = id[ultima];
+            projeto[linha] = projeto[ultima];
+            responsavel[linha] = responsavel[ultima];
+            status[linha] = status[ultima];
+            prioridade[linha] = prioridade[ultima];
+            prevista[linha] = prevista[ultima];
+            conclusao[linha] = conclusao[ultima];
+            cadastro[linha] = cadastro[ultima];
+            mesPrevisto[linha] = mesPrevisto[ultima];
+            mesConclusao[linha] = mesConclusao[ultima];
+            linhaPorId.put(id[linha], linha);
+        }
+    }
+
+    private void garantirCapacidade(int minimo) {
+        if (minimo <= id.length) {
+            return;
+        }
+        int capacidade = Math.max(minimo, Math.max(1024, id.length + (id.length >> 1)));
+        id = Arrays.copyOf(id, capacidade);
+        projeto = Arrays.copyOf(projeto, capacidade);
+        responsavel = Arrays.copyOf(responsavel, capacidade);
+        status = Arrays.copyOf(status, capacidade);
+        prioridade = Arrays.copyOf(prioridade, capacidade);
+        prevista = Arrays.copyOf(prevista, capacidade);
+        conclusao = Arrays.copyOf(conclusao, capacidade);
+        cadastro = Arrays.copyOf(cadastro, capacidade);
+        mesPrevisto = Arrays.copyOf(mesPrevisto, capacidade);
+        mesConclusao = Arrays.copyOf(mesConclusao, capacidade);
+    }
+
+    private Colunas publicar() {
+        Colunas c = new Colunas();
+        c.versao = versao;
+        c.tamanho = tamanho;
+        c.id = Arrays.copyOf(id, tamanho);
+        c.projeto = Arrays.copyOf(projeto, tamanho);
+        c.responsavel = Arrays.copyOf(responsavel, tamanho);
+        c.status = Arrays.copyOf(status, tamanho);
+        c.prioridade = Arrays.copyOf(prioridade, tamanho);
+        c.prevista = Arrays.copyOf(prevista, tamanho);
+        c.conclusao = Arrays.copyOf(conclusao, tamanho);
+        c.cadastro = Arrays.copyOf(cadastro, tamanho);
+        c.mesPrevisto = Arrays.copyOf(mesPrevisto, tamanho);
+        c.mesConclusao = Arrays.copyOf(mesConclusao, tamanho);
+        c.projetoIds = Arrays.copyOf(projetos.ids, projetos.tamanho);
+        c.projetoNomes = Arrays.copyOf(projetos.nomes, projetos.tamanho);
+        c.responsavelIds = Arrays.copyOf(responsaveis.ids, responsaveis.tamanho);
+        c.responsavelNomes = Arrays.copyOf(responsaveis.nomes, responsaveis.tamanho);
+
+        int menor = Integer.MAX_VALUE;
+        int maior = Integer.MIN_VALUE;
+        for (int i = 0; i < tamanho; i++) {
+            int m = mesPrevisto[i];
+            if (m != SEM_DATA) {
+                menor = Math.min(menor, m);
+                maior = Math.max(maior, m);
+            }
+            m = mesConclusao[i];
+            if (m != SEM_DATA) {
+                menor = Math.min(menor, m);
+                maior = Math.max(maior, m);
+            }
+        }
+        c.mesMin = menor <= maior ? menor : 0;
+        c.mesMax = menor <= maior ? maior : -1;
+        return c;
+    }
+
+    private static int dia(LocalDate data) {
+        return data != null ? (int) data.toEpochDay() : SEM_DATA;
+    }
+
+    private static int mes(LocalDate data) {
+        return data != null ? data.getYear() * 12 + data.getMonthValue() - 1 : SEM_DATA;
+    }
+
+    /**
+     * Dicionário id → código denso, com o nome para exibição
+     * (versao muda a cada código novo ou nome alterado)
+     */
+    private static class Dicionario {
+        private final Map<Integer, Integer> codigos = new HashMap<>();
+        private int[] ids = new int[16];
+        private String[] nomes = new String[16];
+        private int tamanho;
+        private long versao;
+
+        int codigo(int id, String nome) {
+            Integer codigo = codigos.get(id);
+            if (codigo == null) {
+                if (tamanho == ids.length) {
+                    ids = Arrays.copyOf(ids, tamanho * 2);
+                    nomes = Arrays.copyOf(nomes, tamanho * 2);
+                }
+                codigo = tamanho++;
+                codigos.put(id, codigo);
+                ids[codigo] = id;
+            }
+            if (!Objects.equals(nomes[codigo], nome)) {
+                nomes[codigo] = nome;
+                versao++;
+            }
+            return codigo;
+        }
+    }
+
+    /**
+     * Instantâneo imutável das colunas
+     */
+    public static final class Colunas {
+        private long versao;
+        private int tamanho;
+        private int[] id = new int[0];
+        private int[] projeto = new int[0];
+        private int[] responsavel = new int[0];
+        private byte[] status = new byte[0];
+        private byte[] prioridade = new byte[0];
+        private int[] prevista = new int[0];
+        private int[] conclusao = new int[0];
+        private int[] cadastro = new int[0];
+        private int[] mesPrevisto = new int[0];
+        private int[] mesConclusao = new int[0];
+        private int[] projetoIds = new int[0];
+        private String[] projetoNomes = new String[0];
+        private int[] responsavelIds = new int[0];
+        private String[] responsavelNomes = new String[0];
+        private int mesMin = 0;
+        private int mesMax = -1;
+
+        private Colunas() {
+        }
+
+        /**
+         * Versão dos dados: instantâneos com a mesma versão têm o mesmo
+         * conteúdo (0 antes da primeira carga)
+         */
+        public long getVersao() {
+            return versao;
+        }
+
+        public int getTamanho() {
+            return tamanho;
+        }
+
+        /**
+         * Código do projeto no instantâneo (-1 se não houver tarefas dele)
+         */
+        public int getProjetoCodigo(int projetoId) {
+            for (int codigo = 0; codigo < projetoIds.length; codigo++) {
+                if (projetoIds[codigo] == projetoId) {
+                    return codigo;
+                }
+            }
+            return -1;
+        }
+
+        public int getQuantidadeProjetos() {
+            return projetoIds.length;
+        }
+
+        public int getQuantidadeResponsaveis() {
+            return responsavelIds.length;
+        }
+
+        public int getProjetoId(int codigo) {
+            return projetoIds[codigo];
+        }
+
+        public String getProjetoNome(int codigo) {
+            return projetoNomes[codigo];
+        }
+
+        public int getResponsavelId(int codigo) {
+            return responsavelIds[codigo];
+        }
+
+        public String getResponsavelNome(int codigo) {
+            return responsavelNomes[codigo];
+        }
+
+        /**
+         * Quantidade de meses cobertos pelas datas (prevista e de conclusão)
+         */
+        public int getQuantidadeMeses() {
+            return mesMax - mesMin + 1;
+        }
+
+        // Colunas sem cópia, para outros motores de análise do pacote
+
+        int[] colunaId() {
+            return id;
+        }
+
+        int[] colunaProjeto() {
+            return projeto;
+        }
+
+        byte[] colunaStatus() {
+            return status;
+        }
+
+        int[] colunaCadastro() {
+            return cadastro;
+        }
+
+        int[] colunaConclusao() {
+            return conclusao;
+        }
+    }
+
+    /**
+     * Dimensões de agrupamento
+     */
+    public enum Dimensao {
+        STATUS("Status"),
+        PRIORIDADE("Prioridade"),
+        PROJETO("Projeto"),
+        RESPONSAVEL("Responsável"),
+        MES_PREVISTO("Mês Previsto"),
+        MES_CONCLUSAO("Mês de Conclusão");
+
+        private final String descricao;
+
+        Dimensao(String descricao) {
+            this.descricao = descricao;
+        }
+
+        public String getDescricao() {
+            return descricao;
+        }
+
+        /**
+         * Quantidade de códigos da dimensão no instantâneo
+         * (nas dimensões de mês o código 0 representa "sem data")
+         */
+        public int cardinalidade(Colunas c) {
+            return switch (this) {
+                case STATUS -> Tarefa.Status.values().length;
+                case PRIORIDADE -> Tarefa.Prioridade.values().length;
+                case PROJETO -> c.getQuantidadeProjetos();
+                case RESPONSAVEL -> c.getQuantidadeResponsaveis();
+                case MES_PREVISTO, MES_CONCLUSAO -> c.getQuantidadeMeses() + 1;
+            };
+        }
+
+        /**
+         * Texto de exibição de um código da dimensão
+         */
+        public String rotulo(Colunas c, int codigo) {
+            return switch (this) {
+                case STATUS -> Tarefa.Status.values()[codigo].getDescricao();
+                case PRIORIDADE -> Tarefa.Prioridade.values()[codigo].getDescricao();
+                case PROJETO -> c.getProjetoNome(codigo);
+                case RESPONSAVEL -> c.getResponsavelNome(codigo);
+                case MES_PREVISTO, MES_CONCLUSAO -> {
+                    if (codigo == 0) {
+                        yield "Sem data";
+                    }
+                    int mes = c.mesMin + codigo - 1;
+                    yield String.format("%02d/%d", mes % 12 + 1, mes / 12);
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            return descricao;
+        }
+    }
+
+    /**
+     * Medidas em dias, somadas por célula (a média é soma / contagem)
+     */
+    public enum Medida {
+        DIAS_ATE_CONCLUSAO("Dias até a Conclusão"),
+        DIAS_DE_ATRASO("Dias de Atraso");
+
+        private final String descricao;
+
+        Medida(String descricao) {
+            this.descricao = descricao;
+        }
+
+        public String getDescricao() {
+            return descricao;
+        }
+
+        private int[] fim(Colunas c) {
+            return c.conclusao;
+        }
+
+        private int[] inicio(Colunas c) {
+            return this == DIAS_ATE_CONCLUSAO ? c.cadastro : c.prevista;
+        }
+
+        @Override
+        public String toString() {
+            return descricao;
+        }
+    }
+
+    /**
+     * Consulta de agregação sobre um instantâneo
+     */
+    public static final class Consulta {
+        private final Colunas colunas;
+        private Dimensao[] dimensoes = new Dimensao[0];
+        private int mascaraStatus = -1;
+        private int projetoCodigo = -1;
+        private int responsavelCodigo = -1;
+        private int atrasadasEm = SEM_DATA;
+        private boolean vazia;
+
+        private Consulta(Colunas colunas) {
+            this.colunas = colunas;
+        }
+
+        public Consulta agruparPor(Dimensao... dimensoes) {
+            this.dimensoes = dimensoes.clone();
+            return this;
+        }
+
+        public Consulta filtrarStatus(Tarefa.Status... aceitos) {
+            mascaraStatus = 0;
+            for (Tarefa.Status s : aceitos) {
+                mascaraStatus |= 1 << s.ordinal();
+            }
+            return this;
+        }
+
+        public Consulta filtrarProjeto(Integer projetoId) {
+            projetoCodigo = projetoId != null ? codigoDe(colunas.projetoIds, projetoId) : -1;
+            return this;
+        }
+
+        public Consulta filtrarResponsavel(Integer responsavelId) {
+            responsavelCodigo = responsavelId != null ? codigoDe(colunas.responsavelIds, responsavelId) : -1;
+            return this;
+        }
+
+        /**
+         * Apenas tarefas em aberto com data prevista anterior à data informada
+         */
+        public Consulta somenteAtrasadas(LocalDate referencia) {
+            atrasadasEm = dia(referencia);
+            return this;
+        }
+
+        /**
+         * Conta as tarefas de cada combinação das dimensões
+         */
+        public Pivot contar() {
+            return executar(null);
+        }
+
+        /**
+         * Conta e soma a medida em cada combinação das dimensões; entram
+         * apenas as tarefas em que a medida está definida
+         */
+        public Pivot medir(Medida medida) {
+            return executar(medida);
+        }
+
+        private Pivot executar(Medida medida) {
+            int[] cardinalidades = new int[dimensoes.length];
+            long celulas = 1;
+            for (int d = 0; d < dimensoes.length; d++) {
+                cardinalidades[d] = dimensoes[d].cardinalidade(colunas);
+                celulas *= cardinalidades[d];
+            }
+            if (celulas > LIMITE_CELULAS) {
+                throw new IllegalArgumentException("Combinação de dimensões grande demais: " + celulas + " células");
+            }
+
+            long[][] resultado;
+            if (vazia || colunas.tamanho == 0 || celulas == 0) {
+                resultado = new long[][] { new long[(int) celulas], new long[(int) celulas] };
+            } else {
+                Agregacao tarefa = new Agregacao(this, medida, (int) celulas, 0, colunas.tamanho);
+                resultado = colunas.tamanho <= getLimiarParalelo() ? tarefa.compute()
+                        : ForkJoinPool.commonPool().invoke(tarefa);
+            }
+            return new Pivot(colunas, dimensoes.clone(), cardinalidades, resultado[0],
+                    medida != null ? resultado[1] : null);
+        }
+
+        private int codigoDe(int[] ids, int id) {
+            for (int codigo = 0; codigo < ids.length; codigo++) {
+                if (ids[codigo] == id) {
+                    return codigo;
+                }
+            }
+            // Filtro por um id ausente não seleciona nenhuma linha
+            vazia = true;
+            return -1;
+        }
+
+        /**
+         * Agrega as linhas [ini, fim): calcula a chave da célula de cada linha
+         * (uma passada por coluna) e acumula por chave
+         */
+        private long[][] agregar(Medida medida, int celulas, int ini, int fim) {
+            Colunas c = colunas;
+            int n = fim - ini;
+            int[] chave = new int[n];
+
+            if (mascaraStatus != -1) {
+                byte[] col = c.status;
+                for (int j = 0; j < n; j++) {
+                    if (((mascaraStatus >>> col[ini + j]) & 1) == 0) {
+                        chave[j] = -1;
+                    }
+                }
+            }
+            if (projetoCodigo >= 0) {
+                excluirDiferentes(chave, c.projeto, projetoCodigo, ini);
+            }
+            if (responsavelCodigo >= 0) {
+                excluirDiferentes(chave, c.responsavel, responsavelCodigo, ini);
+            }
+            if (atrasadasEm != SEM_DATA) {
+                int[] prev = c.prevista;
+                byte[] st = c.status;
+                int abertos = (1 << Tarefa.Status.PENDENTE.ordinal()) | (1 << Tarefa.Status.EM_EXECUCAO.ordinal());
+                for (int j = 0; j < n; j++) {
+                    int p = prev[ini + j];
+                    if (p == SEM_DATA || p >= atrasadasEm || ((abertos >>> st[ini + j]) & 1) == 0) {
+                        chave[j] = -1;
+                    }
+                }
+            }
+
+            for (Dimensao d : dimensoes) {
+                int card = d.cardinalidade(c);
+                switch (d) {
+                    case STATUS -> codificar(chave, c.status, card, ini);
+                    case PRIORIDADE -> codificar(chave, c.prioridade, card, ini);
+                    case PROJETO -> codificar(chave, c.projeto, card, ini);
+                    case RESPONSAVEL -> codificar(chave, c.responsavel, card, ini);
+                    case MES_PREVISTO -> codificarMes(chave, c.mesPrevisto, c.mesMin, card, ini);
+                    case MES_CONCLUSAO -> codificarMes(chave, c.mesConclusao, c.mesMin, card, ini);
+                }
+            }
+
+            long[] contagem = new long[celulas];
+            long[] soma = new long[medida != null ? celulas : 0];
+            if (medida == null) {
+                for (int j = 0; j < n; j++) {
+                    int k = chave[j];
+                    if (k >= 0) {
+                        contagem[k]++;
+                    }
+                }
+            } else {
+                int[] a = medida.fim(c);
+                int[] b = medida.inicio(c);
+                for (int j = 0; j < n; j++) {
+                    int k = chave[j];
+                    int x = a[ini + j];
+                    int y = b[ini + j];
+                    if (k >= 0 && x != SEM_DATA && y != SEM_DATA) {
+                        contagem[k]++;
+                        soma[k] += x - y;
+                    }
+                }
+            }
+            return new long[][] { contagem, soma };
+        }
+
+        private static void excluirDiferentes(int[] chave, int[] col, int valor, int ini) {
+            for (int j = 0; j < chave.length; j++) {
+                if (col[ini + j] != valor) {
+                    chave[j] = -1;
+                }
+            }
+        }
+
+        private static void codificar(int[] chave, int[] col, int card, int ini) {
+            for (int j = 0; j < chave.length; j++) {
+                int k = chave[j];
+                chave[j] = k < 0 ? -1 : k * card + col[ini + j];
+            }
+        }
+
+        private static void codificar(int[] chave, byte[] col, int card, int ini) {
+            for (int j = 0; j < chave.length; j++) {
+                int k = chave[j];
+                chave[j] = k < 0 ? -1 : k * card + col[ini + j];
+            }
+        }
+
+        private static void codificarMes(int[] chave, int[] col, int mesMin, int card, int ini) {
+            for (int j = 0; j < chave.length; j++) {
+                int k = chave[j];
+                int m = col[ini + j];
+                chave[j] = k < 0 ? -1 : k * card + (m == SEM_DATA ? 0 : m - mesMin + 1);
+            }
+        }
+    }
+
+    private static int getLimiarParalelo() {
+        return Math.max(1024, AppConfig.getInt("analytics.parallel-threshold", 16_384));
+    }
+
+    /**
+     * Divide as linhas entre as threads do pool e soma os resultados parciais
+     */
+    private static class Agregacao extends RecursiveTask<long[][]> {
+        private static final long serialVersionUID = 1L;
+
+        private final Consulta consulta;
+        private final Medida medida;
+        private final int celulas;
+        private final int ini;
+        private final int fim;
+
+        Agregacao(Consulta consulta, Medida medida, int celulas, int ini, int fim) {
+            this.consulta = consulta;
+            this.medida = medida;
+            this.celulas = celulas;
+            this.ini = ini;
+            this.fim = fim;
+        }
+
+        @Override
+        protected long[][] compute() {
+            if (fim - ini <= getLimiarParalelo()) {
+                return consulta.agregar(medida, celulas, ini, fim);
+            }
+            int meio = (ini + fim) >>> 1;
+            Agregacao esquerda = new Agregacao(consulta, medida, celulas, ini, meio);
+            esquerda.fork();
+            long[][] direita = new Agregacao(consulta, medida, celulas, meio, fim).compute();
+            long[][] parcial = esquerda.join();
+
+            for (int r = 0; r < parcial.length; r++) {
+                for (int k = 0; k < parcial[r].length; k++) {
+                    parcial[r][k] += direita[r][k];
+                }
+            }
+            return parcial;
+        }
+    }
+
+    /**
+     * Resultado de uma agregação: uma célula por combinação de códigos das
+     * dimensões, na ordem em que foram informadas
+     */
+    public static final class Pivot {
+        private final Colunas colunas;
+        private final Dimensao[] dimensoes;
+        private final int[] cardinalidades;
+        private final long[] contagem;
+        private final long[] soma;
+
+        private Pivot(Colunas colunas, Dimensao[] dimensoes, int[] cardinalidades, long[] contagem, long[] soma) {
+            this.colunas = colunas;
+            this.dimensoes = dimensoes;
+            this.cardinalidades = cardinalidades;
+            this.contagem = contagem;
+            this.soma = soma;
+        }
+
+        public int getQuantidadeDimensoes() {
+            return dimensoes.length;
+        }
+
+        public Dimensao getDimensao(int d) {
+            return dimensoes[d];
+        }
+
+        public int getCardinalidade(int d) {
+            return cardinalidades[d];
+        }
+
+        public String getRotulo(int d, int codigo) {
+            return dimensoes[d].rotulo(colunas, codigo);
+        }
+
+        public long getContagem(int... codigos) {
+            return contagem[celula(codigos)];
+        }
+
+        public long getSoma(int... codigos) {
+            return soma != null ? soma[celula(codigos)] : 0;
+        }
+
+        /**
+         * Média da medida na célula (NaN se a célula estiver vazia)
+         */
+        public double getMedia(int... codigos) {
+            int k = celula(codigos);
+            return soma != null && contagem[k] > 0 ? (double) soma[k] / contagem[k] : Double.NaN;
+        }
+
+        public long getTotal() {
+            long total = 0;
+            for (long valor : contagem) {
+                total += valor;
+            }
+            return total;
+        }
+
+        /**
+         * Percorre as células não vazias
+         */
+        public void forEach(Visitante visitante) {
+            int[] codigos = new int[dimensoes.length];
+            for (int k = 0; k < contagem.length; k++) {
+                if (contagem[k] == 0) {
+                    continue;
+                }
+                int resto = k;
+                for (int d = dimensoes.length - 1; d >= 0; d--) {
+                    codigos[d] = resto % cardinalidades[d];
+                    resto /= cardinalidades[d];
+                }
+                visitante.visitar(codigos, contagem[k], soma != null ? soma[k] : 0);
+            }
+        }
+
+        private int celula(int[] codigos) {
+            if (codigos.length != dimensoes.length) {
+                throw new IllegalArgumentException("Esperados " + dimensoes.length + " códigos");
+            }
+            int k = 0;
+            for (int d = 0; d < codigos.length; d++) {
+                k = k * cardinalidades[d] + codigos[d];
+            }
+            return k;
+        }
+
+        /**
+         * Visitante das células de um Pivot
+         */
+        public interface Visitante {
+            void visitar(int[] codigos, long contagem, long soma);
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package com.gestao.projetos.util;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import javafx.application.Platform;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas de execução do aplicativo no formato texto do Prometheus,
+ * servidas em http://telemetria.endereco:telemetria.porta/metrics quando
+ * telemetria.enabled=true.
+ *
+ * Os contadores (LongAdder) são sempre atualizados: incrementá-los custa
+ * poucos nanossegundos e não exige bloqueio. O que tem custo maior só é
+ * feito com a telemetria ligada: o tempo das chamadas aos DAOs (medido do
+ * empréstimo à devolução da conexão, por método do DAO que a pediu) e a
+ * verificação periódica da thread do JavaFX, que conta os travamentos
+ * (atraso acima de telemetria.fx.travamento-ms para executar uma tarefa
+ * enviada com Platform.runLater). Pools, memória, coleta de lixo e sessão
+ * são lidos no momento da coleta.
+ */
+public class Telemetria {
+
+    // Limites das faixas dos histogramas de tempo, em segundos
+    private static final double[] FAIXAS = { 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1,
+            2.5, 5, 10 };
+    private static final String[] ROTULOS_FAIXAS = new String[FAIXAS.length];
+
+    static {
+        for (int i = 0; i < FAIXAS.length; i++) {
+            ROTULOS_FAIXAS[i] = BigDecimal.valueOf(FAIXAS[i]).stripTrailingZeros().toPlainString();
+        }
+    }
+
+    private static final String PACOTE_DAO = "com.gestao.projetos.dao.";
+    private static final StackWalker PILHA = StackWalker.getInstance();
+
+    private static final Map<String, Histograma> chamadasDao = new ConcurrentHashMap<>();
+    private static final Map<String, Cache> caches = new ConcurrentHashMap<>();
+    private static final Map<String, ConnectionPool> pools = new ConcurrentHashMap<>();
+    private static final Histograma atrasoFx = new Histograma();
+    private static final LongAdder travamentosFx = new LongAdder();
+    private static final AtomicBoolean verificacaoFxPendente = new AtomicBoolean();
+
+    private static volatile boolean ativa;
+    private static HttpServer servidor;
+    private static ScheduledExecutorService executor;
+
+    /**
+     * Inicia o servidor e a verificação da thread do JavaFX, se
+     * telemetria.enabled=true (chamadas repetidas são ignoradas)
+     */
+    public static synchronized void start() {
+        if (servidor != null || !AppConfig.getBoolean("telemetria.enabled", false)) {
+            return;
+        }
+
+        String endereco = AppConfig.get("telemetria.endereco", "127.0.0.1");
+        int porta = AppConfig.getInt("telemetria.porta", 9464);
+        try {
+            servidor = HttpServer.create(new InetSocketAddress(endereco, porta), 0);
+        } catch (IOException e) {
+            System.err.println("Telemetria desativada: porta " + porta + " indisponível (" + e.getMessage() + ")");
+            return;
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "telemetria");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        servidor.setExecutor(executor);
+        servidor.createContext("/metrics", Telemetria::responder);
+        servidor.start();
+
+        long intervalo = Math.max(10, AppConfig.getLong("telemetria.fx.intervalo-ms", 100));
+        executor.scheduleWithFixedDelay(Telemetria::verificarFx, intervalo, intervalo, TimeUnit.MILLISECONDS);
+        ativa = true;
+    }
+
+    /**
+     * Encerra o servidor e a verificação (os contadores são mantidos)
+     */
+    public static synchronized void stop() {
+        ativa = false;
+        if (servidor != null) {
+            servidor.stop(0);
+            servidor = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    public static boolean isAtiva() {
+        return ativa;
+    }
+
+    // ========== INSTRUMENTAÇÃO ==========
+
+    /**
+     * Contadores de acertos e faltas de um cache (o mesmo objeto para o
+     * mesmo nome)
+     */
+    public static Cache cache(String nome) {
+        return caches.computeIfAbsent(nome, k -> new Cache());
+    }
+
+    /**
+     * Inclui o pool na coleta (substitui o anterior com o mesmo nome)
+     */
+    public static void registrarPool(String nome, ConnectionPool pool) {
+        pools.put(nome, pool);
+    }
+
+    public static void removerPool(String nome) {
+        pools.remove(nome);
+    }
+
+    /**
+     * Início de uma chamada de DAO, no empréstimo da conexão; null com a
+     * telemetria desligada
+     */
+    static Chamada iniciarChamadaDao() {
+        if (!ativa) {
+            return null;
+        }
+        String metodo = metodoDao();
+        return new Chamada(chamadasDao.computeIfAbsent(metodo != null ? metodo : "outros", k -> new Histograma()),
+                System.nanoTime());
+    }
+
+    /**
+     * Método do DAO que está pedindo a conexão ("TarefaDAO.findAll"), ou null
+     * se não há DAO na pilha
+     */
+    static String metodoDao() {
+        return PILHA.walk(frames -> metodoDao(frames.iterator()));
+    }
+
+    /**
+     * Método do DAO chamado de fora do pacote dao (o mais externo da
+     * sequência de chamadas dentro do pacote)
+     */
+    private static String metodoDao(Iterator<StackWalker.StackFrame> frames) {
+        StackWalker.StackFrame entrada = null;
+        while (frames.hasNext()) {
+            StackWalker.StackFrame frame = frames.next();
+            if (frame.getClassName().startsWith(PACOTE_DAO)) {
+                entrada = frame;
+            } else if (entrada != null) {
+                break;
+            }
+        }
+        if (entrada == null) {
+            return null;
+        }
+        String classe = entrada.getClassName();
+        return classe.substring(classe.lastIndexOf('.') + 1) + "." + entrada.getMethodName();
+    }
+
+    /**
+     * Chamada de DAO em andamento
+     */
+    record Chamada(Histograma histograma, long inicio) {
+
+        void encerrar() {
+            histograma.observar((System.nanoTime() - inicio) / 1e9);
+        }
+    }
+
+    /**
+     * Acertos e faltas de um cache
+     */
+    public static class Cache {
+        private final LongAdder acertos = new LongAdder();
+        private final LongAdder faltas = new LongAdder();
+
+        public void acerto() {
+            acertos.increment();
+        }
+
+        public void falta() {
+            faltas.increment();
+        }
+    }
+
+    /**
+     * Histograma de tempos com faixas fixas (FAIXAS) e contadores sem
+     * bloqueio
+     */
+    static class Histograma {
+        private final LongAdder[] contagens = new LongAdder[FAIXAS.length + 1];
+        private final LongAdder somaMicros = new LongAdder();
+
+        Histograma() {
+            for (int i = 0; i < contagens.length; i++) {
+                contagens[i] = new LongAdder();
+            }
+        }
+
+        void observar(double segundos) {
+            int faixa = 0;
+            while (faixa < FAIXAS.length && segundos > FAIXAS[faixa]) {
+                faixa++;
+            }
+            contagens[faixa].increment();
+            somaMicros.add(Math.round(segundos * 1e6));
+        }
+
+        void escrever(StringBuilder saida, String nome, String rotulos) {
+            String prefixo = rotulos.isEmpty() ? "" : rotulos + ",";
+            long acumulado = 0;
+            for (int i = 0; i < FAIXAS.length; i++) {
+                acumulado += contagens[i].sum();
+                linha(saida, nome + "_bucket", "{" + prefixo + "le=\"" + ROTULOS_FAIXAS[i] + "\"}", acumulado);
+            }
+            acumulado += contagens[FAIXAS.length].sum();
+            linha(saida, nome + "_bucket", "{" + prefixo + "le=\"+Inf\"}", acumulado);
+
+            String chaves = rotulos.isEmpty() ? "" : "{" + rotulos + "}";
+            linha(saida, nome + "_sum", chaves, somaMicros.sum() / 1e6);
+            linha(saida, nome + "_count", chaves, acumulado);
+        }
+    }
+
+    // ========== THREAD DO JAVAFX ==========
+
+    /**
+     * Envia uma tarefa vazia para a thread do JavaFX e mede quanto ela
+     * demora a ser executada (só uma pendente por vez: enquanto a thread
+     * está travada não se acumulam verificações)
+     */
+    private static void verificarFx() {
+        if (!verificacaoFxPendente.compareAndSet(false, true)) {
+            return;
+        }
+        long enviadaEm = System.nanoTime();
+        long limite = TimeUnit.MILLISECONDS.toNanos(AppConfig.getLong("telemetria.fx.travamento-ms", 250));
+        try {
+            Platform.runLater(() -> {
+                long atraso = System.nanoTime() - enviadaEm;
+                atrasoFx.observar(atraso / 1e9);
+                if (atraso > limite) {
+                    travamentosFx.increment();
+                }
+                verificacaoFxPendente.set(false);
+            });
+        } catch (IllegalStateException e) {
+            // JavaFX não iniciado (ferramentas de linha de comando)
+            verificacaoFxPendente.set(false);
+        }
+    }
+
+    // ========== EXPOSIÇÃO ==========
+
+    private static void responder(HttpExchange troca) throws IOException {
+        byte[] corpo = coletar().getBytes(StandardCharsets.UTF_8);
+        troca.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        troca.sendResponseHeaders(200, corpo.length);
+        try (OutputStream saida = troca.getResponseBody()) {
+            saida.write(corpo);
+        }
+    }
+
+    /**
+     * Todas as métricas no formato texto do Prometheus
+     */
+    static String coletar() {
+        StringBuilder saida = new StringBuilder(16_384);
+
+        cabecalho(saida, "gestao_dao_chamada_segundos", "histogram",
+                "Tempo das chamadas aos DAOs, do empréstimo à devolução da conexão, por método");
+        for (Map.Entry<String, Histograma> entrada : new TreeMap<>(chamadasDao).entrySet()) {
+            entrada.getValue().escrever(saida, "gestao_dao_chamada_segundos",
+                    "metodo=\"" + escapar(entrada.getKey()) + "\"");
+        }
+
+        cabecalho(saida, "gestao_pool_conexoes", "gauge", "Conexões do pool por estado");
+        for (Map.Entry<String, ConnectionPool> entrada : new TreeMap<>(pools).entrySet()) {
+            String pool = "pool=\"" + escapar(entrada.getKey()) + "\"";
+            linha(saida, "gestao_pool_conexoes", "{" + pool + ",estado=\"ociosas\"}", entrada.getValue().getIdleCount());
+            linha(saida, "gestao_pool_conexoes", "{" + pool + ",estado=\"em_uso\"}",
+                    entrada.getValue().getActiveCount());
+        }
+        cabecalho(saida, "gestao_pool_conexoes_max", "gauge", "Tamanho máximo do pool");
+        for (Map.Entry<String, ConnectionPool> entrada : new TreeMap<>(pools).entrySet()) {
+            linha(saida, "gestao_pool_conexoes_max", "{pool=\"" + escapar(entrada.getKey()) + "\"}",
+                    entrada.getValue().getMaxSize());
+        }
+        cabecalho(saida, "gestao_pool_conexoes_abertas_total", "counter", "Conexões físicas abertas pelo pool");
+        for (Map.Entry<String, ConnectionPool> entrada : new TreeMap<>(pools).entrySet()) {
+            linha(saida, "gestao_pool_conexoes_abertas_total", "{pool=\"" + escapar(entrada.getKey()) + "\"}",
+                    entrada.getValue().getTotalCreated());
+        }
+        cabecalho(saida, "gestao_pool_espera_esgotada_total", "counter",
+                "Pedidos de conexão recusados por tempo esgotado com o pool cheio");
+        for (Map.Entry<String, ConnectionPool> entrada : new TreeMap<>(pools).entrySet()) {
+            linha(saida, "gestao_pool_espera_esgotada_total", "{pool=\"" + escapar(entrada.getKey()) + "\"}",
+                    entrada.getValue().getTimeoutCount());
+        }
+
+        cabecalho(saida, "gestao_cache_acertos_total", "counter", "Consultas atendidas pelo cache");
+        for (Map.Entry<String, Cache> entrada : new TreeMap<>(caches).entrySet()) {
+            linha(saida, "gestao_cache_acertos_total", "{cache=\"" + escapar(entrada.getKey()) + "\"}",
+                    entrada.getValue().acertos.sum());
+        }
+        cabecalho(saida, "gestao_cache_faltas_total", "counter", "Consultas não atendidas pelo cache");
+        for (Map.Entry<String, Cache> entrada : new TreeMap<>(caches).entrySet()) {
+            linha(saida, "gestao_cache_faltas_total", "{cache=\"" + escapar(entrada.getKey()) + "\"}",
+                    entrada.getValue().faltas.sum());
+        }
+
+        cabecalho(saida, "gestao_fx_atraso_segundos", "histogram",
+                "Atraso da thread do JavaFX para executar uma tarefa enviada com Platform.runLater");
+        atrasoFx.escrever(saida, "gestao_fx_atraso_segundos", "");
+        cabecalho(saida, "gestao_fx_travamentos_total", "counter",
+                "Verificações da thread do JavaFX com atraso acima de telemetria.fx.travamento-ms");
+        linha(saida, "gestao_fx_travamentos_total", "", travamentosFx.sum());
+
+        cabecalho(saida, "gestao_sessoes_ativas", "gauge", "Usuários com sessão aberta nesta instância");
+        linha(saida, "gestao_sessoes_ativas", "", SessionManager.isLoggedIn() ? 1 : 0);
+
+        coletarJvm(saida);
+        return saida.toString();
+    }
+
+    private static void coletarJvm(StringBuilder saida) {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        MemoryUsage foraHeap = ManagementFactory.getMemoryMXBean().getNonHeapMemoryUsage();
+        cabecalho(saida, "jvm_memory_bytes_used", "gauge", "Memória em uso");
+        linha(saida, "jvm_memory_bytes_used", "{area=\"heap\"}", heap.getUsed());
+        linha(saida, "jvm_memory_bytes_used", "{area=\"nonheap\"}", foraHeap.getUsed());
+        cabecalho(saida, "jvm_memory_bytes_committed", "gauge", "Memória reservada");
+        linha(saida, "jvm_memory_bytes_committed", "{area=\"heap\"}", heap.getCommitted());
+        linha(saida, "jvm_memory_bytes_committed", "{area=\"nonheap\"}", foraHeap.getCommitted());
+        cabecalho(saida, "jvm_memory_bytes_max", "gauge", "Memória máxima (-1 se indefinida)");
+        linha(saida, "jvm_memory_bytes_max", "{area=\"heap\"}", heap.getMax());
+
+        cabecalho(saida, "jvm_gc_collection_seconds", "summary", "Coletas de lixo e tempo gasto, por coletor");
+        for (GarbageCollectorMXBean coletor : ManagementFactory.getGarbageCollectorMXBeans()) {
+            String gc = "{gc=\"" + escapar(coletor.getName()) + "\"}";
+            linha(saida, "jvm_gc_collection_seconds_count", gc, Math.max(0, coletor.getCollectionCount()));
+            linha(saida, "jvm_gc_collection_seconds_sum", gc, Math.max(0, coletor.getCollectionTime()) / 1000.0);
+        }
+
+        cabecalho(saida, "jvm_threads_current", "gauge", "Threads em execução");
+        linha(saida, "jvm_threads_current", "", ManagementFactory.getThreadMXBean().getThreadCount());
+
+        cabecalho(saida, "process_start_time_seconds", "gauge", "Início do processo, em segundos desde 1970");
+        linha(saida, "process_start_time_seconds", "", ManagementFactory.getRuntimeMXBean().getStartTime() / 1000.0);
+    }
+
+    private static void cabecalho(StringBuilder saida, String nome, String tipo, String ajuda) {
+        saida.append("# HELP ").append(nome).append(' ').append(ajuda.replace("\\", "\\\\").replace("\n", "\\n"))
+                .append('\n');
+        saida.append("# TYPE ").append(nome).append(' ').append(tipo).append('\n');
+    }
+
+    private static void linha(StringBuilder saida, String nome, String rotulos, double valor) {
+        saida.append(nome).append(rotulos).append(' ');
+        if (valor == Math.rint(valor) && !Double.isInfinite(valor)) {
+            saida.append((long) valor);
+        } else {
+            saida.append(valor);
+        }
+        saida.append('\n');
+    }
+
+    private static String escapar(String valor) {
+        return Optional.ofNullable(valor).orElse("").replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
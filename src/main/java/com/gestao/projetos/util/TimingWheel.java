@@ -0,0 +1,177 @@
+package com.gestao.projetos.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Roda de tempo hierárquica para temporizadores identificados por um int.
+ *
+ * O tempo é contado em ticks de duração fixa. Cada nível tem 64 posições: o
+ * nível 0 cobre os próximos 64 ticks, o nível 1 os próximos 64², e assim por
+ * diante. Agendar e cancelar custam O(1) (listas duplamente encadeadas em
+ * cada posição); ao avançar, cada tick dispara apenas a posição atual do
+ * nível 0 e, quando um nível completa uma volta, as entradas da próxima
+ * posição do nível acima são redistribuídas nos níveis abaixo.
+ *
+ * Prazos além do último nível ficam na última posição alcançável e são
+ * reposicionados quando ela é redistribuída.
+ *
+ * Não é thread-safe: deve ser usada por uma thread de cada vez.
+ */
+public class TimingWheel {
+
+    private static final int BITS = 6;
+    private static final int POSICOES = 1 << BITS;
+    private static final int MASCARA = POSICOES - 1;
+    private static final int NIVEIS = 5;
+
+    private final long duracaoTick;
+    private final No[][] posicoes = new No[NIVEIS][POSICOES];
+    private final Map<Integer, No> agendados = new HashMap<>();
+
+    // Último tick já processado
+    private long tickAtual;
+
+    /**
+     * Cria a roda com ticks de duracaoTickMs, começando no instante informado
+     */
+    public TimingWheel(long duracaoTickMs, long agoraMs) {
+        if (duracaoTickMs <= 0) {
+            throw new IllegalArgumentException("Duração do tick deve ser positiva");
+        }
+        this.duracaoTick = duracaoTickMs;
+        this.tickAtual = agoraMs / duracaoTickMs;
+    }
+
+    public int size() {
+        return agendados.size();
+    }
+
+    public boolean contains(int id) {
+        return agendados.containsKey(id);
+    }
+
+    /**
+     * Agenda (ou reagenda) o temporizador para o instante informado; um
+     * instante já passado dispara no próximo tick
+     */
+    public void agendar(int id, long instanteMs) {
+        cancelar(id);
+
+        No no = new No(id, Math.max(tickAtual + 1, Math.floorDiv(instanteMs, duracaoTick)));
+        agendados.put(id, no);
+        inserir(no);
+    }
+
+    /**
+     * Cancela o temporizador (sem efeito se não estiver agendado)
+     */
+    public boolean cancelar(int id) {
+        No no = agendados.remove(id);
+        if (no == null) {
+            return false;
+        }
+        desligar(no);
+        return true;
+    }
+
+    /**
+     * Processa os ticks até o instante informado, entregando os ids cujo
+     * prazo chegou (na ordem dos ticks)
+     */
+    public void avancar(long agoraMs, IntConsumer vencidos) {
+        long alvo = Math.floorDiv(agoraMs, duracaoTick);
+
+        while (tickAtual < alvo) {
+            long tick = ++tickAtual;
+
+            // Redistribui de cima para baixo: as entradas podem cair em uma
+            // posição de nível inferior que também precisa ser redistribuída
+            for (int nivel = NIVEIS - 1; nivel > 0; nivel--) {
+                if ((tick & ((1L << (BITS * nivel)) - 1)) == 0) {
+                    redistribuir(nivel, (int) ((tick >>> (BITS * nivel)) & MASCARA));
+                }
+            }
+
+            int posicao = (int) (tick & MASCARA);
+            No no = posicoes[0][posicao];
+            posicoes[0][posicao] = null;
+            while (no != null) {
+                No proximo = no.proximo;
+                no.anterior = null;
+                no.proximo = null;
+                agendados.remove(no.id);
+                vencidos.accept(no.id);
+                no = proximo;
+            }
+        }
+    }
+
+    private void redistribuir(int nivel, int posicao) {
+        No no = posicoes[nivel][posicao];
+        posicoes[nivel][posicao] = null;
+        while (no != null) {
+            No proximo = no.proximo;
+            no.anterior = null;
+            no.proximo = null;
+            inserir(no);
+            no = proximo;
+        }
+    }
+
+    private void inserir(No no) {
+        long distancia = no.tick - tickAtual;
+
+        int nivel = 0;
+        while (nivel < NIVEIS - 1 && distancia >= 1L << (BITS * (nivel + 1))) {
+            nivel++;
+        }
+
+        long tick = no.tick;
+        long alcance = 1L << (BITS * (nivel + 1));
+        if (distancia >= alcance) {
+            // Além do último nível: fica na posição mais distante alcançável
+            tick = tickAtual + alcance - 1;
+        }
+
+        int posicao = (int) ((tick >>> (BITS * nivel)) & MASCARA);
+        no.nivel = nivel;
+        no.posicao = posicao;
+        no.proximo = posicoes[nivel][posicao];
+        if (no.proximo != null) {
+            no.proximo.anterior = no;
+        }
+        posicoes[nivel][posicao] = no;
+    }
+
+    private void desligar(No no) {
+        if (no.anterior != null) {
+            no.anterior.proximo = no.proximo;
+        } else if (posicoes[no.nivel][no.posicao] == no) {
+            posicoes[no.nivel][no.posicao] = no.proximo;
+        }
+        if (no.proximo != null) {
+            no.proximo.anterior = no.anterior;
+        }
+        no.anterior = null;
+        no.proximo = null;
+    }
+
+    /**
+     * Temporizador agendado
+     */
+    private static class No {
+        final int id;
+        final long tick;
+        int nivel;
+        int posicao;
+        No anterior;
+        No proximo;
+
+        No(int id, long tick) {
+            this.id = id;
+            this.tick = tick;
+        }
+    }
+}
@@ -4,6 +4,8 @@ module gestao.projetos {
     requires javafx.fxml;
     requires java.sql;
     requires java.desktop;
+    requires java.management;
+    requires jdk.httpserver;
 
     exports com.gestao.projetos;
     exports com.gestao.projetos.controller;
@@ -0,0 +1,37 @@
+package com.gestao.projetos.dao;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+
+/**
+ * Banco embutido (H2) para os testes de DAO, criado em um diretório
+ * temporário com o script do banco (database/java.sql) e os dados iniciais
+ */
+final class BancoTeste {
+
+    private static boolean configurado;
+
+    private BancoTeste() {
+    }
+
+    /**
+     * Aponta a aplicação para o banco de teste; deve ser chamado antes do
+     * primeiro uso de DatabaseConnection (o dialeto é lido uma única vez)
+     */
+    static synchronized void configurar() {
+        if (configurado) {
+            return;
+        }
+        try {
+            String arquivo = Files.createTempDirectory("gestao-teste").resolve("banco").toString();
+            System.setProperty("db.modo", "embutido");
+            System.setProperty("db.embutido.arquivo", arquivo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        System.setProperty("db.pool.max-size", "16");
+        System.setProperty("auditoria.enabled", "false");
+        configurado = true;
+    }
+}
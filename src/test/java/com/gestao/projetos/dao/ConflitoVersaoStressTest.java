@@ -0,0 +1,124 @@
+package com.gestao.projetos.dao;
+
+import com.gestao.projetos.model.Projeto;
+import com.gestao.projetos.model.Tarefa;
+import com.gestao.projetos.util.DatabaseConnection;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Várias sessões editando o mesmo registro ao mesmo tempo, cada uma
+ * relendo e tentando de novo ao receber ConflitoVersaoException: nenhuma
+ * edição se perde e a versão final conta exatamente as gravações aceitas
+ */
+class ConflitoVersaoStressTest {
+
+    private static final int SESSOES = 8;
+    private static final int EDICOES = 25;
+
+    private final TarefaDAO tarefaDAO = new TarefaDAO();
+    private final ProjetoDAO projetoDAO = new ProjetoDAO();
+
+    @BeforeAll
+    static void configurar() {
+        BancoTeste.configurar();
+    }
+
+    @AfterAll
+    static void fechar() {
+        DatabaseConnection.closeConnection();
+    }
+
+    @Test
+    void edicoesConcorrentesDeTarefaNaoSePerdem() throws Exception {
+        Tarefa tarefa = new Tarefa("Estresse", "0", 1, 4, null);
+        tarefaDAO.save(tarefa);
+        int versaoInicial = tarefaDAO.findById(tarefa.getId()).getVersao();
+
+        executarSessoes(() -> {
+            while (true) {
+                Tarefa lida = tarefaDAO.findById(tarefa.getId());
+                lida.setDescricao(String.valueOf(Integer.parseInt(lida.getDescricao()) + 1));
+                try {
+                    tarefaDAO.update(lida);
+                    return;
+                } catch (ConflitoVersaoException e) {
+                    assertNotNull(e.getAtual());
+                }
+            }
+        });
+
+        Tarefa atual = tarefaDAO.findById(tarefa.getId());
+        assertEquals(SESSOES * EDICOES, Integer.parseInt(atual.getDescricao()));
+        assertEquals(versaoInicial + SESSOES * EDICOES, atual.getVersao());
+    }
+
+    @Test
+    void edicoesConcorrentesDeProjetoNaoSePerdem() throws Exception {
+        int projetoId = 2;
+        Projeto inicial = projetoDAO.findById(projetoId);
+        inicial.setDescricao("0");
+        projetoDAO.update(inicial);
+        int versaoInicial = inicial.getVersao();
+
+        executarSessoes(() -> {
+            while (true) {
+                Projeto lido = projetoDAO.findById(projetoId);
+                lido.setDescricao(String.valueOf(Integer.parseInt(lido.getDescricao()) + 1));
+                try {
+                    projetoDAO.update(lido);
+                    return;
+                } catch (ConflitoVersaoException e) {
+                    assertNotNull(e.getAtual());
+                }
+            }
+        });
+
+        Projeto atual = projetoDAO.findById(projetoId);
+        assertEquals(SESSOES * EDICOES, Integer.parseInt(atual.getDescricao()));
+        assertEquals(versaoInicial + SESSOES * EDICOES, atual.getVersao());
+    }
+
+    /**
+     * Uma edição com releitura até ser aceita
+     */
+    private interface Edicao {
+        void executar() throws SQLException;
+    }
+
+    private static void executarSessoes(Edicao edicao) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(SESSOES);
+        try {
+            CyclicBarrier largada = new CyclicBarrier(SESSOES);
+            List<Future<?>> sessoes = new ArrayList<>();
+            for (int i = 0; i < SESSOES; i++) {
+                sessoes.add(executor.submit(() -> {
+                    largada.await();
+                    for (int j = 0; j < EDICOES; j++) {
+                        edicao.executar();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> sessao : sessoes) {
+                sessao.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
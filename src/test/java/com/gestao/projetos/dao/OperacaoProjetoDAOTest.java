@@ -0,0 +1,66 @@
+package com.gestao.projetos.dao;
+
+import com.gestao.projetos.model.OperacaoProjeto;
+import com.gestao.projetos.util.DatabaseConnection;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Agendamentos simultâneos no mesmo projeto: o banco aceita apenas uma
+ * operação em andamento
+ */
+class OperacaoProjetoDAOTest {
+
+    private static final int SESSOES = 6;
+
+    private final OperacaoProjetoDAO operacaoDAO = new OperacaoProjetoDAO();
+
+    @BeforeAll
+    static void configurar() {
+        BancoTeste.configurar();
+    }
+
+    @AfterAll
+    static void fechar() {
+        DatabaseConnection.closeConnection();
+    }
+
+    @Test
+    void somenteUmaOperacaoEmAndamentoPorProjeto() throws Exception {
+        int projetoId = 3;
+        ExecutorService executor = Executors.newFixedThreadPool(SESSOES);
+        int aceitas = 0;
+        try {
+            CyclicBarrier largada = new CyclicBarrier(SESSOES);
+            List<Future<Boolean>> agendamentos = new ArrayList<>();
+            for (int i = 0; i < SESSOES; i++) {
+                agendamentos.add(executor.submit(() -> {
+                    OperacaoProjeto operacao = new OperacaoProjeto(projetoId, OperacaoProjeto.Tipo.CANCELAMENTO, 1);
+                    largada.await();
+                    return operacaoDAO.save(operacao, "teste");
+                }));
+            }
+            for (Future<Boolean> agendamento : agendamentos) {
+                if (agendamento.get(30, TimeUnit.SECONDS)) {
+                    aceitas++;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, aceitas);
+    }
+}
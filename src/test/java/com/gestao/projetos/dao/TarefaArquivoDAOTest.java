@@ -0,0 +1,78 @@
+package com.gestao.projetos.dao;
+
+import com.gestao.projetos.model.Tarefa;
+import com.gestao.projetos.util.DatabaseConnection;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Seleção das tarefas elegíveis ao arquivo: leitura das candidatas sem
+ * bloqueio seguida do bloqueio pela chave primária
+ */
+class TarefaArquivoDAOTest {
+
+    private final TarefaDAO tarefaDAO = new TarefaDAO();
+    private final TarefaArquivoDAO arquivoDAO = new TarefaArquivoDAO();
+
+    @BeforeAll
+    static void configurar() {
+        BancoTeste.configurar();
+    }
+
+    @AfterAll
+    static void fechar() {
+        DatabaseConnection.closeConnection();
+    }
+
+    @Test
+    void arquivaSomenteAsElegiveisSemDependentes() throws SQLException {
+        // Esvazia o que já estava elegível nos dados iniciais
+        arquivoDAO.arquivarLote(24, 365, Integer.MAX_VALUE);
+
+        int antiga = criar(Tarefa.Status.CONCLUIDA, "2020-01-10");
+        int prerequisito = criar(Tarefa.Status.CONCLUIDA, "2020-01-10");
+        int recente = criar(Tarefa.Status.CONCLUIDA, null);
+        int aberta = criar(Tarefa.Status.PENDENTE, null);
+        executar("INSERT INTO tarefa_dependencia (tarefa_id, depende_de_id) VALUES (?, ?)", aberta, prerequisito);
+
+        assertEquals(1, arquivoDAO.arquivarLote(24, 365, 500));
+
+        assertNull(tarefaDAO.findById(antiga));
+        assertNotNull(tarefaDAO.findById(prerequisito));
+        assertNotNull(tarefaDAO.findById(recente));
+        assertNotNull(tarefaDAO.findById(aberta));
+
+        assertTrue(arquivoDAO.restaurar(antiga));
+        assertNotNull(tarefaDAO.findById(antiga));
+    }
+
+    private int criar(Tarefa.Status status, String conclusao) throws SQLException {
+        Tarefa tarefa = new Tarefa("Arquivo", "Elegibilidade", 1, 4, null);
+        tarefaDAO.save(tarefa);
+        executar("UPDATE tarefas SET status = '" + status.name() + "', data_conclusao_real = "
+                + (conclusao != null ? "DATE '" + conclusao + "'" : "CURRENT_DATE") + " WHERE id = ?",
+                tarefa.getId());
+        return tarefa.getId();
+    }
+
+    private static void executar(String sql, Integer... parametros) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < parametros.length; i++) {
+                stmt.setInt(i + 1, parametros[i]);
+            }
+            stmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.gestao.projetos.dao;
+
+import com.gestao.projetos.model.Tarefa;
+import com.gestao.projetos.util.DatabaseConnection;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Gravações simultâneas da mesma tarefa: uma vence e a outra recebe
+ * ConflitoVersaoException (nunca um deadlock), e o histórico registra uma
+ * transição por mudança de status efetivamente gravada
+ */
+class TarefaDAOConcorrenciaTest {
+
+    private static final int RODADAS = 40;
+
+    private final TarefaDAO tarefaDAO = new TarefaDAO();
+
+    @BeforeAll
+    static void configurar() {
+        BancoTeste.configurar();
+    }
+
+    @AfterAll
+    static void fechar() {
+        DatabaseConnection.closeConnection();
+    }
+
+    @Test
+    void edicoesSimultaneasDaMesmaVersaoTerminamEmUmConflito() throws Exception {
+        Tarefa tarefa = criarTarefa();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int rodada = 0; rodada < RODADAS; rodada++) {
+                Tarefa.Status statusAntes = tarefaDAO.findById(tarefa.getId()).getStatus();
+                Tarefa primeira = tarefaDAO.findById(tarefa.getId());
+                Tarefa segunda = tarefaDAO.findById(tarefa.getId());
+                primeira.setStatus(rodada % 2 == 0 ? Tarefa.Status.EM_EXECUCAO : Tarefa.Status.PENDENTE);
+                segunda.setStatus(Tarefa.Status.CONCLUIDA);
+                long eventosAntes = contarEventos(tarefa.getId());
+
+                CyclicBarrier largada = new CyclicBarrier(2);
+                Future<Boolean> a = executor.submit(gravar(primeira, largada));
+                Future<Boolean> b = executor.submit(gravar(segunda, largada));
+                boolean gravouA = a.get(30, TimeUnit.SECONDS);
+                boolean gravouB = b.get(30, TimeUnit.SECONDS);
+
+                assertTrue(gravouA ^ gravouB, "exatamente uma gravação deve vencer");
+
+                Tarefa vencedora = gravouA ? primeira : segunda;
+                Tarefa atual = tarefaDAO.findById(tarefa.getId());
+                assertEquals(vencedora.getStatus(), atual.getStatus());
+                assertEquals(vencedora.getVersao(), atual.getVersao());
+                assertEquals(eventosAntes + (statusAntes != vencedora.getStatus() ? 1 : 0),
+                        contarEventos(tarefa.getId()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void trocasDeStatusEmLoteSimultaneasNaoTravam() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            ids.add(criarTarefa().getId());
+        }
+
+        int threads = 6;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CyclicBarrier largada = new CyclicBarrier(threads);
+            List<Future<?>> resultados = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Tarefa.Status status = Tarefa.Status.values()[t % 3];
+                List<Integer> ordem = new ArrayList<>(ids);
+                Collections.shuffle(ordem);
+                resultados.add(executor.submit(() -> {
+                    Map<Integer, Tarefa.Status> lote = new LinkedHashMap<>();
+                    ordem.forEach(id -> lote.put(id, status));
+                    largada.await();
+                    tarefaDAO.updateStatus(lote);
+                    return null;
+                }));
+            }
+            for (Future<?> resultado : resultados) {
+                resultado.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // O histórico de cada tarefa forma uma cadeia: cada transição parte do
+        // status em que a anterior deixou a tarefa e a última chega ao atual
+        for (Integer id : ids) {
+            Tarefa.Status status = Tarefa.Status.PENDENTE;
+            for (Tarefa.Status[] transicao : transicoes(id)) {
+                assertEquals(status, transicao[0]);
+                assertTrue(transicao[0] != transicao[1]);
+                status = transicao[1];
+            }
+            assertEquals(status, tarefaDAO.findById(id).getStatus());
+        }
+    }
+
+    @Test
+    void loteMaiorQueUmBloqueioIgnoraTarefasInexistentes() throws Exception {
+        Map<Integer, Tarefa.Status> lote = new LinkedHashMap<>();
+        for (int i = 0; i < 520; i++) {
+            lote.put(criarTarefa().getId(), Tarefa.Status.EM_EXECUCAO);
+        }
+        int inexistente = Collections.max(lote.keySet()) + 1_000;
+        lote.put(inexistente, Tarefa.Status.CONCLUIDA);
+
+        tarefaDAO.updateStatus(lote);
+
+        for (Integer id : lote.keySet()) {
+            if (id != inexistente) {
+                assertEquals(Tarefa.Status.EM_EXECUCAO, tarefaDAO.findById(id).getStatus());
+                assertEquals(1, contarEventos(id));
+            }
+        }
+        assertEquals(0, contarEventos(inexistente));
+    }
+
+    private Callable<Boolean> gravar(Tarefa tarefa, CyclicBarrier largada) {
+        return () -> {
+            largada.await();
+            try {
+                tarefaDAO.update(tarefa);
+                return true;
+            } catch (ConflitoVersaoException e) {
+                return false;
+            }
+        };
+    }
+
+    private Tarefa criarTarefa() throws SQLException {
+        Tarefa tarefa = new Tarefa("Concorrência", "Gravações simultâneas", 1, 4, null);
+        tarefa.setStatus(Tarefa.Status.PENDENTE);
+        tarefa.setPrioridade(Tarefa.Prioridade.MEDIA);
+        tarefaDAO.save(tarefa);
+        return tarefaDAO.findById(tarefa.getId());
+    }
+
+    private static long contarEventos(Integer tarefaId) throws SQLException {
+        return transicoes(tarefaId).size();
+    }
+
+    private static List<Tarefa.Status[]> transicoes(Integer tarefaId) throws SQLException {
+        List<Tarefa.Status[]> transicoes = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement("SELECT status_anterior, status_novo FROM tarefa_evento "
+                        + "WHERE tarefa_id = ? AND status_anterior <> 0 ORDER BY id")) {
+            stmt.setInt(1, tarefaId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    transicoes.add(new Tarefa.Status[] { TarefaEventoDAO.statusDe(rs.getInt(1)),
+                            TarefaEventoDAO.statusDe(rs.getInt(2)) });
+                }
+            }
+        }
+        return transicoes;
+    }
+}
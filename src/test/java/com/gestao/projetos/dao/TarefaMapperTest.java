@@ -0,0 +1,95 @@
+package com.gestao.projetos.dao;
+
+import com.gestao.projetos.model.Tarefa;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Instâncias de String retidas pelas tarefas mapeadas: com os nomes passando
+ * pelo StringInterner, a lista guarda uma instância por nome distinto, e não
+ * uma por linha
+ */
+class TarefaMapperTest {
+
+    private static final int LINHAS = 20_000;
+    private static final int PROJETOS = 25;
+    private static final int RESPONSAVEIS = 60;
+
+    private Connection conn;
+
+    @BeforeEach
+    void criarTabela() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:mapper;MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                    CREATE TABLE tarefas (
+                        id INT PRIMARY KEY, titulo VARCHAR(200), projeto_id INT, projeto_nome VARCHAR(100),
+                        responsavel_id INT, responsavel_nome VARCHAR(100), status VARCHAR(20), prioridade VARCHAR(20),
+                        data_prevista_conclusao DATE, data_conclusao_real DATE, ativo BOOLEAN,
+                        data_cadastro TIMESTAMP, data_atualizacao TIMESTAMP)
+                    """);
+        }
+
+        String sql = "INSERT INTO tarefas VALUES (?, ?, ?, ?, ?, ?, ?, ?, NULL, NULL, TRUE, NOW(), NOW())";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 1; i <= LINHAS; i++) {
+                int projeto = i % PROJETOS;
+                int responsavel = i % RESPONSAVEIS;
+                stmt.setInt(1, i);
+                stmt.setString(2, "Tarefa " + i);
+                stmt.setInt(3, projeto);
+                stmt.setString(4, "Projeto " + projeto);
+                stmt.setInt(5, responsavel);
+                stmt.setString(6, "Responsável " + responsavel);
+                stmt.setString(7, Tarefa.Status.values()[i % Tarefa.Status.values().length].name());
+                stmt.setString(8, Tarefa.Prioridade.values()[i % Tarefa.Prioridade.values().length].name());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    @AfterEach
+    void fechar() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    void nomesRepetidosFicamComUmaInstanciaPorValor() throws SQLException {
+        List<Tarefa> tarefas = new ArrayList<>(LINHAS);
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT * FROM tarefas ORDER BY id")) {
+            TarefaMapper mapper = new TarefaMapper(rs);
+            while (rs.next()) {
+                tarefas.add(mapper.map(rs));
+            }
+        }
+
+        Set<String> projetos = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<String> responsaveis = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Tarefa t : tarefas) {
+            projetos.add(t.getProjetoNome());
+            responsaveis.add(t.getResponsavelNome());
+        }
+
+        assertEquals(LINHAS, tarefas.size());
+        assertEquals(PROJETOS, projetos.size());
+        assertEquals(RESPONSAVEIS, responsaveis.size());
+    }
+}
@@ -0,0 +1,188 @@
+package com.gestao.projetos.util;
+
+import com.gestao.projetos.model.Tarefa;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Sugestão pelo membro menos carregado de cada projeto
+ */
+class AtribuicaoEngineTest {
+
+    private static final LocalDate HOJE = LocalDate.of(2026, 3, 2);
+
+    private int proximoId = 1;
+
+    @Test
+    void sugereOMembroComMenorCarga() {
+        AtribuicaoEngine engine = new AtribuicaoEngine(Map.of(1, List.of(10, 20, 30)), HOJE);
+        engine.registrar(tarefa(1, 10, Tarefa.Prioridade.ALTA, null));
+        engine.registrar(tarefa(1, 20, Tarefa.Prioridade.MEDIA, null));
+        engine.registrar(tarefa(1, 30, Tarefa.Prioridade.BAIXA, null));
+
+        assertEquals(30, engine.sugerir(1));
+
+        Tarefa nova = tarefa(1, null, Tarefa.Prioridade.MEDIA, null);
+        assertEquals(30, engine.atribuir(nova));
+        assertEquals(30, nova.getResponsavelId());
+        assertEquals(3.0, engine.getCarga(30));
+        // 30 passou a carga 3, acima da de 20 (2)
+        assertEquals(20, engine.sugerir(1));
+    }
+
+    @Test
+    void empateDecididoPeloMenorId() {
+        AtribuicaoEngine engine = new AtribuicaoEngine(Map.of(1, List.of(30, 10, 20)), HOJE);
+        assertEquals(10, engine.sugerir(1));
+
+        engine.registrar(tarefa(1, 10, Tarefa.Prioridade.MEDIA, null));
+        engine.registrar(tarefa(1, 20, Tarefa.Prioridade.MEDIA, null));
+        assertEquals(30, engine.sugerir(1));
+
+        engine.registrar(tarefa(1, 30, Tarefa.Prioridade.MEDIA, null));
+        assertEquals(10, engine.sugerir(1));
+    }
+
+    @Test
+    void cargaDeUmProjetoReposicionaOMembroNosOutros() {
+        Map<Integer, List<Integer>> membros = new HashMap<>();
+        membros.put(1, List.of(10, 20));
+        membros.put(2, List.of(10, 30));
+        AtribuicaoEngine engine = new AtribuicaoEngine(membros, HOJE);
+        assertEquals(10, engine.sugerir(2));
+
+        // A carga vem do projeto 1, mas vale para o heap do projeto 2
+        Tarefa tarefa = tarefa(1, 10, Tarefa.Prioridade.ALTA, null);
+        engine.registrar(tarefa);
+        assertEquals(20, engine.sugerir(1));
+        assertEquals(30, engine.sugerir(2));
+
+        // Concluída, deixa de pesar nos dois
+        tarefa.setStatus(Tarefa.Status.CONCLUIDA);
+        engine.registrar(tarefa);
+        assertEquals(0.0, engine.getCarga(10));
+        assertEquals(10, engine.sugerir(1));
+        assertEquals(10, engine.sugerir(2));
+    }
+
+    @Test
+    void projetoSemMembrosNaoAtribui() {
+        AtribuicaoEngine engine = new AtribuicaoEngine(Map.of(1, List.of(10), 2, List.of()), HOJE);
+
+        Tarefa tarefa = tarefa(2, 99, Tarefa.Prioridade.ALTA, null);
+        assertNull(engine.sugerir(2));
+        assertNull(engine.sugerir(3));
+        assertNull(engine.atribuir(tarefa));
+        assertEquals(99, tarefa.getResponsavelId());
+
+        // Responsável fora de qualquer equipe acumula carga sem afetar os heaps
+        engine.registrar(tarefa);
+        assertEquals(4.0, engine.getCarga(99));
+        assertEquals(10, engine.sugerir(1));
+    }
+
+    @Test
+    void pesoConsideraPrioridadeEPrazo() {
+        AtribuicaoEngine engine = new AtribuicaoEngine(Map.of(), HOJE);
+
+        assertEquals(1.0, engine.pesoDe(tarefa(1, 10, Tarefa.Prioridade.BAIXA, HOJE.plusDays(30))));
+        assertEquals(3.0, engine.pesoDe(tarefa(1, 10, Tarefa.Prioridade.MEDIA, HOJE.plusDays(7))));
+        assertEquals(8.0, engine.pesoDe(tarefa(1, 10, Tarefa.Prioridade.ALTA, HOJE.minusDays(1))));
+    }
+
+    @Test
+    void loteDistribuiAsMaisPesadasPrimeiro() {
+        AtribuicaoEngine engine = new AtribuicaoEngine(Map.of(1, List.of(10, 20)), HOJE);
+        Tarefa leve = tarefa(1, null, Tarefa.Prioridade.BAIXA, null);
+        Tarefa media = tarefa(1, null, Tarefa.Prioridade.MEDIA, null);
+        Tarefa pesada = tarefa(1, null, Tarefa.Prioridade.ALTA, null);
+
+        List<Tarefa> atribuidas = engine.atribuirLote(List.of(leve, media, pesada));
+
+        assertEquals(List.of(pesada, media, leve), atribuidas);
+        assertEquals(10, pesada.getResponsavelId());
+        assertEquals(20, media.getResponsavelId());
+        assertEquals(20, leve.getResponsavelId());
+        assertEquals(4.0, engine.getCarga(10));
+        assertEquals(3.0, engine.getCarga(20));
+    }
+
+    @Test
+    void redistribuirRetornaSomenteAsQueMudaram() {
+        AtribuicaoEngine engine = new AtribuicaoEngine(Map.of(1, List.of(10, 20)), HOJE);
+        List<Tarefa> tarefas = List.of(tarefa(1, 10, Tarefa.Prioridade.ALTA, null),
+                tarefa(1, 10, Tarefa.Prioridade.MEDIA, null));
+        tarefas.forEach(engine::registrar);
+
+        List<Tarefa> alteradas = engine.redistribuir(tarefas);
+
+        assertEquals(List.of(tarefas.get(1)), alteradas);
+        assertEquals(20, tarefas.get(1).getResponsavelId());
+        assertEquals(4.0, engine.getCarga(10));
+        assertEquals(2.0, engine.getCarga(20));
+    }
+
+    @Test
+    void topoDeCadaHeapConfereComOMinimoDireto() {
+        Random random = new Random(5);
+        Map<Integer, List<Integer>> membros = new HashMap<>();
+        for (int projeto = 1; projeto <= 20; projeto++) {
+            List<Integer> equipe = new ArrayList<>();
+            for (int usuario = 1; usuario <= 60; usuario++) {
+                if (random.nextInt(4) == 0) {
+                    equipe.add(usuario);
+                }
+            }
+            membros.put(projeto, equipe);
+        }
+        AtribuicaoEngine engine = new AtribuicaoEngine(membros, HOJE);
+
+        List<Tarefa> abertas = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            if (!abertas.isEmpty() && random.nextInt(3) == 0) {
+                Tarefa concluida = abertas.remove(random.nextInt(abertas.size()));
+                concluida.setStatus(Tarefa.Status.CONCLUIDA);
+                engine.registrar(concluida);
+            } else {
+                Tarefa nova = tarefa(1 + random.nextInt(20), null, Tarefa.Prioridade.values()[random.nextInt(3)],
+                        HOJE.plusDays(random.nextInt(30) - 10));
+                if (engine.atribuir(nova) != null) {
+                    abertas.add(nova);
+                }
+            }
+
+            for (Map.Entry<Integer, List<Integer>> equipe : membros.entrySet()) {
+                Integer esperado = null;
+                for (Integer usuario : equipe.getValue()) {
+                    if (esperado == null || engine.getCarga(usuario) < engine.getCarga(esperado)
+                            || engine.getCarga(usuario) == engine.getCarga(esperado) && usuario < esperado) {
+                        esperado = usuario;
+                    }
+                }
+                assertEquals(esperado, engine.sugerir(equipe.getKey()));
+            }
+        }
+    }
+
+    private Tarefa tarefa(int projetoId, Integer responsavelId, Tarefa.Prioridade prioridade, LocalDate prevista) {
+        Tarefa tarefa = new Tarefa();
+        tarefa.setId(proximoId++);
+        tarefa.setProjetoId(projetoId);
+        tarefa.setResponsavelId(responsavelId);
+        tarefa.setPrioridade(prioridade);
+        tarefa.setStatus(Tarefa.Status.PENDENTE);
+        tarefa.setAtivo(true);
+        tarefa.setDataPrevistaConclusao(prevista);
+        return tarefa;
+    }
+}
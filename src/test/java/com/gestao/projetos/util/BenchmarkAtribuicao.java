@@ -0,0 +1,118 @@
+package com.gestao.projetos.util;
+
+import com.gestao.projetos.model.Tarefa;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Mede AtribuicaoEngine com equipes grandes: carga existente, atribuição em
+ * lote, conclusões e sugestões avulsas, e confere o topo de cada heap com o
+ * mínimo calculado percorrendo a equipe. Fica nos fontes de teste; depois de
+ * mvn test-compile, por exemplo:
+ *
+ *   java -cp target/classes:target/test-classes:... com.gestao.projetos.util.BenchmarkAtribuicao 100000 5000 200 100
+ *
+ * Argumentos: tarefas a atribuir, usuários, projetos e membros por projeto.
+ * A carga existente tem metade da quantidade de tarefas a atribuir.
+ */
+public class BenchmarkAtribuicao {
+
+    private static final LocalDate HOJE = LocalDate.of(2026, 6, 1);
+
+    private static int proximoId = 1;
+
+    public static void main(String[] args) {
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int usuarios = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+        int projetos = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int porProjeto = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+        Random random = new Random(23);
+
+        List<Integer> todos = new ArrayList<>(usuarios);
+        for (int i = 1; i <= usuarios; i++) {
+            todos.add(i);
+        }
+        Map<Integer, List<Integer>> membros = new HashMap<>();
+        for (int projeto = 1; projeto <= projetos; projeto++) {
+            Collections.shuffle(todos, random);
+            membros.put(projeto, new ArrayList<>(todos.subList(0, Math.min(porProjeto, usuarios))));
+        }
+
+        long inicio = System.nanoTime();
+        AtribuicaoEngine engine = new AtribuicaoEngine(membros, HOJE);
+        List<Tarefa> abertas = new ArrayList<>();
+        for (int i = 0; i < quantidade / 2; i++) {
+            Tarefa tarefa = tarefa(random, projetos);
+            List<Integer> equipe = membros.get(tarefa.getProjetoId());
+            tarefa.setResponsavelId(equipe.get(random.nextInt(equipe.size())));
+            engine.registrar(tarefa);
+            abertas.add(tarefa);
+        }
+        System.out.printf("Carga existente: %d tarefas, %d usuários, %d projetos x %d membros em %.0f ms%n",
+                abertas.size(), usuarios, projetos, porProjeto, (System.nanoTime() - inicio) / 1e6);
+
+        List<Tarefa> novas = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            novas.add(tarefa(random, projetos));
+        }
+        inicio = System.nanoTime();
+        List<Tarefa> atribuidas = engine.atribuirLote(novas);
+        double lote = (System.nanoTime() - inicio) / 1e6;
+        System.out.printf("Lote: %d tarefas atribuídas em %.0f ms (%.2f µs/tarefa)%n", atribuidas.size(), lote,
+                lote * 1000 / quantidade);
+        abertas.addAll(atribuidas);
+
+        int conclusoes = abertas.size() / 2;
+        Collections.shuffle(abertas, random);
+        inicio = System.nanoTime();
+        for (int i = 0; i < conclusoes; i++) {
+            Tarefa tarefa = abertas.get(i);
+            tarefa.setStatus(Tarefa.Status.CONCLUIDA);
+            engine.registrar(tarefa);
+        }
+        double concluidas = (System.nanoTime() - inicio) / 1e6;
+        System.out.printf("Conclusões: %d em %.0f ms (%.2f µs/tarefa)%n", conclusoes, concluidas,
+                concluidas * 1000 / conclusoes);
+
+        inicio = System.nanoTime();
+        long soma = 0;
+        for (int i = 0; i < quantidade; i++) {
+            soma += engine.sugerir(1 + random.nextInt(projetos));
+        }
+        double sugestoes = (System.nanoTime() - inicio) / 1e6;
+        System.out.printf("Sugestões: %d em %.0f ms (%.3f µs/sugestão, soma %d)%n", quantidade, sugestoes,
+                sugestoes * 1000 / quantidade, soma);
+
+        int divergentes = 0;
+        for (Map.Entry<Integer, List<Integer>> equipe : membros.entrySet()) {
+            Integer esperado = null;
+            for (Integer usuario : equipe.getValue()) {
+                if (esperado == null || engine.getCarga(usuario) < engine.getCarga(esperado)
+                        || engine.getCarga(usuario) == engine.getCarga(esperado) && usuario < esperado) {
+                    esperado = usuario;
+                }
+            }
+            if (!esperado.equals(engine.sugerir(equipe.getKey()))) {
+                divergentes++;
+            }
+        }
+        System.out.printf("Conferência com o mínimo direto: %d projeto(s) divergente(s)%n", divergentes);
+    }
+
+    private static Tarefa tarefa(Random random, int projetos) {
+        Tarefa tarefa = new Tarefa();
+        tarefa.setId(proximoId++);
+        tarefa.setProjetoId(1 + random.nextInt(projetos));
+        tarefa.setPrioridade(Tarefa.Prioridade.values()[random.nextInt(Tarefa.Prioridade.values().length)]);
+        tarefa.setStatus(Tarefa.Status.PENDENTE);
+        tarefa.setAtivo(true);
+        tarefa.setDataPrevistaConclusao(HOJE.plusDays(random.nextInt(60) - 15));
+        return tarefa;
+    }
+}
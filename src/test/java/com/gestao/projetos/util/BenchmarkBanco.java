@@ -0,0 +1,177 @@
+package com.gestao.projetos.util;
+
+import com.gestao.projetos.dao.ProjetoDAO;
+import com.gestao.projetos.dao.TarefaDAO;
+import com.gestao.projetos.dao.UsuarioDAO;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mede as cargas do dashboard e das listagens no banco configurado, para
+ * comparar os modos de db.modo. Fica nos fontes de teste (não vai para o
+ * JAR da aplicação); depois de mvn test-compile, execute uma vez para cada
+ * modo, por exemplo:
+ *
+ *   java -Ddb.modo=embutido -cp target/classes:target/test-classes:... com.gestao.projetos.util.BenchmarkBanco 200 500 30 --popular
+ *   java -Ddb.modo=mysql    -cp target/classes:target/test-classes:... com.gestao.projetos.util.BenchmarkBanco 200 500 30 --popular
+ *
+ * Argumentos: projetos, tarefas por projeto, repetições e, opcionalmente,
+ * --popular para inserir os projetos e tarefas de teste antes de medir
+ * (use um banco de testes: os dados inseridos não são removidos).
+ */
+public class BenchmarkBanco {
+
+    private static final int AQUECIMENTO = 5;
+
+    private interface Carga {
+        void executar() throws SQLException;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int projetos = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int tarefasPorProjeto = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int repeticoes = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        boolean popular = Arrays.asList(args).contains("--popular");
+
+        System.out.println("Banco: " + DatabaseConnection.getDialeto());
+        if (popular) {
+            long inicio = System.nanoTime();
+            popular(projetos, tarefasPorProjeto);
+            System.out.printf("Carga inicial: %d projetos x %d tarefas em %.0f ms%n", projetos, tarefasPorProjeto,
+                    (System.nanoTime() - inicio) / 1e6);
+        }
+
+        ProjetoDAO projetoDAO = new ProjetoDAO();
+        UsuarioDAO usuarioDAO = new UsuarioDAO();
+        TarefaDAO tarefaDAO = new TarefaDAO();
+        int responsavelId = primeiroUsuario();
+
+        // Mesmas consultas que o dashboard faz ao abrir
+        medir("dashboard", repeticoes, () -> {
+            projetoDAO.findAll();
+            usuarioDAO.findAll();
+            tarefaDAO.findAll();
+            projetoDAO.findProjetosResumo();
+            tarefaDAO.getTarefasPorUsuario();
+        });
+        medir("lista de projetos", repeticoes, projetoDAO::findAll);
+        medir("lista de tarefas", repeticoes, tarefaDAO::findAll);
+        medir("tarefas do usuário", repeticoes, () -> tarefaDAO.findByResponsavel(responsavelId));
+        medir("lista de usuários", repeticoes, usuarioDAO::findAll);
+        medir("atualização incremental", repeticoes, () -> {
+            LocalDateTime desde = LocalDateTime.now().minusMinutes(1);
+            projetoDAO.findAlteradosDesde(desde);
+            tarefaDAO.findAlteradasDesde(desde);
+            usuarioDAO.findAlteradosDesde(desde);
+        });
+
+        DatabaseConnection.closeConnection();
+    }
+
+    /**
+     * Executa a carga e imprime a mediana, o percentil 95 e o máximo
+     */
+    private static void medir(String nome, int repeticoes, Carga carga) throws SQLException {
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            carga.executar();
+        }
+
+        long[] tempos = new long[repeticoes];
+        for (int i = 0; i < repeticoes; i++) {
+            long inicio = System.nanoTime();
+            carga.executar();
+            tempos[i] = System.nanoTime() - inicio;
+        }
+        Arrays.sort(tempos);
+
+        System.out.printf("%-24s mediana %8.2f ms   p95 %8.2f ms   máx %8.2f ms%n", nome,
+                tempos[repeticoes / 2] / 1e6, tempos[Math.min(repeticoes - 1, repeticoes * 95 / 100)] / 1e6,
+                tempos[repeticoes - 1] / 1e6);
+    }
+
+    /**
+     * Insere projetos com tarefas distribuídas entre os usuários existentes
+     */
+    private static void popular(int projetos, int tarefasPorProjeto) throws SQLException {
+        String sqlProjeto = """
+                INSERT INTO projetos (nome, descricao, data_inicio, data_prevista_termino, status, gerente_id)
+                VALUES (?, ?, ?, ?, 'EM_ANDAMENTO', ?)
+                """;
+        String sqlTarefa = """
+                INSERT INTO tarefas (titulo, descricao, projeto_id, responsavel_id, status, prioridade,
+                                     data_prevista_conclusao)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+                """;
+        String[] status = { "PENDENTE", "EM_EXECUCAO", "CONCLUIDA", "CANCELADA" };
+        String[] prioridades = { "BAIXA", "MEDIA", "ALTA" };
+
+        List<Integer> usuarios = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT id FROM usuarios WHERE ativo = TRUE ORDER BY id")) {
+            while (rs.next()) {
+                usuarios.add(rs.getInt(1));
+            }
+        }
+
+        LocalDate hoje = LocalDate.now();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmtProjeto = conn.prepareStatement(sqlProjeto, Statement.RETURN_GENERATED_KEYS);
+                    PreparedStatement stmtTarefa = conn.prepareStatement(sqlTarefa)) {
+
+                for (int p = 0; p < projetos; p++) {
+                    stmtProjeto.setString(1, "Projeto de teste " + p);
+                    stmtProjeto.setString(2, "Carga do benchmark");
+                    stmtProjeto.setDate(3, Date.valueOf(hoje.minusDays(90)));
+                    stmtProjeto.setDate(4, Date.valueOf(hoje.plusDays(90)));
+                    stmtProjeto.setInt(5, usuarios.get(p % usuarios.size()));
+                    stmtProjeto.executeUpdate();
+
+                    int projetoId;
+                    try (ResultSet rs = stmtProjeto.getGeneratedKeys()) {
+                        rs.next();
+                        projetoId = rs.getInt(1);
+                    }
+
+                    for (int t = 0; t < tarefasPorProjeto; t++) {
+                        stmtTarefa.setString(1, "Tarefa " + p + "." + t);
+                        stmtTarefa.setString(2, "Carga do benchmark");
+                        stmtTarefa.setInt(3, projetoId);
+                        stmtTarefa.setInt(4, usuarios.get((p + t) % usuarios.size()));
+                        stmtTarefa.setString(5, status[t % status.length]);
+                        stmtTarefa.setString(6, prioridades[t % prioridades.length]);
+                        stmtTarefa.setDate(7, Date.valueOf(hoje.plusDays(t % 60 - 20)));
+                        stmtTarefa.addBatch();
+                    }
+                    stmtTarefa.executeBatch();
+                    conn.commit();
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static int primeiroUsuario() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT MIN(responsavel_id) FROM tarefas")) {
+            return rs.next() ? rs.getInt(1) : 1;
+        }
+    }
+}
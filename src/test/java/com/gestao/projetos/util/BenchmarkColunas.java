@@ -0,0 +1,146 @@
+package com.gestao.projetos.util;
+
+import com.gestao.projetos.dao.TarefaDAO;
+import com.gestao.projetos.model.Tarefa;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Compara as agregações de TarefaColumnStore com o stream equivalente sobre
+ * List<Tarefa> (o que os relatórios faziam antes), em tempo e memória
+ * alocada por consulta. Fica nos fontes de teste; depois de mvn
+ * test-compile, por exemplo:
+ *
+ *   java -cp target/classes:target/test-classes:... com.gestao.projetos.util.BenchmarkColunas 200000 50
+ *
+ * Argumentos: quantidade de tarefas geradas em memória e repetições de cada
+ * consulta. A memória alocada soma todas as threads vivas (inclui as do
+ * ForkJoinPool acima de analytics.parallel-threshold).
+ */
+public class BenchmarkColunas {
+
+    private static final int AQUECIMENTO = 10;
+    private static final LocalDate HOJE = LocalDate.of(2026, 6, 1);
+
+    // Guarda o último resultado para que a consulta não seja descartada pelo JIT
+    private static volatile Object ultimo;
+
+    public static void main(String[] args) throws Exception {
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int repeticoes = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        List<Tarefa> tarefas = gerar(quantidade, new Random(42));
+        TarefaColumnStore store = new TarefaColumnStore(new TarefaDAO() {
+            @Override
+            public void scanAnalitico(LocalDateTime desde, Consumer<Tarefa> destino) {
+                tarefas.forEach(destino);
+            }
+        });
+        long inicio = System.nanoTime();
+        store.atualizar();
+        System.out.printf("%d tarefas; carga das colunas em %.0f ms%n", quantidade, (System.nanoTime() - inicio) / 1e6);
+        System.out.printf("%-40s %12s %14s%n", "consulta", "ms/consulta", "KB/consulta");
+
+        medir("status x prioridade x projeto (colunas)", repeticoes, () -> store.consulta()
+                .agruparPor(TarefaColumnStore.Dimensao.STATUS, TarefaColumnStore.Dimensao.PRIORIDADE,
+                        TarefaColumnStore.Dimensao.PROJETO)
+                .contar());
+        medir("status x prioridade x projeto (stream)", repeticoes, () -> tarefas.stream()
+                .filter(Tarefa::isAtivo)
+                .collect(Collectors.groupingBy(Tarefa::getStatus, Collectors.groupingBy(Tarefa::getPrioridade,
+                        Collectors.groupingBy(Tarefa::getProjetoId, Collectors.counting())))));
+
+        medir("dias até conclusão por prioridade (colunas)", repeticoes, () -> store.consulta()
+                .agruparPor(TarefaColumnStore.Dimensao.PRIORIDADE)
+                .medir(TarefaColumnStore.Medida.DIAS_ATE_CONCLUSAO));
+        medir("dias até conclusão por prioridade (stream)", repeticoes, () -> tarefas.stream()
+                .filter(t -> t.isAtivo() && t.getDataConclusaoReal() != null)
+                .collect(Collectors.groupingBy(Tarefa::getPrioridade, Collectors.summarizingLong(
+                        t -> t.getDataConclusaoReal().toEpochDay() - t.getDataCadastro().toLocalDate().toEpochDay()))));
+
+        medir("atrasadas por responsável (colunas)", repeticoes, () -> store.consulta()
+                .agruparPor(TarefaColumnStore.Dimensao.RESPONSAVEL)
+                .somenteAtrasadas(HOJE)
+                .contar());
+        medir("atrasadas por responsável (stream)", repeticoes, () -> tarefas.stream()
+                .filter(t -> t.isAtivo() && t.getDataPrevistaConclusao() != null
+                        && t.getDataPrevistaConclusao().isBefore(HOJE)
+                        && (t.getStatus() == Tarefa.Status.PENDENTE || t.getStatus() == Tarefa.Status.EM_EXECUCAO))
+                .collect(Collectors.groupingBy(Tarefa::getResponsavelId, Collectors.counting())));
+    }
+
+    private static void medir(String nome, int repeticoes, Supplier<Object> consulta) {
+        Object resultado = null;
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            resultado = consulta.get();
+        }
+
+        long alocadoAntes = alocado();
+        long inicio = System.nanoTime();
+        for (int i = 0; i < repeticoes; i++) {
+            resultado = consulta.get();
+        }
+        double ms = (System.nanoTime() - inicio) / 1e6 / repeticoes;
+        long alocadoDepois = alocado();
+
+        ultimo = resultado;
+        System.out.printf("%-40s %12.2f %14s%n", nome, ms, alocadoAntes < 0 || alocadoDepois < 0 ? "n/d"
+                : String.format("%.1f", (alocadoDepois - alocadoAntes) / 1024.0 / repeticoes));
+    }
+
+    /**
+     * Bytes alocados até agora por todas as threads vivas, ou -1 se a JVM não
+     * informar (com.sun.management, lido por reflexão porque o módulo da
+     * aplicação não depende de jdk.management)
+     */
+    private static long alocado() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        try {
+            Method porThread = Class.forName("com.sun.management.ThreadMXBean")
+                    .getMethod("getThreadAllocatedBytes", long[].class);
+            long total = 0;
+            for (long bytes : (long[]) porThread.invoke(threads, (Object) threads.getAllThreadIds())) {
+                total += Math.max(0, bytes);
+            }
+            return total;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private static List<Tarefa> gerar(int quantidade, Random random) {
+        List<Tarefa> tarefas = new ArrayList<>(quantidade);
+        Tarefa.Status[] status = Tarefa.Status.values();
+        Tarefa.Prioridade[] prioridades = Tarefa.Prioridade.values();
+        LocalDateTime base = LocalDateTime.of(2026, 1, 5, 8, 0);
+        for (int i = 1; i <= quantidade; i++) {
+            Tarefa t = new Tarefa();
+            t.setId(i);
+            t.setProjetoId(1 + random.nextInt(200));
+            t.setProjetoNome("Projeto " + t.getProjetoId());
+            t.setResponsavelId(1 + random.nextInt(500));
+            t.setResponsavelNome("Responsável " + t.getResponsavelId());
+            t.setStatus(status[random.nextInt(status.length)]);
+            t.setPrioridade(prioridades[random.nextInt(prioridades.length)]);
+            t.setAtivo(random.nextInt(10) != 0);
+            t.setDataCadastro(base.minusDays(random.nextInt(365)));
+            t.setDataPrevistaConclusao(base.toLocalDate().plusDays(random.nextInt(300)));
+            if (t.getStatus() == Tarefa.Status.CONCLUIDA) {
+                t.setDataConclusaoReal(t.getDataCadastro().toLocalDate().plusDays(random.nextInt(90)));
+            }
+            t.setDataAtualizacao(base);
+            tarefas.add(t);
+        }
+        return tarefas;
+    }
+}
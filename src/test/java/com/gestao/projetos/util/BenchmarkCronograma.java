@@ -0,0 +1,140 @@
+package com.gestao.projetos.util;
+
+import com.gestao.projetos.model.Tarefa;
+import com.gestao.projetos.model.TarefaDependencia;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Mede CronogramaEngine em um grafo aleatório (acíclico por construção):
+ * montagem completa, alterações incrementais de duração e de dependências,
+ * e confere o resultado final com uma montagem do zero. Fica nos fontes de
+ * teste; depois de mvn test-compile, por exemplo:
+ *
+ *   java -cp target/classes:target/test-classes:... com.gestao.projetos.util.BenchmarkCronograma 50000 200000 2000
+ *
+ * Argumentos: tarefas, dependências e alterações de cada tipo.
+ */
+public class BenchmarkCronograma {
+
+    private static final LocalDateTime CADASTRO = LocalDateTime.of(2026, 1, 5, 8, 0);
+
+    public static void main(String[] args) {
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int arestas = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        int alteracoes = args.length > 2 ? Integer.parseInt(args[2]) : 2_000;
+        Random random = new Random(17);
+
+        // A posição na lista define uma ordem topológica escondida: toda
+        // dependência liga uma posição menor a uma maior, então não há ciclos
+        // (ids embaralhados, para que a ordem não coincida com a dos ids)
+        List<Integer> ids = new ArrayList<>(quantidade);
+        for (int i = 1; i <= quantidade; i++) {
+            ids.add(i);
+        }
+        Collections.shuffle(ids, random);
+        List<Tarefa> tarefas = new ArrayList<>(quantidade);
+        for (Integer id : ids) {
+            tarefas.add(tarefa(id, 1 + random.nextInt(20)));
+        }
+
+        Set<Long> existentes = new HashSet<>();
+        List<int[]> lista = new ArrayList<>();
+        while (lista.size() < arestas) {
+            int[] par = par(random, quantidade);
+            if (existentes.add(chave(par))) {
+                lista.add(par);
+            }
+        }
+
+        long inicio = System.nanoTime();
+        CronogramaEngine engine = new CronogramaEngine(CADASTRO.toLocalDate(), tarefas, dependencias(tarefas, lista));
+        System.out.printf("Montagem: %d tarefas, %d dependências em %.0f ms%n", quantidade, arestas,
+                (System.nanoTime() - inicio) / 1e6);
+
+        inicio = System.nanoTime();
+        for (int i = 0; i < alteracoes; i++) {
+            Tarefa tarefa = tarefas.get(random.nextInt(quantidade));
+            int dias = 1 + random.nextInt(20);
+            tarefa.setDataPrevistaConclusao(CADASTRO.toLocalDate().plusDays(dias));
+            engine.setDuracao(tarefa.getId(), dias);
+        }
+        relatar("duração alterada", alteracoes, inicio);
+
+        inicio = System.nanoTime();
+        int incluidas = 0;
+        while (incluidas < alteracoes) {
+            int[] par = par(random, quantidade);
+            if (existentes.add(chave(par))) {
+                lista.add(par);
+                engine.adicionarDependencia(tarefas.get(par[1]).getId(), tarefas.get(par[0]).getId());
+                incluidas++;
+            }
+        }
+        relatar("dependência incluída", alteracoes, inicio);
+
+        inicio = System.nanoTime();
+        for (int i = 0; i < alteracoes; i++) {
+            int indice = random.nextInt(lista.size());
+            int[] par = lista.get(indice);
+            lista.set(indice, lista.get(lista.size() - 1));
+            lista.remove(lista.size() - 1);
+            existentes.remove(chave(par));
+            engine.removerDependencia(tarefas.get(par[1]).getId(), tarefas.get(par[0]).getId());
+        }
+        relatar("dependência removida", alteracoes, inicio);
+
+        CronogramaEngine referencia = new CronogramaEngine(CADASTRO.toLocalDate(), tarefas,
+                dependencias(tarefas, lista));
+        int divergentes = 0;
+        for (Tarefa tarefa : tarefas) {
+            CronogramaEngine.Agenda a = engine.getAgenda(tarefa.getId());
+            CronogramaEngine.Agenda b = referencia.getAgenda(tarefa.getId());
+            if (!a.getInicioMaisCedo().equals(b.getInicioMaisCedo()) || a.getFolga() != b.getFolga()) {
+                divergentes++;
+            }
+        }
+        System.out.printf("Conferência com montagem do zero: término %s / %s, %d tarefa(s) divergente(s)%n",
+                engine.getTerminoPrevisto(), referencia.getTerminoPrevisto(), divergentes);
+    }
+
+    private static void relatar(String nome, int quantidade, long inicio) {
+        System.out.printf("%-22s %8.3f ms/alteração%n", nome, (System.nanoTime() - inicio) / 1e6 / quantidade);
+    }
+
+    private static int[] par(Random random, int quantidade) {
+        int a = random.nextInt(quantidade);
+        int b = random.nextInt(quantidade - 1);
+        if (b >= a) {
+            b++;
+        }
+        return new int[] { Math.min(a, b), Math.max(a, b) };
+    }
+
+    private static long chave(int[] par) {
+        return (long) par[0] << 32 | par[1];
+    }
+
+    private static List<TarefaDependencia> dependencias(List<Tarefa> tarefas, List<int[]> pares) {
+        List<TarefaDependencia> dependencias = new ArrayList<>(pares.size());
+        for (int[] par : pares) {
+            dependencias.add(new TarefaDependencia(tarefas.get(par[1]).getId(), tarefas.get(par[0]).getId()));
+        }
+        return dependencias;
+    }
+
+    private static Tarefa tarefa(int id, int dias) {
+        Tarefa tarefa = new Tarefa();
+        tarefa.setId(id);
+        tarefa.setAtivo(true);
+        tarefa.setDataCadastro(CADASTRO);
+        tarefa.setDataPrevistaConclusao(CADASTRO.toLocalDate().plusDays(dias));
+        return tarefa;
+    }
+}
@@ -0,0 +1,136 @@
+package com.gestao.projetos.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Confere a TimingWheel usada por AlertaPrazos com um modelo direto (mapa de
+ * id para tick de disparo) em uma sequência aleatória de agendamentos,
+ * cancelamentos e avanços, e depois mede agendar, disparar e cancelar em
+ * volume. Fica nos fontes de teste; depois de mvn test-compile, por exemplo:
+ *
+ *   java -cp target/classes:target/test-classes:... com.gestao.projetos.util.BenchmarkPrazos 200000 1000000
+ *
+ * Argumentos: operações da conferência e temporizadores medidos. Os prazos
+ * sorteados vão do passado (dispara no próximo tick) até além do último
+ * nível da roda.
+ */
+public class BenchmarkPrazos {
+
+    private static final long TICK = 60_000;
+    private static final long INICIO = 1_780_000_000_000L;
+
+    public static void main(String[] args) {
+        int operacoes = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int temporizadores = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        conferir(operacoes, new Random(37));
+        medir(temporizadores, new Random(41));
+    }
+
+    private static void conferir(int operacoes, Random random) {
+        TimingWheel roda = new TimingWheel(TICK, INICIO);
+        Map<Integer, Long> modelo = new HashMap<>();
+        long[] tickAtual = { INICIO / TICK };
+        int[] disparos = { 0 };
+        List<String> erros = new ArrayList<>();
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < operacoes && erros.isEmpty(); i++) {
+            int sorteio = random.nextInt(100);
+            if (sorteio < 45) {
+                int id = random.nextInt(20_000);
+                long instante = tickAtual[0] * TICK + distancia(random) * TICK + random.nextInt((int) TICK);
+                roda.agendar(id, instante);
+                modelo.put(id, Math.max(tickAtual[0] + 1, Math.floorDiv(instante, TICK)));
+            } else if (sorteio < 65) {
+                int id = random.nextInt(20_000);
+                if (roda.cancelar(id) != (modelo.remove(id) != null)) {
+                    erros.add("cancelar(" + id + ") divergiu");
+                }
+            } else {
+                long salto = random.nextInt(100) == 0 ? random.nextInt(1 << 18) : random.nextInt(80);
+                long alvo = tickAtual[0] + salto;
+                long[] ultimo = { Long.MIN_VALUE };
+                roda.avancar(alvo * TICK + random.nextInt((int) TICK), id -> {
+                    Long previsto = modelo.remove(id);
+                    if (previsto == null || previsto > alvo || previsto < ultimo[0]) {
+                        erros.add("disparo de " + id + " fora do tick previsto " + previsto);
+                    } else {
+                        ultimo[0] = previsto;
+                    }
+                    disparos[0]++;
+                });
+                tickAtual[0] = alvo;
+                modelo.values().stream().filter(tick -> tick <= alvo).findAny()
+                        .ifPresent(tick -> erros.add("temporizador do tick " + tick + " não disparou"));
+            }
+            if (roda.size() != modelo.size()) {
+                erros.add("tamanho " + roda.size() + " diferente do modelo " + modelo.size());
+            }
+        }
+
+        System.out.printf("Conferência: %d operações, %d disparos, %d pendentes em %.0f ms: %s%n", operacoes,
+                disparos[0], modelo.size(), (System.nanoTime() - inicio) / 1e6,
+                erros.isEmpty() ? "0 divergências" : erros.get(0));
+    }
+
+    private static void medir(int quantidade, Random random) {
+        // Prazos em até 30 dias com ticks de um minuto, como em AlertaPrazos
+        long[] instantes = new long[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            instantes[i] = INICIO + (long) (random.nextDouble() * 30 * 24 * 60) * TICK;
+        }
+
+        TimingWheel roda = new TimingWheel(TICK, INICIO);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < quantidade; i++) {
+            roda.agendar(i, instantes[i]);
+        }
+        relatar("agendar", quantidade, inicio);
+
+        inicio = System.nanoTime();
+        for (int i = 0; i < quantidade; i++) {
+            roda.agendar(i, instantes[(i + 1) % quantidade]);
+        }
+        relatar("reagendar", quantidade, inicio);
+
+        inicio = System.nanoTime();
+        for (int i = 0; i < quantidade; i += 2) {
+            roda.cancelar(i);
+        }
+        relatar("cancelar", quantidade / 2, inicio);
+
+        int[] disparados = { 0 };
+        inicio = System.nanoTime();
+        roda.avancar(INICIO + 31L * 24 * 60 * TICK, id -> disparados[0]++);
+        System.out.printf("%-10s %8d disparos em %.0f ms (%d ticks), %d restantes%n", "avançar", disparados[0],
+                (System.nanoTime() - inicio) / 1e6, 31 * 24 * 60, roda.size());
+    }
+
+    /**
+     * Distância em ticks: a maior parte no nível 0 ou 1, algumas no passado,
+     * nos níveis mais altos e além do alcance da roda
+     */
+    private static long distancia(Random random) {
+        int faixa = random.nextInt(100);
+        if (faixa < 5) {
+            return -random.nextInt(100);
+        } else if (faixa < 55) {
+            return random.nextInt(64);
+        } else if (faixa < 85) {
+            return random.nextInt(4_096);
+        } else if (faixa < 98) {
+            return random.nextInt(1 << 18);
+        }
+        return (1L << 30) + random.nextInt(1 << 20);
+    }
+
+    private static void relatar(String nome, int quantidade, long inicio) {
+        double ms = (System.nanoTime() - inicio) / 1e6;
+        System.out.printf("%-10s %8d em %.0f ms (%.3f µs cada)%n", nome, quantidade, ms, ms * 1000 / quantidade);
+    }
+}
@@ -0,0 +1,158 @@
+package com.gestao.projetos.util;
+
+import com.gestao.projetos.dao.TarefaDAO;
+import com.gestao.projetos.model.Tarefa;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Confere os percentis do QuantileSketch com os exatos e mede o
+ * RelatorioEngine sobre uma cópia analítica gerada em memória. Fica nos
+ * fontes de teste; depois de mvn test-compile, por exemplo:
+ *
+ *   java -cp target/classes:target/test-classes:... com.gestao.projetos.util.BenchmarkRelatorios 1000000 500000
+ *
+ * Argumentos: valores log-normais do resumo (divididos em 8 partes
+ * combinadas por merge, como nas folhas do fork/join) e tarefas do
+ * relatório. O erro relativo esperado é de até 1%.
+ */
+public class BenchmarkRelatorios {
+
+    private static final double[] PERCENTIS = { 0.50, 0.85, 0.95, 0.99 };
+    private static final int PARTES = 8;
+    private static final LocalDate HOJE = LocalDate.of(2026, 6, 1);
+
+    public static void main(String[] args) throws SQLException {
+        int valores = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int tarefas = args.length > 1 ? Integer.parseInt(args[1]) : 500_000;
+
+        conferirResumo(valores, new Random(53));
+        medirRelatorio(tarefas, new Random(59));
+    }
+
+    private static void conferirResumo(int quantidade, Random random) {
+        // Tempo de ciclo típico: mediana de 8 dias, cauda longa
+        double[] amostra = new double[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            amostra[i] = Math.exp(Math.log(8) + random.nextGaussian());
+        }
+
+        QuantileSketch[] partes = new QuantileSketch[PARTES];
+        long inicio = System.nanoTime();
+        for (int p = 0; p < PARTES; p++) {
+            partes[p] = new QuantileSketch();
+        }
+        for (int i = 0; i < quantidade; i++) {
+            partes[i % PARTES].add(amostra[i]);
+        }
+        double inclusao = (System.nanoTime() - inicio) / 1e6;
+
+        inicio = System.nanoTime();
+        QuantileSketch resumo = new QuantileSketch();
+        for (QuantileSketch parte : partes) {
+            resumo.merge(parte);
+        }
+        double combinacao = (System.nanoTime() - inicio) / 1e6;
+
+        inicio = System.nanoTime();
+        double[] ordenada = amostra.clone();
+        Arrays.sort(ordenada);
+        double ordenacao = (System.nanoTime() - inicio) / 1e6;
+
+        System.out.printf("Resumo: %d valores em %.0f ms (%.1f ns/valor), merge de %d partes em %.3f ms, "
+                + "ordenação exata em %.0f ms%n", quantidade, inclusao, inclusao * 1e6 / quantidade, PARTES,
+                combinacao, ordenacao);
+        relatarPercentis(resumo, ordenada);
+    }
+
+    private static void medirRelatorio(int quantidade, Random random) throws SQLException {
+        List<Tarefa> tarefas = gerar(quantidade, random);
+        TarefaColumnStore store = new TarefaColumnStore(new TarefaDAO() {
+            @Override
+            public void scanAnalitico(LocalDateTime desde, Consumer<Tarefa> destino) {
+                tarefas.forEach(destino);
+            }
+        });
+        store.atualizar();
+        TarefaColumnStore.Colunas colunas = store.getColunas();
+        RelatorioEngine engine = new RelatorioEngine(store);
+
+        // Datas diferentes não reaproveitam o cache
+        for (int i = 0; i < 5; i++) {
+            engine.calcular(colunas, null, HOJE.plusDays(100 + i));
+        }
+        int repeticoes = 20;
+        long inicio = System.nanoTime();
+        RelatorioEngine.Relatorio relatorio = null;
+        for (int i = 0; i < repeticoes; i++) {
+            relatorio = engine.calcular(colunas, null, HOJE.plusDays(i));
+        }
+        double todos = (System.nanoTime() - inicio) / 1e6 / repeticoes;
+
+        inicio = System.nanoTime();
+        for (int i = 0; i < repeticoes; i++) {
+            engine.calcular(colunas, 1 + i, HOJE);
+        }
+        double porProjeto = (System.nanoTime() - inicio) / 1e6 / repeticoes;
+
+        inicio = System.nanoTime();
+        for (int i = 0; i < 1_000; i++) {
+            engine.calcular(colunas, null, HOJE);
+        }
+        double emCache = (System.nanoTime() - inicio) / 1e6 / 1_000;
+
+        System.out.printf("Relatório: %d tarefas, todos os projetos %.1f ms, um projeto %.1f ms, em cache %.4f ms%n",
+                quantidade, todos, porProjeto, emCache);
+
+        double[] ciclos = tarefas.stream()
+                .filter(t -> t.getStatus() == Tarefa.Status.CONCLUIDA)
+                .mapToDouble(t -> t.getDataConclusaoReal().toEpochDay() - t.getDataCadastro().toLocalDate().toEpochDay())
+                .sorted()
+                .toArray();
+        relatarPercentis(relatorio.getCiclo(), ciclos);
+    }
+
+    private static void relatarPercentis(QuantileSketch resumo, double[] ordenada) {
+        System.out.printf("  %-6s %12s %12s %10s%n", "", "exato", "estimado", "erro");
+        for (double q : PERCENTIS) {
+            double exato = ordenada[(int) Math.floor(q * (ordenada.length - 1))];
+            double estimado = resumo.getPercentil(q);
+            System.out.printf("  P%-5.0f %12.3f %12.3f %9.2f%%%n", q * 100, exato, estimado,
+                    exato == 0 ? 0 : Math.abs(estimado - exato) / exato * 100);
+        }
+    }
+
+    private static List<Tarefa> gerar(int quantidade, Random random) {
+        List<Tarefa> tarefas = new ArrayList<>(quantidade);
+        Tarefa.Prioridade[] prioridades = Tarefa.Prioridade.values();
+        for (int i = 1; i <= quantidade; i++) {
+            Tarefa t = new Tarefa();
+            t.setId(i);
+            t.setProjetoId(1 + random.nextInt(200));
+            t.setProjetoNome("Projeto " + t.getProjetoId());
+            t.setResponsavelId(1 + random.nextInt(500));
+            t.setResponsavelNome("Responsável " + t.getResponsavelId());
+            t.setPrioridade(prioridades[random.nextInt(prioridades.length)]);
+            t.setAtivo(true);
+            t.setDataCadastro(HOJE.minusDays(random.nextInt(700)).atTime(9, 0));
+            t.setDataPrevistaConclusao(t.getDataCadastro().toLocalDate().plusDays(random.nextInt(60)));
+            if (random.nextInt(3) == 0) {
+                t.setStatus(random.nextBoolean() ? Tarefa.Status.PENDENTE : Tarefa.Status.EM_EXECUCAO);
+            } else {
+                t.setStatus(Tarefa.Status.CONCLUIDA);
+                long dias = Math.round(Math.exp(Math.log(8) + random.nextGaussian()));
+                t.setDataConclusaoReal(t.getDataCadastro().toLocalDate().plusDays(dias));
+            }
+            t.setDataAtualizacao(HOJE.atStartOfDay());
+            tarefas.add(t);
+        }
+        return tarefas;
+    }
+}
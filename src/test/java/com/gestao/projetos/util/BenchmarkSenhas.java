@@ -0,0 +1,80 @@
+package com.gestao.projetos.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Mede a verificação de senhas (CryptUtils.verifyPassword) para cada custo
+ * do PBKDF2 e cada quantidade de threads do executor de PasswordHasher:
+ * logins por segundo e tempo médio de uma verificação. Fica nos fontes de
+ * teste; depois de mvn test-compile, por exemplo:
+ *
+ *   java -cp target/classes:target/test-classes:... com.gestao.projetos.util.BenchmarkSenhas 100000,310000,600000 1,2,4 40
+ *
+ * Argumentos: custos (security.password.pbkdf2.iterations), quantidades de
+ * threads (security.hash.threads) e verificações medidas em cada
+ * combinação. Um login espera, além da própria verificação, as que estão à
+ * frente dele na fila (security.hash.queue): com a fila cheia, o último
+ * espera fila / logins por segundo.
+ */
+public class BenchmarkSenhas {
+
+    private static final String SENHA = "senha-de-teste-123";
+
+    public static void main(String[] args) throws Exception {
+        int[] custos = inteiros(args.length > 0 ? args[0] : "100000,210000,310000,600000");
+        int[] threads = inteiros(args.length > 1 ? args[1]
+                : "1,2," + Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        int verificacoes = args.length > 2 ? Integer.parseInt(args[2]) : 40;
+        int fila = AppConfig.getInt("security.hash.queue", 32);
+
+        System.out.println("Processadores: " + Runtime.getRuntime().availableProcessors()
+                + ", fila: " + fila);
+        System.out.printf("%-10s %-8s %12s %14s %18s%n", "custo", "threads", "logins/s", "ms/verificação",
+                "espera fila cheia");
+
+        for (int custo : custos) {
+            String hash = CryptUtils.hashPassword(SENHA, custo);
+            // Aquecimento do JIT e do provedor de criptografia
+            for (int i = 0; i < 3; i++) {
+                CryptUtils.verifyPassword(SENHA, hash);
+            }
+
+            for (int quantidade : threads) {
+                ExecutorService executor = Executors.newFixedThreadPool(quantidade);
+                try {
+                    List<Future<Long>> duracoes = new ArrayList<>();
+                    long inicio = System.nanoTime();
+                    for (int i = 0; i < verificacoes; i++) {
+                        duracoes.add(executor.submit(() -> {
+                            long t = System.nanoTime();
+                            if (!CryptUtils.verifyPassword(SENHA, hash)) {
+                                throw new IllegalStateException("Senha não conferiu");
+                            }
+                            return System.nanoTime() - t;
+                        }));
+                    }
+                    long soma = 0;
+                    for (Future<Long> duracao : duracoes) {
+                        soma += duracao.get();
+                    }
+                    double segundos = (System.nanoTime() - inicio) / 1e9;
+                    double porSegundo = verificacoes / segundos;
+
+                    System.out.printf("%-10d %-8d %12.1f %14.1f %16.1f s%n", custo, quantidade, porSegundo,
+                            soma / 1e6 / verificacoes, fila / porSegundo);
+                } finally {
+                    executor.shutdown();
+                }
+            }
+        }
+    }
+
+    private static int[] inteiros(String lista) {
+        return Arrays.stream(lista.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    }
+}
@@ -0,0 +1,154 @@
+package com.gestao.projetos.util;
+
+import com.gestao.projetos.dao.ProjetoDAO;
+import com.gestao.projetos.dao.TarefaDAO;
+import com.gestao.projetos.model.Tarefa;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compara as listagens e gravações de tarefas sem divisão e com as tarefas
+ * divididas em 1, 2 e 4 bases H2 locais (arquivos novos na pasta informada),
+ * a partir das tarefas do banco configurado. Fica nos fontes de teste (não
+ * vai para o JAR da aplicação); depois de mvn test-compile, por exemplo:
+ *
+ *   java -Ddb.modo=embutido -cp target/classes:target/test-classes:... com.gestao.projetos.util.BenchmarkShards /tmp/shards 30 500
+ *
+ * Argumentos: pasta das bases, repetições das leituras e quantidade de
+ * tarefas gravadas em cada rodada. Use um banco de testes: as tarefas
+ * gravadas não são removidas e o diretório tarefa_shard é apagado a cada
+ * rodada. Para medir bases em servidores separados, passe as URLs depois
+ * dos argumentos numéricos (substituem as bases locais da maior rodada).
+ */
+public class BenchmarkShards {
+
+    private static final int AQUECIMENTO = 3;
+    private static final int[] RODADAS = { 0, 1, 2, 4 };
+
+    private interface Carga {
+        void executar() throws SQLException;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path pasta = Path.of(args.length > 0 ? args[0] : "./dados/benchmark-shards");
+        int repeticoes = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        int escritas = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+        List<String> urlsExternas = args.length > 3 ? Arrays.asList(args).subList(3, args.length) : List.of();
+
+        System.out.println("Banco principal: " + DatabaseConnection.getDialeto());
+        Files.createDirectories(pasta);
+        List<Integer> projetos = idsAtivos("projetos");
+        List<Integer> usuarios = idsAtivos("usuarios");
+
+        TarefaDAO tarefaDAO = new TarefaDAO();
+        ProjetoDAO projetoDAO = new ProjetoDAO();
+        int responsavelId = usuarios.get(0);
+        int projetoId = projetos.get(0);
+
+        for (int quantidade : RODADAS) {
+            List<String> urls = new ArrayList<>();
+            if (quantidade == RODADAS[RODADAS.length - 1] && !urlsExternas.isEmpty()) {
+                urls.addAll(urlsExternas);
+            } else {
+                for (int i = 0; i < quantidade; i++) {
+                    Path arquivo = pasta.resolve(quantidade + "-" + i);
+                    Files.deleteIfExists(Path.of(arquivo + ".mv.db"));
+                    urls.add("jdbc:h2:file:" + arquivo.toAbsolutePath()
+                            + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CACHE_SIZE=65536");
+                }
+            }
+
+            Shards.configurar(urls);
+            System.out.println();
+            System.out.println(urls.isEmpty() ? "== Sem divisão" : "== " + urls.size() + " base(s)");
+            if (!urls.isEmpty()) {
+                try (Connection conn = DatabaseConnection.getConnection();
+                        Statement stmt = conn.createStatement()) {
+                    stmt.execute("DELETE FROM tarefa_shard");
+                    long inicio = System.nanoTime();
+                    int tarefas = MigracaoShards.migrar(conn);
+                    double segundos = (System.nanoTime() - inicio) / 1e9;
+                    System.out.printf("%-24s %d tarefas em %.1f s (%.0f tarefas/s)%n", "cópia inicial", tarefas,
+                            segundos, tarefas / segundos);
+                }
+            }
+
+            medir("todas as tarefas", repeticoes, tarefaDAO::findAll);
+            medir("tarefas do usuário", repeticoes, () -> tarefaDAO.findByResponsavel(responsavelId));
+            medir("tarefas do projeto", repeticoes, () -> tarefaDAO.findByProjeto(projetoId));
+            medir("tarefas por usuário", repeticoes, tarefaDAO::getTarefasPorUsuario);
+            medir("resumo dos projetos", repeticoes, projetoDAO::findProjetosResumo);
+            gravar(tarefaDAO, escritas, projetos, usuarios);
+        }
+
+        Shards.encerrar();
+        Auditoria.stop();
+        DatabaseConnection.closeConnection();
+    }
+
+    /**
+     * Executa a carga e imprime a mediana, o percentil 95 e as execuções por
+     * segundo
+     */
+    private static void medir(String nome, int repeticoes, Carga carga) throws SQLException {
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            carga.executar();
+        }
+
+        long[] tempos = new long[repeticoes];
+        long total = 0;
+        for (int i = 0; i < repeticoes; i++) {
+            long inicio = System.nanoTime();
+            carga.executar();
+            tempos[i] = System.nanoTime() - inicio;
+            total += tempos[i];
+        }
+        Arrays.sort(tempos);
+
+        System.out.printf("%-24s mediana %8.2f ms   p95 %8.2f ms   %8.1f /s%n", nome, tempos[repeticoes / 2] / 1e6,
+                tempos[Math.min(repeticoes - 1, repeticoes * 95 / 100)] / 1e6, repeticoes / (total / 1e9));
+    }
+
+    /**
+     * Grava tarefas novas uma a uma, como a tela de cadastro
+     */
+    private static void gravar(TarefaDAO tarefaDAO, int quantidade, List<Integer> projetos, List<Integer> usuarios)
+            throws SQLException {
+        long inicio = System.nanoTime();
+        for (int i = 0; i < quantidade; i++) {
+            Tarefa tarefa = new Tarefa();
+            tarefa.setTitulo("Tarefa do benchmark " + i);
+            tarefa.setDescricao("Gravação do benchmark de bases");
+            tarefa.setProjetoId(projetos.get(i % projetos.size()));
+            tarefa.setResponsavelId(usuarios.get(i % usuarios.size()));
+            tarefa.setStatus(Tarefa.Status.PENDENTE);
+            tarefa.setPrioridade(Tarefa.Prioridade.MEDIA);
+            tarefa.setDataPrevistaConclusao(LocalDate.now().plusDays(i % 30));
+            tarefaDAO.save(tarefa);
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        System.out.printf("%-24s %d em %.2f s (%.0f tarefas/s)%n", "gravação", quantidade, segundos,
+                quantidade / segundos);
+    }
+
+    private static List<Integer> idsAtivos(String tabela) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT id FROM " + tabela + " WHERE ativo = TRUE ORDER BY id")) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,44 @@
+package com.gestao.projetos.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verificação de senhas nos formatos atual e legados
+ */
+class CryptUtilsTest {
+
+    // SHA-256 de "senha123"
+    private static final String SHA256_SENHA = "55a5e9e78207b4df8699d60886fa070079463547b095d1a05bc719bb4e6cd251";
+
+    @Test
+    void pbkdf2ConfereSomenteComASenhaCorreta() {
+        String hash = CryptUtils.hashPassword("senha123", 1000);
+
+        assertTrue(CryptUtils.verifyPassword("senha123", hash));
+        assertFalse(CryptUtils.verifyPassword("senha124", hash));
+        assertFalse(CryptUtils.verifyPassword(hash, hash));
+    }
+
+    @Test
+    void sha256LegadoNaoAceitaOProprioDigestComoSenha() {
+        assertTrue(CryptUtils.verifyPassword("senha123", SHA256_SENHA));
+        assertTrue(CryptUtils.verifyPassword("senha123", SHA256_SENHA.toUpperCase()));
+        assertFalse(CryptUtils.verifyPassword(SHA256_SENHA, SHA256_SENHA));
+    }
+
+    @Test
+    void textoPuroLegadoConfereApenasComASenha() {
+        assertTrue(CryptUtils.verifyPassword("admin", "admin"));
+        assertFalse(CryptUtils.verifyPassword("Admin", "admin"));
+    }
+
+    @Test
+    void formatosLegadosPrecisamSerRefeitos() {
+        assertTrue(CryptUtils.needsRehash(SHA256_SENHA));
+        assertTrue(CryptUtils.needsRehash("admin"));
+        assertFalse(CryptUtils.needsRehash(CryptUtils.hashPassword("x", CryptUtils.getIterations())));
+    }
+}
@@ -0,0 +1,63 @@
+package com.gestao.projetos.util;
+
+import com.gestao.projetos.model.Tarefa;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Aplicação das linhas relidas pela janela de sobreposição
+ */
+class DeltaSyncTest {
+
+    private static final LocalDateTime MOMENTO = LocalDateTime.of(2024, 5, 10, 14, 30, 0);
+
+    private final ObservableList<Tarefa> lista = FXCollections.observableArrayList();
+    private final DeltaSync<Tarefa> sync = new DeltaSync<>(lista, Tarefa::getId, Tarefa::getDataAtualizacao,
+            Tarefa::getVersao, DeltaSync.porTexto(Tarefa::getTitulo), Tarefa::isAtivo);
+
+    @Test
+    void linhaRelidaSemAlteracaoNaoModificaALista() {
+        sync.carregar(List.of(tarefa(1, "Alfa", 3, MOMENTO), tarefa(2, "Beta", 1, MOMENTO)));
+        AtomicInteger eventos = new AtomicInteger();
+        lista.addListener((ListChangeListener<Tarefa>) mudanca -> eventos.incrementAndGet());
+        Tarefa exibida = lista.get(0);
+
+        int modificados = sync.aplicar(List.of(tarefa(1, "Alfa", 3, MOMENTO), tarefa(2, "Beta", 1, MOMENTO)));
+
+        assertEquals(0, modificados);
+        assertEquals(0, eventos.get());
+        assertSame(exibida, lista.get(0));
+    }
+
+    @Test
+    void novaVersaoNoMesmoSegundoEAplicada() {
+        sync.carregar(List.of(tarefa(1, "Alfa", 3, MOMENTO)));
+
+        int modificados = sync.aplicar(List.of(tarefa(1, "Alfa revisada", 4, MOMENTO)));
+
+        assertEquals(1, modificados);
+        assertEquals("Alfa revisada", lista.get(0).getTitulo());
+        assertEquals(4, lista.get(0).getVersao());
+    }
+
+    private static Tarefa tarefa(int id, String titulo, int versao, LocalDateTime atualizacao) {
+        Tarefa tarefa = new Tarefa();
+        tarefa.setId(id);
+        tarefa.setTitulo(titulo);
+        tarefa.setAtivo(true);
+        tarefa.setVersao(versao);
+        tarefa.setDataAtualizacao(atualizacao);
+        return tarefa;
+    }
+}
@@ -0,0 +1,89 @@
+package com.gestao.projetos.util;
+
+import com.gestao.projetos.model.Projeto;
+import com.gestao.projetos.model.Tarefa;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Cópia local cifrada com a senha do usuário
+ */
+class SnapshotLocalTest {
+
+    @TempDir
+    Path pasta;
+
+    @BeforeAll
+    static void configurar() {
+        System.setProperty("security.password.pbkdf2.iterations", "1000");
+    }
+
+    @AfterAll
+    static void restaurar() {
+        System.clearProperty("security.password.pbkdf2.iterations");
+    }
+
+    @Test
+    void releComASenhaDoUsuario() throws Exception {
+        Path arquivo = pasta.resolve("copia-local-7.bin");
+        gravar(arquivo);
+
+        SnapshotLocal copia = SnapshotLocal.abrir(arquivo, 7, "senha123");
+
+        assertNotNull(copia);
+        assertEquals("Projeto Confidencial", copia.getProjetos().get(0).getNome());
+        assertEquals(List.of(), copia.getProjetosResumo());
+        assertEquals("Tarefa Confidencial", copia.getTarefas().get(0).getTitulo());
+        assertEquals(Tarefa.Status.EM_EXECUCAO, copia.getTarefas().get(0).getStatus());
+    }
+
+    @Test
+    void naoAbreComOutraSenhaOuOutroUsuario() throws Exception {
+        Path arquivo = pasta.resolve("copia-local-7.bin");
+        gravar(arquivo);
+
+        assertNull(SnapshotLocal.abrir(arquivo, 7, "senha124"));
+        assertNull(SnapshotLocal.abrir(arquivo, 8, "senha123"));
+    }
+
+    @Test
+    void arquivoNaoContemOsTextosEmClaro() throws Exception {
+        Path arquivo = pasta.resolve("copia-local-7.bin");
+        gravar(arquivo);
+
+        String conteudo = new String(Files.readAllBytes(arquivo), StandardCharsets.ISO_8859_1);
+        assertFalse(conteudo.contains("Confidencial"));
+        if (arquivo.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            assertEquals(EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE),
+                    Files.getPosixFilePermissions(arquivo));
+        }
+    }
+
+    private static void gravar(Path arquivo) throws Exception {
+        Projeto projeto = new Projeto();
+        projeto.setId(1);
+        projeto.setNome("Projeto Confidencial");
+        projeto.setStatus(Projeto.Status.values()[0]);
+
+        Tarefa tarefa = new Tarefa("Tarefa Confidencial", "Descrição", 1, 7, null);
+        tarefa.setId(10);
+        tarefa.setStatus(Tarefa.Status.EM_EXECUCAO);
+
+        SnapshotLocal.gravar(arquivo, 7, "senha123", List.of(projeto), List.of(), List.of(tarefa));
+    }
+}
@@ -0,0 +1,145 @@
+package com.gestao.projetos.util;
+
+import com.gestao.projetos.dao.TarefaDAO;
+import com.gestao.projetos.model.Tarefa;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Agregações da cópia em colunas conferidas com uma contagem direta sobre as
+ * tarefas, e leitura incremental a partir do watermark
+ */
+class TarefaColumnStoreTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 5, 8, 0);
+
+    @Test
+    void pivotConfereComContagemDireta() throws Exception {
+        // Acima de analytics.parallel-threshold, para passar pela divisão em fork/join
+        List<Tarefa> tarefas = gerar(60_000, new Random(31));
+        TarefaColumnStore store = new TarefaColumnStore(new TarefaDAOMemoria(tarefas));
+        TarefaColumnStore.Colunas colunas = store.atualizar();
+
+        TarefaColumnStore.Pivot pivot = store.consulta()
+                .agruparPor(TarefaColumnStore.Dimensao.STATUS, TarefaColumnStore.Dimensao.PRIORIDADE,
+                        TarefaColumnStore.Dimensao.PROJETO)
+                .contar();
+
+        Map<String, Long> esperado = new HashMap<>();
+        for (Tarefa t : tarefas) {
+            if (t.isAtivo()) {
+                esperado.merge(t.getStatus() + "/" + t.getPrioridade() + "/" + t.getProjetoId(), 1L, Long::sum);
+            }
+        }
+
+        Map<String, Long> obtido = new HashMap<>();
+        pivot.forEach((codigos, contagem, soma) -> obtido.put(Tarefa.Status.values()[codigos[0]] + "/"
+                + Tarefa.Prioridade.values()[codigos[1]] + "/" + colunas.getProjetoId(codigos[2]), contagem));
+
+        assertEquals(esperado, obtido);
+        assertEquals(esperado.values().stream().mapToLong(Long::longValue).sum(), pivot.getTotal());
+    }
+
+    @Test
+    void medidaConfereComSomaDireta() throws Exception {
+        List<Tarefa> tarefas = gerar(5_000, new Random(7));
+        TarefaColumnStore store = new TarefaColumnStore(new TarefaDAOMemoria(tarefas));
+        store.atualizar();
+
+        TarefaColumnStore.Pivot pivot = store.consulta()
+                .agruparPor(TarefaColumnStore.Dimensao.PRIORIDADE)
+                .medir(TarefaColumnStore.Medida.DIAS_ATE_CONCLUSAO);
+
+        for (Tarefa.Prioridade prioridade : Tarefa.Prioridade.values()) {
+            long contagem = 0;
+            long soma = 0;
+            for (Tarefa t : tarefas) {
+                if (t.isAtivo() && t.getPrioridade() == prioridade && t.getDataConclusaoReal() != null) {
+                    contagem++;
+                    soma += t.getDataConclusaoReal().toEpochDay() - t.getDataCadastro().toLocalDate().toEpochDay();
+                }
+            }
+            assertEquals(contagem, pivot.getContagem(prioridade.ordinal()));
+            assertEquals(soma, pivot.getSoma(prioridade.ordinal()));
+        }
+    }
+
+    @Test
+    void commitAtrasadoDentroDaJanelaEntraNaProximaAtualizacao() throws Exception {
+        List<Tarefa> tarefas = new ArrayList<>(gerar(100, new Random(3)));
+        tarefas.removeIf(t -> !t.isAtivo());
+        TarefaColumnStore store = new TarefaColumnStore(new TarefaDAOMemoria(tarefas));
+        int antes = store.atualizar().getTamanho();
+
+        // Gravada antes do watermark atual, mas visível só agora
+        Tarefa atrasada = tarefa(10_000, 1, 1, Tarefa.Status.PENDENTE, Tarefa.Prioridade.ALTA,
+                BASE.plusMinutes(99).minusSeconds(5));
+        tarefas.add(atrasada);
+
+        assertEquals(antes + 1, store.atualizar().getTamanho());
+    }
+
+    private static List<Tarefa> gerar(int quantidade, Random random) {
+        List<Tarefa> tarefas = new ArrayList<>(quantidade);
+        Tarefa.Status[] status = Tarefa.Status.values();
+        Tarefa.Prioridade[] prioridades = Tarefa.Prioridade.values();
+        for (int i = 1; i <= quantidade; i++) {
+            Tarefa t = tarefa(i, 1 + random.nextInt(40), 1 + random.nextInt(25), status[random.nextInt(status.length)],
+                    prioridades[random.nextInt(prioridades.length)], BASE.plusMinutes(i % 100));
+            t.setAtivo(random.nextInt(10) != 0);
+            if (t.getStatus() == Tarefa.Status.CONCLUIDA) {
+                t.setDataConclusaoReal(t.getDataCadastro().toLocalDate().plusDays(random.nextInt(60)));
+            }
+            tarefas.add(t);
+        }
+        return tarefas;
+    }
+
+    private static Tarefa tarefa(int id, int projetoId, int responsavelId, Tarefa.Status status,
+            Tarefa.Prioridade prioridade, LocalDateTime atualizacao) {
+        Tarefa t = new Tarefa();
+        t.setId(id);
+        t.setProjetoId(projetoId);
+        t.setProjetoNome("Projeto " + projetoId);
+        t.setResponsavelId(responsavelId);
+        t.setResponsavelNome("Responsável " + responsavelId);
+        t.setStatus(status);
+        t.setPrioridade(prioridade);
+        t.setAtivo(true);
+        t.setDataCadastro(BASE.minusDays(id % 90));
+        t.setDataPrevistaConclusao(LocalDate.of(2026, 1 + id % 12, 1 + id % 28));
+        t.setDataAtualizacao(atualizacao);
+        return t;
+    }
+
+    /**
+     * Fonte das tarefas em memória, com o mesmo filtro por data_atualizacao do banco
+     */
+    private static class TarefaDAOMemoria extends TarefaDAO {
+        private final List<Tarefa> tarefas;
+
+        TarefaDAOMemoria(List<Tarefa> tarefas) {
+            this.tarefas = tarefas;
+        }
+
+        @Override
+        public void scanAnalitico(LocalDateTime desde, Consumer<Tarefa> destino) {
+            for (Tarefa t : tarefas) {
+                if (!t.getDataAtualizacao().isBefore(desde)) {
+                    destino.accept(t);
+                }
+            }
+        }
+    }
+}